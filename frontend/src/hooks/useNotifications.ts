@@ -36,6 +36,12 @@ export function useNotifications() {
       setUnreadCount((prev) => prev + 1)
     })
 
+    // Bulk operations deliver their notifications as one event carrying a list
+    eventSource.addEventListener('notifications', (event) => {
+      const batch = JSON.parse((event as MessageEvent).data) as unknown[]
+      setUnreadCount((prev) => prev + batch.length)
+    })
+
     eventSource.onerror = () => {
       eventSource.close()
     }
@@ -1,5 +1,6 @@
 package com.silentsupply.attachment;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,11 +13,12 @@ import java.util.List;
 public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
 
     /**
-     * Finds all attachments for a given entity.
+     * Finds all attachments for a given entity, with the uploader fetched.
      *
      * @param entityType the type of entity
      * @param entityId   the entity's ID
      * @return list of attachments
      */
+    @EntityGraph(attributePaths = "uploader")
     List<Attachment> findByEntityTypeAndEntityId(AttachmentEntityType entityType, Long entityId);
 }
@@ -0,0 +1,113 @@
+package com.silentsupply.common.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Bounded map that evicts its least recently used entry once it holds more than its capacity.
+ * Reads count as use. All methods are synchronized, so one instance can be shared between
+ * request threads; it is meant for small hot sets in front of a database table, not as a store
+ * of record.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class LruCache<K, V> {
+
+    private final int capacity;
+    private final LinkedHashMap<K, V> entries;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity the maximum number of entries, at least 1
+     */
+    public LruCache(int capacity) {
+        this(capacity, (key, value) -> { });
+    }
+
+    /**
+     * Creates an empty cache that reports evicted entries. The listener runs while the cache
+     * is locked and must not call back into it.
+     *
+     * @param capacity the maximum number of entries, at least 1
+     * @param onEvict  called with each entry evicted to make room
+     */
+    public LruCache(int capacity, BiConsumer<? super K, ? super V> onEvict) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.capacity) {
+                    onEvict.accept(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the value for a key and marks it as recently used.
+     *
+     * @param key the key
+     * @return the value, or null if absent
+     */
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a value, evicting the least recently used entry if the cache is full.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the value previously stored for the key, or null
+     */
+    public synchronized V put(K key, V value) {
+        return entries.put(key, value);
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return the removed value, or null if absent
+     */
+    public synchronized V remove(K key) {
+        return entries.remove(key);
+    }
+
+    /**
+     * Removes a key only while it maps to the given value.
+     *
+     * @param key   the key
+     * @param value the expected value
+     * @return true if the entry was removed
+     */
+    public synchronized boolean remove(K key, V value) {
+        return entries.remove(key, value);
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the entry count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the maximum number of entries.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,26 @@
+package com.silentsupply.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param <T> the item type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /** Items on this page, in listing order. */
+    private List<T> items;
+
+    /** Opaque cursor to request the next page with. */
+    private String nextCursor;
+}
@@ -0,0 +1,17 @@
+package com.silentsupply.common.exception;
+
+/**
+ * Thrown when an idempotency key is reused for a request that differs from the one it was
+ * first used for.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    /**
+     * Creates a new IdempotencyKeyMismatchException with the given message.
+     *
+     * @param message description of the reused key
+     */
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
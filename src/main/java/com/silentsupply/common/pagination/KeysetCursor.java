@@ -0,0 +1,90 @@
+package com.silentsupply.common.pagination;
+
+import com.silentsupply.common.exception.BusinessRuleException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Position in a result set ordered by a timestamp with the row ID as tie-breaker.
+ * Clients receive it as an opaque URL-safe string and pass it back to continue from that position.
+ *
+ * @param timestamp the ordering timestamp of the last row seen
+ * @param id        the ID of the last row seen
+ */
+public record KeysetCursor(LocalDateTime timestamp, long id) implements Comparable<KeysetCursor> {
+
+    /** Cursor positioned before every row. */
+    public static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    /** Cursor positioned after every row, for result sets read newest first. */
+    public static final KeysetCursor END = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), 0L);
+
+    private static final Comparator<KeysetCursor> ORDER =
+            Comparator.comparing(KeysetCursor::timestamp).thenComparingLong(KeysetCursor::id);
+
+    /**
+     * Creates a cursor, truncating the timestamp to the microsecond precision PostgreSQL stores.
+     *
+     * @param timestamp the ordering timestamp
+     * @param id        the row ID
+     */
+    public KeysetCursor {
+        timestamp = timestamp.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /**
+     * Encodes this cursor as an opaque URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        long micros = ChronoUnit.MICROS.between(START.timestamp, timestamp);
+        String raw = micros + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @param value the encoded cursor
+     * @return the decoded cursor
+     * @throws BusinessRuleException if the value is not a valid cursor
+     */
+    public static KeysetCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            long micros = Long.parseLong(raw.substring(0, separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new KeysetCursor(START.timestamp.plus(micros, ChronoUnit.MICROS), id);
+        } catch (RuntimeException e) {
+            throw new BusinessRuleException("Invalid cursor: " + value);
+        }
+    }
+
+    /**
+     * Decodes a cursor, or returns the fallback when none was supplied.
+     *
+     * @param value    the encoded cursor, possibly null or blank
+     * @param fallback the cursor to use when no value is supplied
+     * @return the decoded cursor or the fallback
+     */
+    public static KeysetCursor decodeOrDefault(String value, KeysetCursor fallback) {
+        return value == null || value.isBlank() ? fallback : decode(value);
+    }
+
+    /**
+     * Orders cursors by timestamp, then by ID.
+     *
+     * @param other the cursor to compare with
+     * @return negative, zero or positive as this cursor is before, at or after the other
+     */
+    @Override
+    public int compareTo(KeysetCursor other) {
+        return ORDER.compare(this, other);
+    }
+}
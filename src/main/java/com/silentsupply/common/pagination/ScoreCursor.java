@@ -0,0 +1,60 @@
+package com.silentsupply.common.pagination;
+
+import com.silentsupply.common.exception.BusinessRuleException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a result set ordered by a relevance score, highest first, with the row ID as
+ * tie-breaker. Clients receive it as an opaque URL-safe string and pass it back to continue
+ * from that position. The score is encoded bit for bit, so it compares equal to the value
+ * the database computed.
+ *
+ * @param score the score of the last row seen
+ * @param id    the ID of the last row seen
+ */
+public record ScoreCursor(double score, long id) {
+
+    /** Cursor positioned before every row. */
+    public static final ScoreCursor START = new ScoreCursor(Double.MAX_VALUE, Long.MAX_VALUE);
+
+    /**
+     * Encodes this cursor as an opaque URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = Long.toHexString(Double.doubleToLongBits(score)) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @param value the encoded cursor
+     * @return the decoded cursor
+     * @throws BusinessRuleException if the value is not a valid cursor
+     */
+    public static ScoreCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            double score = Double.longBitsToDouble(Long.parseUnsignedLong(raw.substring(0, separator), 16));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new ScoreCursor(score, id);
+        } catch (RuntimeException e) {
+            throw new BusinessRuleException("Invalid cursor: " + value);
+        }
+    }
+
+    /**
+     * Decodes a cursor, or returns {@link #START} when none was supplied.
+     *
+     * @param value the encoded cursor, possibly null or blank
+     * @return the decoded cursor or the start position
+     */
+    public static ScoreCursor decodeOrStart(String value) {
+        return value == null || value.isBlank() ? START : decode(value);
+    }
+}
@@ -0,0 +1,90 @@
+package com.silentsupply.common.pagination;
+
+import com.silentsupply.common.exception.BusinessRuleException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Position in a result set ordered by a database-assigned sequence with the row ID as tie-breaker.
+ * Clients receive it as an opaque URL-safe string and pass it back to continue from that position.
+ * The encoding carries a prefix, so a {@link KeysetCursor} is rejected instead of being misread.
+ *
+ * @param sequence the ordering sequence of the last row seen
+ * @param id       the ID of the last row seen
+ */
+public record SequenceCursor(long sequence, long id) implements Comparable<SequenceCursor> {
+
+    /** Cursor positioned before every row. */
+    public static final SequenceCursor START = new SequenceCursor(0L, 0L);
+
+    private static final String PREFIX = "s";
+
+    private static final Comparator<SequenceCursor> ORDER =
+            Comparator.comparingLong(SequenceCursor::sequence).thenComparingLong(SequenceCursor::id);
+
+    /**
+     * Encodes this cursor as an opaque URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = PREFIX + sequence + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @param value the encoded cursor
+     * @return the decoded cursor
+     * @throws BusinessRuleException if the value is not a valid cursor
+     */
+    public static SequenceCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Missing prefix");
+            }
+            int separator = raw.indexOf(':');
+            long sequence = Long.parseLong(raw.substring(PREFIX.length(), separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new SequenceCursor(sequence, id);
+        } catch (RuntimeException e) {
+            throw new BusinessRuleException("Invalid cursor: " + value);
+        }
+    }
+
+    /**
+     * Decodes a cursor, or returns the fallback when none was supplied.
+     *
+     * @param value    the encoded cursor, possibly null or blank
+     * @param fallback the cursor to use when no value is supplied
+     * @return the decoded cursor or the fallback
+     */
+    public static SequenceCursor decodeOrDefault(String value, SequenceCursor fallback) {
+        return value == null || value.isBlank() ? fallback : decode(value);
+    }
+
+    /**
+     * Returns the cursor positioned after every row with a sequence below the given one.
+     *
+     * @param sequence the first sequence not yet covered
+     * @return the cursor
+     */
+    public static SequenceCursor before(long sequence) {
+        return new SequenceCursor(sequence - 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * Orders cursors by sequence, then by ID.
+     *
+     * @param other the cursor to compare with
+     * @return negative, zero or positive as this cursor is before, at or after the other
+     */
+    @Override
+    public int compareTo(SequenceCursor other) {
+        return ORDER.compare(this, other);
+    }
+}
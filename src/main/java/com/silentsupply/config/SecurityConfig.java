@@ -51,7 +51,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/suppliers/*/negotiation-rules/**").hasRole("SUPPLIER")
                 .requestMatchers("/api/analytics/supplier").hasRole("SUPPLIER")
                 // Buyer-only endpoints
-                .requestMatchers(HttpMethod.POST, "/api/orders").hasRole("BUYER")
+                .requestMatchers(HttpMethod.POST, "/api/orders", "/api/orders/checkout").hasRole("BUYER")
                 .requestMatchers(HttpMethod.POST, "/api/rfqs").hasRole("BUYER")
                 .requestMatchers(HttpMethod.POST, "/api/rfqs/*/proposals").hasRole("BUYER")
                 .requestMatchers("/api/analytics/buyer").hasRole("BUYER")
@@ -0,0 +1,61 @@
+package com.silentsupply.config;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedNameParser;
+import org.hibernate.boot.model.relational.QualifiedSequenceName;
+import org.hibernate.engine.jdbc.env.spi.IdentifierHelper;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.ImplicitDatabaseObjectNamingStrategy;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * Maps each entity's implicit ID sequence to the sequence PostgreSQL created for its
+ * {@code BIGSERIAL} primary key ({@code <table>_<column>_seq}), so entities can use
+ * pooled sequence generation without a separate sequence per entity.
+ *
+ * <p>Registered through {@code hibernate.id.db_structure_naming_strategy}.</p>
+ */
+public class SerialSequenceNamingStrategy implements ImplicitDatabaseObjectNamingStrategy {
+
+    /**
+     * Resolves the sequence name from the entity's table and primary key column.
+     *
+     * @param catalogName     the default catalog
+     * @param schemaName      the default schema
+     * @param configValues    the generator configuration, including the target table and column
+     * @param serviceRegistry the service registry
+     * @return the qualified sequence name
+     */
+    @Override
+    public QualifiedName determineSequenceName(Identifier catalogName, Identifier schemaName,
+                                               Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        String table = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        String column = ConfigurationHelper.getString(PersistentIdentifierGenerator.PK, configValues, "id");
+        IdentifierHelper identifierHelper = serviceRegistry.requireService(JdbcEnvironment.class)
+                .getIdentifierHelper();
+        return new QualifiedSequenceName(catalogName, schemaName,
+                identifierHelper.toIdentifier(table + "_" + column + "_seq"));
+    }
+
+    /**
+     * Table-backed generators are not used; falls back to Hibernate's default table name.
+     *
+     * @param catalogName     the default catalog
+     * @param schemaName      the default schema
+     * @param configValues    the generator configuration
+     * @param serviceRegistry the service registry
+     * @return the qualified table name
+     */
+    @Override
+    public QualifiedName determineTableName(Identifier catalogName, Identifier schemaName,
+                                            Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        return new QualifiedNameParser.NameParts(catalogName, schemaName,
+                serviceRegistry.requireService(JdbcEnvironment.class).getIdentifierHelper()
+                        .toIdentifier("hibernate_sequences"));
+    }
+}
@@ -1,5 +1,8 @@
 package com.silentsupply.config;
 
+import com.silentsupply.common.exception.AccessDeniedException;
+import com.silentsupply.messaging.ConversationParticipantCache;
+import com.silentsupply.messaging.PresenceRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.Message;
@@ -12,10 +15,15 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.security.Principal;
+
 /**
  * STOMP channel interceptor that authenticates WebSocket connections via JWT.
  * Extracts the JWT from the Authorization native header on CONNECT frames
  * and sets a {@link CompanyPrincipal} for user-destination routing.
+ * SUBSCRIBE frames for a company's presence topic are only let through for that company and
+ * the companies it shares a conversation with; pattern subscriptions to topics and
+ * subscriptions to the topics the nodes share user destinations and sessions on are refused.
  */
 @Component
 @RequiredArgsConstructor
@@ -24,13 +32,16 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final CompanyUserDetailsService userDetailsService;
+    private final ConversationParticipantCache participantCache;
 
     /**
-     * Intercepts STOMP CONNECT frames to validate the JWT token and set the user principal.
+     * Intercepts STOMP CONNECT frames to validate the JWT token and set the user principal,
+     * and SUBSCRIBE frames to check access to presence topics.
      *
      * @param message the incoming message
      * @param channel the message channel
      * @return the message (possibly with updated headers)
+     * @throws AccessDeniedException if the subscription is not allowed
      */
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -59,8 +70,43 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
             } else {
                 log.warn("WebSocket CONNECT without Authorization header");
             }
+        } else if (accessor != null && StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            checkSubscription(accessor.getDestination(), accessor.getUser());
         }
 
         return message;
     }
+
+    /**
+     * Refuses pattern subscriptions to topics, the nodes' broadcast topics, which carry other
+     * users' messages and sessions, and presence topics of companies the subscriber does not
+     * share a conversation with.
+     */
+    private void checkSubscription(String destination, Principal user) {
+        if (destination == null || !destination.startsWith("/topic/")) {
+            return;
+        }
+        if (destination.chars().anyMatch(c -> c == '*' || c == '?' || c == '#' || c == '{')) {
+            throw new AccessDeniedException("Pattern subscriptions are not allowed: " + destination);
+        }
+        if (destination.startsWith(WebSocketConfig.USER_DESTINATION_BROADCAST)
+                || destination.startsWith(WebSocketConfig.USER_REGISTRY_BROADCAST)) {
+            log.warn("Refused subscription to node broadcast topic {} for {}",
+                    destination, user == null ? null : user.getName());
+            throw new AccessDeniedException("Subscriptions to " + destination + " are not allowed");
+        }
+        if (!destination.startsWith(PresenceRegistry.PRESENCE_TOPIC_PREFIX)) {
+            return;
+        }
+        try {
+            Long followedId = Long.valueOf(destination.substring(PresenceRegistry.PRESENCE_TOPIC_PREFIX.length()));
+            if (user != null && participantCache.isCounterpart(Long.valueOf(user.getName()), followedId)) {
+                return;
+            }
+        } catch (NumberFormatException e) {
+            // Falls through to the refusal below
+        }
+        log.debug("Refused presence subscription to {} for {}", destination, user == null ? null : user.getName());
+        throw new AccessDeniedException("You may only follow the presence of companies you share a conversation with");
+    }
 }
@@ -1,9 +1,11 @@
 package com.silentsupply.config;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -11,25 +13,96 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 /**
  * WebSocket configuration with STOMP messaging protocol.
  * Configures the message broker, application destinations, and STOMP endpoints.
+ *
+ * <p>By default destinations are served by the in-memory simple broker, which only reaches
+ * sessions connected to this node. With {@code app.websocket.relay.enabled} the node relays
+ * them to an external STOMP broker instead, so several nodes can run behind a load balancer:
+ * every node's subscriptions live on the broker, and user destinations a node cannot resolve
+ * locally are broadcast to the other nodes.</p>
  */
 @Configuration
 @EnableWebSocketMessageBroker
-@RequiredArgsConstructor
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    /** Topic on which nodes share user destinations they could not resolve locally. */
+    static final String USER_DESTINATION_BROADCAST = "/topic/unresolved-user-destination";
+
+    /** Topic on which nodes share their connected users. */
+    static final String USER_REGISTRY_BROADCAST = "/topic/simp-user-registry";
+
     private final WebSocketAuthChannelInterceptor authChannelInterceptor;
+    private final RelayProperties relay;
+    private final int channelCorePoolSize;
+    private final int channelMaxPoolSize;
+    private final int channelQueueCapacity;
+
+    /**
+     * Creates the WebSocket configuration.
+     *
+     * @param authChannelInterceptor authenticates STOMP CONNECT frames
+     * @param relayEnabled           whether to relay to an external broker instead of the simple broker
+     * @param relayHost              the external broker's host
+     * @param relayPort              the external broker's STOMP port
+     * @param clientLogin            login used for client sessions on the broker
+     * @param clientPasscode         passcode used for client sessions on the broker
+     * @param systemLogin            login used for the node's shared system session
+     * @param systemPasscode         passcode used for the node's shared system session
+     * @param virtualHost            the broker virtual host, or blank for none
+     * @param channelCorePoolSize    threads kept for each of the client inbound and outbound channels
+     * @param channelMaxPoolSize     thread limit for each of the client inbound and outbound channels
+     * @param channelQueueCapacity   messages queued per channel before threads beyond the core are added
+     */
+    public WebSocketConfig(WebSocketAuthChannelInterceptor authChannelInterceptor,
+                           @Value("${app.websocket.relay.enabled:false}") boolean relayEnabled,
+                           @Value("${app.websocket.relay.host:localhost}") String relayHost,
+                           @Value("${app.websocket.relay.port:61613}") int relayPort,
+                           @Value("${app.websocket.relay.client-login:guest}") String clientLogin,
+                           @Value("${app.websocket.relay.client-passcode:guest}") String clientPasscode,
+                           @Value("${app.websocket.relay.system-login:guest}") String systemLogin,
+                           @Value("${app.websocket.relay.system-passcode:guest}") String systemPasscode,
+                           @Value("${app.websocket.relay.virtual-host:}") String virtualHost,
+                           @Value("${app.websocket.channel.core-pool-size:8}") int channelCorePoolSize,
+                           @Value("${app.websocket.channel.max-pool-size:32}") int channelMaxPoolSize,
+                           @Value("${app.websocket.channel.queue-capacity:1000}") int channelQueueCapacity) {
+        this.authChannelInterceptor = authChannelInterceptor;
+        this.relay = new RelayProperties(relayEnabled, relayHost, relayPort, clientLogin, clientPasscode,
+                systemLogin, systemPasscode, virtualHost);
+        this.channelCorePoolSize = channelCorePoolSize;
+        this.channelMaxPoolSize = channelMaxPoolSize;
+        this.channelQueueCapacity = channelQueueCapacity;
+    }
 
     /**
-     * Configures the message broker with simple in-memory broker on /topic and /queue,
-     * application destination prefix /app, and user destination prefix /user.
+     * Configures the broker on /topic and /queue, either the simple in-memory broker or the
+     * external broker relay, with application destination prefix /app and user destination
+     * prefix /user. Messages to one session keep their publish order even though the outbound
+     * channel runs on several threads.
      *
      * @param registry the message broker registry
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic", "/queue");
+        if (relay.enabled()) {
+            StompBrokerRelayRegistration relayRegistration = registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relay.host())
+                    .setRelayPort(relay.port())
+                    .setClientLogin(relay.clientLogin())
+                    .setClientPasscode(relay.clientPasscode())
+                    .setSystemLogin(relay.systemLogin())
+                    .setSystemPasscode(relay.systemPasscode())
+                    .setUserDestinationBroadcast(USER_DESTINATION_BROADCAST)
+                    .setUserRegistryBroadcast(USER_REGISTRY_BROADCAST);
+            if (!relay.virtualHost().isBlank()) {
+                relayRegistration.setVirtualHost(relay.virtualHost());
+            }
+            log.info("Relaying STOMP destinations to broker at {}:{}", relay.host(), relay.port());
+        } else {
+            registry.enableSimpleBroker("/topic", "/queue");
+        }
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
+        registry.setPreservePublishOrder(true);
     }
 
     /**
@@ -46,12 +119,39 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     /**
      * Registers the JWT auth interceptor on the client inbound channel
-     * to authenticate STOMP CONNECT frames.
+     * to authenticate STOMP CONNECT frames, and sizes its thread pool.
      *
      * @param registration the channel registration
      */
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(authChannelInterceptor);
+        configureExecutor(registration);
+    }
+
+    /**
+     * Sizes the thread pool that writes messages to client sessions.
+     *
+     * @param registration the channel registration
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configureExecutor(registration);
+    }
+
+    private void configureExecutor(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(channelCorePoolSize)
+                .maxPoolSize(channelMaxPoolSize)
+                .queueCapacity(channelQueueCapacity);
+    }
+
+    /**
+     * Connection settings for the external broker relay.
+     */
+    private record RelayProperties(boolean enabled, String host, int port,
+                                   String clientLogin, String clientPasscode,
+                                   String systemLogin, String systemPasscode,
+                                   String virtualHost) {
     }
 }
@@ -1,22 +1,41 @@
 package com.silentsupply.currency;
 
 import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.product.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service for currency conversion using the latest available exchange rates.
+ * Also keeps product prices normalized to the {@link #BASE_CURRENCY} in step with rate changes.
+ * A currency without a direct rate into the base currency is normalized with the inverse of the
+ * latest rate from the base currency into it; with neither, its prices stay unnormalized.
  */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Slf4j
 public class CurrencyService {
 
+    /** Currency that normalized product prices are expressed in. */
+    public static final Currency BASE_CURRENCY = Currency.USD;
+
+    /** Decimal places kept for normalized prices, matching {@code products.normalized_price}. */
+    public static final int NORMALIZED_SCALE = 6;
+
+    /** Decimal places kept for rates derived by inverting a rate from the base currency. */
+    static final int INVERSE_RATE_SCALE = 12;
+
     private final ExchangeRateRepository exchangeRateRepository;
+    private final ProductRepository productRepository;
 
     /**
      * Converts an amount from one currency to another using the latest exchange rate.
@@ -40,4 +59,95 @@ public class CurrencyService {
 
         return amount.multiply(rate.getRate()).setScale(2, RoundingMode.HALF_UP);
     }
+
+    /**
+     * Converts an amount into the base currency at full normalized precision.
+     *
+     * @param amount the amount to convert
+     * @param from   the amount's currency
+     * @return the amount in the base currency, or empty if no rate to or from the base currency exists
+     */
+    public Optional<BigDecimal> normalize(BigDecimal amount, Currency from) {
+        if (from == BASE_CURRENCY) {
+            return Optional.of(amount.setScale(NORMALIZED_SCALE, RoundingMode.HALF_UP));
+        }
+        return rateToBase(from).map(rate -> applyRate(amount, rate));
+    }
+
+    /**
+     * Returns the latest rate from every currency into the base currency, including
+     * the base currency itself at 1. Currencies without a direct rate get the inverse of the
+     * latest rate from the base currency. Used to normalize many prices without a lookup per row.
+     *
+     * @return latest rates keyed by source currency
+     */
+    public Map<Currency, BigDecimal> latestRatesToBase() {
+        Map<Currency, BigDecimal> rates = new EnumMap<>(Currency.class);
+        exchangeRateRepository.findLatestRatesTo(BASE_CURRENCY.name())
+                .forEach(rate -> rates.put(rate.getFromCurrency(), rate.getRate()));
+        exchangeRateRepository.findLatestRatesFrom(BASE_CURRENCY.name())
+                .forEach(rate -> rates.putIfAbsent(rate.getToCurrency(), invert(rate.getRate())));
+        rates.put(BASE_CURRENCY, BigDecimal.ONE);
+        return rates;
+    }
+
+    /**
+     * Saves an exchange rate. When the rate converts into the base currency, every product priced
+     * in its source currency is re-normalized in a single bulk update using the pair's latest rate.
+     * A rate out of the base currency re-normalizes its target currency's products the same way
+     * when that currency has no direct rate into the base currency.
+     *
+     * @param rate the exchange rate to save
+     * @return the saved exchange rate
+     */
+    @Transactional
+    public ExchangeRate saveRate(ExchangeRate rate) {
+        ExchangeRate saved = exchangeRateRepository.saveAndFlush(rate);
+        if (saved.getFromCurrency() == saved.getToCurrency()) {
+            return saved;
+        }
+        if (saved.getToCurrency() == BASE_CURRENCY) {
+            renormalize(saved.getFromCurrency());
+        } else if (saved.getFromCurrency() == BASE_CURRENCY && exchangeRateRepository
+                .findTopByFromCurrencyAndToCurrencyOrderByEffectiveDateDesc(saved.getToCurrency(), BASE_CURRENCY)
+                .isEmpty()) {
+            renormalize(saved.getToCurrency());
+        }
+        return saved;
+    }
+
+    private void renormalize(Currency currency) {
+        rateToBase(currency).ifPresent(rate -> {
+            int updated = productRepository.updateNormalizedPrices(currency, rate);
+            log.info("Re-normalized {} {} product prices at rate {}", updated, currency, rate);
+        });
+    }
+
+    /**
+     * Returns the latest direct rate from a currency into the base currency, or else the inverse
+     * of the latest rate from the base currency into it.
+     */
+    private Optional<BigDecimal> rateToBase(Currency from) {
+        return exchangeRateRepository
+                .findTopByFromCurrencyAndToCurrencyOrderByEffectiveDateDesc(from, BASE_CURRENCY)
+                .map(ExchangeRate::getRate)
+                .or(() -> exchangeRateRepository
+                        .findTopByFromCurrencyAndToCurrencyOrderByEffectiveDateDesc(BASE_CURRENCY, from)
+                        .map(rate -> invert(rate.getRate())));
+    }
+
+    private static BigDecimal invert(BigDecimal rate) {
+        return BigDecimal.ONE.divide(rate, INVERSE_RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Applies an exchange rate at normalized precision.
+     *
+     * @param amount the amount to convert
+     * @param rate   the exchange rate
+     * @return the converted amount
+     */
+    public static BigDecimal applyRate(BigDecimal amount, BigDecimal rate) {
+        return amount.multiply(rate).setScale(NORMALIZED_SCALE, RoundingMode.HALF_UP);
+    }
 }
@@ -25,6 +25,7 @@ public class ExchangeRateController {
 
     private final ExchangeRateRepository exchangeRateRepository;
     private final ExchangeRateMapper exchangeRateMapper;
+    private final CurrencyService currencyService;
 
     /**
      * Lists exchange rates, optionally filtered by currency pair.
@@ -52,7 +53,8 @@ public class ExchangeRateController {
     }
 
     /**
-     * Creates or updates an exchange rate.
+     * Creates or updates an exchange rate. Products priced in the rate's source currency
+     * are re-normalized when the rate converts into the base currency.
      *
      * @param request the exchange rate details
      * @return the saved exchange rate
@@ -66,7 +68,7 @@ public class ExchangeRateController {
                 .effectiveDate(request.getEffectiveDate())
                 .build();
 
-        ExchangeRate saved = exchangeRateRepository.save(rate);
+        ExchangeRate saved = currencyService.saveRate(rate);
         return ResponseEntity.status(HttpStatus.OK).body(exchangeRateMapper.toResponse(saved));
     }
 }
@@ -1,6 +1,8 @@
 package com.silentsupply.currency;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,4 +30,26 @@ public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long
      * @return matching exchange rates
      */
     List<ExchangeRate> findByFromCurrencyAndToCurrency(Currency fromCurrency, Currency toCurrency);
+
+    /**
+     * Finds the most recent rate from every currency into the given target currency.
+     *
+     * @param toCurrency target currency name
+     * @return the latest rate per source currency
+     */
+    @Query(value = "SELECT DISTINCT ON (from_currency) * FROM exchange_rates "
+            + "WHERE to_currency = :toCurrency ORDER BY from_currency, effective_date DESC",
+            nativeQuery = true)
+    List<ExchangeRate> findLatestRatesTo(@Param("toCurrency") String toCurrency);
+
+    /**
+     * Finds the most recent rate from the given source currency into every other currency.
+     *
+     * @param fromCurrency source currency name
+     * @return the latest rate per target currency
+     */
+    @Query(value = "SELECT DISTINCT ON (to_currency) * FROM exchange_rates "
+            + "WHERE from_currency = :fromCurrency ORDER BY to_currency, effective_date DESC",
+            nativeQuery = true)
+    List<ExchangeRate> findLatestRatesFrom(@Param("fromCurrency") String fromCurrency);
 }
@@ -0,0 +1,298 @@
+package com.silentsupply.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silentsupply.common.cache.LruCache;
+import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.common.exception.IdempotencyKeyMismatchException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs write requests carrying an {@value #HEADER} header at most once per company, scope and
+ * key. The first request runs its action and stores the JSON response in the same transaction,
+ * so the response exists exactly when the work committed; retries get the stored response back
+ * without running the action again. A SHA-256 hash of the request is stored with the response,
+ * and reusing a key for a different request is rejected instead of replaying a response that
+ * does not belong to it.
+ *
+ * <p>Stored responses are looked up in a bounded in-memory LRU before the database. Retries
+ * that arrive while the first request is still running on this node wait for its outcome
+ * instead of running in parallel, and a retry racing on another node loses on the table's
+ * primary key and has its work rolled back. A failed action stores nothing, so the client may
+ * retry it. Responses expire after a TTL and are purged periodically.</p>
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    /** The request header carrying the client's idempotency key. */
+    public static final String HEADER = "Idempotency-Key";
+
+    /** Longest accepted key. */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final String FIND_SQL = """
+            SELECT request_hash, response_body, expires_at FROM idempotency_keys
+            WHERE company_id = ? AND scope = ? AND idempotency_key = ? AND expires_at > ?
+            """;
+
+    /**
+     * Records a response unless a live one exists for the key; an expired row that has not
+     * been purged yet is overwritten. Blocks while a concurrent transaction holds the key.
+     */
+    private static final String INSERT_SQL = """
+            INSERT INTO idempotency_keys (company_id, scope, idempotency_key, request_hash, response_body, expires_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (company_id, scope, idempotency_key) DO UPDATE
+            SET request_hash = EXCLUDED.request_hash, response_body = EXCLUDED.response_body,
+                expires_at = EXCLUDED.expires_at, created_at = NOW()
+            WHERE idempotency_keys.expires_at <= ?
+            """;
+
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE expires_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final LruCache<Key, StoredResponse> cache;
+    private final Map<Key, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the idempotency service.
+     *
+     * @param jdbcTemplate        JDBC access to the key table
+     * @param transactionTemplate transaction shared by an action and its stored response
+     * @param objectMapper        serializes responses
+     * @param ttlHours            how long a response is replayed
+     * @param cacheSize           responses kept in memory
+     */
+    public IdempotencyService(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${app.idempotency.cache-size:10000}") int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.cache = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * Runs an action once per key and returns its response, or the stored response of an
+     * earlier run with the same key. Without a key the action simply runs.
+     *
+     * @param companyId      the requesting company's ID
+     * @param scope          the operation, e.g. {@code "orders"}; keys are unique per scope
+     * @param idempotencyKey the client's key, or null
+     * @param request        the request the action serves, compared with the request stored with the key
+     * @param responseType   the response type
+     * @param action         the write to run, in the service's transaction
+     * @param <T>            the response type
+     * @return the response
+     * @throws BusinessRuleException           if the key is blank or longer than {@link #MAX_KEY_LENGTH}
+     * @throws IdempotencyKeyMismatchException if the key was already used for a different request
+     */
+    public <T> T execute(Long companyId, String scope, String idempotencyKey, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        return execute(companyId, scope, idempotencyKey, request, objectMapper.constructType(responseType), action);
+    }
+
+    /**
+     * Runs an action once per key and returns its response, for generic response types.
+     *
+     * @param companyId      the requesting company's ID
+     * @param scope          the operation; keys are unique per scope
+     * @param idempotencyKey the client's key, or null
+     * @param request        the request the action serves, compared with the request stored with the key
+     * @param responseType   the response type
+     * @param action         the write to run, in the service's transaction
+     * @param <T>            the response type
+     * @return the response
+     * @throws BusinessRuleException           if the key is blank or longer than {@link #MAX_KEY_LENGTH}
+     * @throws IdempotencyKeyMismatchException if the key was already used for a different request
+     */
+    public <T> T execute(Long companyId, String scope, String idempotencyKey, Object request,
+                         TypeReference<T> responseType, Supplier<T> action) {
+        return execute(companyId, scope, idempotencyKey, request, objectMapper.constructType(responseType), action);
+    }
+
+    /**
+     * Deletes expired responses from the table.
+     *
+     * @return the number of responses deleted
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public int purgeExpired() {
+        int purged = jdbcTemplate.update(PURGE_SQL, now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+        return purged;
+    }
+
+    private <T> T execute(Long companyId, String scope, String idempotencyKey, Object request,
+                          JavaType responseType, Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessRuleException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        Key key = new Key(companyId, scope, idempotencyKey);
+        String requestHash = hash(request);
+        StoredResponse cached = cache.get(key);
+        if (cached != null && !cached.isExpired()) {
+            return replay(key, cached, requestHash, responseType);
+        }
+
+        CompletableFuture<StoredResponse> own = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            return replay(key, await(running), requestHash, responseType);
+        }
+        try {
+            StoredResponse stored = runOnce(key, requestHash, action);
+            own.complete(stored);
+            return replay(key, stored, requestHash, responseType);
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Returns the stored response for a key, running the action and storing its response
+     * first if there is none.
+     */
+    private StoredResponse runOnce(Key key, String requestHash, Supplier<?> action) {
+        StoredResponse stored = find(key);
+        if (stored == null) {
+            stored = transactionTemplate.execute(status -> {
+                String body = toJson(action.get());
+                Timestamp now = now();
+                Timestamp expiresAt = new Timestamp(now.getTime() + ttl.toMillis());
+                int written = jdbcTemplate.update(INSERT_SQL,
+                        key.companyId(), key.scope(), key.idempotencyKey(), requestHash, body, expiresAt, now);
+                if (written == 0) {
+                    // Another node committed a response for this key first; undo this run
+                    status.setRollbackOnly();
+                    return null;
+                }
+                return new StoredResponse(requestHash, body, expiresAt.getTime());
+            });
+            if (stored == null) {
+                stored = find(key);
+            }
+            if (stored == null) {
+                throw new IllegalStateException("Response for " + HEADER + " " + key.idempotencyKey() + " vanished");
+            }
+        }
+        cache.put(key, stored);
+        return stored;
+    }
+
+    /**
+     * Returns a stored response if it was recorded for the same request. Rows stored before
+     * request hashes were recorded have none and are replayed as they are.
+     */
+    private <T> T replay(Key key, StoredResponse stored, String requestHash, JavaType responseType) {
+        if (stored.requestHash() != null && !stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(HEADER + " " + key.idempotencyKey()
+                    + " was already used for a different request");
+        }
+        return fromJson(stored.body(), responseType);
+    }
+
+    private StoredResponse find(Key key) {
+        List<StoredResponse> rows = jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> new StoredResponse(
+                        rs.getString("request_hash"), rs.getString("response_body"),
+                        rs.getTimestamp("expires_at").getTime()),
+                key.companyId(), key.scope(), key.idempotencyKey(), now());
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Waits for another request's run of the same key, rethrowing its failure unwrapped.
+     */
+    private static StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the hex SHA-256 of a request's JSON form.
+     */
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Request cannot be hashed: " + request, e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Response is not serializable: " + response.getClass(), e);
+        }
+    }
+
+    private <T> T fromJson(String body, JavaType responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response is not a " + responseType, e);
+        }
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+
+    /**
+     * Identifies one idempotent operation.
+     */
+    private record Key(Long companyId, String scope, String idempotencyKey) {
+    }
+
+    /**
+     * A stored response, the hash of the request it answered, and when it stops being replayed.
+     */
+    private record StoredResponse(String requestHash, String body, long expiresAtMillis) {
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.silentsupply.messaging;
+
+import java.time.LocalDateTime;
+
+/**
+ * One conversation of a company's inbox, as read by the single inbox query in
+ * {@link ConversationRepository}: the conversation, its last message, the company's unread
+ * count and every participant.
+ */
+public interface ConversationInboxRow {
+
+    /** @return the conversation ID */
+    Long getId();
+
+    /** @return the conversation type name */
+    String getType();
+
+    /** @return the referenced RFQ or order ID, null for direct conversations */
+    Long getReferenceId();
+
+    /** @return the subject */
+    String getSubject();
+
+    /** @return when the conversation was created */
+    LocalDateTime getCreatedAt();
+
+    /** @return when the conversation last had activity; the inbox is ordered by it */
+    LocalDateTime getUpdatedAt();
+
+    /** @return the start of the last message, one character longer than the preview so truncation shows */
+    String getLastMessageContent();
+
+    /** @return the sender company name of the last message */
+    String getLastMessageSenderName();
+
+    /** @return when the last message was sent */
+    LocalDateTime getLastMessageAt();
+
+    /** @return messages the company has not read yet */
+    Long getUnreadCount();
+
+    /** @return the participants as a JSON array of {@code {companyId, companyName}} objects */
+    String getParticipants();
+}
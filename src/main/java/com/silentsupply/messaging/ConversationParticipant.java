@@ -44,4 +44,9 @@ public class ConversationParticipant extends BaseEntity {
     /** Timestamp of when the participant last read the conversation. */
     @Column(name = "last_read_at")
     private LocalDateTime lastReadAt;
+
+    /** Messages from other participants since the participant last read the conversation. */
+    @Column(name = "unread_count", nullable = false)
+    @Builder.Default
+    private int unreadCount = 0;
 }
@@ -0,0 +1,118 @@
+package com.silentsupply.messaging;
+
+import com.silentsupply.common.cache.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the participant company IDs of recently active conversations in memory, so sending a
+ * message checks membership and fans out to participants without querying the participant
+ * table. Participants are only added when a conversation is created, which evicts its entry;
+ * conversations without participants are never cached, so a conversation created on another
+ * node is read from the database the first time it is seen here.
+ */
+@Component
+public class ConversationParticipantCache {
+
+    private final ConversationParticipantRepository participantRepository;
+    private final LruCache<Long, Set<Long>> participants;
+
+    /**
+     * Creates the cache.
+     *
+     * @param participantRepository the participant repository
+     * @param capacity              conversations kept in memory
+     */
+    public ConversationParticipantCache(ConversationParticipantRepository participantRepository,
+                                        @Value("${app.messaging.participant-cache-size:10000}") int capacity) {
+        this.participantRepository = participantRepository;
+        this.participants = new LruCache<>(capacity);
+    }
+
+    /**
+     * Returns the company IDs participating in a conversation, loading them on a miss.
+     *
+     * @param conversationId the conversation ID
+     * @return the participant company IDs, empty if the conversation has none or does not exist
+     */
+    public Set<Long> participantIds(Long conversationId) {
+        Set<Long> cached = participants.get(conversationId);
+        if (cached != null) {
+            return cached;
+        }
+        List<Long> loaded = participantRepository.findCompanyIdsByConversationId(conversationId);
+        Set<Long> ids = Set.copyOf(loaded);
+        if (!ids.isEmpty()) {
+            participants.put(conversationId, ids);
+        }
+        return ids;
+    }
+
+    /**
+     * Checks whether a company participates in a conversation.
+     *
+     * @param conversationId the conversation ID
+     * @param companyId      the company ID
+     * @return true if the company is a participant
+     */
+    public boolean isParticipant(Long conversationId, Long companyId) {
+        return participantIds(conversationId).contains(companyId);
+    }
+
+    /**
+     * Returns which of the given companies a company may see: itself, and the companies it
+     * shares a conversation with. Read from the database, since the cache is keyed by
+     * conversation.
+     *
+     * @param companyId    the company ID
+     * @param candidateIds the companies to check
+     * @return the visible candidates
+     */
+    public Set<Long> counterpartsAmong(Long companyId, Collection<Long> candidateIds) {
+        Set<Long> visible = new HashSet<>();
+        if (candidateIds.contains(companyId)) {
+            visible.add(companyId);
+        }
+        if (visible.size() < candidateIds.size()) {
+            visible.addAll(participantRepository.findCounterpartIdsAmong(companyId, candidateIds));
+        }
+        return visible;
+    }
+
+    /**
+     * Checks whether a company may see another, e.g. follow its presence.
+     *
+     * @param companyId the company ID
+     * @param otherId   the other company's ID
+     * @return true if the other company is the company itself or shares a conversation with it
+     */
+    public boolean isCounterpart(Long companyId, Long otherId) {
+        return counterpartsAmong(companyId, List.of(otherId)).contains(otherId);
+    }
+
+    /**
+     * Drops a conversation's entry after its participants changed. Inside a transaction the
+     * entry is dropped again once it completes, in case a concurrent reader cached the
+     * participants before the change committed.
+     *
+     * @param conversationId the conversation ID
+     */
+    public void evict(Long conversationId) {
+        participants.remove(conversationId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    participants.remove(conversationId);
+                }
+            });
+        }
+    }
+}
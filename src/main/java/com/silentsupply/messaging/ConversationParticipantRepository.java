@@ -2,8 +2,13 @@ package com.silentsupply.messaging;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +27,15 @@ public interface ConversationParticipantRepository extends JpaRepository<Convers
     @EntityGraph(attributePaths = "company")
     List<ConversationParticipant> findByConversationId(Long conversationId);
 
+    /**
+     * Finds the company IDs participating in a conversation, without loading the companies.
+     *
+     * @param conversationId the conversation ID
+     * @return the participant company IDs
+     */
+    @Query("SELECT p.company.id FROM ConversationParticipant p WHERE p.conversation.id = :conversationId")
+    List<Long> findCompanyIdsByConversationId(@Param("conversationId") Long conversationId);
+
     /**
      * Finds a participant record for a specific company in a specific conversation.
      *
@@ -39,4 +53,81 @@ public interface ConversationParticipantRepository extends JpaRepository<Convers
      * @return true if the company participates in the conversation
      */
     boolean existsByConversationIdAndCompanyId(Long conversationId, Long companyId);
+
+    /**
+     * Counts a new message as unread for every participant except its sender, in a single
+     * statement.
+     *
+     * @param conversationId the conversation ID
+     * @param senderId       the sending company's ID
+     * @return the number of participants updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ConversationParticipant p SET p.unreadCount = p.unreadCount + 1 " +
+           "WHERE p.conversation.id = :conversationId AND p.company.id <> :senderId")
+    int incrementUnread(@Param("conversationId") Long conversationId, @Param("senderId") Long senderId);
+
+    /**
+     * Counts new messages as unread in many conversations at once, for every participant
+     * except their sender.
+     *
+     * @param conversationIds the conversation IDs, each of which received {@code count} messages
+     * @param senderId        the sending company's ID
+     * @param count           the number of new messages per conversation
+     * @return the number of participants updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ConversationParticipant p SET p.unreadCount = p.unreadCount + :count " +
+           "WHERE p.conversation.id IN :conversationIds AND p.company.id <> :senderId")
+    int incrementUnreadAll(@Param("conversationIds") Collection<Long> conversationIds,
+                           @Param("senderId") Long senderId,
+                           @Param("count") int count);
+
+    /**
+     * Finds the participant company IDs of many conversations, without loading the companies.
+     *
+     * @param conversationIds the conversation IDs
+     * @return pairs of conversation ID and participant company ID
+     */
+    @Query("SELECT p.conversation.id, p.company.id FROM ConversationParticipant p " +
+           "WHERE p.conversation.id IN :conversationIds")
+    List<Object[]> findCompanyIdsByConversationIdIn(@Param("conversationIds") Collection<Long> conversationIds);
+
+    /**
+     * Finds which of the given companies share at least one conversation with a company. The
+     * company itself is included if it is among the candidates and has any conversation.
+     *
+     * @param companyId    the company ID
+     * @param candidateIds the companies to check
+     * @return the candidates sharing a conversation with the company
+     */
+    @Query("SELECT DISTINCT other.company.id FROM ConversationParticipant own, ConversationParticipant other " +
+           "WHERE own.company.id = :companyId AND other.conversation.id = own.conversation.id " +
+           "AND other.company.id IN :candidateIds")
+    List<Long> findCounterpartIdsAmong(@Param("companyId") Long companyId,
+                                       @Param("candidateIds") Collection<Long> candidateIds);
+
+    /**
+     * Marks a conversation as read for a participant, resetting its unread counter.
+     *
+     * @param conversationId the conversation ID
+     * @param companyId      the company ID
+     * @param readAt         the read timestamp to record
+     * @return 1 if the company participates in the conversation, otherwise 0
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ConversationParticipant p SET p.unreadCount = 0, p.lastReadAt = :readAt " +
+           "WHERE p.conversation.id = :conversationId AND p.company.id = :companyId")
+    int markRead(@Param("conversationId") Long conversationId,
+                 @Param("companyId") Long companyId,
+                 @Param("readAt") LocalDateTime readAt);
+
+    /**
+     * Sums a company's unread counters across all its conversations.
+     *
+     * @param companyId the company ID
+     * @return the total unread message count
+     */
+    @Query("SELECT COALESCE(SUM(p.unreadCount), 0) FROM ConversationParticipant p WHERE p.company.id = :companyId")
+    long sumUnreadByCompanyId(@Param("companyId") Long companyId);
 }
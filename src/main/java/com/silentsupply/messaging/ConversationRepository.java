@@ -1,10 +1,13 @@
 package com.silentsupply.messaging;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +17,39 @@ import java.util.Optional;
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
 
+    /**
+     * Reads a company's conversations with everything the inbox shows. The last message and
+     * participants come from lateral subqueries and the unread count from the participant's
+     * counter, so the inbox costs one statement however many conversations it holds. The last
+     * message is read from the hot partitions only: a conversation whose messages have all been
+     * archived is listed without one, by design, rather than decompressing archive rows here.
+     */
+    String INBOX_SELECT = """
+            SELECT c.id AS id, c.type AS type, c.reference_id AS referenceId, c.subject AS subject,
+                   c.created_at AS createdAt, c.updated_at AS updatedAt,
+                   lm.content AS lastMessageContent, sender.name AS lastMessageSenderName,
+                   lm.created_at AS lastMessageAt, CAST(me.unread_count AS BIGINT) AS unreadCount,
+                   members.participants AS participants
+            FROM conversation_participants me
+            JOIN conversations c ON c.id = me.conversation_id
+            LEFT JOIN LATERAL (
+                SELECT LEFT(m.content, 101) AS content, m.created_at, m.sender_company_id
+                FROM messages m
+                WHERE m.conversation_id = c.id
+                ORDER BY m.created_at DESC, m.id DESC
+                LIMIT 1
+            ) lm ON TRUE
+            LEFT JOIN companies sender ON sender.id = lm.sender_company_id
+            CROSS JOIN LATERAL (
+                SELECT CAST(json_agg(json_build_object('companyId', pc.id, 'companyName', pc.name)
+                                     ORDER BY p.id) AS TEXT) AS participants
+                FROM conversation_participants p
+                JOIN companies pc ON pc.id = p.company_id
+                WHERE p.conversation_id = c.id
+            ) members
+            WHERE me.company_id = :companyId
+            """;
+
     /**
      * Finds a scoped conversation by type and reference ID.
      *
@@ -24,16 +60,62 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     Optional<Conversation> findByTypeAndReferenceId(ConversationType type, Long referenceId);
 
     /**
-     * Finds all conversations that a company participates in, ordered by most recent activity.
+     * Finds the scoped conversations of one type for many reference IDs.
+     *
+     * @param type         the conversation type (RFQ or ORDER)
+     * @param referenceIds the reference entity IDs
+     * @return the conversations found
+     */
+    List<Conversation> findByTypeAndReferenceIdIn(ConversationType type, Collection<Long> referenceIds);
+
+    /**
+     * Marks conversations as active at the given time, in a single statement.
+     *
+     * @param conversationIds the conversation IDs
+     * @param updatedAt       the activity timestamp
+     * @return the number of conversations updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Conversation c SET c.updatedAt = :updatedAt WHERE c.id IN :conversationIds")
+    int touchAll(@Param("conversationIds") Collection<Long> conversationIds,
+                 @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Reads a company's whole inbox, most recent activity first.
      *
      * @param companyId the company's ID
-     * @return list of conversations
+     * @return the inbox rows ordered by (updatedAt, id) descending
      */
-    @Query("SELECT c FROM Conversation c " +
-           "JOIN c.participants p " +
-           "WHERE p.company.id = :companyId " +
-           "ORDER BY c.updatedAt DESC")
-    List<Conversation> findByParticipantCompanyId(@Param("companyId") Long companyId);
+    @Query(value = INBOX_SELECT + "ORDER BY c.updated_at DESC, c.id DESC", nativeQuery = true)
+    List<ConversationInboxRow> findInbox(@Param("companyId") Long companyId);
+
+    /**
+     * Reads a page of a company's inbox, most recent activity first, before a keyset position.
+     *
+     * @param companyId the company's ID
+     * @param before    last activity time of the last conversation seen
+     * @param beforeId  ID of the last conversation seen at that time
+     * @param limit     maximum number of conversations to return
+     * @return the inbox rows ordered by (updatedAt, id) descending
+     */
+    @Query(value = INBOX_SELECT
+            + "AND (c.updated_at < :before OR (c.updated_at = :before AND c.id < :beforeId)) "
+            + "ORDER BY c.updated_at DESC, c.id DESC LIMIT :limit", nativeQuery = true)
+    List<ConversationInboxRow> findInboxPage(@Param("companyId") Long companyId,
+                                             @Param("before") LocalDateTime before,
+                                             @Param("beforeId") long beforeId,
+                                             @Param("limit") int limit);
+
+    /**
+     * Reads one conversation of a company's inbox.
+     *
+     * @param companyId      the company's ID
+     * @param conversationId the conversation ID
+     * @return the inbox row, empty if the company does not participate in the conversation
+     */
+    @Query(value = INBOX_SELECT + "AND c.id = :conversationId", nativeQuery = true)
+    Optional<ConversationInboxRow> findInboxEntry(@Param("companyId") Long companyId,
+                                                  @Param("conversationId") Long conversationId);
 
     /**
      * Finds a DIRECT conversation between two specific companies.
@@ -53,4 +135,16 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
             @Param("type") ConversationType type,
             @Param("companyA") Long companyA,
             @Param("companyB") Long companyB);
+
+    /**
+     * Reads how many of a conversation's messages were moved to the message archive. The
+     * column is kept by the archive job and is not mapped on {@link Conversation}, so saving
+     * a conversation never writes a stale count back.
+     *
+     * @param conversationId the conversation ID
+     * @return the number of archived messages, or empty if the conversation does not exist
+     */
+    @Query(value = "SELECT archived_message_count FROM conversations WHERE id = :conversationId",
+           nativeQuery = true)
+    Optional<Long> findArchivedMessageCount(@Param("conversationId") Long conversationId);
 }
@@ -32,7 +32,7 @@ public class Message {
 
     /** Unique identifier for the message. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     /** The conversation this message belongs to. */
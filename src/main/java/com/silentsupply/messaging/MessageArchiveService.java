@@ -0,0 +1,293 @@
+package com.silentsupply.messaging;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silentsupply.company.Company;
+import com.silentsupply.company.CompanyRepository;
+import com.silentsupply.messaging.dto.MessageResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores messages of months that left the hot {@code messages} partitions, and reads them back
+ * for message history. Each conversation's messages of a month are kept as one gzipped JSON
+ * row in {@code message_archive}, so a cold month costs a fraction of its table and index size
+ * and a page of old history decompresses only the months it covers.
+ */
+@Service
+@RequiredArgsConstructor
+public class MessageArchiveService {
+
+    /** Archive rows inserted per JDBC batch. */
+    private static final int INSERT_BATCH_SIZE = 100;
+
+    /** Rows fetched per round trip while reading a partition. */
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO message_archive (conversation_id, month, message_count, payload) VALUES (?, ?, ?, ?)";
+
+    private static final String COUNT_SQL = """
+            UPDATE conversations c
+            SET archived_message_count = c.archived_message_count + a.message_count
+            FROM message_archive a
+            WHERE a.conversation_id = c.id AND a.month = ?
+            """;
+
+    private static final String MONTHS_SQL =
+            "SELECT month, message_count FROM message_archive WHERE conversation_id = ? ORDER BY month DESC";
+
+    private static final String PAYLOAD_SQL =
+            "SELECT payload FROM message_archive WHERE conversation_id = ? AND month = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final CompanyRepository companyRepository;
+
+    /**
+     * Copies every message of a month's partition into the archive, in the caller's transaction,
+     * and adds them to their conversations' archived message counts.
+     *
+     * @param partition the partition table, which must hold only messages of {@code month}
+     * @param month     the month the partition covers
+     * @return the number of messages archived
+     */
+    public long archivePartition(String partition, YearMonth month) {
+        PartitionArchiver archiver = new PartitionArchiver(Date.valueOf(month.atDay(1)));
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, conversation_id, sender_company_id, content, created_at FROM " + partition
+                    + " ORDER BY conversation_id, created_at, id");
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, archiver);
+        archiver.finish();
+        jdbcTemplate.update(COUNT_SQL, archiver.month);
+        return archiver.archived;
+    }
+
+    /**
+     * Reads a conversation's archived messages, newest first, skipping {@code offset} of them.
+     * Only the months holding the requested messages are decompressed.
+     *
+     * @param conversationId the conversation ID
+     * @param offset         the number of newest archived messages to skip
+     * @param limit          the maximum number of messages to return
+     * @return the messages, newest first
+     */
+    public List<MessageResponse> readNewestFirst(Long conversationId, long offset, int limit) {
+        List<ArchivedMessage> page = new ArrayList<>(limit);
+        long skip = offset;
+        for (Map<String, Object> month : jdbcTemplate.queryForList(MONTHS_SQL, conversationId)) {
+            if (page.size() == limit) {
+                break;
+            }
+            int count = ((Number) month.get("message_count")).intValue();
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+            List<ArchivedMessage> messages = new ArrayList<>(read(conversationId, month));
+            Collections.reverse(messages);
+            int from = (int) skip;
+            page.addAll(messages.subList(from, Math.min(messages.size(), from + limit - page.size())));
+            skip = 0;
+        }
+        return toResponses(conversationId, page);
+    }
+
+    /**
+     * Reads a conversation's archived messages older than a keyset position, newest first.
+     * Months starting after the position are skipped without being decompressed.
+     *
+     * @param conversationId the conversation ID
+     * @param before         timestamp of the position
+     * @param beforeId       message ID of the position
+     * @param limit          the maximum number of messages to return
+     * @return the messages, newest first
+     */
+    public List<MessageResponse> readBefore(Long conversationId, LocalDateTime before, long beforeId, int limit) {
+        List<ArchivedMessage> page = new ArrayList<>(limit);
+        for (Map<String, Object> month : jdbcTemplate.queryForList(MONTHS_SQL, conversationId)) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (startOf(month).isAfter(before)) {
+                continue;
+            }
+            List<ArchivedMessage> messages = new ArrayList<>(read(conversationId, month));
+            Collections.reverse(messages);
+            for (ArchivedMessage message : messages) {
+                if (page.size() == limit) {
+                    break;
+                }
+                if (message.isBefore(before, beforeId)) {
+                    page.add(message);
+                }
+            }
+        }
+        return toResponses(conversationId, page);
+    }
+
+    /**
+     * Reads a conversation's archived messages newer than a keyset position, oldest first.
+     * Months ending before the position are skipped without being decompressed.
+     *
+     * @param conversationId the conversation ID
+     * @param after          timestamp of the position
+     * @param afterId        message ID of the position
+     * @param limit          the maximum number of messages to return
+     * @return the messages, oldest first
+     */
+    public List<MessageResponse> readAfter(Long conversationId, LocalDateTime after, long afterId, int limit) {
+        List<Map<String, Object>> months = new ArrayList<>(jdbcTemplate.queryForList(MONTHS_SQL, conversationId));
+        Collections.reverse(months);
+        List<ArchivedMessage> page = new ArrayList<>(limit);
+        for (Map<String, Object> month : months) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (!startOf(month).plusMonths(1).isAfter(after)) {
+                continue;
+            }
+            for (ArchivedMessage message : read(conversationId, month)) {
+                if (page.size() == limit) {
+                    break;
+                }
+                if (message.isAfter(after, afterId)) {
+                    page.add(message);
+                }
+            }
+        }
+        return toResponses(conversationId, page);
+    }
+
+    private List<ArchivedMessage> read(Long conversationId, Map<String, Object> month) {
+        return decompress(jdbcTemplate.queryForObject(PAYLOAD_SQL, byte[].class, conversationId, month.get("month")));
+    }
+
+    private static LocalDateTime startOf(Map<String, Object> month) {
+        return ((Date) month.get("month")).toLocalDate().atStartOfDay();
+    }
+
+    private List<MessageResponse> toResponses(Long conversationId, List<ArchivedMessage> messages) {
+        Set<Long> senderIds = messages.stream().map(ArchivedMessage::senderCompanyId).collect(Collectors.toSet());
+        Map<Long, String> senderNames = companyRepository.findAllById(senderIds).stream()
+                .collect(Collectors.toMap(Company::getId, Company::getName));
+        return messages.stream()
+                .map(m -> MessageResponse.builder()
+                        .id(m.id())
+                        .conversationId(conversationId)
+                        .senderCompanyId(m.senderCompanyId())
+                        .senderCompanyName(senderNames.get(m.senderCompanyId()))
+                        .content(m.content())
+                        .createdAt(m.createdAt())
+                        .build())
+                .toList();
+    }
+
+    private byte[] compress(List<ArchivedMessage> messages) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compress archived messages", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<ArchivedMessage> decompress(byte[] payload) {
+        JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, ArchivedMessage.class);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(gzip, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived messages", e);
+        }
+    }
+
+    /**
+     * Groups the rows of a partition, read in conversation order, into one archive row per
+     * conversation and inserts them in batches.
+     */
+    private final class PartitionArchiver implements RowCallbackHandler {
+
+        private final Date month;
+        private final List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        private List<ArchivedMessage> messages = new ArrayList<>();
+        private Long conversationId;
+        private long archived;
+
+        private PartitionArchiver(Date month) {
+            this.month = month;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long rowConversationId = rs.getLong("conversation_id");
+            if (conversationId != null && conversationId != rowConversationId) {
+                addConversation();
+            }
+            conversationId = rowConversationId;
+            messages.add(new ArchivedMessage(rs.getLong("id"), rs.getLong("sender_company_id"),
+                    rs.getString("content"), rs.getObject("created_at", LocalDateTime.class)));
+        }
+
+        private void addConversation() {
+            batch.add(new Object[]{conversationId, month, messages.size(), compress(messages)});
+            archived += messages.size();
+            messages = new ArrayList<>();
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void finish() {
+            if (!messages.isEmpty()) {
+                addConversation();
+            }
+            flush();
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * A message as stored in the archive; the conversation and month are on the archive row.
+     */
+    record ArchivedMessage(Long id, Long senderCompanyId, String content, LocalDateTime createdAt) {
+
+        private boolean isBefore(LocalDateTime timestamp, long messageId) {
+            return createdAt.isBefore(timestamp) || (createdAt.isEqual(timestamp) && id < messageId);
+        }
+
+        private boolean isAfter(LocalDateTime timestamp, long messageId) {
+            return createdAt.isAfter(timestamp) || (createdAt.isEqual(timestamp) && id > messageId);
+        }
+    }
+}
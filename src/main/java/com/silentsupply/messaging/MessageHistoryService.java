@@ -0,0 +1,190 @@
+package com.silentsupply.messaging;
+
+import com.silentsupply.common.exception.AccessDeniedException;
+import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.common.exception.ResourceNotFoundException;
+import com.silentsupply.common.pagination.KeysetCursor;
+import com.silentsupply.messaging.dto.MessageHistoryPage;
+import com.silentsupply.messaging.dto.MessageResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pages through a conversation's messages on (createdAt, id) cursors instead of offsets, so
+ * scrolling back through a long thread costs the same on every page and pages do not shift
+ * when new messages arrive. A client loads the latest page, scrolls back with
+ * {@code before} cursors and catches up on new messages with {@code after} cursors.
+ *
+ * <p>Scrolling back continues into the conversation's {@link MessageArchiveService archived}
+ * months once the hot partitions run out. A cursor older than the hot horizon may sit inside
+ * the archive, so catching up from one reads the archive first; cursors of recent messages
+ * never touch it.</p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class MessageHistoryService {
+
+    /** Default page size. */
+    static final int DEFAULT_LIMIT = 50;
+
+    /** Largest page size a client may request. */
+    static final int MAX_LIMIT = 200;
+
+    private final ConversationRepository conversationRepository;
+    private final ConversationParticipantCache participantCache;
+    private final MessageRepository messageRepository;
+    private final MessageMapper messageMapper;
+    private final MessageArchiveService messageArchiveService;
+    private final long settleLagMs;
+    private final int hotMonths;
+
+    /**
+     * Creates the message history service.
+     *
+     * @param conversationRepository the conversation repository
+     * @param participantCache       the conversation participant cache
+     * @param messageRepository      the message repository
+     * @param messageMapper          the message mapper
+     * @param messageArchiveService  reads archived months
+     * @param settleLagMs            how long a message must be old before catch-up serves it,
+     *                               covering sends that commit after a later message was read
+     * @param hotMonths              months kept in partitions, counting the current one
+     */
+    public MessageHistoryService(ConversationRepository conversationRepository,
+                                 ConversationParticipantCache participantCache,
+                                 MessageRepository messageRepository,
+                                 MessageMapper messageMapper,
+                                 MessageArchiveService messageArchiveService,
+                                 @Value("${app.messaging.settle-lag-ms:2000}") long settleLagMs,
+                                 @Value("${app.message-partitions.hot-months:12}") int hotMonths) {
+        this.conversationRepository = conversationRepository;
+        this.participantCache = participantCache;
+        this.messageRepository = messageRepository;
+        this.messageMapper = messageMapper;
+        this.messageArchiveService = messageArchiveService;
+        this.settleLagMs = settleLagMs;
+        this.hotMonths = Math.max(1, hotMonths);
+    }
+
+    /**
+     * Returns a page of a conversation's messages, oldest first. Without cursors the page holds
+     * the latest settled messages; with {@code before} it holds the messages just older than the
+     * cursor, and with {@code after} the settled messages just newer than it. Messages younger
+     * than the settle lag are left to catch-up, so each message is served exactly once.
+     *
+     * @param conversationId the conversation ID
+     * @param companyId      the requesting company's ID
+     * @param before         cursor to read older messages from, or null
+     * @param after          cursor to read newer messages from, or null
+     * @param limit          the page size, capped at {@link #MAX_LIMIT}
+     * @return the messages and the cursors to continue from in either direction
+     * @throws BusinessRuleException if both cursors are given or a cursor is invalid
+     */
+    public MessageHistoryPage getHistory(Long conversationId, Long companyId,
+                                         String before, String after, Integer limit) {
+        if (before != null && after != null) {
+            throw new BusinessRuleException("Use either the before or the after cursor, not both");
+        }
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        checkParticipant(conversationId, companyId);
+
+        return after != null
+                ? pageAfter(conversationId, KeysetCursor.decode(after), pageSize)
+                : pageBefore(conversationId, before == null ? new KeysetCursor(settledBefore(), 0L)
+                        : KeysetCursor.decode(before), before == null, pageSize);
+    }
+
+    /**
+     * Reads the messages before a position, continuing into the archive when the hot
+     * partitions hold fewer than a page. The latest page starts at the settle horizon, so its
+     * after cursor, the newest message it holds, cannot skip a message that was still
+     * committing, and catching up from it returns no message twice.
+     */
+    private MessageHistoryPage pageBefore(Long conversationId, KeysetCursor position, boolean latest, int pageSize) {
+        List<MessageResponse> messages = new ArrayList<>(toResponses(messageRepository.findHistoryBefore(
+                conversationId, position.timestamp(), position.id(), Limit.of(pageSize))));
+        if (messages.size() < pageSize && hasArchive(conversationId)) {
+            messages.addAll(messageArchiveService.readBefore(
+                    conversationId, position.timestamp(), position.id(), pageSize - messages.size()));
+        }
+        Collections.reverse(messages);
+
+        String beforeCursor = messages.size() == pageSize ? cursorOf(messages.get(0)).encode() : null;
+        String afterCursor = null;
+        if (!messages.isEmpty()) {
+            afterCursor = cursorOf(messages.get(messages.size() - 1)).encode();
+        } else if (latest) {
+            afterCursor = KeysetCursor.START.encode();
+        }
+        return toPage(messages, beforeCursor, afterCursor);
+    }
+
+    /**
+     * Reads the settled messages after a position. Archived messages are older than every hot
+     * one, so a position older than the hot horizon is continued in the archive first.
+     */
+    private MessageHistoryPage pageAfter(Long conversationId, KeysetCursor position, int pageSize) {
+        List<MessageResponse> messages = List.of();
+        if (position.timestamp().isBefore(hotHorizon()) && hasArchive(conversationId)) {
+            messages = messageArchiveService.readAfter(conversationId, position.timestamp(), position.id(), pageSize);
+        }
+        if (messages.isEmpty()) {
+            messages = toResponses(messageRepository.findHistoryAfter(
+                    conversationId, position.timestamp(), position.id(), settledBefore(), Limit.of(pageSize)));
+        }
+
+        String beforeCursor = messages.isEmpty() ? null : cursorOf(messages.get(0)).encode();
+        KeysetCursor next = messages.isEmpty() ? position : cursorOf(messages.get(messages.size() - 1));
+        return toPage(messages, beforeCursor, next.encode());
+    }
+
+    private boolean hasArchive(Long conversationId) {
+        return conversationRepository.findArchivedMessageCount(conversationId).orElse(0L) > 0;
+    }
+
+    /**
+     * Returns the start of the oldest month kept in partitions; every archived message is older.
+     */
+    private LocalDateTime hotHorizon() {
+        return YearMonth.now().minusMonths(hotMonths - 1L).atDay(1).atStartOfDay();
+    }
+
+    private void checkParticipant(Long conversationId, Long companyId) {
+        if (!participantCache.isParticipant(conversationId, companyId)) {
+            if (!conversationRepository.existsById(conversationId)) {
+                throw new ResourceNotFoundException("Conversation", "id", conversationId);
+            }
+            throw new AccessDeniedException("You are not a participant in this conversation");
+        }
+    }
+
+    private List<MessageResponse> toResponses(List<Message> messages) {
+        return messages.stream()
+                .map(messageMapper::toResponse)
+                .toList();
+    }
+
+    private static MessageHistoryPage toPage(List<MessageResponse> items, String beforeCursor, String afterCursor) {
+        return MessageHistoryPage.builder()
+                .items(items)
+                .beforeCursor(beforeCursor)
+                .afterCursor(afterCursor)
+                .build();
+    }
+
+    private static KeysetCursor cursorOf(MessageResponse message) {
+        return new KeysetCursor(message.getCreatedAt(), message.getId());
+    }
+
+    private LocalDateTime settledBefore() {
+        return LocalDateTime.now().minusNanos(settleLagMs * 1_000_000);
+    }
+}
@@ -0,0 +1,157 @@
+package com.silentsupply.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of the {@code messages} table: creates partitions ahead of
+ * time so inserts always find one, and moves months older than the hot horizon into the
+ * compressed {@link MessageArchiveService archive}. Once a month is archived its partition is
+ * gone, so every query on {@code messages} only ever reads hot partitions.
+ *
+ * <p>A month is archived in one transaction: its rows are copied into the archive while the
+ * partition stays attached and readable, then the partition is detached and dropped. Readers
+ * see the month either in the partition or in the archive, never both or neither. Detaching
+ * needs a brief exclusive lock on {@code messages}; it gives up after {@value #LOCK_TIMEOUT}
+ * rather than queue behind a long query, and the month is retried on the next run.</p>
+ */
+@Service
+@Slf4j
+public class MessagePartitionService {
+
+    /** Longest wait for the lock that detaches a partition. */
+    static final String LOCK_TIMEOUT = "5s";
+
+    private static final String PARTITION_PREFIX = "messages_p";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'messages'::regclass
+            ORDER BY c.relname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MessageArchiveService archiveService;
+    private final int hotMonths;
+    private final int monthsAhead;
+
+    /**
+     * Creates the message partition service.
+     *
+     * @param jdbcTemplate        JDBC access for the partition DDL
+     * @param transactionTemplate transaction wrapping each archived month
+     * @param archiveService      stores archived months
+     * @param hotMonths           months kept in partitions, counting the current one
+     * @param monthsAhead         months after the current one to keep partitions ready for
+     */
+    public MessagePartitionService(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   MessageArchiveService archiveService,
+                                   @Value("${app.message-partitions.hot-months:12}") int hotMonths,
+                                   @Value("${app.message-partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.archiveService = archiveService;
+        this.hotMonths = Math.max(1, hotMonths);
+        this.monthsAhead = Math.max(1, monthsAhead);
+    }
+
+    /**
+     * Runs maintenance on startup, so partitions exist even if the scheduled run was missed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        maintain();
+    }
+
+    /**
+     * Creates the partitions for the coming months and archives months past the hot horizon.
+     * Failures are logged and retried on the next run.
+     */
+    @Scheduled(cron = "${app.message-partitions.maintenance-cron:0 30 3 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        try {
+            createPartitions(current, current.plusMonths(monthsAhead));
+            archiveBefore(current.minusMonths(hotMonths - 1L));
+        } catch (RuntimeException e) {
+            log.warn("Message partition maintenance failed, will retry on the next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the partitions for a range of months, skipping those that exist.
+     *
+     * @param from the first month
+     * @param to   the last month, inclusive
+     */
+    public void createPartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                    + " PARTITION OF messages FOR VALUES FROM ('" + month.atDay(1)
+                    + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    /**
+     * Archives and drops every partition of a month before the cutoff, oldest first.
+     *
+     * @param cutoff the oldest month to keep in partitions
+     * @return the months archived
+     */
+    public List<YearMonth> archiveBefore(YearMonth cutoff) {
+        List<YearMonth> archived = new ArrayList<>();
+        for (String partition : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)) {
+            YearMonth month = monthOf(partition);
+            if (month != null && month.isBefore(cutoff)) {
+                archive(partition, month);
+                archived.add(month);
+            }
+        }
+        return archived;
+    }
+
+    private void archive(String partition, YearMonth month) {
+        Long messages = transactionTemplate.execute(status -> {
+            long count = archiveService.archivePartition(partition, month);
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT + "'");
+            jdbcTemplate.execute("ALTER TABLE messages DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            return count;
+        });
+        log.info("Archived {} messages of {} and dropped partition {}", messages, month, partition);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    /**
+     * Returns the month a partition covers, or null if it is not named like a monthly partition.
+     */
+    private static YearMonth monthOf(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.silentsupply.messaging;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Spring Data repository for {@link Message} entities.
@@ -14,6 +18,12 @@ import java.time.LocalDateTime;
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
+    /** Marks the start of a match in a search snippet. */
+    char SNIPPET_START = '\u0002';
+
+    /** Marks the end of a match in a search snippet. */
+    char SNIPPET_STOP = '\u0003';
+
     /**
      * Finds messages in a conversation, paginated and ordered by creation time descending.
      *
@@ -25,28 +35,100 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     Page<Message> findByConversationIdOrderByCreatedAtDesc(Long conversationId, Pageable pageable);
 
     /**
-     * Counts all messages in a conversation (used when participant has never read it).
+     * Finds a conversation's messages before a keyset position, newest first, with the sender
+     * fetched. Walks {@code idx_messages_conversation} backwards from the position, so a page
+     * costs the same however far back it is.
      *
      * @param conversationId the conversation ID
-     * @return total message count
+     * @param before         timestamp of the oldest message seen
+     * @param beforeId       ID of the oldest message seen at that timestamp
+     * @param limit          maximum number of messages to return
+     * @return messages ordered by (createdAt, id) descending
      */
-    long countByConversationId(Long conversationId);
+    @Query("SELECT m FROM Message m JOIN FETCH m.senderCompany WHERE m.conversation.id = :conversationId AND " +
+           "(m.createdAt < :before OR (m.createdAt = :before AND m.id < :beforeId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findHistoryBefore(@Param("conversationId") Long conversationId,
+                                    @Param("before") LocalDateTime before,
+                                    @Param("beforeId") long beforeId,
+                                    Limit limit);
 
     /**
-     * Counts messages created after a given timestamp (unread messages).
+     * Finds a conversation's messages after a keyset position, oldest first, with the sender
+     * fetched. Only messages older than {@code settledBefore} are returned, so a message still
+     * committing with an earlier timestamp cannot be skipped by a client that moved past it.
      *
      * @param conversationId the conversation ID
-     * @param after          the timestamp to count messages after
-     * @return count of messages after the timestamp
+     * @param after          timestamp of the newest message seen
+     * @param afterId        ID of the newest message seen at that timestamp
+     * @param settledBefore  exclusive upper bound on the message timestamp
+     * @param limit          maximum number of messages to return
+     * @return messages ordered by (createdAt, id)
      */
-    long countByConversationIdAndCreatedAtAfter(Long conversationId, LocalDateTime after);
+    @Query("SELECT m FROM Message m JOIN FETCH m.senderCompany WHERE m.conversation.id = :conversationId AND " +
+           "(m.createdAt > :after OR (m.createdAt = :after AND m.id > :afterId)) AND " +
+           "m.createdAt < :settledBefore " +
+           "ORDER BY m.createdAt, m.id")
+    List<Message> findHistoryAfter(@Param("conversationId") Long conversationId,
+                                   @Param("after") LocalDateTime after,
+                                   @Param("afterId") long afterId,
+                                   @Param("settledBefore") LocalDateTime settledBefore,
+                                   Limit limit);
 
     /**
-     * Finds the most recent message in a conversation.
+     * Finds the latest messages of the conversation scoped to an RFQ or order, newest first,
+     * with the sender fetched. Resolves the conversation in the same query.
      *
-     * @param conversationId the conversation ID
-     * @return the latest message, or null if none
+     * @param type        the conversation type (RFQ or ORDER)
+     * @param referenceId the referenced entity's ID
+     * @param limit       the maximum number of messages
+     * @return the latest messages, empty if there is no such conversation
      */
-    @EntityGraph(attributePaths = "senderCompany")
-    Message findFirstByConversationIdOrderByCreatedAtDesc(Long conversationId);
+    @Query("SELECT m FROM Message m JOIN FETCH m.senderCompany JOIN m.conversation c "
+           + "WHERE c.type = :type AND c.referenceId = :referenceId "
+           + "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findLatestInScopedConversation(@Param("type") ConversationType type,
+                                                 @Param("referenceId") Long referenceId,
+                                                 Limit limit);
+
+    /**
+     * Searches the messages of conversations a company participates in, most relevant first,
+     * continuing after a (rank, id) position. Matches come from the GIN index on
+     * {@code search_vector}; snippets are only built for the returned page. Matches in a
+     * snippet are wrapped in the {@link #SNIPPET_START} and {@link #SNIPPET_STOP} control
+     * characters, which cannot be confused with markup in the content.
+     *
+     * @param companyId the searching company's ID
+     * @param query     the search text, in web search syntax
+     * @param rank      rank of the last hit seen
+     * @param beforeId  ID of the last hit seen at that rank
+     * @param limit     maximum number of hits to return
+     * @return hits ordered by (rank, id) descending
+     */
+    @Query(value = """
+            SELECT h.id AS id, h.conversation_id AS conversationId, c.subject AS conversationSubject,
+                   h.sender_company_id AS senderCompanyId, s.name AS senderCompanyName,
+                   ts_headline('english', h.content, h.query,
+                               'StartSel=' || CHR(2) || ', StopSel=' || CHR(3)
+                               || ', MaxWords=30, MinWords=10, MaxFragments=2') AS snippet,
+                   h.rank AS rank, h.created_at AS createdAt
+            FROM (
+                SELECT m.id, m.conversation_id, m.sender_company_id, m.content, m.created_at, q.query,
+                       CAST(ts_rank(m.search_vector, q.query) AS DOUBLE PRECISION) AS rank
+                FROM websearch_to_tsquery('english', :query) AS q(query)
+                JOIN messages m ON m.search_vector @@ q.query
+                JOIN conversation_participants me
+                    ON me.conversation_id = m.conversation_id AND me.company_id = :companyId
+            ) h
+            JOIN conversations c ON c.id = h.conversation_id
+            JOIN companies s ON s.id = h.sender_company_id
+            WHERE h.rank < :rank OR (h.rank = :rank AND h.id < :beforeId)
+            ORDER BY h.rank DESC, h.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<MessageSearchRow> search(@Param("companyId") Long companyId,
+                                  @Param("query") String query,
+                                  @Param("rank") double rank,
+                                  @Param("beforeId") long beforeId,
+                                  @Param("limit") int limit);
 }
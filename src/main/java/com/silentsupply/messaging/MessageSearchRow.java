@@ -0,0 +1,33 @@
+package com.silentsupply.messaging;
+
+import java.time.LocalDateTime;
+
+/**
+ * One message search hit, as read by {@link MessageRepository#search}.
+ */
+public interface MessageSearchRow {
+
+    /** @return the message ID */
+    Long getId();
+
+    /** @return the conversation the message belongs to */
+    Long getConversationId();
+
+    /** @return the conversation subject */
+    String getConversationSubject();
+
+    /** @return the sender's company ID */
+    Long getSenderCompanyId();
+
+    /** @return the sender's company name */
+    String getSenderCompanyName();
+
+    /** @return an excerpt of the content with matches between the snippet marker characters */
+    String getSnippet();
+
+    /** @return the relevance of the message to the query */
+    Double getRank();
+
+    /** @return when the message was sent */
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,96 @@
+package com.silentsupply.messaging;
+
+import com.silentsupply.common.dto.CursorPage;
+import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.common.pagination.ScoreCursor;
+import com.silentsupply.messaging.dto.MessageSearchResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+
+/**
+ * Full-text search across the messages of every conversation a company participates in.
+ * Hits are ranked by relevance, carry a highlighted snippet and are paged on (rank, id)
+ * cursors; each page is a single query. Snippets are HTML-escaped, so the only markup in
+ * them is the {@code <mark>} tags around matches.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MessageSearchService {
+
+    /** Default page size. */
+    static final int DEFAULT_LIMIT = 20;
+
+    /** Largest page size a client may request. */
+    static final int MAX_LIMIT = 100;
+
+    /** Longest accepted search text. */
+    static final int MAX_QUERY_LENGTH = 200;
+
+    private final MessageRepository messageRepository;
+
+    /**
+     * Searches a company's messages. The query uses web search syntax: words are matched
+     * on their stems, {@code "quoted phrases"} match in order, {@code or} separates
+     * alternatives and {@code -word} excludes.
+     *
+     * @param companyId the searching company's ID
+     * @param query     the search text
+     * @param cursor    the cursor from the previous page, or null for the first page
+     * @param limit     the page size, capped at {@link #MAX_LIMIT}
+     * @return the hits, most relevant first, and the cursor of the next page, which is null after the last page
+     * @throws BusinessRuleException if the query is blank or too long, or the cursor is invalid
+     */
+    public CursorPage<MessageSearchResult> search(Long companyId, String query, String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessRuleException("Search query must not be blank");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BusinessRuleException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        ScoreCursor after = ScoreCursor.decodeOrStart(cursor);
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        List<MessageSearchRow> rows = messageRepository.search(
+                companyId, query.strip(), after.score(), after.id(), pageSize);
+
+        String next = null;
+        if (rows.size() == pageSize) {
+            MessageSearchRow last = rows.get(rows.size() - 1);
+            next = new ScoreCursor(last.getRank(), last.getId()).encode();
+        }
+        return CursorPage.<MessageSearchResult>builder()
+                .items(rows.stream().map(MessageSearchService::toResult).toList())
+                .nextCursor(next)
+                .build();
+    }
+
+    private static MessageSearchResult toResult(MessageSearchRow row) {
+        return MessageSearchResult.builder()
+                .messageId(row.getId())
+                .conversationId(row.getConversationId())
+                .conversationSubject(row.getConversationSubject())
+                .senderCompanyId(row.getSenderCompanyId())
+                .senderCompanyName(row.getSenderCompanyName())
+                .snippet(highlight(row.getSnippet()))
+                .rank(row.getRank())
+                .createdAt(row.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * Escapes a snippet and turns its match markers into {@code <mark>} tags.
+     */
+    static String highlight(String snippet) {
+        if (snippet == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(snippet)
+                .replace(String.valueOf(MessageRepository.SNIPPET_START), "<mark>")
+                .replace(String.valueOf(MessageRepository.SNIPPET_STOP), "</mark>");
+    }
+}
@@ -1,8 +1,14 @@
 package com.silentsupply.messaging;
 
+import com.silentsupply.common.dto.CursorPage;
 import com.silentsupply.config.CompanyUserDetails;
+import com.silentsupply.messaging.dto.BatchSendMessageRequest;
+import com.silentsupply.messaging.dto.BatchSendMessageResponse;
 import com.silentsupply.messaging.dto.ConversationResponse;
+import com.silentsupply.messaging.dto.MessageHistoryPage;
 import com.silentsupply.messaging.dto.MessageResponse;
+import com.silentsupply.messaging.dto.MessageSearchResult;
+import com.silentsupply.messaging.dto.PresenceEvent;
 import com.silentsupply.messaging.dto.SendMessageRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,6 +26,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -36,6 +43,9 @@ import java.util.Map;
 public class MessagingController {
 
     private final MessagingService messagingService;
+    private final MessageHistoryService messageHistoryService;
+    private final MessageSearchService messageSearchService;
+    private final PresenceRegistry presenceRegistry;
 
     /**
      * Lists all conversations for the authenticated company.
@@ -50,6 +60,23 @@ public class MessagingController {
         return ResponseEntity.ok(messagingService.getConversations(userDetails.getId()));
     }
 
+    /**
+     * Lists a page of conversations for the authenticated company, most recent activity first.
+     *
+     * @param userDetails the authenticated user
+     * @param cursor      the cursor from the previous page; omit for the first page
+     * @param limit       page size (default 50, max 200)
+     * @return the conversation summaries and the cursor of the next page
+     */
+    @GetMapping("/conversations/page")
+    @Operation(summary = "List a page of conversations for the authenticated company")
+    public ResponseEntity<CursorPage<ConversationResponse>> pageConversations(
+            @AuthenticationPrincipal CompanyUserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(messagingService.pageConversations(userDetails.getId(), cursor, limit));
+    }
+
     /**
      * Gets paginated messages for a conversation.
      *
@@ -67,6 +94,64 @@ public class MessagingController {
         return ResponseEntity.ok(messagingService.getMessages(id, userDetails.getId(), pageable));
     }
 
+    /**
+     * Gets a page of a conversation's messages on keyset cursors. Without cursors returns the
+     * latest messages; {@code before} scrolls back and {@code after} catches up on new ones.
+     *
+     * @param userDetails the authenticated user
+     * @param id          the conversation ID
+     * @param before      cursor to read older messages from
+     * @param after       cursor to read newer messages from
+     * @param limit       page size (default 50, max 200)
+     * @return the messages, oldest first, and the cursors to continue from
+     */
+    @GetMapping("/conversations/{id}/messages")
+    @Operation(summary = "Get messages in a conversation (cursor-paginated)")
+    public ResponseEntity<MessageHistoryPage> getMessageHistory(
+            @AuthenticationPrincipal CompanyUserDetails userDetails,
+            @PathVariable Long id,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(messageHistoryService.getHistory(id, userDetails.getId(), before, after, limit));
+    }
+
+    /**
+     * Searches the messages of the authenticated company's conversations.
+     *
+     * @param userDetails the authenticated user
+     * @param q           the search text, in web search syntax
+     * @param cursor      the cursor from the previous page
+     * @param limit       page size (default 20, max 100)
+     * @return the hits, most relevant first, with highlighted snippets
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Full-text search across the authenticated company's messages")
+    public ResponseEntity<CursorPage<MessageSearchResult>> searchMessages(
+            @AuthenticationPrincipal CompanyUserDetails userDetails,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(messageSearchService.search(userDetails.getId(), q, cursor, limit));
+    }
+
+    /**
+     * Returns which of the given companies are connected, as a starting point for following
+     * their {@code /topic/presence.{companyId}} topics. Companies the caller shares no
+     * conversation with are left out. Presence itself is held in memory.
+     *
+     * @param userDetails the authenticated user
+     * @param companyIds  the company IDs
+     * @return the presence of each visible company
+     */
+    @GetMapping("/presence")
+    @Operation(summary = "Get the online status of companies")
+    public ResponseEntity<List<PresenceEvent>> getPresence(
+            @AuthenticationPrincipal CompanyUserDetails userDetails,
+            @RequestParam List<Long> companyIds) {
+        return ResponseEntity.ok(presenceRegistry.presence(userDetails.getId(), companyIds));
+    }
+
     /**
      * Sends a message, auto-creating the conversation if needed.
      *
@@ -83,6 +168,23 @@ public class MessagingController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Sends many messages at once, for integrations that post in bulk. Each message targets a
+     * conversation by ID or by RFQ/order reference; messages that cannot be sent are reported
+     * individually without failing the others.
+     *
+     * @param userDetails the authenticated user
+     * @param request     the messages to send
+     * @return the outcome of every message, in request order
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Send many messages at once")
+    public ResponseEntity<BatchSendMessageResponse> sendBatch(
+            @AuthenticationPrincipal CompanyUserDetails userDetails,
+            @Valid @RequestBody BatchSendMessageRequest request) {
+        return ResponseEntity.ok(messagingService.sendBatch(userDetails.getId(), request));
+    }
+
     /**
      * Gets a single conversation's details.
      *
@@ -1,27 +1,46 @@
 package com.silentsupply.messaging;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silentsupply.common.dto.CursorPage;
 import com.silentsupply.common.exception.AccessDeniedException;
 import com.silentsupply.common.exception.BusinessRuleException;
 import com.silentsupply.common.exception.ResourceNotFoundException;
+import com.silentsupply.common.pagination.KeysetCursor;
 import com.silentsupply.company.Company;
 import com.silentsupply.company.CompanyRepository;
+import com.silentsupply.messaging.dto.BatchSendMessageRequest;
+import com.silentsupply.messaging.dto.BatchSendMessageResponse;
 import com.silentsupply.messaging.dto.ConversationResponse;
 import com.silentsupply.messaging.dto.MessageResponse;
 import com.silentsupply.messaging.dto.SendMessageRequest;
 import com.silentsupply.order.CatalogOrder;
 import com.silentsupply.order.CatalogOrderRepository;
+import com.silentsupply.outbox.OutboxChannel;
+import com.silentsupply.outbox.OutboxService;
 import com.silentsupply.rfq.Rfq;
 import com.silentsupply.rfq.RfqRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing conversations and messages between companies.
@@ -33,13 +52,27 @@ import java.util.Map;
 @Slf4j
 public class MessagingService {
 
+    /** Default page size for the conversation inbox. */
+    static final int DEFAULT_INBOX_PAGE_SIZE = 50;
+
+    /** Largest inbox page size a client may request. */
+    static final int MAX_INBOX_PAGE_SIZE = 200;
+
+    private static final TypeReference<List<ConversationResponse.ParticipantInfo>> PARTICIPANTS_TYPE =
+            new TypeReference<>() { };
+
     private final ConversationRepository conversationRepository;
     private final ConversationParticipantRepository participantRepository;
+    private final ConversationParticipantCache participantCache;
     private final MessageRepository messageRepository;
+    private final MessageArchiveService messageArchiveService;
+    private final RecentMessageCache recentMessageCache;
     private final MessageMapper messageMapper;
     private final CompanyRepository companyRepository;
     private final RfqRepository rfqRepository;
     private final CatalogOrderRepository orderRepository;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Sends a message, auto-creating the conversation if it doesn't exist.
@@ -55,7 +88,7 @@ public class MessagingService {
 
         Conversation conversation = resolveConversation(sender, request);
 
-        if (!participantRepository.existsByConversationIdAndCompanyId(conversation.getId(), senderCompanyId)) {
+        if (!participantCache.isParticipant(conversation.getId(), senderCompanyId)) {
             throw new AccessDeniedException("You are not a participant in this conversation");
         }
 
@@ -66,30 +99,235 @@ public class MessagingService {
                 .build();
 
         Message saved = messageRepository.save(message);
+        participantRepository.incrementUnread(conversation.getId(), senderCompanyId);
 
         // Update conversation timestamp to keep ordering fresh
         conversation.setUpdatedAt(LocalDateTime.now());
         conversationRepository.save(conversation);
 
+        MessageResponse response = messageMapper.toResponse(saved);
+        recentMessageCache.appendAll(List.of(response));
+
         log.debug("Message sent by company {} in conversation {}", senderCompanyId, conversation.getId());
-        return messageMapper.toResponse(saved);
+        return response;
+    }
+
+    /**
+     * Sends a message and, in the same transaction, queues a STOMP copy of it for every
+     * conversation participant's {@code /user/queue/messages} subscription. The copies are
+     * delivered by the outbox dispatcher once the message has committed.
+     *
+     * @param senderCompanyId the sender's company ID
+     * @param request         the send message request
+     * @return the created message response
+     */
+    @Transactional
+    public MessageResponse sendAndBroadcast(Long senderCompanyId, SendMessageRequest request) {
+        MessageResponse response = sendMessage(senderCompanyId, request);
+
+        Map<Long, MessageResponse> copies = new LinkedHashMap<>();
+        participantCache.participantIds(response.getConversationId())
+                .forEach(companyId -> copies.put(companyId, response));
+        outboxService.enqueueAll(OutboxChannel.STOMP, "/queue/messages", copies);
+
+        log.debug("Message {} queued for {} participants of conversation {}",
+                response.getId(), copies.size(), response.getConversationId());
+        return response;
     }
 
     /**
-     * Lists all conversations for a company with summary info.
+     * Sends many messages at once with set-based work: conversations and participants are
+     * resolved in a few queries whatever the batch size, the messages are inserted in JDBC
+     * batches, and conversation timestamps and unread counters are bumped with one UPDATE
+     * each. Messages the sender may not post are rejected individually; the rest are sent.
+     * Every recipient gets one STOMP event on {@code /user/queue/message-batches} listing all
+     * of its new messages, instead of one event per message.
+     *
+     * @param senderCompanyId the sender's company ID
+     * @param request         the messages to send
+     * @return a result for every requested message, in request order
+     */
+    @Transactional
+    public BatchSendMessageResponse sendBatch(Long senderCompanyId, BatchSendMessageRequest request) {
+        Company sender = companyRepository.findById(senderCompanyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Company", "id", senderCompanyId));
+        List<BatchSendMessageRequest.BatchMessage> items = request.getMessages();
+
+        Map<Integer, String> errors = new HashMap<>();
+        Map<Integer, Conversation> targets = resolveBatchTargets(sender, items, errors);
+        Map<Long, Set<Long>> participants = new HashMap<>();
+        Set<Long> conversationIds = targets.values().stream().map(Conversation::getId).collect(Collectors.toSet());
+        if (!conversationIds.isEmpty()) {
+            for (Object[] row : participantRepository.findCompanyIdsByConversationIdIn(conversationIds)) {
+                participants.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+            }
+        }
+
+        Map<Integer, Message> messages = new LinkedHashMap<>();
+        Map<Long, Integer> sentPerConversation = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            Conversation conversation = targets.get(i);
+            if (conversation == null) {
+                continue;
+            }
+            if (!participants.getOrDefault(conversation.getId(), Set.of()).contains(senderCompanyId)) {
+                errors.put(i, "You are not a participant in this conversation");
+                continue;
+            }
+            messages.put(i, Message.builder()
+                    .conversation(conversation)
+                    .senderCompany(sender)
+                    .content(items.get(i).getContent())
+                    .build());
+            sentPerConversation.merge(conversation.getId(), 1, Integer::sum);
+        }
+
+        messageRepository.saveAll(messages.values());
+        if (!sentPerConversation.isEmpty()) {
+            conversationRepository.touchAll(sentPerConversation.keySet(), LocalDateTime.now());
+            sentPerConversation.entrySet().stream()
+                    .collect(Collectors.groupingBy(Map.Entry::getValue,
+                            Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                    .forEach((count, ids) -> participantRepository.incrementUnreadAll(ids, senderCompanyId, count));
+        }
+
+        List<BatchSendMessageResponse.MessageResult> results = new ArrayList<>(items.size());
+        List<MessageResponse> sent = new ArrayList<>(messages.size());
+        Map<Long, List<MessageResponse>> copies = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            Message message = messages.get(i);
+            if (message == null) {
+                results.add(BatchSendMessageResponse.MessageResult.builder()
+                        .index(i).sent(false).error(errors.get(i)).build());
+                continue;
+            }
+            MessageResponse response = messageMapper.toResponse(message);
+            sent.add(response);
+            results.add(BatchSendMessageResponse.MessageResult.builder()
+                    .index(i).sent(true).message(response).build());
+            participants.get(message.getConversation().getId())
+                    .forEach(companyId -> copies.computeIfAbsent(companyId, id -> new ArrayList<>()).add(response));
+        }
+        if (!copies.isEmpty()) {
+            outboxService.enqueueAll(OutboxChannel.STOMP, "/queue/message-batches", copies);
+        }
+        recentMessageCache.appendAll(sent);
+
+        log.debug("Batch of {} messages from company {}: {} sent to {} conversations",
+                items.size(), senderCompanyId, messages.size(), sentPerConversation.size());
+        return BatchSendMessageResponse.builder()
+                .sent(messages.size())
+                .failed(items.size() - messages.size())
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Resolves the conversation of every batch item, reading conversations by ID and scoped
+     * conversations by reference in one query each. Missing scoped conversations are created
+     * as for a single send. Items that cannot be resolved get an error instead.
+     */
+    private Map<Integer, Conversation> resolveBatchTargets(Company sender,
+                                                           List<BatchSendMessageRequest.BatchMessage> items,
+                                                           Map<Integer, String> errors) {
+        Set<Long> ids = new HashSet<>();
+        Map<ConversationType, Set<Long>> referenceIds = new EnumMap<>(ConversationType.class);
+        for (int i = 0; i < items.size(); i++) {
+            BatchSendMessageRequest.BatchMessage item = items.get(i);
+            boolean byId = item.getConversationId() != null;
+            boolean byReference = item.getReferenceType() != null && item.getReferenceId() != null;
+            if (byId == byReference || (byReference && item.getReferenceType() == ConversationType.DIRECT)) {
+                errors.put(i, "Must provide either conversationId or an RFQ/ORDER referenceType+referenceId");
+            } else if (byId) {
+                ids.add(item.getConversationId());
+            } else {
+                referenceIds.computeIfAbsent(item.getReferenceType(), type -> new HashSet<>()).add(item.getReferenceId());
+            }
+        }
+
+        Map<Long, Conversation> conversationsById = conversationRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Conversation::getId, Function.identity()));
+        Map<ConversationType, Map<Long, Conversation>> scoped = new EnumMap<>(ConversationType.class);
+        referenceIds.forEach((type, refIds) -> scoped.put(type,
+                conversationRepository.findByTypeAndReferenceIdIn(type, refIds).stream()
+                        .collect(Collectors.toMap(Conversation::getReferenceId, Function.identity()))));
+
+        Map<Integer, Conversation> targets = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (errors.containsKey(i)) {
+                continue;
+            }
+            BatchSendMessageRequest.BatchMessage item = items.get(i);
+            Conversation conversation;
+            if (item.getConversationId() != null) {
+                conversation = conversationsById.get(item.getConversationId());
+                if (conversation == null) {
+                    errors.put(i, "Conversation not found");
+                    continue;
+                }
+            } else {
+                Map<Long, Conversation> ofType = scoped.get(item.getReferenceType());
+                conversation = ofType.get(item.getReferenceId());
+                if (conversation == null) {
+                    try {
+                        conversation = createScopedConversation(sender, item.getReferenceType(), item.getReferenceId());
+                    } catch (ResourceNotFoundException | BusinessRuleException e) {
+                        errors.put(i, e.getMessage());
+                        continue;
+                    }
+                    ofType.put(item.getReferenceId(), conversation);
+                }
+            }
+            targets.put(i, Objects.requireNonNull(conversation));
+        }
+        return targets;
+    }
+
+    /**
+     * Lists all conversations for a company with summary info, most recent activity first.
+     * Loaded with a single query.
      *
      * @param companyId the company's ID
      * @return list of conversation summaries
      */
     public List<ConversationResponse> getConversations(Long companyId) {
-        List<Conversation> conversations = conversationRepository.findByParticipantCompanyId(companyId);
-        return conversations.stream()
-                .map(conv -> toConversationResponse(conv, companyId))
+        return conversationRepository.findInbox(companyId).stream()
+                .map(this::toConversationResponse)
                 .toList();
     }
 
     /**
-     * Gets paginated messages for a conversation after verifying participant access.
+     * Returns a page of a company's conversations with summary info, most recent activity
+     * first. Each page is loaded with a single query.
+     *
+     * @param companyId the company's ID
+     * @param cursor    the cursor from the previous page, or null for the first page
+     * @param limit     the page size, capped at {@link #MAX_INBOX_PAGE_SIZE}
+     * @return the conversations and the cursor of the next page, which is null after the last page
+     */
+    public CursorPage<ConversationResponse> pageConversations(Long companyId, String cursor, Integer limit) {
+        KeysetCursor before = KeysetCursor.decodeOrDefault(cursor, KeysetCursor.END);
+        int pageSize = limit == null ? DEFAULT_INBOX_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_INBOX_PAGE_SIZE));
+        List<ConversationInboxRow> rows = conversationRepository.findInboxPage(
+                companyId, before.timestamp(), before.id(), pageSize);
+
+        String next = null;
+        if (rows.size() == pageSize) {
+            ConversationInboxRow last = rows.get(rows.size() - 1);
+            next = new KeysetCursor(last.getUpdatedAt(), last.getId()).encode();
+        }
+        return CursorPage.<ConversationResponse>builder()
+                .items(rows.stream().map(this::toConversationResponse).toList())
+                .nextCursor(next)
+                .build();
+    }
+
+    /**
+     * Gets paginated messages for a conversation after verifying participant access. First
+     * pages of recently active conversations come from the {@link RecentMessageCache} without
+     * a query. Other pages within the hot partitions are read from them alone, with the
+     * archived message count kept on the conversation row; only pages reaching past them
+     * continue into the conversation's archived months.
      *
      * @param conversationId the conversation ID
      * @param companyId      the requesting company's ID
@@ -97,15 +335,37 @@ public class MessagingService {
      * @return page of message responses
      */
     public Page<MessageResponse> getMessages(Long conversationId, Long companyId, Pageable pageable) {
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Conversation", "id", conversationId));
-
-        if (!participantRepository.existsByConversationIdAndCompanyId(conversationId, companyId)) {
+        if (!participantCache.isParticipant(conversationId, companyId)) {
+            if (!conversationRepository.existsById(conversationId)) {
+                throw new ResourceNotFoundException("Conversation", "id", conversationId);
+            }
             throw new AccessDeniedException("You are not a participant in this conversation");
         }
 
-        return messageRepository.findByConversationIdOrderByCreatedAtDesc(conversationId, pageable)
+        Page<MessageResponse> cached = recentMessageCache.firstPage(conversationId, pageable);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = recentMessageCache.stamp(conversationId);
+        Page<MessageResponse> page = loadMessages(conversationId, pageable);
+        recentMessageCache.warm(conversationId, stamp, page);
+        return page;
+    }
+
+    private Page<MessageResponse> loadMessages(Long conversationId, Pageable pageable) {
+        Page<MessageResponse> hot = messageRepository.findByConversationIdOrderByCreatedAtDesc(conversationId, pageable)
                 .map(messageMapper::toResponse);
+        long archived = conversationRepository.findArchivedMessageCount(conversationId).orElse(0L);
+        if (archived == 0) {
+            return hot;
+        }
+        List<MessageResponse> items = new ArrayList<>(hot.getContent());
+        if (items.size() < pageable.getPageSize()) {
+            long archiveOffset = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+            items.addAll(messageArchiveService.readNewestFirst(
+                    conversationId, archiveOffset, pageable.getPageSize() - items.size()));
+        }
+        return new PageImpl<>(items, pageable, hot.getTotalElements() + archived);
     }
 
     /**
@@ -116,34 +376,20 @@ public class MessagingService {
      */
     @Transactional
     public void markAsRead(Long conversationId, Long companyId) {
-        ConversationParticipant participant = participantRepository
-                .findByConversationIdAndCompanyId(conversationId, companyId)
-                .orElseThrow(() -> new AccessDeniedException("You are not a participant in this conversation"));
-
-        participant.setLastReadAt(LocalDateTime.now());
-        participantRepository.save(participant);
+        if (participantRepository.markRead(conversationId, companyId, LocalDateTime.now()) == 0) {
+            throw new AccessDeniedException("You are not a participant in this conversation");
+        }
     }
 
     /**
-     * Gets the total unread message count across all conversations for a company.
+     * Gets the total unread message count across all conversations for a company, summed from
+     * the per-conversation counters in a single query.
      *
      * @param companyId the company's ID
      * @return map containing the total unread count
      */
     public Map<String, Long> getUnreadCount(Long companyId) {
-        List<Conversation> conversations = conversationRepository.findByParticipantCompanyId(companyId);
-        long total = 0;
-
-        for (Conversation conv : conversations) {
-            ConversationParticipant participant = participantRepository
-                    .findByConversationIdAndCompanyId(conv.getId(), companyId)
-                    .orElse(null);
-            if (participant != null) {
-                total += countUnread(conv.getId(), participant.getLastReadAt());
-            }
-        }
-
-        return Map.of("unreadCount", total);
+        return Map.of("unreadCount", participantRepository.sumUnreadByCompanyId(companyId));
     }
 
     /**
@@ -252,14 +498,7 @@ public class MessagingService {
      * @return the conversation response
      */
     public ConversationResponse getConversationDetails(Long conversationId, Long companyId) {
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Conversation", "id", conversationId));
-
-        if (!participantRepository.existsByConversationIdAndCompanyId(conversationId, companyId)) {
-            throw new AccessDeniedException("You are not a participant in this conversation");
-        }
-
-        return toConversationResponse(conversation, companyId);
+        return loadSummary(conversationId, companyId);
     }
 
     /**
@@ -283,7 +522,7 @@ public class MessagingService {
         conversationRepository.save(conversation);
         log.debug("Subject updated for conversation {} by company {}", conversationId, companyId);
 
-        return toConversationResponse(conversation, companyId);
+        return loadSummary(conversationId, companyId);
     }
 
     /**
@@ -295,52 +534,54 @@ public class MessagingService {
                 .company(company)
                 .build();
         participantRepository.save(participant);
+        participantCache.evict(conversation.getId());
     }
 
     /**
-     * Converts a Conversation entity to a response DTO with summary fields.
+     * Loads one conversation's summary for a participant.
+     *
+     * @throws ResourceNotFoundException if the conversation does not exist
+     * @throws AccessDeniedException     if the company does not participate in it
      */
-    private ConversationResponse toConversationResponse(Conversation conversation, Long requestingCompanyId) {
-        Message lastMessage = messageRepository.findFirstByConversationIdOrderByCreatedAtDesc(conversation.getId());
-
-        ConversationParticipant participant = participantRepository
-                .findByConversationIdAndCompanyId(conversation.getId(), requestingCompanyId)
-                .orElse(null);
-
-        long unread = participant != null
-                ? countUnread(conversation.getId(), participant.getLastReadAt())
-                : 0;
-
-        List<ConversationParticipant> participants = participantRepository.findByConversationId(conversation.getId());
-        List<ConversationResponse.ParticipantInfo> participantInfos = participants.stream()
-                .map(p -> ConversationResponse.ParticipantInfo.builder()
-                        .companyId(p.getCompany().getId())
-                        .companyName(p.getCompany().getName())
-                        .build())
-                .toList();
+    private ConversationResponse loadSummary(Long conversationId, Long companyId) {
+        return conversationRepository.findInboxEntry(companyId, conversationId)
+                .map(this::toConversationResponse)
+                .orElseThrow(() -> conversationRepository.existsById(conversationId)
+                        ? new AccessDeniedException("You are not a participant in this conversation")
+                        : new ResourceNotFoundException("Conversation", "id", conversationId));
+    }
 
+    /**
+     * Converts an inbox row to a response DTO with summary fields.
+     */
+    private ConversationResponse toConversationResponse(ConversationInboxRow row) {
         return ConversationResponse.builder()
-                .id(conversation.getId())
-                .type(conversation.getType())
-                .referenceId(conversation.getReferenceId())
-                .subject(conversation.getSubject())
-                .participants(participantInfos)
-                .lastMessagePreview(lastMessage != null ? truncate(lastMessage.getContent(), 100) : null)
-                .lastMessageSenderName(lastMessage != null ? lastMessage.getSenderCompany().getName() : null)
-                .lastMessageAt(lastMessage != null ? lastMessage.getCreatedAt() : null)
-                .unreadCount(unread)
-                .createdAt(conversation.getCreatedAt())
+                .id(row.getId())
+                .type(ConversationType.valueOf(row.getType()))
+                .referenceId(row.getReferenceId())
+                .subject(row.getSubject())
+                .participants(parseParticipants(row.getParticipants()))
+                .lastMessagePreview(truncate(row.getLastMessageContent(), 100))
+                .lastMessageSenderName(row.getLastMessageSenderName())
+                .lastMessageAt(row.getLastMessageAt())
+                .unreadCount(row.getUnreadCount() == null ? 0 : row.getUnreadCount())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
                 .build();
     }
 
     /**
-     * Counts unread messages for a participant. If lastReadAt is null, all messages are unread.
+     * Parses the participants JSON array built by the inbox query.
      */
-    private long countUnread(Long conversationId, LocalDateTime lastReadAt) {
-        if (lastReadAt == null) {
-            return messageRepository.countByConversationId(conversationId);
+    private List<ConversationResponse.ParticipantInfo> parseParticipants(String json) {
+        if (json == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, PARTICIPANTS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed conversation participants: " + json, e);
         }
-        return messageRepository.countByConversationIdAndCreatedAtAfter(conversationId, lastReadAt);
     }
 
     /**
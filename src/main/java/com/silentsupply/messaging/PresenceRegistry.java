@@ -0,0 +1,362 @@
+package com.silentsupply.messaging;
+
+import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.messaging.dto.PresenceEvent;
+import com.silentsupply.messaging.dto.TypingEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Tracks which companies have live STOMP sessions and who is typing in which conversation,
+ * entirely in memory, and tells clients when either changes. Nothing is written to the
+ * database; after a restart presence is rebuilt as clients reconnect.
+ *
+ * <p>Each session costs one map entry from session ID to company. Each connected company has
+ * one small record with its session count, plus its typing indicators while it types. A single
+ * scheduled sweep expires typing indicators whose pings stopped, announces a company offline
+ * once its last session has been gone for the grace period, so a page reload does not flicker,
+ * and publishes changes held back by rate limiting: a company's presence, and each of its typing
+ * indicators, is broadcast at most once per {@code app.presence.min-broadcast-interval-ms}.</p>
+ *
+ * <p>Presence goes to {@code /topic/presence.{companyId}}, which clients subscribe to for the
+ * participants of the conversations they show; a company may only follow, and look up, itself
+ * and the companies it shares a conversation with. Typing indicators go to the other
+ * participants' {@code /user/queue/typing}.</p>
+ *
+ * <p>Only this node's sessions are seen, so with several nodes a company counts as online on the
+ * nodes it is connected to. Behind an external broker ({@code app.websocket.relay.enabled}) a
+ * node's topic broadcast reaches every node's clients, and a node whose last session for a
+ * company closed would announce it offline while another node still serves it, so presence is
+ * not broadcast in relay mode; lookups still report this node's sessions.</p>
+ */
+@Component
+@Slf4j
+public class PresenceRegistry {
+
+    /** Prefix of the per-company presence topics. */
+    public static final String PRESENCE_TOPIC_PREFIX = "/topic/presence.";
+
+    /** User destination for typing indicators. */
+    static final String TYPING_DESTINATION = "/queue/typing";
+
+    /** Most companies one presence lookup may name. */
+    static final int MAX_LOOKUP = 200;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ConversationParticipantCache participantCache;
+    private final long typingTtlMs;
+    private final long offlineGraceMs;
+    private final long minBroadcastIntervalMs;
+    private final boolean broadcastPresence;
+    private final Map<String, Long> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, CompanyPresence> companies = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the presence registry.
+     *
+     * @param messagingTemplate      STOMP messaging template
+     * @param participantCache       the conversation participant cache
+     * @param typingTtlMs            how long a typing indicator lasts after the last ping
+     * @param offlineGraceMs         how long a company without sessions still counts as online
+     * @param minBroadcastIntervalMs shortest time between two broadcasts of the same state
+     * @param relayEnabled           whether STOMP destinations are relayed to an external broker,
+     *                               which turns presence broadcasts off
+     */
+    public PresenceRegistry(SimpMessagingTemplate messagingTemplate,
+                            ConversationParticipantCache participantCache,
+                            @Value("${app.presence.typing-ttl-ms:5000}") long typingTtlMs,
+                            @Value("${app.presence.offline-grace-ms:5000}") long offlineGraceMs,
+                            @Value("${app.presence.min-broadcast-interval-ms:1000}") long minBroadcastIntervalMs,
+                            @Value("${app.websocket.relay.enabled:false}") boolean relayEnabled) {
+        this.messagingTemplate = messagingTemplate;
+        this.participantCache = participantCache;
+        this.typingTtlMs = typingTtlMs;
+        this.offlineGraceMs = offlineGraceMs;
+        this.minBroadcastIntervalMs = minBroadcastIntervalMs;
+        this.broadcastPresence = !relayEnabled;
+        if (relayEnabled) {
+            log.info("Presence broadcasts are off: sessions on other nodes behind the broker relay are not seen");
+        }
+    }
+
+    /**
+     * Registers an authenticated STOMP session.
+     *
+     * @param event the session connected event
+     */
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (user != null && sessionId != null) {
+            connected(sessionId, Long.valueOf(user.getName()), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Unregisters a closed STOMP session. Repeated events for the same session are ignored.
+     *
+     * @param event the session disconnect event
+     */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        disconnected(event.getSessionId(), System.currentTimeMillis());
+    }
+
+    /**
+     * Records a typing ping from a company. Pings for conversations the company does not
+     * participate in are ignored.
+     *
+     * @param companyId      the typing company's ID
+     * @param conversationId the conversation being typed in
+     * @param typing         false to clear the indicator right away
+     */
+    public void typing(Long companyId, Long conversationId, boolean typing) {
+        typing(companyId, conversationId, typing, System.currentTimeMillis());
+    }
+
+    /**
+     * Checks whether a company has a live session on this node.
+     *
+     * @param companyId the company ID
+     * @return true if the company is connected
+     */
+    public boolean isOnline(Long companyId) {
+        CompanyPresence presence = companies.get(companyId);
+        if (presence == null) {
+            return false;
+        }
+        synchronized (presence) {
+            return presence.sessions > 0;
+        }
+    }
+
+    /**
+     * Returns the current presence of several companies, for clients to start from before
+     * following the presence topics. Companies the viewer does not share a conversation with
+     * are left out.
+     *
+     * @param viewerId   the requesting company's ID
+     * @param companyIds the company IDs, at most {@value #MAX_LOOKUP}
+     * @return the presence of each visible company, in the given order
+     * @throws BusinessRuleException if too many companies are named
+     */
+    public List<PresenceEvent> presence(Long viewerId, Collection<Long> companyIds) {
+        if (companyIds.size() > MAX_LOOKUP) {
+            throw new BusinessRuleException("At most " + MAX_LOOKUP + " companies can be looked up at once");
+        }
+        Set<Long> visible = participantCache.counterpartsAmong(viewerId, companyIds);
+        return companyIds.stream()
+                .distinct()
+                .filter(visible::contains)
+                .map(id -> PresenceEvent.builder().companyId(id).online(isOnline(id)).build())
+                .toList();
+    }
+
+
+    /**
+     * Expires typing indicators, announces companies that went offline, publishes changes
+     * held back by rate limiting, and drops companies with nothing left to track.
+     */
+    @Scheduled(fixedDelayString = "${app.presence.sweep-interval-ms:1000}")
+    public void sweep() {
+        sweep(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the number of live sessions on this node.
+     *
+     * @return the session count
+     */
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    void connected(String sessionId, Long companyId, long now) {
+        if (sessions.putIfAbsent(sessionId, companyId) != null) {
+            return;
+        }
+        update(companyId, presence -> {
+            presence.sessions++;
+            if (!presence.announcedOnline) {
+                publishPresence(companyId, presence, true, now);
+            }
+        });
+    }
+
+    void disconnected(String sessionId, long now) {
+        Long companyId = sessions.remove(sessionId);
+        if (companyId == null) {
+            return;
+        }
+        update(companyId, presence -> {
+            if (--presence.sessions == 0) {
+                presence.offlineSince = now;
+            }
+        });
+    }
+
+    void typing(Long companyId, Long conversationId, boolean typing, long now) {
+        if (conversationId == null) {
+            return;
+        }
+        Set<Long> participants = participantCache.participantIds(conversationId);
+        if (!participants.contains(companyId)) {
+            log.debug("Ignoring typing ping from company {} outside conversation {}", companyId, conversationId);
+            return;
+        }
+        update(companyId, presence -> {
+            if (typing) {
+                if (presence.typing == null) {
+                    presence.typing = new HashMap<>();
+                }
+                TypingState state = presence.typing.computeIfAbsent(conversationId, id -> new TypingState(participants));
+                state.expiresAt = now + typingTtlMs;
+                if (!state.announced) {
+                    publishTyping(companyId, conversationId, state, true, now);
+                }
+            } else if (presence.typing != null) {
+                TypingState state = presence.typing.get(conversationId);
+                if (state != null) {
+                    state.expiresAt = now;
+                    if (state.announced) {
+                        publishTyping(companyId, conversationId, state, false, now);
+                    }
+                }
+            }
+        });
+    }
+
+    void sweep(long now) {
+        for (Map.Entry<Long, CompanyPresence> entry : companies.entrySet()) {
+            Long companyId = entry.getKey();
+            CompanyPresence presence = entry.getValue();
+            synchronized (presence) {
+                if (presence.typing != null) {
+                    sweepTyping(companyId, presence, now);
+                }
+                boolean online = presence.sessions > 0 || now - presence.offlineSince < offlineGraceMs;
+                if (online != presence.announcedOnline) {
+                    publishPresence(companyId, presence, online, now);
+                }
+                if (presence.sessions == 0 && !presence.announcedOnline && presence.typing == null
+                        && now >= presence.nextBroadcastAt) {
+                    presence.removed = true;
+                    companies.remove(companyId, presence);
+                }
+            }
+        }
+    }
+
+    private void sweepTyping(Long companyId, CompanyPresence presence, long now) {
+        Iterator<Map.Entry<Long, TypingState>> it = presence.typing.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, TypingState> entry = it.next();
+            TypingState state = entry.getValue();
+            boolean typing = state.expiresAt > now;
+            if (typing != state.announced) {
+                publishTyping(companyId, entry.getKey(), state, typing, now);
+            }
+            if (!typing && !state.announced) {
+                it.remove();
+            }
+        }
+        if (presence.typing.isEmpty()) {
+            presence.typing = null;
+        }
+    }
+
+    /**
+     * Applies a change to a company's record under its lock, creating the record if needed and
+     * retrying if the sweep dropped it in the meantime.
+     */
+    private void update(Long companyId, Consumer<CompanyPresence> change) {
+        while (true) {
+            CompanyPresence presence = companies.computeIfAbsent(companyId, id -> new CompanyPresence());
+            synchronized (presence) {
+                if (!presence.removed) {
+                    change.accept(presence);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Broadcasts a company's presence unless it was broadcast too recently, in which case the
+     * sweep publishes the state later.
+     */
+    private void publishPresence(Long companyId, CompanyPresence presence, boolean online, long now) {
+        if (now < presence.nextBroadcastAt) {
+            return;
+        }
+        presence.announcedOnline = online;
+        presence.nextBroadcastAt = now + minBroadcastIntervalMs;
+        if (broadcastPresence) {
+            messagingTemplate.convertAndSend(PRESENCE_TOPIC_PREFIX + companyId,
+                    PresenceEvent.builder().companyId(companyId).online(online).build());
+        }
+    }
+
+    /**
+     * Sends a typing indicator to the other participants unless it was sent too recently, in
+     * which case the sweep publishes the state later.
+     */
+    private void publishTyping(Long companyId, Long conversationId, TypingState state, boolean typing, long now) {
+        if (now < state.nextBroadcastAt) {
+            return;
+        }
+        state.announced = typing;
+        state.nextBroadcastAt = now + minBroadcastIntervalMs;
+        TypingEvent event = TypingEvent.builder()
+                .conversationId(conversationId).companyId(companyId).typing(typing).build();
+        for (Long participantId : state.participants) {
+            if (!participantId.equals(companyId)) {
+                messagingTemplate.convertAndSendToUser(participantId.toString(), TYPING_DESTINATION, event);
+            }
+        }
+    }
+
+    /**
+     * A company's sessions and typing indicators, guarded by its own monitor.
+     */
+    private static final class CompanyPresence {
+        private int sessions;
+        private long offlineSince;
+        private boolean announcedOnline;
+        private long nextBroadcastAt;
+        private boolean removed;
+        private Map<Long, TypingState> typing;
+    }
+
+    /**
+     * A typing indicator in one conversation.
+     */
+    private static final class TypingState {
+        private final Set<Long> participants;
+        private long expiresAt;
+        private boolean announced;
+        private long nextBroadcastAt;
+
+        private TypingState(Set<Long> participants) {
+            this.participants = participants;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.silentsupply.messaging;
+
+import com.silentsupply.common.cache.LruCache;
+import com.silentsupply.messaging.dto.MessageResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the newest messages of recently active conversations in memory, so the first page of a
+ * conversation, which is what nearly every message list request asks for, is served without a
+ * query. Older pages always come from the database.
+ *
+ * <p>Each cached conversation has a fixed-size ring buffer of its newest messages and its total
+ * message count. A ring is filled from the first page read from the database and kept current
+ * by sends once they commit; when it is full, a new message overwrites the oldest slot.
+ * Conversations are evicted least recently used. A first page is served from the ring when the
+ * ring holds at least as many messages as the page asks for, or every message of the
+ * conversation.</p>
+ *
+ * <p>A send committing while a reader loads the same conversation could leave the loaded page
+ * without it. Every send bumps a counter for its conversation's stripe, and a loaded page is
+ * only cached if that counter did not move while it was read.</p>
+ *
+ * <p>The cache only sees sends handled by this node, so it is off whenever STOMP destinations
+ * are relayed to an external broker ({@code app.websocket.relay.enabled=true}), which is how
+ * several nodes serve messages. It can also be turned off with
+ * {@code app.messaging.recent-cache.enabled=false}.</p>
+ *
+ * <p>Metrics: {@code messages.recent.cache.requests} tagged {@code result=hit|miss} and
+ * {@code messages.recent.cache.hit.ratio} for first-page lookups, and
+ * {@code messages.recent.cache.conversations}, {@code .messages} and {@code .bytes}, an estimate
+ * of the heap held by cached messages.</p>
+ */
+@Component
+@Slf4j
+public class RecentMessageCache {
+
+    /** Stripes of the send counters that guard loads against concurrent sends. */
+    static final int STRIPES = 64;
+
+    /** Estimated heap cost of a cached message besides the characters of its strings. */
+    static final int MESSAGE_OVERHEAD_BYTES = 200;
+
+    private static final Comparator<MessageResponse> NEWEST_LAST =
+            Comparator.comparing(MessageResponse::getCreatedAt).thenComparing(MessageResponse::getId);
+
+    private final boolean enabled;
+    private final int ringSize;
+    private final LruCache<Long, Ring> rings;
+    private final AtomicLongArray sendStamps = new AtomicLongArray(STRIPES);
+    private final AtomicLong cachedMessages = new AtomicLong();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * Creates the cache and registers its metrics.
+     *
+     * @param meterRegistry the meter registry
+     * @param enabled       false to read every page from the database
+     * @param conversations conversations kept in memory
+     * @param ringSize      newest messages kept per conversation
+     * @param relayEnabled  whether STOMP destinations are relayed to an external broker, which
+     *                      turns the cache off
+     */
+    public RecentMessageCache(MeterRegistry meterRegistry,
+                              @Value("${app.messaging.recent-cache.enabled:true}") boolean enabled,
+                              @Value("${app.messaging.recent-cache.conversations:1000}") int conversations,
+                              @Value("${app.messaging.recent-cache.messages-per-conversation:50}") int ringSize,
+                              @Value("${app.websocket.relay.enabled:false}") boolean relayEnabled) {
+        this.enabled = enabled && !relayEnabled;
+        if (enabled && relayEnabled) {
+            log.info("Recent message cache is off: sends handled by other nodes behind the broker relay are not seen");
+        }
+        this.ringSize = Math.max(1, ringSize);
+        this.rings = new LruCache<>(conversations, (conversationId, ring) -> ring.release());
+        this.hits = Counter.builder("messages.recent.cache.requests").tag("result", "hit")
+                .description("First-page message requests served from memory").register(meterRegistry);
+        this.misses = Counter.builder("messages.recent.cache.requests").tag("result", "miss")
+                .description("First-page message requests read from the database").register(meterRegistry);
+        Gauge.builder("messages.recent.cache.hit.ratio", this, RecentMessageCache::hitRatio)
+                .description("Share of first-page message requests served from memory").register(meterRegistry);
+        Gauge.builder("messages.recent.cache.conversations", rings, LruCache::size)
+                .description("Conversations with cached messages").register(meterRegistry);
+        Gauge.builder("messages.recent.cache.messages", cachedMessages, AtomicLong::get)
+                .description("Messages held in memory").register(meterRegistry);
+        Gauge.builder("messages.recent.cache.bytes", cachedBytes, AtomicLong::get).baseUnit(BaseUnits.BYTES)
+                .description("Estimated heap held by cached messages").register(meterRegistry);
+    }
+
+    /**
+     * Returns a conversation's first page from memory. Requests for later pages, or with a
+     * sort of their own, are not looked up and not counted.
+     *
+     * @param conversationId the conversation ID
+     * @param pageable       the requested page
+     * @return the page, newest message first, or null if it has to be read from the database
+     */
+    public Page<MessageResponse> firstPage(Long conversationId, Pageable pageable) {
+        if (!cacheable(pageable)) {
+            return null;
+        }
+        Ring ring = rings.get(conversationId);
+        Page<MessageResponse> page = ring == null ? null : ring.firstPage(pageable);
+        (page == null ? misses : hits).increment();
+        return page;
+    }
+
+    /**
+     * Returns the stamp to pass to {@link #warm} for a page about to be read from the database.
+     *
+     * @param conversationId the conversation ID
+     * @return the stamp
+     */
+    public long stamp(Long conversationId) {
+        return sendStamps.get(stripe(conversationId));
+    }
+
+    /**
+     * Caches a conversation's first page read from the database, unless a send to the
+     * conversation committed since the stamp was taken.
+     *
+     * @param conversationId the conversation ID
+     * @param stamp          the stamp taken before the page was read
+     * @param page           the first page, newest message first
+     */
+    public void warm(Long conversationId, long stamp, Page<MessageResponse> page) {
+        int stripe = stripe(conversationId);
+        if (!cacheable(page.getPageable()) || sendStamps.get(stripe) != stamp) {
+            return;
+        }
+        Ring ring = new Ring(page.getContent(), page.getTotalElements());
+        Ring previous = rings.put(conversationId, ring);
+        if (previous != null) {
+            previous.release();
+        }
+        if (sendStamps.get(stripe) != stamp && rings.remove(conversationId, ring)) {
+            ring.release();
+        }
+    }
+
+    /**
+     * Adds sent messages to their conversations' rings once the current transaction commits,
+     * or right away outside a transaction.
+     *
+     * @param messages the sent messages
+     */
+    public void appendAll(Collection<MessageResponse> messages) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    messages.forEach(RecentMessageCache.this::append);
+                }
+            });
+        } else {
+            messages.forEach(this::append);
+        }
+    }
+
+    private void append(MessageResponse message) {
+        sendStamps.incrementAndGet(stripe(message.getConversationId()));
+        Ring ring = rings.get(message.getConversationId());
+        if (ring != null) {
+            ring.add(message);
+        }
+    }
+
+    private double hitRatio() {
+        double lookups = hits.count() + misses.count();
+        return lookups == 0 ? 0 : hits.count() / lookups;
+    }
+
+    private boolean cacheable(Pageable pageable) {
+        return enabled && pageable.isPaged() && pageable.getOffset() == 0 && pageable.getSort().isUnsorted();
+    }
+
+    private static int stripe(Long conversationId) {
+        return (int) Math.floorMod(conversationId, (long) STRIPES);
+    }
+
+    private static long estimateBytes(MessageResponse message) {
+        return MESSAGE_OVERHEAD_BYTES + length(message.getContent()) + length(message.getSenderCompanyName());
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    /**
+     * A conversation's newest messages in a circular buffer, oldest at {@code head}, with the
+     * conversation's total message count. Released rings ignore further changes, so the
+     * footprint counters only cover rings still in the cache.
+     */
+    private final class Ring {
+
+        private final MessageResponse[] slots = new MessageResponse[ringSize];
+        private int head;
+        private int size;
+        private long total;
+        private boolean released;
+
+        private Ring(List<MessageResponse> newestFirst, long total) {
+            for (int i = Math.min(ringSize, newestFirst.size()) - 1; i >= 0; i--) {
+                MessageResponse message = newestFirst.get(i);
+                slots[size++] = message;
+                account(1, estimateBytes(message));
+            }
+            this.total = total;
+        }
+
+        private synchronized Page<MessageResponse> firstPage(Pageable pageable) {
+            int pageSize = pageable.getPageSize();
+            if (released || (size < pageSize && size < total)) {
+                return null;
+            }
+            int count = Math.min(pageSize, size);
+            List<MessageResponse> items = new ArrayList<>(count);
+            for (int i = size - 1; i >= size - count; i--) {
+                items.add(get(i));
+            }
+            return new PageImpl<>(items, pageable, total);
+        }
+
+        /**
+         * Inserts a message in (createdAt, id) order. A message older than every cached one is
+         * only counted, unless the ring holds the whole conversation, since the messages
+         * between it and the ring are not cached.
+         */
+        private synchronized void add(MessageResponse message) {
+            if (released) {
+                return;
+            }
+            int position = size;
+            while (position > 0 && NEWEST_LAST.compare(get(position - 1), message) >= 0) {
+                if (get(position - 1).getId().equals(message.getId())) {
+                    return;
+                }
+                position--;
+            }
+            total++;
+            if (position == 0 && size < total - 1) {
+                return;
+            }
+            if (size == ringSize) {
+                if (position == 0) {
+                    return;
+                }
+                account(-1, -estimateBytes(slots[head]));
+                slots[head] = null;
+                head = (head + 1) % ringSize;
+                size--;
+                position--;
+            }
+            for (int i = size; i > position; i--) {
+                slots[index(i)] = get(i - 1);
+            }
+            slots[index(position)] = message;
+            size++;
+            account(1, estimateBytes(message));
+        }
+
+        private synchronized void release() {
+            if (!released) {
+                released = true;
+                long bytes = 0;
+                for (int i = 0; i < size; i++) {
+                    bytes += estimateBytes(get(i));
+                }
+                account(-size, -bytes);
+            }
+        }
+
+        private MessageResponse get(int position) {
+            return slots[index(position)];
+        }
+
+        private int index(int position) {
+            return (head + position) % ringSize;
+        }
+
+        private void account(int messages, long bytes) {
+            cachedMessages.addAndGet(messages);
+            cachedBytes.addAndGet(bytes);
+        }
+    }
+}
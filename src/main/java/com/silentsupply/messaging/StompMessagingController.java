@@ -3,11 +3,11 @@ package com.silentsupply.messaging;
 import com.silentsupply.config.CompanyPrincipal;
 import com.silentsupply.messaging.dto.MessageResponse;
 import com.silentsupply.messaging.dto.SendMessageRequest;
+import com.silentsupply.messaging.dto.TypingRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Controller;
 
@@ -15,7 +15,8 @@ import java.security.Principal;
 
 /**
  * STOMP controller for real-time message delivery.
- * Persists messages via {@link MessagingService} and broadcasts to all conversation participants.
+ * Persists messages via {@link MessagingService}, which queues a copy for every conversation
+ * participant; the outbox dispatcher delivers them after the message commits.
  */
 @Controller
 @RequiredArgsConstructor
@@ -23,13 +24,12 @@ import java.security.Principal;
 public class StompMessagingController {
 
     private final MessagingService messagingService;
-    private final SimpMessagingTemplate messagingTemplate;
-    private final ConversationParticipantRepository participantRepository;
+    private final PresenceRegistry presenceRegistry;
 
     /**
      * Handles messages sent to /app/chat.send via STOMP.
-     * Persists the message and broadcasts it to all conversation participants
-     * via their individual /user/queue/messages subscriptions.
+     * Persists the message and queues it for all conversation participants'
+     * individual /user/queue/messages subscriptions.
      *
      * @param request   the message payload
      * @param principal the authenticated user (set by WebSocketAuthChannelInterceptor)
@@ -39,22 +39,25 @@ public class StompMessagingController {
         CompanyPrincipal companyPrincipal = extractCompanyPrincipal(principal);
         Long senderCompanyId = companyPrincipal.getCompanyId();
 
-        MessageResponse response = messagingService.sendMessage(senderCompanyId, request);
+        MessageResponse response = messagingService.sendAndBroadcast(senderCompanyId, request);
 
-        // Broadcast to all participants in the conversation
-        participantRepository.findByConversationId(response.getConversationId())
-                .forEach(participant -> {
-                    String destination = "/queue/messages";
-                    messagingTemplate.convertAndSendToUser(
-                            participant.getCompany().getId().toString(),
-                            destination,
-                            response);
-                });
-
-        log.debug("Message {} broadcast to conversation {} participants",
+        log.debug("Message {} sent over STOMP to conversation {}",
                 response.getId(), response.getConversationId());
     }
 
+    /**
+     * Handles typing pings sent to /app/chat.typing via STOMP. They only update the in-memory
+     * {@link PresenceRegistry}, which notifies the other participants.
+     *
+     * @param request   the typing ping
+     * @param principal the authenticated user (set by WebSocketAuthChannelInterceptor)
+     */
+    @MessageMapping("/chat.typing")
+    public void typing(@Payload TypingRequest request, Principal principal) {
+        CompanyPrincipal companyPrincipal = extractCompanyPrincipal(principal);
+        presenceRegistry.typing(companyPrincipal.getCompanyId(), request.getConversationId(), request.isTyping());
+    }
+
     /**
      * Extracts the CompanyPrincipal from the STOMP authentication principal.
      */
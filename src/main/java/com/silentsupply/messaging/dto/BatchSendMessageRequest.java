@@ -0,0 +1,56 @@
+package com.silentsupply.messaging.dto;
+
+import com.silentsupply.messaging.ConversationType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for posting many messages at once, e.g. status updates from an integration
+ * into many order conversations.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSendMessageRequest {
+
+    /** The messages to send, in order. */
+    @NotEmpty(message = "At least one message is required")
+    @Size(max = 500, message = "At most 500 messages can be sent at once")
+    private List<@Valid @NotNull BatchMessage> messages;
+
+    /**
+     * One message of a batch. Targets an existing conversation by {@code conversationId}, or the
+     * RFQ or order conversation by {@code referenceType} + {@code referenceId}, which is created
+     * if it does not exist yet.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchMessage {
+
+        /** Conversation ID if sending to an existing conversation. */
+        private Long conversationId;
+
+        /** Reference type of a scoped conversation (RFQ or ORDER). */
+        private ConversationType referenceType;
+
+        /** Reference entity ID (RFQ ID or Order ID) of a scoped conversation. */
+        private Long referenceId;
+
+        /** The message content. */
+        @NotBlank(message = "Message content is required")
+        @Size(max = 10000, message = "Message must not exceed 10000 characters")
+        private String content;
+    }
+}
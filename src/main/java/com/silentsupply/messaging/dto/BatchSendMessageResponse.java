@@ -0,0 +1,49 @@
+package com.silentsupply.messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch send, with a result for every requested message.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSendMessageResponse {
+
+    /** Number of messages sent. */
+    private int sent;
+
+    /** Number of messages rejected. */
+    private int failed;
+
+    /** Per-message results, in request order. */
+    private List<MessageResult> results;
+
+    /**
+     * Describes what happened to a single message.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MessageResult {
+
+        /** Position of the message in the request. */
+        private int index;
+
+        /** Whether the message was sent. */
+        private boolean sent;
+
+        /** The sent message, or null if it was rejected. */
+        private MessageResponse message;
+
+        /** Why the message was rejected, or null if it was sent. */
+        private String error;
+    }
+}
@@ -48,6 +48,9 @@ public class ConversationResponse {
     /** When the conversation was created. */
     private LocalDateTime createdAt;
 
+    /** When the conversation last had activity; the inbox is ordered by it. */
+    private LocalDateTime updatedAt;
+
     /**
      * Summary info about a conversation participant.
      */
@@ -0,0 +1,28 @@
+package com.silentsupply.messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a conversation's message history, with cursors to scroll further back and to
+ * catch up on newer messages.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageHistoryPage {
+
+    /** Messages on this page, oldest first. */
+    private List<MessageResponse> items;
+
+    /** Cursor to request older messages with, null when the start of the conversation was reached. */
+    private String beforeCursor;
+
+    /** Cursor to request newer messages with; unchanged when there is nothing new yet. */
+    private String afterCursor;
+}
@@ -0,0 +1,42 @@
+package com.silentsupply.messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for one message matching a search.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageSearchResult {
+
+    /** Message ID. */
+    private Long messageId;
+
+    /** Conversation ID the message belongs to. */
+    private Long conversationId;
+
+    /** Subject of the conversation. */
+    private String conversationSubject;
+
+    /** Sender's company ID. */
+    private Long senderCompanyId;
+
+    /** Sender's company name. */
+    private String senderCompanyName;
+
+    /** HTML-escaped excerpt of the message with the matching words wrapped in {@code <mark>} tags. */
+    private String snippet;
+
+    /** Relevance of the message to the query; results are ordered by it. */
+    private double rank;
+
+    /** When the message was sent. */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,20 @@
+package com.silentsupply.messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Whether a company has a live WebSocket session, published on
+ * {@code /topic/presence.{companyId}} when it changes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceEvent {
+
+    private Long companyId;
+    private boolean online;
+}
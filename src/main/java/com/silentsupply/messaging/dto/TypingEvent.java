@@ -0,0 +1,21 @@
+package com.silentsupply.messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event on {@code /user/queue/typing} telling a participant that another company started or
+ * stopped typing in a conversation.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingEvent {
+
+    private Long conversationId;
+    private Long companyId;
+    private boolean typing;
+}
@@ -0,0 +1,24 @@
+package com.silentsupply.messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Typing ping sent over STOMP to {@code /app/chat.typing}. Clients repeat it while the user
+ * types; the indicator expires on its own when the pings stop.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingRequest {
+
+    /** The conversation being typed in. */
+    private Long conversationId;
+
+    /** False to clear the indicator right away, e.g. when the draft is sent or discarded. */
+    @Builder.Default
+    private boolean typing = true;
+}
@@ -1,5 +1,6 @@
 package com.silentsupply.negotiation;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,11 +14,12 @@ import java.util.Optional;
 public interface NegotiationRuleRepository extends JpaRepository<NegotiationRule, Long> {
 
     /**
-     * Finds all negotiation rules for a given supplier.
+     * Finds all negotiation rules for a given supplier, with the product fetched.
      *
      * @param supplierId the supplier's company ID
      * @return list of rules
      */
+    @EntityGraph(attributePaths = "product")
     List<NegotiationRule> findBySupplierId(Long supplierId);
 
     /**
@@ -7,6 +7,9 @@ import com.silentsupply.company.CompanyRepository;
 import com.silentsupply.notification.dto.NotificationResponse;
 import com.silentsupply.order.CatalogOrder;
 import com.silentsupply.order.OrderStatus;
+import com.silentsupply.outbox.OutboxChannel;
+import com.silentsupply.outbox.OutboxService;
+import com.silentsupply.rfq.ExpiredRfq;
 import com.silentsupply.rfq.Rfq;
 import com.silentsupply.rfq.RfqStatus;
 import lombok.RequiredArgsConstructor;
@@ -14,11 +17,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Service for creating, listing, and managing notifications.
  * Provides helper methods for each event type that other services call.
+ *
+ * <p>Real-time pushes go through the {@link OutboxService} in the caller's transaction and are
+ * sent over SSE only after it commits.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -29,7 +38,7 @@ public class NotificationService {
     private final NotificationRepository notificationRepository;
     private final NotificationMapper notificationMapper;
     private final CompanyRepository companyRepository;
-    private final SseEmitterService sseEmitterService;
+    private final OutboxService outboxService;
 
     /**
      * Lists notifications for a company, optionally filtered to unread only.
@@ -107,6 +116,47 @@ public class NotificationService {
                 message, order.getId(), NotificationReferenceType.ORDER);
     }
 
+    /**
+     * Notifies buyer and supplier of each order moved to a new status in one bulk transition.
+     * The notifications are inserted in one batch, and each recipient receives a single SSE
+     * {@code notifications} event carrying all of its notifications.
+     *
+     * @param orders    the orders whose status changed
+     * @param newStatus the new status
+     */
+    @Transactional
+    public void notifyOrderStatusChanges(List<CatalogOrder> orders, OrderStatus newStatus) {
+        List<Notification> notifications = new ArrayList<>(orders.size() * 2);
+        for (CatalogOrder order : orders) {
+            String message = String.format("Order #%d status changed to %s", order.getId(), newStatus);
+            notifications.add(build(order.getBuyer(), NotificationType.ORDER_STATUS_CHANGED,
+                    message, order.getId(), NotificationReferenceType.ORDER));
+            notifications.add(build(order.getSupplier(), NotificationType.ORDER_STATUS_CHANGED,
+                    message, order.getId(), NotificationReferenceType.ORDER));
+        }
+
+        saveAndQueueBatch(notifications);
+    }
+
+    /**
+     * Notifies a supplier of the orders a buyer placed with them in one checkout.
+     * A single notification covers all of the orders, referencing the first one.
+     *
+     * @param supplier the supplier receiving the orders
+     * @param orders   the orders placed with the supplier, in product order
+     */
+    @Transactional
+    public void notifyOrdersPlaced(Company supplier, List<CatalogOrder> orders) {
+        CatalogOrder first = orders.get(0);
+        String message = orders.size() == 1
+                ? String.format("New order #%d from %s", first.getId(), first.getBuyer().getName())
+                : String.format("%d new orders from %s (#%d and %d more)", orders.size(),
+                        first.getBuyer().getName(), first.getId(), orders.size() - 1);
+
+        createAndSend(supplier, NotificationType.ORDERS_PLACED,
+                message, first.getId(), NotificationReferenceType.ORDER);
+    }
+
     /**
      * Notifies the supplier when a new RFQ is submitted.
      *
@@ -150,22 +200,63 @@ public class NotificationService {
     }
 
     /**
-     * Creates a notification, saves it, and pushes it via SSE.
+     * Notifies buyer and supplier of each RFQ expired in one sweep. The notifications are
+     * inserted in one batch, and each recipient receives a single SSE {@code notifications}
+     * event carrying all of its notifications.
+     *
+     * @param expired the RFQs that have just expired
+     */
+    @Transactional
+    public void notifyRfqsExpired(List<ExpiredRfq> expired) {
+        List<Notification> notifications = new ArrayList<>(expired.size() * 2);
+        for (ExpiredRfq rfq : expired) {
+            String message = String.format("RFQ #%d expired without agreement", rfq.id());
+            notifications.add(build(companyRepository.getReferenceById(rfq.buyerId()),
+                    NotificationType.RFQ_EXPIRED, message, rfq.id(), NotificationReferenceType.RFQ));
+            notifications.add(build(companyRepository.getReferenceById(rfq.supplierId()),
+                    NotificationType.RFQ_EXPIRED, message, rfq.id(), NotificationReferenceType.RFQ));
+        }
+        saveAndQueueBatch(notifications);
+    }
+
+    /**
+     * Saves notifications in one batch and queues one SSE {@code notifications} event per
+     * recipient carrying all of its notifications.
+     */
+    private void saveAndQueueBatch(List<Notification> notifications) {
+        Map<Long, List<NotificationResponse>> byRecipient = notificationRepository.saveAll(notifications).stream()
+                .map(notificationMapper::toResponse)
+                .collect(Collectors.groupingBy(NotificationResponse::getRecipientId));
+        outboxService.enqueueAll(OutboxChannel.SSE, "notifications", byRecipient);
+        log.debug("{} notifications queued for {} companies", notifications.size(), byRecipient.size());
+    }
+
+    /**
+     * Creates a notification, saves it, and queues it for an SSE {@code notification} event.
      */
     private void createAndSend(Company recipient, NotificationType type,
                                 String message, Long referenceId,
                                 NotificationReferenceType referenceType) {
-        Notification notification = Notification.builder()
+        Notification notification = build(recipient, type, message, referenceId, referenceType);
+
+        Notification saved = notificationRepository.save(notification);
+        NotificationResponse response = notificationMapper.toResponse(saved);
+        outboxService.enqueue(OutboxChannel.SSE, recipient.getId(), "notification", response);
+        log.debug("Notification queued for company {}: {}", recipient.getId(), type);
+    }
+
+    /**
+     * Builds an unsaved notification.
+     */
+    private Notification build(Company recipient, NotificationType type,
+                               String message, Long referenceId,
+                               NotificationReferenceType referenceType) {
+        return Notification.builder()
                 .recipient(recipient)
                 .type(type)
                 .message(message)
                 .referenceId(referenceId)
                 .referenceType(referenceType)
                 .build();
-
-        Notification saved = notificationRepository.save(notification);
-        NotificationResponse response = notificationMapper.toResponse(saved);
-        sseEmitterService.send(recipient.getId(), response);
-        log.debug("Notification sent to company {}: {}", recipient.getId(), type);
     }
 }
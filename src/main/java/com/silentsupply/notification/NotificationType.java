@@ -8,6 +8,9 @@ public enum NotificationType {
     /** An order's status has changed. */
     ORDER_STATUS_CHANGED,
 
+    /** A buyer has checked out one or more orders with a supplier. */
+    ORDERS_PLACED,
+
     /** A new RFQ has been submitted to a supplier. */
     RFQ_SUBMITTED,
 
@@ -15,5 +18,8 @@ public enum NotificationType {
     PROPOSAL_RECEIVED,
 
     /** A negotiation has been resolved (accepted or rejected). */
-    NEGOTIATION_RESOLVED
+    NEGOTIATION_RESOLVED,
+
+    /** An RFQ has expired without resolution. */
+    RFQ_EXPIRED
 }
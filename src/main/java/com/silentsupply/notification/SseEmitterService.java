@@ -1,6 +1,5 @@
 package com.silentsupply.notification;
 
-import com.silentsupply.notification.dto.NotificationResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -48,23 +47,31 @@ public class SseEmitterService {
     }
 
     /**
-     * Sends a notification to a company's SSE stream if they have an active connection.
+     * Sends an event to a company's SSE stream if they have an active connection. A company
+     * without a connection is not an error: its client reloads its notifications when it
+     * reconnects. A connection that fails the write is dropped and the failure reported, so the
+     * event can be retried once the client has reconnected.
      *
-     * @param companyId    the recipient company's ID
-     * @param notification the notification to send
+     * @param companyId the recipient company's ID
+     * @param eventName the SSE event name, such as {@code notification}
+     * @param data      the event data, written as JSON
+     * @return false if the write to the company's connection failed, true otherwise
      */
-    public void send(Long companyId, NotificationResponse notification) {
+    public boolean send(Long companyId, String eventName, Object data) {
         SseEmitter emitter = emitters.get(companyId);
-        if (emitter != null) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("notification")
-                        .data(notification));
-                log.debug("Sent SSE notification to company {}: {}", companyId, notification.getType());
-            } catch (IOException e) {
-                emitters.remove(companyId);
-                log.debug("Failed to send SSE to company {}, removing emitter", companyId);
-            }
+        if (emitter == null) {
+            return true;
+        }
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(eventName)
+                    .data(data));
+            log.debug("Sent SSE {} event to company {}", eventName, companyId);
+            return true;
+        } catch (IOException e) {
+            emitters.remove(companyId, emitter);
+            log.debug("Failed to send SSE to company {}, removing emitter", companyId);
+            return false;
         }
     }
 }
@@ -70,4 +70,12 @@ public class CatalogOrder extends BaseEntity {
     @Column(nullable = false, length = 3)
     @Builder.Default
     private Currency currency = Currency.USD;
+
+    /**
+     * Whether this order's quantity was reserved from a hot-inventory counter and has not yet
+     * been deducted from the product row.
+     */
+    @Column(name = "stock_pending", nullable = false)
+    @Builder.Default
+    private boolean stockPending = false;
 }
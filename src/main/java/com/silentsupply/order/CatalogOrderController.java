@@ -1,13 +1,21 @@
 package com.silentsupply.order;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.silentsupply.common.dto.CursorPage;
 import com.silentsupply.config.CompanyUserDetails;
+import com.silentsupply.idempotency.IdempotencyService;
+import com.silentsupply.order.dto.BulkStatusUpdateRequest;
+import com.silentsupply.order.dto.BulkStatusUpdateResponse;
+import com.silentsupply.order.dto.CheckoutRequest;
 import com.silentsupply.order.dto.OrderRequest;
 import com.silentsupply.order.dto.OrderResponse;
+import com.silentsupply.order.dto.OrderSearchCriteria;
 import com.silentsupply.order.dto.OrderStatusUpdate;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -16,9 +24,12 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -32,20 +43,46 @@ import java.util.List;
 public class CatalogOrderController {
 
     private final CatalogOrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     /**
-     * Places a new catalog order. Buyer-only.
+     * Places a new catalog order. Buyer-only. A retry carrying the same
+     * {@code Idempotency-Key} returns the original order instead of placing another.
      *
-     * @param userDetails the authenticated buyer
-     * @param request     the order details
+     * @param userDetails    the authenticated buyer
+     * @param request        the order details
+     * @param idempotencyKey optional client key that makes retries safe
      * @return the created order with HTTP 201
      */
     @PostMapping
     @Operation(summary = "Place a new catalog order (buyer only)")
     public ResponseEntity<OrderResponse> placeOrder(
             @AuthenticationPrincipal CompanyUserDetails userDetails,
-            @Valid @RequestBody OrderRequest request) {
-        OrderResponse response = orderService.placeOrder(userDetails.getId(), request);
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        OrderResponse response = idempotencyService.execute(userDetails.getId(), "orders", idempotencyKey, request,
+                OrderResponse.class, () -> orderService.placeOrder(userDetails.getId(), request));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Places one order per product in a cart in a single transaction. Buyer-only.
+     * Either every line is ordered or, if any line cannot be fulfilled, none is.
+     *
+     * @param userDetails    the authenticated buyer
+     * @param request        the cart lines
+     * @param idempotencyKey optional client key that makes retries safe
+     * @return the created orders with HTTP 201
+     */
+    @PostMapping("/checkout")
+    @Operation(summary = "Check out a multi-line cart (buyer only)")
+    public ResponseEntity<List<OrderResponse>> checkout(
+            @AuthenticationPrincipal CompanyUserDetails userDetails,
+            @Valid @RequestBody CheckoutRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        List<OrderResponse> response = idempotencyService.execute(userDetails.getId(), "orders/checkout",
+                idempotencyKey, request, new TypeReference<>() { },
+                () -> orderService.checkout(userDetails.getId(), request));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -80,6 +117,53 @@ public class CatalogOrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Lists a page of orders for the authenticated user (buyer or supplier), newest first.
+     *
+     * @param userDetails the authenticated user
+     * @param status      optional status filter
+     * @param from        only orders placed at or after this time
+     * @param to          only orders placed before this time
+     * @param cursor      the cursor from the previous page; omit for the first page
+     * @param limit       page size (default 50, max 200)
+     * @return the orders and the cursor of the next page
+     */
+    @GetMapping("/page")
+    @Operation(summary = "List a page of orders for authenticated user, filterable by status and date")
+    public ResponseEntity<CursorPage<OrderResponse>> pageOrders(
+            @AuthenticationPrincipal CompanyUserDetails userDetails,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder()
+                .status(status).from(from).to(to).build();
+        CursorPage<OrderResponse> page;
+        if ("SUPPLIER".equals(userDetails.getRole())) {
+            page = orderService.pageBySupplier(userDetails.getId(), criteria, cursor, limit);
+        } else {
+            page = orderService.pageByBuyer(userDetails.getId(), criteria, cursor, limit);
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Moves many of the authenticated company's orders to the same status at once.
+     * Orders that cannot make the transition are reported individually and left unchanged.
+     *
+     * @param userDetails the authenticated user
+     * @param request     the order IDs and target status
+     * @return the per-order results
+     */
+    @PatchMapping("/status")
+    @Operation(summary = "Update the status of many orders at once")
+    public ResponseEntity<BulkStatusUpdateResponse> bulkUpdateStatus(
+            @AuthenticationPrincipal CompanyUserDetails userDetails,
+            @Valid @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(orderService.bulkUpdateStatus(userDetails.getId(), request));
+    }
+
     /**
      * Updates the status of an order.
      *
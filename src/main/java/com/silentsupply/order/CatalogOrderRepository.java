@@ -1,10 +1,17 @@
 package com.silentsupply.order;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,21 +21,100 @@ import java.util.List;
 public interface CatalogOrderRepository extends JpaRepository<CatalogOrder, Long> {
 
     /**
-     * Finds all orders placed by a specific buyer.
+     * Finds all orders placed by a specific buyer, with buyer, supplier and product fetched.
      *
      * @param buyerId the buyer's company ID
      * @return list of orders for that buyer
      */
+    @EntityGraph(attributePaths = {"buyer", "supplier", "product"})
     List<CatalogOrder> findByBuyerId(Long buyerId);
 
     /**
-     * Finds all orders for a specific supplier.
+     * Finds all orders for a specific supplier, with buyer, supplier and product fetched.
      *
      * @param supplierId the supplier's company ID
      * @return list of orders for that supplier
      */
+    @EntityGraph(attributePaths = {"buyer", "supplier", "product"})
     List<CatalogOrder> findBySupplierId(Long supplierId);
 
+    /**
+     * Finds a page of a buyer's orders, newest first, before a keyset position. Buyer, supplier
+     * and product are fetched in the same query, so a page costs a single statement.
+     *
+     * @param buyerId  the buyer's company ID
+     * @param status   optional status filter
+     * @param from     inclusive lower bound on the order's creation time
+     * @param before   creation time of the last order seen
+     * @param beforeId ID of the last order seen at that time
+     * @param limit    maximum number of orders to return
+     * @return orders ordered by (createdAt, id) descending
+     */
+    @Query("SELECT o FROM CatalogOrder o JOIN FETCH o.buyer JOIN FETCH o.supplier JOIN FETCH o.product " +
+           "WHERE o.buyer.id = :buyerId AND (:status IS NULL OR o.status = :status) AND " +
+           "o.createdAt >= :from AND " +
+           "(o.createdAt < :before OR (o.createdAt = :before AND o.id < :beforeId)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<CatalogOrder> findBuyerPage(@Param("buyerId") Long buyerId,
+                                     @Param("status") OrderStatus status,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("before") LocalDateTime before,
+                                     @Param("beforeId") long beforeId,
+                                     Limit limit);
+
+    /**
+     * Finds a page of a supplier's orders, newest first, before a keyset position;
+     * see {@link #findBuyerPage}.
+     *
+     * @param supplierId the supplier's company ID
+     * @param status     optional status filter
+     * @param from       inclusive lower bound on the order's creation time
+     * @param before     creation time of the last order seen
+     * @param beforeId   ID of the last order seen at that time
+     * @param limit      maximum number of orders to return
+     * @return orders ordered by (createdAt, id) descending
+     */
+    @Query("SELECT o FROM CatalogOrder o JOIN FETCH o.buyer JOIN FETCH o.supplier JOIN FETCH o.product " +
+           "WHERE o.supplier.id = :supplierId AND (:status IS NULL OR o.status = :status) AND " +
+           "o.createdAt >= :from AND " +
+           "(o.createdAt < :before OR (o.createdAt = :before AND o.id < :beforeId)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<CatalogOrder> findSupplierPage(@Param("supplierId") Long supplierId,
+                                        @Param("status") OrderStatus status,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("before") LocalDateTime before,
+                                        @Param("beforeId") long beforeId,
+                                        Limit limit);
+
+    /**
+     * Loads orders and locks their rows until the transaction ends. Rows are locked in ID order,
+     * so concurrent bulk updates over overlapping orders cannot deadlock.
+     *
+     * @param ids the order IDs
+     * @return the orders that exist, ordered by ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM CatalogOrder o WHERE o.id IN :ids ORDER BY o.id")
+    List<CatalogOrder> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves orders from one status to another in a single statement. Orders no longer in the
+     * expected status are left unchanged.
+     *
+     * @param ids       the order IDs
+     * @param from      the status the orders are expected to be in
+     * @param to        the target status
+     * @param updatedAt the change timestamp to record
+     * @return the number of orders updated
+     */
+    @Modifying
+    @Query("UPDATE CatalogOrder o SET o.status = :to, o.updatedAt = :updatedAt " +
+           "WHERE o.id IN :ids AND o.status = :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("from") OrderStatus from,
+                         @Param("to") OrderStatus to,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
     /**
      * Returns aggregate revenue stats for a supplier: [[orderCount, totalRevenue]].
      *
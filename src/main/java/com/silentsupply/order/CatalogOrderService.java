@@ -1,23 +1,41 @@
 package com.silentsupply.order;
 
+import com.silentsupply.common.dto.CursorPage;
 import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.common.pagination.KeysetCursor;
 import com.silentsupply.common.exception.ResourceNotFoundException;
 import com.silentsupply.company.Company;
 import com.silentsupply.company.CompanyRepository;
 import com.silentsupply.notification.NotificationService;
+import com.silentsupply.order.dto.BulkStatusUpdateRequest;
+import com.silentsupply.order.dto.BulkStatusUpdateResponse;
+import com.silentsupply.order.dto.CheckoutRequest;
 import com.silentsupply.order.dto.OrderRequest;
 import com.silentsupply.order.dto.OrderResponse;
+import com.silentsupply.order.dto.OrderSearchCriteria;
+import com.silentsupply.product.HotInventoryService;
 import com.silentsupply.product.Product;
 import com.silentsupply.product.ProductRepository;
 import com.silentsupply.product.ProductStatus;
+import com.silentsupply.product.ProductStockService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for catalog order operations.
@@ -28,6 +46,12 @@ import java.util.Set;
 @Transactional(readOnly = true)
 public class CatalogOrderService {
 
+    /** Default page size for order listings. */
+    static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Largest page size a client may request. */
+    static final int MAX_PAGE_SIZE = 200;
+
     /** Defines the valid status transitions for catalog orders. */
     private static final Map<OrderStatus, Set<OrderStatus>> VALID_TRANSITIONS = Map.of(
             OrderStatus.PLACED, Set.of(OrderStatus.CONFIRMED, OrderStatus.CANCELLED),
@@ -42,9 +66,14 @@ public class CatalogOrderService {
     private final CompanyRepository companyRepository;
     private final CatalogOrderMapper orderMapper;
     private final NotificationService notificationService;
+    private final HotInventoryService hotInventoryService;
+    private final ProductStockService productStockService;
 
     /**
-     * Places a new catalog order. Validates stock availability and deducts quantity.
+     * Places a new catalog order. Stock is checked and deducted by a single conditional update,
+     * so concurrent orders for the same product cannot oversell it. Products in hot inventory
+     * mode reserve from an in-memory counter instead, and the order is saved as stock-pending
+     * for {@link HotInventoryService} to deduct in a later batch.
      *
      * @param buyerId the buyer's company ID
      * @param request the order request
@@ -56,37 +85,94 @@ public class CatalogOrderService {
         Company buyer = companyRepository.findById(buyerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Company", "id", buyerId));
 
-        Product product = productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", request.getProductId()));
+        boolean hot = hotInventoryService.isHot(request.getProductId());
+        Product product;
+        if (hot) {
+            product = reserveHotStock(request);
+        } else {
+            int deducted = productRepository.decrementStock(
+                    request.getProductId(), request.getQuantity(), LocalDateTime.now());
+            product = productRepository.findById(request.getProductId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", request.getProductId()));
+            if (deducted == 0) {
+                throw rejectionFor(product, request.getQuantity());
+            }
+        }
 
-        if (product.getStatus() != ProductStatus.ACTIVE) {
-            throw new BusinessRuleException("Product is not available for purchase: " + product.getStatus());
+        CatalogOrder saved = orderRepository.save(buildOrder(buyer, product, request.getQuantity(), hot));
+        return orderMapper.toResponse(saved);
+    }
+
+    /**
+     * Places one order per product in a cart, all in a single transaction. Lines for the same
+     * product are merged. Stock for every line is deducted by one batch of conditional updates,
+     * issued in ascending product ID order so that concurrent checkouts lock products in the same
+     * order and cannot deadlock. If any line cannot be fulfilled, nothing is ordered. Each
+     * supplier receives one notification covering all of its orders.
+     *
+     * @param buyerId the buyer's company ID
+     * @param request the cart lines
+     * @return the created orders, in ascending product ID order
+     * @throws BusinessRuleException if any product is not active or has insufficient stock, or
+     *                               the merged quantity of a product overflows
+     */
+    @Transactional
+    public List<OrderResponse> checkout(Long buyerId, CheckoutRequest request) {
+        Company buyer = companyRepository.findById(buyerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Company", "id", buyerId));
+
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (OrderRequest line : request.getLines()) {
+            try {
+                quantities.merge(line.getProductId(), line.getQuantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                throw new BusinessRuleException("Total quantity requested for product " + line.getProductId()
+                        + " is too large");
+            }
         }
 
-        if (product.getAvailableQuantity() < request.getQuantity()) {
-            throw new BusinessRuleException(
-                    "Insufficient stock. Available: " + product.getAvailableQuantity()
-                    + ", requested: " + request.getQuantity());
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        SortedMap<Long, Integer> coldQuantities = new TreeMap<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "id", line.getKey());
+            }
+            if (product.getStatus() != ProductStatus.ACTIVE) {
+                throw rejectionFor(product, line.getValue());
+            }
+            if (hotInventoryService.isHot(product.getId())) {
+                if (!hotInventoryService.tryReserve(product.getId(), line.getValue())) {
+                    throw hotRejectionFor(product, line.getValue());
+                }
+            } else {
+                coldQuantities.put(product.getId(), line.getValue());
+            }
         }
 
-        product.setAvailableQuantity(product.getAvailableQuantity() - request.getQuantity());
-        productRepository.save(product);
+        List<Long> rejected = productStockService.deductAll(coldQuantities);
+        if (!rejected.isEmpty()) {
+            // The stock loaded above may be stale by now, so it is not reported
+            Long productId = rejected.get(0);
+            throw new BusinessRuleException("Insufficient stock for product " + productId
+                    + ". Requested: " + quantities.get(productId));
+        }
 
-        BigDecimal totalPrice = product.getBasePrice().multiply(BigDecimal.valueOf(request.getQuantity()));
+        List<CatalogOrder> orders = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> orders.add(buildOrder(buyer, products.get(productId), quantity,
+                !coldQuantities.containsKey(productId))));
+        List<CatalogOrder> saved = orderRepository.saveAll(orders);
 
-        CatalogOrder order = CatalogOrder.builder()
-                .buyer(buyer)
-                .product(product)
-                .supplier(product.getSupplier())
-                .quantity(request.getQuantity())
-                .unitPrice(product.getBasePrice())
-                .totalPrice(totalPrice)
-                .status(OrderStatus.PLACED)
-                .currency(product.getCurrency())
-                .build();
+        Map<Long, List<CatalogOrder>> bySupplier = saved.stream()
+                .collect(Collectors.groupingBy(order -> order.getSupplier().getId(),
+                        LinkedHashMap::new, Collectors.toList()));
+        bySupplier.values().forEach(supplierOrders ->
+                notificationService.notifyOrdersPlaced(supplierOrders.get(0).getSupplier(), supplierOrders));
 
-        CatalogOrder saved = orderRepository.save(order);
-        return orderMapper.toResponse(saved);
+        return saved.stream()
+                .map(orderMapper::toResponse)
+                .toList();
     }
 
     /**
@@ -125,6 +211,40 @@ public class CatalogOrderService {
                 .toList();
     }
 
+    /**
+     * Returns a page of a buyer's orders, newest first.
+     *
+     * @param buyerId  the buyer's company ID
+     * @param criteria optional status and date range filters
+     * @param cursor   the cursor from the previous page, or null for the first page
+     * @param limit    the page size, capped at {@link #MAX_PAGE_SIZE}
+     * @return the orders and the cursor of the next page, which is null after the last page
+     */
+    public CursorPage<OrderResponse> pageByBuyer(Long buyerId, OrderSearchCriteria criteria,
+                                                 String cursor, Integer limit) {
+        KeysetCursor before = startOf(criteria, cursor);
+        int pageSize = pageSize(limit);
+        return toPage(orderRepository.findBuyerPage(buyerId, criteria.getStatus(), lowerBoundOf(criteria),
+                before.timestamp(), before.id(), Limit.of(pageSize)), pageSize);
+    }
+
+    /**
+     * Returns a page of a supplier's orders, newest first.
+     *
+     * @param supplierId the supplier's company ID
+     * @param criteria   optional status and date range filters
+     * @param cursor     the cursor from the previous page, or null for the first page
+     * @param limit      the page size, capped at {@link #MAX_PAGE_SIZE}
+     * @return the orders and the cursor of the next page, which is null after the last page
+     */
+    public CursorPage<OrderResponse> pageBySupplier(Long supplierId, OrderSearchCriteria criteria,
+                                                    String cursor, Integer limit) {
+        KeysetCursor before = startOf(criteria, cursor);
+        int pageSize = pageSize(limit);
+        return toPage(orderRepository.findSupplierPage(supplierId, criteria.getStatus(), lowerBoundOf(criteria),
+                before.timestamp(), before.id(), Limit.of(pageSize)), pageSize);
+    }
+
     /**
      * Transitions an order to a new status. Validates the transition is allowed.
      *
@@ -149,4 +269,207 @@ public class CatalogOrderService {
         notificationService.notifyOrderStatusChange(saved, newStatus);
         return orderMapper.toResponse(saved);
     }
+
+    /**
+     * Moves many orders to the same status in one transaction. Each order is checked against
+     * the allowed transitions in memory; valid ones are applied with one UPDATE per current
+     * status, and the rest are reported without failing the request. Only the buyer or
+     * supplier of an order may change it. Notifications are inserted in a single batch and
+     * delivered as one SSE event per recipient.
+     *
+     * @param companyId the requesting company's ID
+     * @param request   the orders and target status
+     * @return the per-order results, in request order
+     */
+    @Transactional
+    public BulkStatusUpdateResponse bulkUpdateStatus(Long companyId, BulkStatusUpdateRequest request) {
+        OrderStatus target = request.getStatus();
+        Set<Long> ids = new LinkedHashSet<>(request.getOrderIds());
+        Map<Long, CatalogOrder> orders = orderRepository.findAllByIdForUpdate(ids).stream()
+                .collect(Collectors.toMap(CatalogOrder::getId, Function.identity()));
+
+        List<BulkStatusUpdateResponse.OrderResult> results = new ArrayList<>(ids.size());
+        Map<OrderStatus, List<Long>> idsByCurrentStatus = new EnumMap<>(OrderStatus.class);
+        List<CatalogOrder> transitioned = new ArrayList<>();
+        for (Long id : ids) {
+            CatalogOrder order = orders.get(id);
+            if (order == null || !isParty(order, companyId)) {
+                results.add(failure(id, null, "Order not found"));
+            } else if (!VALID_TRANSITIONS.getOrDefault(order.getStatus(), Set.of()).contains(target)) {
+                results.add(failure(id, order.getStatus(),
+                        "Invalid status transition from " + order.getStatus() + " to " + target));
+            } else {
+                idsByCurrentStatus.computeIfAbsent(order.getStatus(), status -> new ArrayList<>()).add(id);
+                transitioned.add(order);
+                results.add(BulkStatusUpdateResponse.OrderResult.builder()
+                        .orderId(id).updated(true).status(target).build());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        idsByCurrentStatus.forEach((current, currentIds) ->
+                orderRepository.transitionStatus(currentIds, current, target, now));
+        if (!transitioned.isEmpty()) {
+            notificationService.notifyOrderStatusChanges(transitioned, target);
+        }
+
+        return BulkStatusUpdateResponse.builder()
+                .updated(transitioned.size())
+                .failed(results.size() - transitioned.size())
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Checks whether a company is the buyer or supplier of an order.
+     *
+     * @param order     the order
+     * @param companyId the company's ID
+     * @return true if the company is a party to the order
+     */
+    private boolean isParty(CatalogOrder order, Long companyId) {
+        return order.getBuyer().getId().equals(companyId) || order.getSupplier().getId().equals(companyId);
+    }
+
+    /**
+     * Builds the result for an order a bulk transition left unchanged.
+     *
+     * @param orderId the order ID
+     * @param status  the order's current status, or null if it was not found
+     * @param error   why the order was not updated
+     * @return the result
+     */
+    private BulkStatusUpdateResponse.OrderResult failure(Long orderId, OrderStatus status, String error) {
+        return BulkStatusUpdateResponse.OrderResult.builder()
+                .orderId(orderId).updated(false).status(status).error(error).build();
+    }
+
+    /**
+     * Resolves where a listing page starts: after the client's cursor or, on the first page,
+     * just before the end of the requested date range.
+     *
+     * @param criteria the listing filters
+     * @param cursor   the encoded cursor, possibly null
+     * @return the keyset position to read before
+     */
+    private KeysetCursor startOf(OrderSearchCriteria criteria, String cursor) {
+        KeysetCursor end = criteria.getTo() != null ? new KeysetCursor(criteria.getTo(), 0L) : KeysetCursor.END;
+        return KeysetCursor.decodeOrDefault(cursor, end);
+    }
+
+    /**
+     * Returns the inclusive lower bound of the requested date range.
+     *
+     * @param criteria the listing filters
+     * @return the lower bound
+     */
+    private LocalDateTime lowerBoundOf(OrderSearchCriteria criteria) {
+        return criteria.getFrom() != null ? criteria.getFrom() : KeysetCursor.START.timestamp();
+    }
+
+    /**
+     * Clamps a requested page size to the allowed range.
+     *
+     * @param limit the requested page size, possibly null
+     * @return the page size to use
+     */
+    private int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Maps a page of orders and computes the cursor of the next page.
+     *
+     * @param orders   the orders, newest first
+     * @param pageSize the requested page size
+     * @return the page
+     */
+    private CursorPage<OrderResponse> toPage(List<CatalogOrder> orders, int pageSize) {
+        String next = null;
+        if (orders.size() == pageSize) {
+            CatalogOrder last = orders.get(orders.size() - 1);
+            next = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPage.<OrderResponse>builder()
+                .items(orders.stream().map(orderMapper::toResponse).toList())
+                .nextCursor(next)
+                .build();
+    }
+
+    /**
+     * Reserves an order's quantity from a hot product's in-memory counter.
+     *
+     * @param request the order request
+     * @return the product
+     * @throws BusinessRuleException if the product is not active or the counter is short of stock
+     */
+    private Product reserveHotStock(OrderRequest request) {
+        Product product = productRepository.findById(request.getProductId())
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", request.getProductId()));
+        if (product.getStatus() != ProductStatus.ACTIVE) {
+            throw rejectionFor(product, request.getQuantity());
+        }
+        if (!hotInventoryService.tryReserve(product.getId(), request.getQuantity())) {
+            throw hotRejectionFor(product, request.getQuantity());
+        }
+        return product;
+    }
+
+    /**
+     * Builds a placed order for a product at its current base price.
+     *
+     * @param buyer        the buying company
+     * @param product      the ordered product
+     * @param quantity     the ordered quantity
+     * @param stockPending whether the stock was reserved in memory and still has to be deducted
+     * @return the unsaved order
+     */
+    private CatalogOrder buildOrder(Company buyer, Product product, int quantity, boolean stockPending) {
+        BigDecimal totalPrice = product.getBasePrice().multiply(BigDecimal.valueOf(quantity));
+
+        return CatalogOrder.builder()
+                .buyer(buyer)
+                .product(product)
+                .supplier(product.getSupplier())
+                .quantity(quantity)
+                .unitPrice(product.getBasePrice())
+                .totalPrice(totalPrice)
+                .status(OrderStatus.PLACED)
+                .currency(product.getCurrency())
+                .stockPending(stockPending)
+                .build();
+    }
+
+    /**
+     * Explains why a hot product's in-memory counter refused a reservation.
+     *
+     * @param product  the product
+     * @param quantity the requested quantity
+     * @return the exception to throw
+     */
+    private BusinessRuleException hotRejectionFor(Product product, int quantity) {
+        return new BusinessRuleException(
+                "Insufficient stock. Available: " + hotInventoryService.available(product.getId()).orElse(0)
+                + ", requested: " + quantity);
+    }
+
+    /**
+     * Explains why a conditional stock deduction matched no row.
+     *
+     * @param product  the product as it is now
+     * @param quantity the requested quantity
+     * @return the exception to throw
+     */
+    private BusinessRuleException rejectionFor(Product product, int quantity) {
+        if (product.getStatus() != ProductStatus.ACTIVE) {
+            return new BusinessRuleException("Product is not available for purchase: " + product.getStatus());
+        }
+        if (product.isHotInventory()) {
+            return new BusinessRuleException("Product " + product.getId()
+                    + " was just moved to hot inventory; please retry");
+        }
+        return new BusinessRuleException(
+                "Insufficient stock. Available: " + product.getAvailableQuantity()
+                + ", requested: " + quantity);
+    }
 }
@@ -0,0 +1,31 @@
+package com.silentsupply.order.dto;
+
+import com.silentsupply.order.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for moving many orders to the same status at once.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequest {
+
+    /** The orders to transition; duplicates are ignored. */
+    @NotEmpty(message = "At least one order ID is required")
+    @Size(max = 500, message = "At most 500 orders can be updated at once")
+    private List<@NotNull Long> orderIds;
+
+    /** The target status. */
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+}
@@ -0,0 +1,50 @@
+package com.silentsupply.order.dto;
+
+import com.silentsupply.order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk status transition, with a result for every requested order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResponse {
+
+    /** Number of orders moved to the target status. */
+    private int updated;
+
+    /** Number of orders left unchanged. */
+    private int failed;
+
+    /** Per-order results, in request order. */
+    private List<OrderResult> results;
+
+    /**
+     * Describes what happened to a single order.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderResult {
+
+        /** The order ID. */
+        private Long orderId;
+
+        /** Whether the order was moved to the target status. */
+        private boolean updated;
+
+        /** The order's status after the request, or null if the order was not found. */
+        private OrderStatus status;
+
+        /** Why the order was left unchanged, or null if it was updated. */
+        private String error;
+    }
+}
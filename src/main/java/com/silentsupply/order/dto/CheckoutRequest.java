@@ -0,0 +1,27 @@
+package com.silentsupply.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for checking out a cart of catalog order lines in one transaction.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutRequest {
+
+    /** The cart lines; lines for the same product are merged. */
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = 200, message = "A checkout may contain at most 200 lines")
+    private List<@NotNull @Valid OrderRequest> lines;
+}
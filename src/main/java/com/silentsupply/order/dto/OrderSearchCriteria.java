@@ -0,0 +1,28 @@
+package com.silentsupply.order.dto;
+
+import com.silentsupply.order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter criteria DTO for paginated order listings. All fields are optional.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchCriteria {
+
+    /** Filter by order status. */
+    private OrderStatus status;
+
+    /** Only orders placed at or after this time. */
+    private LocalDateTime from;
+
+    /** Only orders placed before this time. */
+    private LocalDateTime to;
+}
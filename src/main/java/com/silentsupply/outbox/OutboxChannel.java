@@ -0,0 +1,13 @@
+package com.silentsupply.outbox;
+
+/**
+ * Transports the outbox dispatcher can deliver an event over.
+ */
+public enum OutboxChannel {
+
+    /** Server-Sent Event on the recipient's notification stream; the destination is the event name. */
+    SSE,
+
+    /** STOMP message to the recipient's user destination, such as {@code /queue/messages}. */
+    STOMP
+}
@@ -0,0 +1,207 @@
+package com.silentsupply.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silentsupply.notification.SseEmitterService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers outbox events over SSE and STOMP on a dedicated thread, off every request's
+ * critical path and outside any database transaction.
+ *
+ * <p>A drain is requested right after each enqueuing transaction commits, and by a periodic
+ * poll that picks up retries and events left behind by a restart. Requests arriving while a
+ * drain is queued are coalesced into it. Each drain claims due events in batches, deletes the
+ * ones delivered and reschedules failures with exponential backoff until {@code max-attempts}
+ * is reached, after which the event is dropped and logged. Delivery is at least once.</p>
+ *
+ * <p>An SSE event for a company without an open connection counts as delivered, since clients
+ * reload their notifications when they reconnect. A write that fails on an open connection is
+ * retried like any other failed send.</p>
+ */
+@Service
+@Slf4j
+public class OutboxDispatcher {
+
+    /** How long claimed events stay hidden from other drains while they are being delivered. */
+    static final long LEASE_MS = 60_000L;
+
+    /** Upper bound for the backoff between retries of one event. */
+    static final long MAX_RETRY_DELAY_MS = 5 * 60_000L;
+
+    private final OutboxService outboxService;
+    private final SseEmitterService sseEmitterService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("outbox-dispatcher").daemon().factory());
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+
+    /**
+     * Creates the dispatcher.
+     *
+     * @param outboxService     outbox storage
+     * @param sseEmitterService SSE connections of notification subscribers
+     * @param messagingTemplate STOMP messaging template
+     * @param objectMapper      parses stored payloads back into JSON trees
+     * @param batchSize         events claimed per query
+     * @param maxAttempts       delivery attempts before an event is dropped
+     * @param retryDelayMs      delay before the first retry; doubles on each further attempt
+     */
+    public OutboxDispatcher(OutboxService outboxService,
+                            SseEmitterService sseEmitterService,
+                            SimpMessagingTemplate messagingTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.max-attempts:8}") int maxAttempts,
+                            @Value("${app.outbox.retry-delay-ms:1000}") long retryDelayMs) {
+        this.outboxService = outboxService;
+        this.sseEmitterService = sseEmitterService;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    /**
+     * Requests a drain once a transaction that wrote outbox events has committed.
+     *
+     * @param event the enqueue notice
+     */
+    @TransactionalEventListener
+    public void onEnqueued(OutboxEnqueuedEvent event) {
+        requestDrain();
+    }
+
+    /**
+     * Periodically requests a drain, picking up retries that have come due and events a
+     * previous run did not deliver.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        requestDrain();
+    }
+
+    /**
+     * Queues a drain on the dispatcher thread unless one is already queued.
+     */
+    public void requestDrain() {
+        if (drainQueued.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    drainQueued.set(false);
+                    drain();
+                });
+            } catch (RejectedExecutionException e) {
+                drainQueued.set(false);
+            }
+        }
+    }
+
+    /**
+     * Delivers every due event, one claimed batch at a time. Failures are logged and left to
+     * the next poll.
+     *
+     * @return the number of events delivered
+     */
+    public int drain() {
+        int delivered = 0;
+        try {
+            List<OutboxEvent> batch;
+            do {
+                batch = outboxService.claim(batchSize, LEASE_MS);
+                if (!batch.isEmpty()) {
+                    delivered += deliverBatch(batch);
+                }
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox drain failed, remaining events will be retried: {}", e.getMessage());
+        }
+        return delivered;
+    }
+
+    /**
+     * Stops the dispatcher thread; undelivered events stay in the outbox for the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Delivers a claimed batch, then deletes delivered and exhausted events and reschedules
+     * the rest.
+     */
+    private int deliverBatch(List<OutboxEvent> batch) {
+        List<Long> done = new ArrayList<>(batch.size());
+        Map<Long, Long> retries = new HashMap<>();
+        int delivered = 0;
+        for (OutboxEvent event : batch) {
+            String failure;
+            try {
+                failure = deliver(event) ? null : "write to the recipient's connection failed";
+            } catch (JsonProcessingException | RuntimeException e) {
+                failure = e.getMessage();
+            }
+            if (failure == null) {
+                done.add(event.id());
+                delivered++;
+            } else if (event.attempts() >= maxAttempts) {
+                log.warn("Dropping outbox event {} to company {} after {} attempts: {}",
+                        event.id(), event.recipientId(), event.attempts(), failure);
+                done.add(event.id());
+            } else {
+                log.debug("Outbox event {} delivery failed (attempt {}): {}",
+                        event.id(), event.attempts(), failure);
+                retries.put(event.id(), retryDelay(event.attempts()));
+            }
+        }
+        outboxService.delete(done);
+        outboxService.reschedule(retries);
+        return delivered;
+    }
+
+    /**
+     * Sends one event over its channel.
+     *
+     * @return false if the write to an SSE recipient's open connection failed
+     */
+    private boolean deliver(OutboxEvent event) throws JsonProcessingException {
+        JsonNode payload = objectMapper.readTree(event.payload());
+        return switch (event.channel()) {
+            case SSE -> sseEmitterService.send(event.recipientId(), event.destination(), payload);
+            case STOMP -> {
+                messagingTemplate.convertAndSendToUser(
+                        Long.toString(event.recipientId()), event.destination(), payload);
+                yield true;
+            }
+        };
+    }
+
+    /**
+     * Returns the backoff before the next attempt after the given number of attempts.
+     */
+    private long retryDelay(int attempts) {
+        return Math.min(MAX_RETRY_DELAY_MS, retryDelayMs << Math.min(attempts - 1, 20));
+    }
+}
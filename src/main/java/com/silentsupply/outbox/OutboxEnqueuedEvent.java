@@ -0,0 +1,10 @@
+package com.silentsupply.outbox;
+
+/**
+ * Published when events are written to the outbox, so the dispatcher can drain them as soon as
+ * the enqueuing transaction commits instead of waiting for its next poll.
+ *
+ * @param count the number of events written
+ */
+record OutboxEnqueuedEvent(int count) {
+}
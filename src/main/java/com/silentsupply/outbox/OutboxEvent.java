@@ -0,0 +1,15 @@
+package com.silentsupply.outbox;
+
+/**
+ * An outbox row claimed for delivery.
+ *
+ * @param id          the row ID
+ * @param channel     the transport to deliver over
+ * @param recipientId the recipient company's ID
+ * @param destination the SSE event name or STOMP user destination
+ * @param payload     the event body as JSON
+ * @param attempts    delivery attempts so far, including the current one
+ */
+record OutboxEvent(long id, OutboxChannel channel, long recipientId, String destination,
+                   String payload, int attempts) {
+}
@@ -0,0 +1,144 @@
+package com.silentsupply.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes real-time events to the outbox table in the caller's transaction. Nothing is sent
+ * here: {@link OutboxDispatcher} delivers the events once the transaction has committed, so a
+ * slow client never holds a database transaction open and a rollback never leaves a pushed
+ * event behind.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO event_outbox (channel, recipient_id, destination, payload) VALUES (?, ?, ?, ?)";
+
+    /**
+     * Leases up to a batch of due events to the caller by pushing their availability past the
+     * lease and counting the attempt. Rows leased by another dispatcher are skipped, and a row
+     * whose dispatcher dies mid-delivery becomes due again when its lease expires.
+     */
+    private static final String CLAIM_SQL = """
+            UPDATE event_outbox
+            SET attempts = attempts + 1, available_at = NOW() + ? * INTERVAL '1 millisecond'
+            WHERE id IN (
+                SELECT id FROM event_outbox
+                WHERE available_at <= NOW()
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id, channel, recipient_id, destination, payload, attempts
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM event_outbox WHERE id = ?";
+
+    private static final String RESCHEDULE_SQL =
+            "UPDATE event_outbox SET available_at = NOW() + ? * INTERVAL '1 millisecond' WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Queues an event for one recipient.
+     *
+     * @param channel     the transport to deliver over
+     * @param recipientId the recipient company's ID
+     * @param destination the SSE event name or STOMP user destination
+     * @param payload     the event body, serialized to JSON
+     * @throws IllegalStateException if no transaction is active
+     */
+    public void enqueue(OutboxChannel channel, Long recipientId, String destination, Object payload) {
+        enqueueAll(channel, destination, Map.of(recipientId, payload));
+    }
+
+    /**
+     * Queues one event per recipient in a single batch insert.
+     *
+     * @param channel     the transport to deliver over
+     * @param destination the SSE event name or STOMP user destination
+     * @param payloads    event body per recipient company ID, serialized to JSON
+     * @throws IllegalStateException if no transaction is active
+     */
+    public void enqueueAll(OutboxChannel channel, String destination, Map<Long, ?> payloads) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox events must be written in a transaction");
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(payloads.size());
+        payloads.forEach((recipientId, payload) ->
+                rows.add(new Object[]{channel.name(), recipientId, destination, toJson(payload)}));
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        eventPublisher.publishEvent(new OutboxEnqueuedEvent(rows.size()));
+    }
+
+    /**
+     * Leases the oldest due events for delivery, counting the attempt.
+     *
+     * @param batchSize the maximum number of events to claim
+     * @param leaseMs   how long the events stay hidden from other claims
+     * @return the claimed events in ID order
+     */
+    List<OutboxEvent> claim(int batchSize, long leaseMs) {
+        List<OutboxEvent> events = new ArrayList<>(jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new OutboxEvent(
+                rs.getLong("id"),
+                OutboxChannel.valueOf(rs.getString("channel")),
+                rs.getLong("recipient_id"),
+                rs.getString("destination"),
+                rs.getString("payload"),
+                rs.getInt("attempts")), leaseMs, batchSize));
+        events.sort((a, b) -> Long.compare(a.id(), b.id()));
+        return events;
+    }
+
+    /**
+     * Removes events that were delivered or given up on.
+     *
+     * @param ids the event IDs
+     */
+    void delete(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, ids.stream().map(id -> new Object[]{id}).toList());
+        }
+    }
+
+    /**
+     * Makes events due again after a delay.
+     *
+     * @param delays retry delay in milliseconds per event ID
+     */
+    void reschedule(Map<Long, Long> delays) {
+        if (!delays.isEmpty()) {
+            jdbcTemplate.batchUpdate(RESCHEDULE_SQL, delays.entrySet().stream()
+                    .map(delay -> new Object[]{delay.getValue(), delay.getKey()})
+                    .toList());
+        }
+    }
+
+    /**
+     * Serializes an event body.
+     */
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + payload.getClass(), e);
+        }
+    }
+}
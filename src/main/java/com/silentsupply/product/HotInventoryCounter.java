@@ -0,0 +1,126 @@
+package com.silentsupply.product;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free stock counter for one hot product. The stock is split across stripes so concurrent
+ * reservations usually touch different memory; a reservation that no single stripe can cover
+ * falls back to a lock, under which it takes the quantity from several stripes. Stock is only
+ * ever taken for a reservation, never parked, so the total seen without the lock is not lower
+ * than what is really available. The total never goes negative.
+ *
+ * <p>A counter is never reseeded in place: when the supplier replaces the stock, a new counter
+ * with the next generation takes over, so reservations and releases still holding the old one
+ * cannot touch the new stock.</p>
+ */
+class HotInventoryCounter {
+
+    /** Stripes are spaced a cache line apart to avoid false sharing. */
+    private static final int PADDING = 8;
+
+    private final int stripeCount;
+    private final long generation;
+    private final AtomicLongArray cells;
+
+    /**
+     * Creates a counter seeded with the given stock.
+     *
+     * @param stripeCount number of stripes, at least 1
+     * @param available   the initial stock
+     * @param generation  the product's stock generation this counter serves
+     */
+    HotInventoryCounter(int stripeCount, long available, long generation) {
+        this.stripeCount = Math.max(1, stripeCount);
+        this.generation = generation;
+        this.cells = new AtomicLongArray(this.stripeCount * PADDING);
+        distribute(available);
+    }
+
+    /**
+     * Attempts to reserve stock.
+     *
+     * @param quantity the quantity to reserve, positive
+     * @return true if the stock was reserved, false if not enough is available
+     */
+    boolean tryReserve(long quantity) {
+        int start = ThreadLocalRandom.current().nextInt(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            int index = ((start + i) % stripeCount) * PADDING;
+            long current;
+            while ((current = cells.get(index)) >= quantity) {
+                if (cells.compareAndSet(index, current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+        return reserveAcrossStripes(quantity);
+    }
+
+    /**
+     * Returns previously reserved stock, e.g. when the reserving transaction rolls back.
+     *
+     * @param quantity the quantity to return
+     */
+    void release(long quantity) {
+        int index = ThreadLocalRandom.current().nextInt(stripeCount) * PADDING;
+        cells.addAndGet(index, quantity);
+    }
+
+    /**
+     * Returns the stock currently available. Exact when no reservation is in progress.
+     *
+     * @return the available stock
+     */
+    long available() {
+        long total = 0;
+        for (int i = 0; i < stripeCount; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the stock generation this counter serves.
+     *
+     * @return the generation
+     */
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * Slow path: takes the quantity from as many stripes as it needs, each with a compare and
+     * set. If concurrent fast-path reservations leave too little, what was taken is returned.
+     */
+    private synchronized boolean reserveAcrossStripes(long quantity) {
+        if (available() < quantity) {
+            return false;
+        }
+        long remaining = quantity;
+        for (int i = 0; i < stripeCount && remaining > 0; i++) {
+            int index = i * PADDING;
+            long current;
+            while ((current = cells.get(index)) > 0) {
+                long taken = Math.min(current, remaining);
+                if (cells.compareAndSet(index, current, current - taken)) {
+                    remaining -= taken;
+                    break;
+                }
+            }
+        }
+        if (remaining > 0) {
+            release(quantity - remaining);
+            return false;
+        }
+        return true;
+    }
+
+    private void distribute(long amount) {
+        long share = amount / stripeCount;
+        long remainder = amount % stripeCount;
+        for (int i = 0; i < stripeCount; i++) {
+            cells.addAndGet(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+}
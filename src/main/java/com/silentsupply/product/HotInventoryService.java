@@ -0,0 +1,313 @@
+package com.silentsupply.product;
+
+import com.silentsupply.common.exception.BusinessRuleException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Serves stock reservations for products in hot inventory mode from in-memory counters, so a
+ * product under flash demand is not bottlenecked on its database row.
+ *
+ * <p>Orders placed against a hot product are saved with {@code stock_pending = true} in the
+ * order's own transaction. A scheduled flush then deducts all pending orders from their products
+ * in one statement. Because pending orders are durable, nothing is lost if a flush fails or the
+ * application stops: the next flush, or startup reconciliation, applies them. Reservations whose
+ * transaction rolls back are returned to the counter they were taken from.</p>
+ *
+ * <p>When the supplier replaces a hot product's stock, the product moves to a new stock
+ * generation with a fresh counter. Pending orders are cleared and the counter is seeded from the
+ * committed row while the product's lock is held exclusively; orders hold the lock shared while
+ * they commit, and an order whose reservation came from an older generation is rejected. A flush
+ * that finds more pending orders than stock records the shortfall instead of hiding it.</p>
+ *
+ * <p>Counters live in this JVM, so a hot product's orders must be served by a single
+ * application node.</p>
+ */
+@Service
+@Slf4j
+public class HotInventoryService {
+
+    /**
+     * Deducts every pending hot-inventory order from its product and clears the pending flag,
+     * atomically. Orders committed while the statement runs stay pending for the next flush.
+     * Stock stops at zero; units ordered beyond it are recorded as a shortfall and returned.
+     */
+    private static final String FLUSH_SQL = """
+            WITH flushed AS (
+                UPDATE catalog_orders SET stock_pending = FALSE
+                WHERE stock_pending
+                RETURNING product_id, quantity
+            ), totals AS (
+                SELECT product_id, SUM(quantity) AS quantity FROM flushed GROUP BY product_id
+            ), shortfalls AS (
+                INSERT INTO hot_inventory_shortfalls (product_id, quantity)
+                SELECT t.product_id, t.quantity - p.available_quantity
+                FROM totals t JOIN products p ON p.id = t.product_id
+                WHERE t.quantity > p.available_quantity
+                RETURNING product_id, quantity
+            ), updated AS (
+                UPDATE products p
+                SET available_quantity = GREATEST(p.available_quantity - t.quantity, 0), updated_at = NOW()
+                FROM totals t
+                WHERE p.id = t.product_id
+                RETURNING p.id
+            )
+            SELECT u.id, s.quantity AS shortfall
+            FROM updated u LEFT JOIN shortfalls s ON s.product_id = u.id
+            """;
+
+    private static final String CLEAR_PENDING_SQL =
+            "UPDATE catalog_orders SET stock_pending = FALSE WHERE product_id = ? AND stock_pending";
+
+    private static final String STOCK_SQL =
+            "SELECT available_quantity FROM products WHERE id = ?";
+
+    private static final String HOT_STOCK_SQL =
+            "SELECT id, available_quantity FROM products WHERE hot_inventory";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate seedTransactionTemplate;
+    private final int stripeCount;
+    private final Map<Long, HotProduct> products = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the hot inventory service.
+     *
+     * @param jdbcTemplate        JDBC access for the flush and reconciliation statements
+     * @param transactionTemplate transaction template for the flush
+     * @param stripeCount         stripes per counter; defaults to the number of processors
+     */
+    public HotInventoryService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${app.hot-inventory.stripes:0}") int stripeCount) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.seedTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.seedTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.seedTransactionTemplate.setReadOnly(true);
+        this.stripeCount = stripeCount > 0 ? stripeCount : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Reconciles on startup: applies orders left pending by a previous run, then seeds a counter
+     * for every hot product from its stored stock.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        flush();
+        products.clear();
+        jdbcTemplate.query(HOT_STOCK_SQL, rs -> {
+            HotProduct product = new HotProduct();
+            product.counter = new HotInventoryCounter(stripeCount, rs.getLong("available_quantity"), 1);
+            products.put(rs.getLong("id"), product);
+        });
+        log.info("Hot inventory initialized for {} products", products.size());
+    }
+
+    /**
+     * Returns whether a product's stock is served from a hot counter.
+     *
+     * @param productId the product ID
+     * @return true if the product is in hot inventory mode
+     */
+    public boolean isHot(Long productId) {
+        return counterOf(productId) != null;
+    }
+
+    /**
+     * Reserves stock for an order in the current transaction. The reservation is returned to its
+     * counter if the transaction does not commit; the caller must save the order as stock-pending.
+     * If the supplier replaces the product's stock before the transaction commits, the commit
+     * fails, since the new stock never accounted for this reservation.
+     *
+     * @param productId the hot product's ID
+     * @param quantity  the quantity to reserve
+     * @return true if reserved, false if not enough stock is available
+     * @throws IllegalStateException if the product is not hot or no transaction is active
+     */
+    public boolean tryReserve(Long productId, int quantity) {
+        HotProduct product = products.get(productId);
+        HotInventoryCounter counter = product == null ? null : product.counter;
+        if (counter == null) {
+            throw new IllegalStateException("Product " + productId + " is not in hot inventory mode");
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Hot inventory reservations require an active transaction");
+        }
+        if (!counter.tryReserve(quantity)) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                product.lock.readLock().lock();
+                locked = true;
+                HotInventoryCounter current = product.counter;
+                if (current == null || current.generation() != counter.generation()) {
+                    throw new BusinessRuleException("The stock of product " + productId
+                            + " was changed by the supplier while the order was placed; please retry");
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (locked) {
+                    product.lock.readLock().unlock();
+                }
+                // A counter of an older generation is no longer reachable, so returning stock
+                // to it cannot inflate the current one.
+                if (status != STATUS_COMMITTED) {
+                    counter.release(quantity);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Returns the stock a hot product has left to reserve.
+     *
+     * @param productId the product ID
+     * @return the available stock, or empty if the product is not hot
+     */
+    public OptionalLong available(Long productId) {
+        HotInventoryCounter counter = counterOf(productId);
+        return counter == null ? OptionalLong.empty() : OptionalLong.of(counter.available());
+    }
+
+    /**
+     * Makes the stock quantity the supplier sets in the current transaction authoritative.
+     * Before the transaction commits, the product's lock is taken exclusively, which waits for
+     * orders still committing reservations, and pending orders for the product are cleared with
+     * the supplier's change. After commit a counter of the next generation is seeded from the
+     * committed row (hot), or the counter is dropped (no longer hot). The lock is released once
+     * the transaction completes.
+     *
+     * @param productId the product ID
+     * @param hot       whether the product is in hot inventory mode after the change
+     */
+    public void replaceStock(Long productId, boolean hot) {
+        HotProduct product = hot ? products.computeIfAbsent(productId, id -> new HotProduct()) : products.get(productId);
+        if (product == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            product.lock.writeLock().lock();
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(CLEAR_PENDING_SQL, productId));
+                reseed(productId, product, hot);
+            } finally {
+                product.lock.writeLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                product.lock.writeLock().lock();
+                locked = true;
+                jdbcTemplate.update(CLEAR_PENDING_SQL, productId);
+            }
+
+            @Override
+            public void afterCommit() {
+                reseed(productId, product, hot);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && product.counter == null) {
+                    products.remove(productId, product);
+                }
+                if (locked) {
+                    product.lock.writeLock().unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * Deducts all pending hot-inventory orders from their products in one statement. On failure
+     * the orders stay pending and are retried on the next run. Orders that exceed a product's
+     * stock are logged as an error and recorded in {@code hot_inventory_shortfalls}.
+     *
+     * @return the number of products updated
+     */
+    @Scheduled(fixedDelayString = "${app.hot-inventory.flush-interval-ms:500}")
+    public int flush() {
+        List<FlushedProduct> flushed;
+        try {
+            flushed = transactionTemplate.execute(status -> jdbcTemplate.query(FLUSH_SQL,
+                    (rs, rowNum) -> new FlushedProduct(rs.getLong("id"), rs.getLong("shortfall"))));
+        } catch (RuntimeException e) {
+            log.warn("Hot inventory flush failed, pending orders will be retried: {}", e.getMessage());
+            return 0;
+        }
+        if (flushed == null || flushed.isEmpty()) {
+            return 0;
+        }
+        for (FlushedProduct product : flushed) {
+            if (product.shortfall() > 0) {
+                log.error("Hot inventory product {} was oversold by {} units; its stock was set to 0",
+                        product.productId(), product.shortfall());
+            }
+        }
+        log.debug("Flushed pending hot inventory orders for {} products", flushed.size());
+        return flushed.size();
+    }
+
+    /**
+     * Moves a product to its next stock generation, seeded from the committed row, or drops it
+     * from hot inventory. The caller holds the product's lock exclusively.
+     */
+    private void reseed(Long productId, HotProduct product, boolean hot) {
+        HotInventoryCounter previous = product.counter;
+        long generation = previous == null ? 1 : previous.generation() + 1;
+        Long stock = hot ? seedTransactionTemplate.execute(status ->
+                jdbcTemplate.query(STOCK_SQL, rs -> rs.next() ? rs.getLong(1) : null, productId)) : null;
+        if (stock == null) {
+            product.counter = null;
+            products.remove(productId, product);
+        } else {
+            product.counter = new HotInventoryCounter(stripeCount, stock, generation);
+        }
+    }
+
+    private HotInventoryCounter counterOf(Long productId) {
+        HotProduct product = products.get(productId);
+        return product == null ? null : product.counter;
+    }
+
+    /**
+     * A hot product's current counter, null while it is being seeded or after it left hot
+     * inventory, and the lock that orders hold shared while committing a reservation and a
+     * stock replacement holds exclusively.
+     */
+    private static final class HotProduct {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile HotInventoryCounter counter;
+    }
+
+    private record FlushedProduct(long productId, long shortfall) {
+    }
+}
@@ -74,4 +74,26 @@ public class Product extends BaseEntity {
     @Column(nullable = false, length = 3)
     @Builder.Default
     private Currency currency = Currency.USD;
+
+    /**
+     * Base price converted to the base currency at the latest exchange rate, used for price filtering.
+     * Null when no rate to the base currency exists.
+     */
+    @Column(name = "normalized_price", precision = 19, scale = 6)
+    private BigDecimal normalizedPrice;
+
+    /**
+     * Whether orders reserve stock from an in-memory counter instead of updating this row,
+     * for products under flash demand.
+     */
+    @Column(name = "hot_inventory", nullable = false)
+    @Builder.Default
+    private boolean hotInventory = false;
+
+    /**
+     * ID of the transaction that last wrote this row, set by a database trigger; orders the
+     * product change feed by commit safety rather than by the application's clock.
+     */
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
 }
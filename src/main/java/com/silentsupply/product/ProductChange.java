@@ -0,0 +1,13 @@
+package com.silentsupply.product;
+
+import com.silentsupply.common.pagination.SequenceCursor;
+import com.silentsupply.product.dto.ProductResponse;
+
+/**
+ * A product change read from the change feed.
+ *
+ * @param cursor  the feed position right after this change
+ * @param product the product's current state
+ */
+record ProductChange(SequenceCursor cursor, ProductResponse product) {
+}
@@ -0,0 +1,85 @@
+package com.silentsupply.product;
+
+import com.silentsupply.common.dto.CursorPage;
+import com.silentsupply.common.pagination.SequenceCursor;
+import com.silentsupply.product.dto.ProductResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Serves product changes from a resumable cursor, so integrations can sync deltas instead of
+ * re-reading whole catalogs. Each change carries the product's current state; deleted products
+ * are not reported.
+ *
+ * <p>Changes are ordered by the ID of the transaction that wrote them, which a database trigger
+ * records on every insert and update, and only changes older than every transaction still
+ * running are served. A transaction that commits late therefore never lands behind a cursor a
+ * client already holds, however long it ran; a long-running writer only delays the feed until
+ * it finishes.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ProductChangeFeedService {
+
+    /** Default page size for the change feed. */
+    static final int DEFAULT_LIMIT = 100;
+
+    /** Largest page size a client may request. */
+    static final int MAX_LIMIT = 500;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+
+    /**
+     * Returns the next page of product changes after a cursor.
+     *
+     * @param cursor     the cursor from the previous page, or null to start from the beginning
+     * @param supplierId optional supplier filter
+     * @param limit      the page size, capped at {@link #MAX_LIMIT}
+     * @return the changes and the cursor to continue from; the cursor is unchanged when there
+     *         are no new changes, so clients can keep polling with it
+     */
+    public CursorPage<ProductResponse> changesSince(String cursor, Long supplierId, Integer limit) {
+        SequenceCursor after = SequenceCursor.decodeOrDefault(cursor, SequenceCursor.START);
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        List<ProductChange> changes = fetchChanges(after, supplierId, pageSize);
+        SequenceCursor next = changes.isEmpty() ? after : changes.get(changes.size() - 1).cursor();
+        return CursorPage.<ProductResponse>builder()
+                .items(changes.stream().map(ProductChange::product).toList())
+                .nextCursor(next.encode())
+                .build();
+    }
+
+    /**
+     * Fetches settled product changes after a feed position.
+     *
+     * @param after      the position to continue after
+     * @param supplierId optional supplier filter
+     * @param limit      the maximum number of changes
+     * @return the changes in feed order
+     */
+    List<ProductChange> fetchChanges(SequenceCursor after, Long supplierId, int limit) {
+        List<Product> products = supplierId == null
+                ? productRepository.findChangedSince(after.sequence(), after.id(), Limit.of(limit))
+                : productRepository.findSupplierChangedSince(supplierId, after.sequence(), after.id(), Limit.of(limit));
+        return products.stream()
+                .map(p -> new ProductChange(new SequenceCursor(p.getChangeSeq(), p.getId()), productMapper.toResponse(p)))
+                .toList();
+    }
+
+    /**
+     * Returns the cursor positioned after every settled change, for clients that only want
+     * changes from now on.
+     *
+     * @return the cursor
+     */
+    public SequenceCursor currentPosition() {
+        return SequenceCursor.before(productRepository.changeHorizon());
+    }
+}
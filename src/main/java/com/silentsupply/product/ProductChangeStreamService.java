@@ -0,0 +1,151 @@
+package com.silentsupply.product;
+
+import com.silentsupply.common.pagination.SequenceCursor;
+import com.silentsupply.product.dto.ProductResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams product changes to SSE subscribers. A single scheduled poller reads the change feed
+ * once for all subscribers, starting from the oldest subscriber position, and each subscriber
+ * receives only the changes past its own cursor. Every event's ID is the cursor after that
+ * change, so a reconnecting client resumes through {@code Last-Event-ID}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductChangeStreamService {
+
+    private static final long SSE_TIMEOUT = 30 * 60 * 1000L; // 30 minutes
+
+    /** Changes read from the feed per query while catching subscribers up. */
+    static final int POLL_BATCH_SIZE = 500;
+
+    private final ProductChangeFeedService changeFeedService;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Opens a change stream.
+     *
+     * @param supplierId optional supplier filter
+     * @param cursor     the position to resume after, or null to receive only new changes
+     * @return the SSE emitter for the client to consume
+     */
+    public SseEmitter subscribe(Long supplierId, String cursor) {
+        SequenceCursor start = SequenceCursor.decodeOrDefault(cursor, changeFeedService.currentPosition());
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT);
+        Subscriber subscriber = new Subscriber(emitter, supplierId, start);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+        log.debug("Product change subscriber registered (supplier {}), {} active", supplierId, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Reads new changes and delivers them to subscribers. Skips the query entirely when nobody
+     * is subscribed; otherwise pages until every subscriber has caught up.
+     */
+    @Scheduled(fixedDelayString = "${app.product-changes.poll-interval-ms:1000}")
+    public void poll() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        SequenceCursor position = subscribers.stream()
+                .map(Subscriber::cursor)
+                .min(SequenceCursor::compareTo)
+                .orElseThrow();
+        List<ProductChange> changes;
+        do {
+            changes = changeFeedService.fetchChanges(position, null, POLL_BATCH_SIZE);
+            if (changes.isEmpty()) {
+                return;
+            }
+            SequenceCursor pageEnd = changes.get(changes.size() - 1).cursor();
+            for (Subscriber subscriber : subscribers) {
+                deliver(subscriber, changes, pageEnd);
+            }
+            position = pageEnd;
+        } while (changes.size() == POLL_BATCH_SIZE);
+    }
+
+    /**
+     * Returns the number of open change streams.
+     *
+     * @return the subscriber count
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Sends a subscriber the changes it has not seen yet, then moves its cursor to the end of the page.
+     */
+    private void deliver(Subscriber subscriber, List<ProductChange> changes, SequenceCursor pageEnd) {
+        if (subscriber.cursor().compareTo(pageEnd) >= 0) {
+            return;
+        }
+        try {
+            for (ProductChange change : changes) {
+                ProductResponse product = change.product();
+                if (change.cursor().compareTo(subscriber.cursor()) <= 0
+                        || (subscriber.supplierId() != null && !subscriber.supplierId().equals(product.getSupplierId()))) {
+                    continue;
+                }
+                subscriber.emitter().send(SseEmitter.event()
+                        .id(change.cursor().encode())
+                        .name("product")
+                        .data(product));
+            }
+            subscriber.advanceTo(pageEnd);
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            log.debug("Failed to stream product changes, removing subscriber: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * An open change stream and how far it has been served.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long supplierId;
+        private volatile SequenceCursor cursor;
+
+        private Subscriber(SseEmitter emitter, Long supplierId, SequenceCursor cursor) {
+            this.emitter = emitter;
+            this.supplierId = supplierId;
+            this.cursor = cursor;
+        }
+
+        private SseEmitter emitter() {
+            return emitter;
+        }
+
+        private Long supplierId() {
+            return supplierId;
+        }
+
+        private SequenceCursor cursor() {
+            return cursor;
+        }
+
+        private void advanceTo(SequenceCursor position) {
+            cursor = position;
+        }
+    }
+}
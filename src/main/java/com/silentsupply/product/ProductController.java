@@ -1,6 +1,9 @@
 package com.silentsupply.product;
 
+import com.silentsupply.common.dto.CursorPage;
 import com.silentsupply.config.CompanyUserDetails;
+import com.silentsupply.currency.Currency;
+import com.silentsupply.product.dto.ProductImportResponse;
 import com.silentsupply.product.dto.ProductRequest;
 import com.silentsupply.product.dto.ProductResponse;
 import com.silentsupply.product.dto.ProductSearchCriteria;
@@ -8,7 +11,9 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,10 +22,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -36,6 +45,9 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductChangeFeedService productChangeFeedService;
+    private final ProductChangeStreamService productChangeStreamService;
 
     /**
      * Creates a new product listing. Supplier-only.
@@ -53,6 +65,64 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Bulk-imports a catalog upload as CSV or NDJSON. Supplier-only. Rows are streamed and upserted
+     * by SKU; invalid rows are skipped and reported in the summary.
+     *
+     * @param userDetails the authenticated supplier
+     * @param contentType the upload content type ({@code text/csv} or {@code application/x-ndjson})
+     * @param body        the raw upload stream
+     * @return the import summary
+     * @throws IOException if the upload cannot be read
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Bulk import products from CSV or NDJSON (supplier only)")
+    public ResponseEntity<ProductImportResponse> importCatalog(
+            @AuthenticationPrincipal CompanyUserDetails userDetails,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        ProductImportResponse response = productImportService.importCatalog(
+                userDetails.getId(), body, ProductImportFormat.fromContentType(contentType));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Returns product changes after a cursor, oldest first. Integrations poll with the returned
+     * cursor to receive only products created or updated since their last sync.
+     *
+     * @param cursor     the cursor from the previous page; omit to start from the beginning
+     * @param supplierId optional supplier filter
+     * @param limit      page size (default 100, max 500)
+     * @return the changed products and the cursor to continue from
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "List product changes since a cursor")
+    public ResponseEntity<CursorPage<ProductResponse>> changes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Long supplierId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productChangeFeedService.changesSince(cursor, supplierId, limit));
+    }
+
+    /**
+     * Opens an SSE stream of product changes. Each event's ID is a cursor; on reconnect the
+     * {@code Last-Event-ID} header (or the {@code cursor} parameter) resumes after it.
+     *
+     * @param cursor      the cursor to resume after; omit to receive only new changes
+     * @param lastEventId the last event ID received, sent automatically by reconnecting clients
+     * @param supplierId  optional supplier filter
+     * @return the SSE emitter
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to product changes (SSE), resumable from a cursor")
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) Long supplierId) {
+        String resumeFrom = lastEventId != null && !lastEventId.isBlank() ? lastEventId : cursor;
+        return productChangeStreamService.subscribe(supplierId, resumeFrom);
+    }
+
     /**
      * Retrieves a product by its ID.
      *
@@ -106,6 +176,7 @@ public class ProductController {
      * @param name     name filter (case-insensitive contains)
      * @param minPrice minimum price filter
      * @param maxPrice maximum price filter
+     * @param currency currency of the price filters (defaults to USD)
      * @param status   status filter
      * @return list of matching products
      */
@@ -116,12 +187,14 @@ public class ProductController {
             @RequestParam(required = false) String name,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Currency currency,
             @RequestParam(required = false) ProductStatus status) {
         ProductSearchCriteria criteria = ProductSearchCriteria.builder()
                 .category(category)
                 .name(name)
                 .minPrice(minPrice)
                 .maxPrice(maxPrice)
+                .currency(currency)
                 .status(status)
                 .build();
         return ResponseEntity.ok(productService.search(criteria));
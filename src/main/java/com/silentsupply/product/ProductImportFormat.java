@@ -0,0 +1,39 @@
+package com.silentsupply.product;
+
+import com.silentsupply.common.exception.BusinessRuleException;
+import org.springframework.http.MediaType;
+
+/**
+ * Upload formats accepted by the bulk catalog import.
+ */
+public enum ProductImportFormat {
+
+    /** Comma-separated values with a header row naming the {@code ProductRequest} fields. */
+    CSV(MediaType.parseMediaType("text/csv")),
+
+    /** Newline-delimited JSON, one {@code ProductRequest} object per line. */
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"));
+
+    private final MediaType mediaType;
+
+    ProductImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Resolves the import format from a request content type, ignoring parameters such as charset.
+     *
+     * @param contentType the request content type
+     * @return the matching import format
+     * @throws BusinessRuleException if the content type is not a supported import format
+     */
+    public static ProductImportFormat fromContentType(String contentType) {
+        MediaType requested = MediaType.parseMediaType(contentType);
+        for (ProductImportFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(requested)) {
+                return format;
+            }
+        }
+        throw new BusinessRuleException("Unsupported import content type: " + contentType);
+    }
+}
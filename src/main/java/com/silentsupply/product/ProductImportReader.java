@@ -0,0 +1,262 @@
+package com.silentsupply.product;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.currency.Currency;
+import com.silentsupply.product.dto.ProductRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams {@link ProductImportRow}s out of an upload one row at a time, so memory use
+ * does not depend on the size of the file.
+ */
+abstract class ProductImportReader {
+
+    protected final BufferedReader reader;
+    protected long rowNumber;
+
+    protected ProductImportReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens a reader for the given format.
+     *
+     * @param format       the upload format
+     * @param in           the raw upload stream
+     * @param objectMapper mapper used to parse NDJSON rows
+     * @return a reader positioned before the first data row
+     * @throws IOException if the header row cannot be read
+     */
+    static ProductImportReader open(ProductImportFormat format, InputStream in, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(in);
+            case NDJSON -> new Ndjson(in, objectMapper);
+        };
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return the next row, or null at end of input
+     * @throws IOException if the stream cannot be read
+     */
+    abstract ProductImportRow next() throws IOException;
+
+    /**
+     * Reads NDJSON: one JSON object per line, blank lines ignored.
+     */
+    static final class Ndjson extends ProductImportReader {
+
+        private final ObjectMapper objectMapper;
+
+        Ndjson(InputStream in, ObjectMapper objectMapper) {
+            super(in);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        ProductImportRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            rowNumber++;
+            try {
+                ProductRequest request = objectMapper.readValue(line, ProductRequest.class);
+                if (request == null) {
+                    return ProductImportRow.failed(rowNumber, "Row is not a JSON object");
+                }
+                return ProductImportRow.parsed(rowNumber, request);
+            } catch (JsonProcessingException e) {
+                return ProductImportRow.failed(rowNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads RFC 4180 CSV. The first record is a header naming {@link ProductRequest} fields;
+     * matching ignores case and separators, so {@code unit_of_measure} maps to {@code unitOfMeasure}.
+     * A record longer than {@link #MAX_RECORD_CHARS}, such as one opened by a quote that is never
+     * closed, is reported as a failed row and reading resumes after the line it was cut off in.
+     */
+    static final class Csv extends ProductImportReader {
+
+        /** Longest record accepted, in characters, so a stray quote cannot buffer the whole upload. */
+        static final int MAX_RECORD_CHARS = 65_536;
+
+        private static final List<String> REQUIRED_COLUMNS = List.of(
+                "name", "category", "sku", "unitofmeasure", "baseprice", "availablequantity");
+
+        private final Map<String, Integer> columns = new HashMap<>();
+        private final StringBuilder field = new StringBuilder();
+        private boolean recordTooLong;
+
+        Csv(InputStream in) throws IOException {
+            super(in);
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new BusinessRuleException("CSV import is empty; a header row is required");
+            }
+            if (recordTooLong) {
+                throw new BusinessRuleException("CSV header is longer than " + MAX_RECORD_CHARS + " characters");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(normalize(header.get(i)), i);
+            }
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+            if (!missing.isEmpty()) {
+                throw new BusinessRuleException("CSV header is missing required columns: " + missing);
+            }
+        }
+
+        @Override
+        ProductImportRow next() throws IOException {
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (!recordTooLong && record.size() == 1 && record.get(0).isBlank());
+
+            rowNumber++;
+            if (recordTooLong) {
+                return ProductImportRow.failed(rowNumber, "Record is longer than " + MAX_RECORD_CHARS
+                        + " characters; check for an unterminated quote");
+            }
+            try {
+                ProductRequest request = ProductRequest.builder()
+                        .name(value(record, "name"))
+                        .description(value(record, "description"))
+                        .category(value(record, "category"))
+                        .sku(value(record, "sku"))
+                        .unitOfMeasure(value(record, "unitofmeasure"))
+                        .basePrice(decimal(value(record, "baseprice")))
+                        .availableQuantity(integer(value(record, "availablequantity")))
+                        .currency(currency(value(record, "currency")))
+                        .build();
+                return ProductImportRow.parsed(rowNumber, request);
+            } catch (IllegalArgumentException e) {
+                return ProductImportRow.failed(rowNumber, e.getMessage());
+            }
+        }
+
+        /**
+         * Reads one CSV record, honouring quoted fields that contain separators, escaped quotes or newlines.
+         * Sets {@link #recordTooLong} and returns no fields if the record exceeds the length cap.
+         *
+         * @return the record's fields, or null at end of input
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            boolean quoted = false;
+            int length = 0;
+            recordTooLong = false;
+            field.setLength(0);
+            while (c != -1) {
+                if (++length > MAX_RECORD_CHARS) {
+                    while (c != -1 && c != '\n') {
+                        c = reader.read();
+                    }
+                    recordTooLong = true;
+                    field.setLength(0);
+                    return List.of();
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private String value(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private static BigDecimal decimal(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("basePrice: not a number: " + value);
+            }
+        }
+
+        private static Integer integer(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("availableQuantity: not an integer: " + value);
+            }
+        }
+
+        private static Currency currency(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Currency.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("currency: unsupported currency: " + value);
+            }
+        }
+
+        private static String normalize(String header) {
+            return header.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.silentsupply.product;
+
+import com.silentsupply.product.dto.ProductRequest;
+
+/**
+ * A single parsed row of a catalog import. Either {@code request} or {@code parseError} is set.
+ *
+ * @param rowNumber  1-based data row number (header rows are not counted)
+ * @param request    the parsed product, or null if the row could not be parsed
+ * @param parseError description of why the row could not be parsed, or null
+ */
+record ProductImportRow(long rowNumber, ProductRequest request, String parseError) {
+
+    static ProductImportRow parsed(long rowNumber, ProductRequest request) {
+        return new ProductImportRow(rowNumber, request, null);
+    }
+
+    static ProductImportRow failed(long rowNumber, String parseError) {
+        return new ProductImportRow(rowNumber, null, parseError);
+    }
+}
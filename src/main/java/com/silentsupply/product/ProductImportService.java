@@ -0,0 +1,223 @@
+package com.silentsupply.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silentsupply.common.exception.ResourceNotFoundException;
+import com.silentsupply.company.CompanyRepository;
+import com.silentsupply.currency.Currency;
+import com.silentsupply.currency.CurrencyService;
+import com.silentsupply.product.dto.ProductImportResponse;
+import com.silentsupply.product.dto.ProductRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk catalog import for suppliers. Streams the upload row by row, validates each row against
+ * the {@link ProductRequest} constraints and upserts valid rows by (supplier, SKU) in JDBC batches,
+ * so memory use stays constant regardless of file size. Each batch commits in its own transaction,
+ * so an import never holds locks for longer than one batch; a batch the database rejects is rolled
+ * back and its rows are reported as failed, while earlier and later batches stay committed. Stock
+ * of products in hot inventory mode is managed by {@link HotInventoryService} and left unchanged
+ * by imports.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportService {
+
+    /** Rows sent to the database per JDBC batch. */
+    static final int BATCH_SIZE = 500;
+
+    /** Maximum number of row errors returned in the summary. */
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO products (supplier_id, name, description, category, sku, unit_of_measure, "
+            + "base_price, available_quantity, status, currency, normalized_price, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'ACTIVE', ?, ?, ?, ?) "
+            + "ON CONFLICT (supplier_id, sku) DO UPDATE SET "
+            + "name = EXCLUDED.name, description = EXCLUDED.description, category = EXCLUDED.category, "
+            + "unit_of_measure = EXCLUDED.unit_of_measure, base_price = EXCLUDED.base_price, "
+            + "available_quantity = CASE WHEN products.hot_inventory THEN products.available_quantity "
+            + "ELSE EXCLUDED.available_quantity END, currency = EXCLUDED.currency, "
+            + "normalized_price = EXCLUDED.normalized_price, updated_at = EXCLUDED.updated_at";
+
+    private static final String EXISTING_SKUS_SQL =
+            "SELECT sku FROM products WHERE supplier_id = ? AND sku = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CompanyRepository companyRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CurrencyService currencyService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Imports a catalog upload for a supplier. Invalid rows are skipped and reported;
+     * valid rows are inserted, or update the supplier's existing product with the same SKU.
+     * The summary counts only rows whose batch committed.
+     *
+     * @param supplierId the supplier's company ID
+     * @param in         the raw upload stream
+     * @param format     the upload format
+     * @return the import summary with row-level errors
+     * @throws IOException if the upload cannot be read
+     */
+    public ProductImportResponse importCatalog(Long supplierId, InputStream in, ProductImportFormat format)
+            throws IOException {
+        if (!companyRepository.existsById(supplierId)) {
+            throw new ResourceNotFoundException("Company", "id", supplierId);
+        }
+
+        ProductImportReader reader = ProductImportReader.open(format, in, objectMapper);
+        ImportTally tally = new ImportTally(currencyService.latestRatesToBase());
+        Map<String, ProductImportRow> batch = new LinkedHashMap<>();
+
+        ProductImportRow row;
+        while ((row = reader.next()) != null) {
+            tally.totalRows++;
+            if (row.parseError() != null) {
+                tally.reject(row.rowNumber(), null, List.of(row.parseError()));
+                continue;
+            }
+
+            ProductRequest request = row.request();
+            Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                tally.reject(row.rowNumber(), request.getSku(), violations.stream()
+                        .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .toList());
+                continue;
+            }
+
+            // A SKU repeated inside one batch would hit the same row twice in a single statement
+            if (batch.containsKey(request.getSku()) || batch.size() == BATCH_SIZE) {
+                flush(supplierId, batch, tally);
+            }
+            batch.put(request.getSku(), row);
+        }
+        flush(supplierId, batch, tally);
+
+        log.info("Catalog import for supplier {}: {} rows, {} created, {} updated, {} failed",
+                supplierId, tally.totalRows, tally.created, tally.updated, tally.failed);
+        return tally.toResponse();
+    }
+
+    /**
+     * Upserts the pending batch in its own transaction and clears it. If the database rejects
+     * the batch, its rows are reported as failed and the import goes on with the next batch.
+     */
+    private void flush(Long supplierId, Map<String, ProductImportRow> batch, ImportTally tally) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<ProductImportRow> rows = new ArrayList<>(batch.values());
+        batch.clear();
+        try {
+            int existing = transactionTemplate.execute(status -> upsert(supplierId, rows, tally.ratesToBase));
+            tally.updated += existing;
+            tally.created += rows.size() - existing;
+            log.debug("Catalog import for supplier {}: committed {} rows, {} so far",
+                    supplierId, rows.size(), tally.created + tally.updated);
+        } catch (DataAccessException e) {
+            log.warn("Catalog import for supplier {}: batch of {} rows rolled back", supplierId, rows.size(), e);
+            String message = "Not saved, the batch holding this row was rejected: "
+                    + e.getMostSpecificCause().getMessage();
+            rows.forEach(row -> tally.reject(row.rowNumber(), row.request().getSku(), List.of(message)));
+        }
+    }
+
+    /**
+     * Upserts rows and returns how many of them matched an existing SKU.
+     */
+    private int upsert(Long supplierId, List<ProductImportRow> rows, Map<Currency, BigDecimal> ratesToBase) {
+        String[] skus = rows.stream().map(row -> row.request().getSku()).toArray(String[]::new);
+        List<String> existing = jdbcTemplate.query(
+                con -> {
+                    var ps = con.prepareStatement(EXISTING_SKUS_SQL);
+                    ps.setLong(1, supplierId);
+                    ps.setArray(2, con.createArrayOf("varchar", skus));
+                    return ps;
+                },
+                (rs, rowNum) -> rs.getString(1));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ProductRequest request = row.request();
+            Currency currency = request.getCurrency() != null ? request.getCurrency() : Currency.USD;
+            BigDecimal rate = ratesToBase.get(currency);
+            ps.setLong(1, supplierId);
+            ps.setString(2, request.getName());
+            ps.setString(3, request.getDescription());
+            ps.setString(4, request.getCategory());
+            ps.setString(5, request.getSku());
+            ps.setString(6, request.getUnitOfMeasure());
+            ps.setBigDecimal(7, request.getBasePrice());
+            ps.setInt(8, request.getAvailableQuantity());
+            ps.setString(9, currency.name());
+            ps.setBigDecimal(10, rate != null ? CurrencyService.applyRate(request.getBasePrice(), rate) : null);
+            ps.setTimestamp(11, now);
+            ps.setTimestamp(12, now);
+        });
+        return existing.size();
+    }
+
+    /**
+     * Running counters for an import; only the first {@link #MAX_REPORTED_ERRORS} errors are kept.
+     * Also carries the exchange rates used to normalize prices, loaded once per import.
+     */
+    private static final class ImportTally {
+
+        private final Map<Currency, BigDecimal> ratesToBase;
+        private long totalRows;
+        private long created;
+        private long updated;
+        private long failed;
+        private final List<ProductImportResponse.RowError> errors = new ArrayList<>();
+
+        private ImportTally(Map<Currency, BigDecimal> ratesToBase) {
+            this.ratesToBase = ratesToBase;
+        }
+
+        private void reject(long rowNumber, String sku, List<String> messages) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(ProductImportResponse.RowError.builder()
+                        .row(rowNumber)
+                        .sku(sku)
+                        .messages(messages)
+                        .build());
+            }
+        }
+
+        private ProductImportResponse toResponse() {
+            return ProductImportResponse.builder()
+                    .totalRows(totalRows)
+                    .created(created)
+                    .updated(updated)
+                    .failed(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+    }
+}
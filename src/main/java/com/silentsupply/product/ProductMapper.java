@@ -23,6 +23,8 @@ public interface ProductMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "supplier", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "normalizedPrice", ignore = true)
+    @Mapping(target = "changeSeq", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Product toEntity(ProductRequest request);
@@ -46,6 +48,8 @@ public interface ProductMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "supplier", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "normalizedPrice", ignore = true)
+    @Mapping(target = "changeSeq", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     void updateEntity(ProductRequest request, @MappingTarget Product product);
@@ -1,11 +1,15 @@
 package com.silentsupply.product;
 
+import com.silentsupply.currency.Currency;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -24,23 +28,105 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     /**
      * Searches products with optional filters. All parameters are nullable — null means no filter.
+     * Price bounds are in the base currency and compared against the indexed normalized price.
+     * Products listed in a currency with no exchange rate to or from the base currency have no
+     * normalized price, so price-bounded searches leave them out until such a rate is saved.
+     * Suppliers are fetched in the same query.
      *
      * @param category    category filter (exact match)
      * @param name        name filter (case-insensitive contains)
-     * @param minPrice    minimum base price
-     * @param maxPrice    maximum base price
+     * @param minPrice    minimum normalized price
+     * @param maxPrice    maximum normalized price
      * @param status      product status filter
      * @return list of matching products
      */
-    @Query("SELECT p FROM Product p WHERE " +
+    @Query("SELECT p FROM Product p JOIN FETCH p.supplier WHERE " +
            "(:category IS NULL OR p.category = :category) AND " +
            "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', CAST(:name AS text), '%'))) AND " +
-           "(:minPrice IS NULL OR p.basePrice >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.basePrice <= :maxPrice) AND " +
+           "(:minPrice IS NULL OR p.normalizedPrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.normalizedPrice <= :maxPrice) AND " +
            "(:status IS NULL OR p.status = :status)")
     List<Product> search(@Param("category") String category,
                          @Param("name") String name,
                          @Param("minPrice") BigDecimal minPrice,
                          @Param("maxPrice") BigDecimal maxPrice,
                          @Param("status") ProductStatus status);
+
+    /**
+     * Re-normalizes the price of every product listed in a currency using a new rate
+     * to the base currency, in a single statement. Bumps {@code updatedAt} so the change
+     * feed reports the new prices.
+     *
+     * @param currency the products' listing currency
+     * @param rate     the latest rate from that currency to the base currency
+     * @return the number of products updated
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.normalizedPrice = p.basePrice * :rate, p.updatedAt = CURRENT_TIMESTAMP "
+           + "WHERE p.currency = :currency")
+    int updateNormalizedPrices(@Param("currency") Currency currency, @Param("rate") BigDecimal rate);
+
+    /**
+     * Finds products changed after a feed position, in change order, with the supplier fetched.
+     * Only changes written by transactions older than every transaction still running are
+     * returned, so a change committing later always sorts after the returned ones.
+     *
+     * @param afterSeq change sequence of the last change seen
+     * @param afterId  ID of the last product seen at that sequence
+     * @param limit    maximum number of products to return
+     * @return changed products ordered by (changeSeq, id)
+     */
+    @Query("SELECT p FROM Product p JOIN FETCH p.supplier WHERE " +
+           "(p.changeSeq > :afterSeq OR (p.changeSeq = :afterSeq AND p.id > :afterId)) AND " +
+           "p.changeSeq < function('product_change_horizon') " +
+           "ORDER BY p.changeSeq, p.id")
+    List<Product> findChangedSince(@Param("afterSeq") long afterSeq,
+                                   @Param("afterId") long afterId,
+                                   Limit limit);
+
+    /**
+     * Finds one supplier's products changed after a feed position; see {@link #findChangedSince}.
+     *
+     * @param supplierId the supplier's company ID
+     * @param afterSeq   change sequence of the last change seen
+     * @param afterId    ID of the last product seen at that sequence
+     * @param limit      maximum number of products to return
+     * @return changed products ordered by (changeSeq, id)
+     */
+    @Query("SELECT p FROM Product p JOIN FETCH p.supplier WHERE p.supplier.id = :supplierId AND " +
+           "(p.changeSeq > :afterSeq OR (p.changeSeq = :afterSeq AND p.id > :afterId)) AND " +
+           "p.changeSeq < function('product_change_horizon') " +
+           "ORDER BY p.changeSeq, p.id")
+    List<Product> findSupplierChangedSince(@Param("supplierId") Long supplierId,
+                                           @Param("afterSeq") long afterSeq,
+                                           @Param("afterId") long afterId,
+                                           Limit limit);
+
+    /**
+     * Returns the oldest transaction ID still running. Every change with a lower sequence
+     * is settled.
+     *
+     * @return the change horizon
+     */
+    @Query(value = "SELECT product_change_horizon()", nativeQuery = true)
+    long changeHorizon();
+
+    /**
+     * Atomically deducts stock from an active product, only if enough is available.
+     * The check and the write happen in one statement, so concurrent orders can neither
+     * oversell nor overwrite each other's deductions. Products in hot inventory mode are left
+     * alone, since their stock is reserved from an in-memory counter.
+     *
+     * @param id        the product ID
+     * @param quantity  the quantity to deduct
+     * @param updatedAt the change timestamp to record
+     * @return 1 if the stock was deducted, 0 if the product is missing, inactive, hot or short of stock
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.availableQuantity = p.availableQuantity - :quantity, p.updatedAt = :updatedAt " +
+           "WHERE p.id = :id AND p.availableQuantity >= :quantity " +
+           "AND p.status = com.silentsupply.product.ProductStatus.ACTIVE AND p.hotInventory = false")
+    int decrementStock(@Param("id") Long id,
+                       @Param("quantity") int quantity,
+                       @Param("updatedAt") LocalDateTime updatedAt);
 }
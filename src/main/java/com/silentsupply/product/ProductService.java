@@ -1,17 +1,20 @@
 package com.silentsupply.product;
 
 import com.silentsupply.common.exception.AccessDeniedException;
+import com.silentsupply.common.exception.BusinessRuleException;
 import com.silentsupply.common.exception.ResourceNotFoundException;
 import com.silentsupply.company.Company;
 import com.silentsupply.company.CompanyRepository;
 import com.silentsupply.product.dto.ProductRequest;
 import com.silentsupply.product.dto.ProductResponse;
 import com.silentsupply.currency.Currency;
+import com.silentsupply.currency.CurrencyService;
 import com.silentsupply.product.dto.ProductSearchCriteria;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -26,6 +29,8 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final CompanyRepository companyRepository;
     private final ProductMapper productMapper;
+    private final CurrencyService currencyService;
+    private final HotInventoryService hotInventoryService;
 
     /**
      * Creates a new product listing for the given supplier.
@@ -44,8 +49,12 @@ public class ProductService {
         if (product.getCurrency() == null) {
             product.setCurrency(Currency.USD);
         }
+        applyNormalizedPrice(product);
 
         Product saved = productRepository.save(product);
+        if (saved.isHotInventory()) {
+            hotInventoryService.replaceStock(saved.getId(), true);
+        }
         return productMapper.toResponse(saved);
     }
 
@@ -62,7 +71,8 @@ public class ProductService {
     }
 
     /**
-     * Updates a product listing. Only the owning supplier can update.
+     * Updates a product listing. Only the owning supplier can update. The submitted stock
+     * quantity is authoritative, including for products in hot inventory mode.
      *
      * @param productId  the product ID to update
      * @param supplierId the requesting supplier's ID
@@ -80,7 +90,9 @@ public class ProductService {
         if (product.getCurrency() == null) {
             product.setCurrency(existingCurrency);
         }
+        applyNormalizedPrice(product);
         Product saved = productRepository.save(product);
+        hotInventoryService.replaceStock(saved.getId(), saved.isHotInventory());
         return productMapper.toResponse(saved);
     }
 
@@ -95,6 +107,7 @@ public class ProductService {
     public void delete(Long productId, Long supplierId) {
         Product product = findProductOrThrow(productId);
         verifyOwnership(product, supplierId);
+        hotInventoryService.replaceStock(productId, false);
         productRepository.delete(product);
     }
 
@@ -111,23 +124,55 @@ public class ProductService {
     }
 
     /**
-     * Searches products using optional filter criteria.
+     * Searches products using optional filter criteria. A price range given in the buyer's
+     * currency is converted once to the base currency and matched against normalized prices,
+     * so products listed in any currency are compared consistently.
      *
      * @param criteria the search filters
      * @return list of matching products
+     * @throws BusinessRuleException if the price range currency has no rate to the base currency
      */
     public List<ProductResponse> search(ProductSearchCriteria criteria) {
+        Currency priceCurrency = criteria.getCurrency() != null
+                ? criteria.getCurrency() : CurrencyService.BASE_CURRENCY;
         return productRepository.search(
                 criteria.getCategory(),
                 criteria.getName(),
-                criteria.getMinPrice(),
-                criteria.getMaxPrice(),
+                toBaseCurrency(criteria.getMinPrice(), priceCurrency),
+                toBaseCurrency(criteria.getMaxPrice(), priceCurrency),
                 criteria.getStatus()
         ).stream()
                 .map(productMapper::toResponse)
                 .toList();
     }
 
+    /**
+     * Sets the product's normalized price from its base price and currency.
+     *
+     * @param product the product entity
+     */
+    private void applyNormalizedPrice(Product product) {
+        product.setNormalizedPrice(currencyService
+                .normalize(product.getBasePrice(), product.getCurrency())
+                .orElse(null));
+    }
+
+    /**
+     * Converts an optional price bound into the base currency.
+     *
+     * @param amount   the bound, or null for no bound
+     * @param currency the bound's currency
+     * @return the bound in the base currency, or null
+     */
+    private BigDecimal toBaseCurrency(BigDecimal amount, Currency currency) {
+        if (amount == null) {
+            return null;
+        }
+        return currencyService.normalize(amount, currency)
+                .orElseThrow(() -> new BusinessRuleException(
+                        "No exchange rate found for " + currency + " to " + CurrencyService.BASE_CURRENCY));
+    }
+
     /**
      * Finds a product by ID or throws.
      *
@@ -0,0 +1,60 @@
+package com.silentsupply.product;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Deducts stock for several products at once. Each product gets the same conditional update as
+ * {@link ProductRepository#decrementStock}, sent to the database as one JDBC batch.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductStockService {
+
+    private static final String DEDUCT_SQL =
+            "UPDATE products SET available_quantity = available_quantity - ?, updated_at = ? "
+            + "WHERE id = ? AND available_quantity >= ? AND status = 'ACTIVE' AND NOT hot_inventory";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Deducts the given quantities in a single batch. The updates run in ascending product ID
+     * order, so two transactions deducting overlapping product sets always lock rows in the same
+     * order and cannot deadlock each other. The caller must roll back if any product is returned.
+     *
+     * @param quantities quantity to deduct per product ID, in ascending ID order
+     * @return IDs of products that were missing, inactive, hot or short of stock
+     */
+    @Transactional
+    public List<Long> deductAll(SortedMap<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return List.of();
+        }
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantities.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[] updated = jdbcTemplate.batchUpdate(DEDUCT_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, line.getKey());
+            ps.setInt(4, line.getValue());
+        })[0];
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(lines.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,55 @@
+package com.silentsupply.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk catalog import, including row-level errors for rejected rows.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+
+    /** Number of data rows read from the upload. */
+    private long totalRows;
+
+    /** Number of committed rows that created a new product. */
+    private long created;
+
+    /** Number of committed rows that updated an existing product with the same SKU. */
+    private long updated;
+
+    /** Number of rows rejected by parsing or validation, or rolled back with their batch. */
+    private long failed;
+
+    /** Row-level errors, capped so the response stays small for very large uploads. */
+    private List<RowError> errors;
+
+    /** Whether more rows failed than are listed in {@link #errors}. */
+    private boolean errorsTruncated;
+
+    /**
+     * Describes why a single import row was rejected.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        /** 1-based data row number (the CSV header is not counted). */
+        private long row;
+
+        /** SKU of the rejected row, if it could be read. */
+        private String sku;
+
+        /** Validation or parse messages for the row. */
+        private List<String> messages;
+    }
+}
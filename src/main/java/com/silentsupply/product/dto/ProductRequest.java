@@ -57,4 +57,7 @@ public class ProductRequest {
 
     /** Currency for prices (defaults to USD if not specified). */
     private Currency currency;
+
+    /** Enables hot inventory mode for flash demand (unchanged if not specified). */
+    private Boolean hotInventory;
 }
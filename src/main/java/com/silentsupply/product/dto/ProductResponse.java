@@ -55,6 +55,12 @@ public class ProductResponse {
     /** Currency for prices. */
     private Currency currency;
 
+    /** Whether hot inventory mode is enabled. */
+    private boolean hotInventory;
+
     /** When the product was created. */
     private LocalDateTime createdAt;
+
+    /** When the product was last changed. */
+    private LocalDateTime updatedAt;
 }
@@ -1,5 +1,6 @@
 package com.silentsupply.product.dto;
 
+import com.silentsupply.currency.Currency;
 import com.silentsupply.product.ProductStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,12 +24,15 @@ public class ProductSearchCriteria {
     /** Filter by name (case-insensitive contains). */
     private String name;
 
-    /** Minimum price filter. */
+    /** Minimum price filter, in {@link #currency}. */
     private BigDecimal minPrice;
 
-    /** Maximum price filter. */
+    /** Maximum price filter, in {@link #currency}. */
     private BigDecimal maxPrice;
 
+    /** Currency of the price filters (defaults to USD if not specified). */
+    private Currency currency;
+
     /** Filter by product status. */
     private ProductStatus status;
 }
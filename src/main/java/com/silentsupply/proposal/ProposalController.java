@@ -1,6 +1,7 @@
 package com.silentsupply.proposal;
 
 import com.silentsupply.config.CompanyUserDetails;
+import com.silentsupply.idempotency.IdempotencyService;
 import com.silentsupply.proposal.dto.ProposalRequest;
 import com.silentsupply.proposal.dto.ProposalResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -29,13 +31,16 @@ import java.util.List;
 public class ProposalController {
 
     private final ProposalService proposalService;
+    private final IdempotencyService idempotencyService;
 
     /**
-     * Creates a new buyer proposal for an RFQ.
+     * Creates a new buyer proposal for an RFQ. A retry carrying the same
+     * {@code Idempotency-Key} returns the original proposal instead of using up another round.
      *
-     * @param rfqId       the RFQ ID
-     * @param userDetails the authenticated buyer
-     * @param request     the proposal details
+     * @param rfqId          the RFQ ID
+     * @param userDetails    the authenticated buyer
+     * @param request        the proposal details
+     * @param idempotencyKey optional client key that makes retries safe
      * @return the created proposal with HTTP 201
      */
     @PostMapping
@@ -43,9 +48,11 @@ public class ProposalController {
     public ResponseEntity<ProposalResponse> createProposal(
             @PathVariable Long rfqId,
             @AuthenticationPrincipal CompanyUserDetails userDetails,
-            @Valid @RequestBody ProposalRequest request) {
-        ProposalResponse response = proposalService.createBuyerProposal(
-                rfqId, userDetails.getId(), request);
+            @Valid @RequestBody ProposalRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        ProposalResponse response = idempotencyService.execute(userDetails.getId(),
+                "rfqs/" + rfqId + "/proposals", idempotencyKey, request, ProposalResponse.class,
+                () -> proposalService.createBuyerProposal(rfqId, userDetails.getId(), request));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
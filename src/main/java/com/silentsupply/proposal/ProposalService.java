@@ -9,6 +9,7 @@ import com.silentsupply.notification.NotificationService;
 import com.silentsupply.proposal.dto.ProposalRequest;
 import com.silentsupply.proposal.dto.ProposalResponse;
 import com.silentsupply.rfq.Rfq;
+import com.silentsupply.rfq.RfqExpiryService;
 import com.silentsupply.rfq.RfqRepository;
 import com.silentsupply.rfq.RfqService;
 import com.silentsupply.rfq.RfqStatus;
@@ -17,6 +18,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -43,6 +45,7 @@ public class ProposalService {
     private final NegotiationRuleRepository ruleRepository;
     private final NegotiationEngine negotiationEngine;
     private final NotificationService notificationService;
+    private final RfqExpiryService rfqExpiryService;
 
     /**
      * Creates a buyer proposal for an RFQ. If negotiation rules exist for the product,
@@ -52,7 +55,8 @@ public class ProposalService {
      * @param buyerId the buyer's company ID
      * @param request the proposal details
      * @return the created proposal (may already be resolved by the engine)
-     * @throws BusinessRuleException if the RFQ is not in a proposable status or max rounds exceeded
+     * @throws BusinessRuleException if the RFQ is not in a proposable status, has passed its
+     *                               expiry time, or max rounds exceeded
      */
     @Transactional
     public ProposalResponse createBuyerProposal(Long rfqId, Long buyerId, ProposalRequest request) {
@@ -66,6 +70,10 @@ public class ProposalService {
             throw new BusinessRuleException("RFQ is not in a status that accepts proposals: " + rfq.getStatus());
         }
 
+        if (!rfq.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new BusinessRuleException("RFQ expired at " + rfq.getExpiresAt());
+        }
+
         if (rfq.getCurrentRound() >= rfq.getMaxRounds()) {
             throw new BusinessRuleException("Maximum negotiation rounds reached: " + rfq.getMaxRounds());
         }
@@ -129,12 +137,14 @@ public class ProposalService {
             case ACCEPTED -> {
                 rfq.setStatus(RfqStatus.ACCEPTED);
                 rfqRepository.save(rfq);
+                rfqExpiryService.cancel(rfq.getId());
                 notificationService.notifyNegotiationResolved(rfq, RfqStatus.ACCEPTED);
                 log.info("RFQ {} auto-accepted at round {}", rfq.getId(), rfq.getCurrentRound());
             }
             case REJECTED -> {
                 rfq.setStatus(RfqStatus.REJECTED);
                 rfqRepository.save(rfq);
+                rfqExpiryService.cancel(rfq.getId());
                 notificationService.notifyNegotiationResolved(rfq, RfqStatus.REJECTED);
                 log.info("RFQ {} auto-rejected: {}", rfq.getId(), result.getReasonCode());
             }
@@ -0,0 +1,11 @@
+package com.silentsupply.rfq;
+
+/**
+ * An RFQ the expiry sweeper has just moved to {@link RfqStatus#EXPIRED}.
+ *
+ * @param id         the RFQ ID
+ * @param buyerId    the buyer's company ID
+ * @param supplierId the supplier's company ID
+ */
+public record ExpiredRfq(long id, long buyerId, long supplierId) {
+}
@@ -0,0 +1,117 @@
+package com.silentsupply.rfq;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timer wheel holding one deadline per ID. Deadlines are rounded up to whole ticks and
+ * hashed into a fixed ring of slots by tick number, so scheduling and cancelling are O(1) and
+ * advancing the clock by one tick only inspects the IDs in one slot. Deadlines further away
+ * than one revolution share a slot with nearer ones and are skipped until their tick comes round.
+ *
+ * <p>An ID never fires before its deadline and fires on the first {@link #advance} at or after
+ * the end of its deadline's tick. All methods are synchronized; the wheel is meant to be
+ * advanced by a single ticker thread while other threads schedule and cancel.</p>
+ */
+final class ExpiryTimerWheel {
+
+    private final long tickMillis;
+    private final List<Set<Long>> slots;
+    private final Map<Long, Long> deadlineTicks = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * Creates an empty wheel whose clock starts at the given time.
+     *
+     * @param slotCount  number of slots in the ring, at least 1
+     * @param tickMillis length of a tick in milliseconds, positive
+     * @param nowMillis  the current time in epoch milliseconds
+     */
+    ExpiryTimerWheel(int slotCount, long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(Math.max(1, slotCount));
+        for (int i = 0; i < Math.max(1, slotCount); i++) {
+            slots.add(new HashSet<>());
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedules an ID, replacing any deadline it already had. A deadline that has already
+     * passed fires on the next tick.
+     *
+     * @param id             the ID
+     * @param deadlineMillis the deadline in epoch milliseconds
+     */
+    synchronized void schedule(long id, long deadlineMillis) {
+        cancel(id);
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        deadlineTicks.put(id, tick);
+        slotOf(tick).add(id);
+    }
+
+    /**
+     * Removes an ID's deadline.
+     *
+     * @param id the ID
+     * @return true if the ID was scheduled
+     */
+    synchronized boolean cancel(long id) {
+        Long tick = deadlineTicks.remove(id);
+        if (tick == null) {
+            return false;
+        }
+        slotOf(tick).remove(id);
+        return true;
+    }
+
+    /**
+     * Moves the clock forward and removes every ID whose deadline has been reached. A jump of a
+     * full revolution or more visits each slot once.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the IDs that are due, in no particular order
+     */
+    synchronized List<Long> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Long> due = new ArrayList<>();
+        if (targetTick <= currentTick) {
+            return due;
+        }
+        long steps = Math.min(targetTick - currentTick, slots.size());
+        for (long tick = currentTick + 1; tick <= currentTick + steps; tick++) {
+            Iterator<Long> ids = slotOf(tick).iterator();
+            while (ids.hasNext()) {
+                Long id = ids.next();
+                if (deadlineTicks.get(id) <= targetTick) {
+                    ids.remove();
+                    deadlineTicks.remove(id);
+                    due.add(id);
+                }
+            }
+        }
+        currentTick = targetTick;
+        return due;
+    }
+
+    /**
+     * Returns the number of scheduled IDs.
+     *
+     * @return the scheduled count
+     */
+    synchronized int size() {
+        return deadlineTicks.size();
+    }
+
+    /**
+     * Returns the slot a tick hashes to.
+     */
+    private Set<Long> slotOf(long tick) {
+        return slots.get((int) Math.floorMod(tick, (long) slots.size()));
+    }
+}
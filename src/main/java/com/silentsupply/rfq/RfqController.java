@@ -3,6 +3,7 @@ package com.silentsupply.rfq;
 import com.silentsupply.config.CompanyUserDetails;
 import com.silentsupply.rfq.dto.RfqRequest;
 import com.silentsupply.rfq.dto.RfqResponse;
+import com.silentsupply.rfq.dto.RfqTimelineResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -30,6 +32,7 @@ import java.util.List;
 public class RfqController {
 
     private final RfqService rfqService;
+    private final RfqTimelineService rfqTimelineService;
 
     /**
      * Submits a new RFQ. Buyer-only.
@@ -59,6 +62,24 @@ public class RfqController {
         return ResponseEntity.ok(rfqService.getById(id));
     }
 
+    /**
+     * Returns an RFQ together with its proposals, attachment metadata and the latest messages
+     * of its conversation, for the RFQ detail screen. Buyer or supplier of the RFQ only.
+     *
+     * @param userDetails the authenticated user
+     * @param id          the RFQ ID
+     * @param messages    how many of the latest messages to include
+     * @return the RFQ timeline
+     */
+    @GetMapping("/{id}/timeline")
+    @Operation(summary = "Get an RFQ with its proposals, attachments and latest messages")
+    public ResponseEntity<RfqTimelineResponse> getTimeline(
+            @AuthenticationPrincipal CompanyUserDetails userDetails,
+            @PathVariable Long id,
+            @RequestParam(value = "messages", required = false) Integer messages) {
+        return ResponseEntity.ok(rfqTimelineService.getTimeline(id, userDetails.getId(), messages));
+    }
+
     /**
      * Lists RFQs for the authenticated user (buyer or supplier).
      *
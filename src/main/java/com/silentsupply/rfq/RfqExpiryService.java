@@ -0,0 +1,217 @@
+package com.silentsupply.rfq;
+
+import com.silentsupply.notification.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Expires RFQs whose {@code expires_at} has passed while they were still active, moving them to
+ * {@link RfqStatus#EXPIRED} with set-based updates that never load entities, and notifies their
+ * buyers and suppliers in one batch per update.
+ *
+ * <p>The deadline of every active RFQ is held in an in-memory {@link ExpiryTimerWheel}, loaded at
+ * startup and updated when RFQs are submitted or resolved. A ticker advances the wheel a few
+ * times per second and touches the database only when an RFQ is due, so each RFQ expires within
+ * a second of its deadline.</p>
+ *
+ * <p>A periodic sweep remains as a safety net for deadlines the wheel missed, for example an
+ * expiry update that failed or an RFQ submitted through another node. It finds overdue RFQs
+ * through a partial index on {@code expires_at} that only covers active statuses, so it costs
+ * the same however many resolved RFQs have accumulated.</p>
+ */
+@Service
+@Slf4j
+public class RfqExpiryService {
+
+    /**
+     * Expires up to one chunk of overdue active RFQs, oldest deadline first. Rows locked by a
+     * concurrent negotiation are skipped and picked up by a later run.
+     */
+    private static final String EXPIRE_CHUNK_SQL = """
+            UPDATE rfqs SET status = 'EXPIRED', updated_at = NOW()
+            WHERE id IN (
+                SELECT id FROM rfqs
+                WHERE expires_at < NOW() AND status IN ('SUBMITTED', 'UNDER_REVIEW', 'COUNTERED')
+                ORDER BY expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id, buyer_id, supplier_id
+            """;
+
+    /**
+     * Expires the given RFQs if they are still active and their deadline has passed by the
+     * application clock, which also wrote {@code expires_at}.
+     */
+    private static final String EXPIRE_DUE_SQL = """
+            UPDATE rfqs SET status = 'EXPIRED', updated_at = NOW()
+            WHERE id = ANY(?) AND expires_at <= ? AND status IN ('SUBMITTED', 'UNDER_REVIEW', 'COUNTERED')
+            RETURNING id, buyer_id, supplier_id
+            """;
+
+    private static final String ACTIVE_DEADLINES_SQL =
+            "SELECT id, expires_at FROM rfqs WHERE status IN ('SUBMITTED', 'UNDER_REVIEW', 'COUNTERED')";
+
+    /** Slots in the timer wheel ring. */
+    private static final int WHEEL_SLOTS = 4096;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationService notificationService;
+    private final int chunkSize;
+    private final ExpiryTimerWheel wheel;
+
+    /**
+     * Creates the expiry service.
+     *
+     * @param jdbcTemplate        JDBC access for the expiry statements
+     * @param transactionTemplate transaction template, one transaction per chunk
+     * @param notificationService sends the expiry notifications
+     * @param chunkSize           RFQs expired per statement
+     * @param tickMillis          resolution of the timer wheel; also the ticker's interval
+     */
+    public RfqExpiryService(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            NotificationService notificationService,
+                            @Value("${app.rfq-expiry.chunk-size:500}") int chunkSize,
+                            @Value("${app.rfq-expiry.tick-ms:250}") long tickMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationService = notificationService;
+        this.chunkSize = chunkSize;
+        this.wheel = new ExpiryTimerWheel(WHEEL_SLOTS, tickMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Loads the deadline of every active RFQ into the timer wheel on startup. RFQs already
+     * overdue fire on the first tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDeadlines() {
+        jdbcTemplate.query(ACTIVE_DEADLINES_SQL, rs -> {
+            wheel.schedule(rs.getLong("id"), toEpochMillis(rs.getTimestamp("expires_at").toLocalDateTime()));
+        });
+        log.info("RFQ expiry wheel loaded with {} active RFQs", wheel.size());
+    }
+
+    /**
+     * Tracks a new RFQ's deadline once the current transaction commits.
+     *
+     * @param rfqId     the RFQ ID
+     * @param expiresAt when the RFQ expires
+     */
+    public void schedule(Long rfqId, LocalDateTime expiresAt) {
+        long deadline = toEpochMillis(expiresAt);
+        afterCommit(() -> wheel.schedule(rfqId, deadline));
+    }
+
+    /**
+     * Stops tracking a resolved RFQ's deadline once the current transaction commits.
+     *
+     * @param rfqId the RFQ ID
+     */
+    public void cancel(Long rfqId) {
+        afterCommit(() -> wheel.cancel(rfqId));
+    }
+
+    /**
+     * Advances the timer wheel and expires the RFQs that have become due, in chunks. RFQs that
+     * cannot be expired now are left to the sweep.
+     *
+     * @return the number of RFQs expired
+     */
+    @Scheduled(fixedDelayString = "${app.rfq-expiry.tick-ms:250}")
+    public int tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return 0;
+        }
+        int total = 0;
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int from = 0; from < due.size(); from += chunkSize) {
+                Long[] ids = due.subList(from, Math.min(from + chunkSize, due.size())).toArray(Long[]::new);
+                total += transactionTemplate.execute(status -> expire(EXPIRE_DUE_SQL, ids, now)).size();
+            }
+        } catch (RuntimeException e) {
+            log.warn("RFQ expiry failed for {} due RFQs, leaving them to the sweep: {}", due.size(), e.getMessage());
+        }
+        log.debug("Expired {} of {} RFQs due on the timer wheel", total, due.size());
+        return total;
+    }
+
+    /**
+     * Expires all overdue active RFQs, one chunk per transaction, until none are left. Each
+     * chunk's notifications commit with its status change, and its RFQs leave the timer wheel.
+     * On failure the remaining RFQs are left for the next run.
+     *
+     * @return the number of RFQs expired
+     */
+    @Scheduled(fixedDelayString = "${app.rfq-expiry.sweep-interval-ms:60000}")
+    public int sweep() {
+        int total = 0;
+        try {
+            List<ExpiredRfq> chunk;
+            do {
+                chunk = transactionTemplate.execute(status -> expire(EXPIRE_CHUNK_SQL, chunkSize));
+                chunk.forEach(rfq -> wheel.cancel(rfq.id()));
+                total += chunk.size();
+            } while (chunk.size() == chunkSize);
+        } catch (RuntimeException e) {
+            log.warn("RFQ expiry sweep failed after {} RFQs, the rest will be retried: {}", total, e.getMessage());
+        }
+        if (total > 0) {
+            log.info("Expired {} overdue RFQs", total);
+        }
+        return total;
+    }
+
+    /**
+     * Runs an expiry statement in the current transaction and notifies the affected companies.
+     */
+    private List<ExpiredRfq> expire(String sql, Object... args) {
+        List<ExpiredRfq> expired = jdbcTemplate.query(sql, (rs, rowNum) -> new ExpiredRfq(
+                rs.getLong("id"), rs.getLong("buyer_id"), rs.getLong("supplier_id")), args);
+        if (!expired.isEmpty()) {
+            notificationService.notifyRfqsExpired(expired);
+        }
+        return expired;
+    }
+
+    /**
+     * Runs an update of the timer wheel after the current transaction commits, or immediately
+     * outside a transaction.
+     */
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * Converts a timestamp written by the application clock to epoch milliseconds.
+     */
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
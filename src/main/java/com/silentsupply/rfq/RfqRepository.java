@@ -1,10 +1,11 @@
 package com.silentsupply.rfq;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Spring Data repository for {@link Rfq} entities.
@@ -13,29 +14,31 @@ import java.util.List;
 public interface RfqRepository extends JpaRepository<Rfq, Long> {
 
     /**
-     * Finds all RFQs submitted by a specific buyer.
+     * Finds all RFQs submitted by a specific buyer, with buyer, supplier and product fetched.
      *
      * @param buyerId the buyer's company ID
      * @return list of RFQs
      */
+    @EntityGraph(attributePaths = {"buyer", "supplier", "product"})
     List<Rfq> findByBuyerId(Long buyerId);
 
     /**
-     * Finds all RFQs directed to a specific supplier.
+     * Finds all RFQs directed to a specific supplier, with buyer, supplier and product fetched.
      *
      * @param supplierId the supplier's company ID
      * @return list of RFQs
      */
+    @EntityGraph(attributePaths = {"buyer", "supplier", "product"})
     List<Rfq> findBySupplierId(Long supplierId);
 
     /**
-     * Finds RFQs that have expired but are still in an active status.
+     * Finds an RFQ with buyer, supplier and product fetched.
      *
-     * @param now            the current timestamp
-     * @param activeStatuses the statuses considered active
-     * @return list of expired RFQs
+     * @param id the RFQ ID
+     * @return the RFQ if found
      */
-    List<Rfq> findByExpiresAtBeforeAndStatusIn(LocalDateTime now, List<RfqStatus> activeStatuses);
+    @EntityGraph(attributePaths = {"buyer", "supplier", "product"})
+    Optional<Rfq> findWithPartiesById(Long id);
 
     /**
      * Counts total RFQs for a supplier.
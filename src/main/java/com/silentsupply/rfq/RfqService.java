@@ -33,6 +33,7 @@ public class RfqService {
     private final CompanyRepository companyRepository;
     private final RfqMapper rfqMapper;
     private final NotificationService notificationService;
+    private final RfqExpiryService rfqExpiryService;
 
     /**
      * Submits a new RFQ for a product. Only buyers can submit RFQs.
@@ -71,6 +72,7 @@ public class RfqService {
 
         Rfq saved = rfqRepository.save(rfq);
         notificationService.notifyRfqSubmitted(saved);
+        rfqExpiryService.schedule(saved.getId(), saved.getExpiresAt());
         return rfqMapper.toResponse(saved);
     }
 
@@ -109,23 +111,6 @@ public class RfqService {
                 .toList();
     }
 
-    /**
-     * Expires all RFQs that have passed their expiration date and are still in an active status.
-     *
-     * @return the number of RFQs expired
-     */
-    @Transactional
-    public int expireOverdueRfqs() {
-        List<RfqStatus> activeStatuses = List.of(
-                RfqStatus.SUBMITTED, RfqStatus.UNDER_REVIEW, RfqStatus.COUNTERED);
-        List<Rfq> expired = rfqRepository.findByExpiresAtBeforeAndStatusIn(
-                LocalDateTime.now(), activeStatuses);
-
-        expired.forEach(rfq -> rfq.setStatus(RfqStatus.EXPIRED));
-        rfqRepository.saveAll(expired);
-        return expired.size();
-    }
-
     /**
      * Finds an RFQ by ID or throws ResourceNotFoundException.
      *
@@ -0,0 +1,170 @@
+package com.silentsupply.rfq;
+
+import com.silentsupply.attachment.AttachmentEntityType;
+import com.silentsupply.attachment.AttachmentMapper;
+import com.silentsupply.attachment.AttachmentRepository;
+import com.silentsupply.attachment.dto.AttachmentResponse;
+import com.silentsupply.common.exception.AccessDeniedException;
+import com.silentsupply.common.exception.ResourceNotFoundException;
+import com.silentsupply.messaging.ConversationType;
+import com.silentsupply.messaging.MessageMapper;
+import com.silentsupply.messaging.MessageRepository;
+import com.silentsupply.messaging.dto.MessageResponse;
+import com.silentsupply.proposal.ProposalMapper;
+import com.silentsupply.proposal.ProposalRepository;
+import com.silentsupply.proposal.dto.ProposalResponse;
+import com.silentsupply.rfq.dto.RfqTimelineResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Assembles the RFQ detail screen's data in a fixed number of queries: one for the RFQ with
+ * its parties and product, then one each for proposals, attachments and the latest messages of
+ * the RFQ's conversation. The last three only depend on the RFQ ID and run concurrently.
+ *
+ * <p>This service is deliberately not transactional. Each query runs in its own short
+ * read-only transaction, so the request thread does not hold a connection while it waits for
+ * the concurrent loads, which need connections of their own. The loads run on virtual threads,
+ * so their concurrency is bounded by the connection pool rather than by a thread pool.</p>
+ */
+@Service
+public class RfqTimelineService {
+
+    /** Messages returned when the caller does not ask for a count. */
+    public static final int DEFAULT_MESSAGE_COUNT = 20;
+
+    /** Upper bound on the messages returned. */
+    public static final int MAX_MESSAGE_COUNT = 100;
+
+    private final RfqRepository rfqRepository;
+    private final RfqMapper rfqMapper;
+    private final ProposalRepository proposalRepository;
+    private final ProposalMapper proposalMapper;
+    private final AttachmentRepository attachmentRepository;
+    private final AttachmentMapper attachmentMapper;
+    private final MessageRepository messageRepository;
+    private final MessageMapper messageMapper;
+    private final ExecutorService executor;
+
+    /**
+     * Creates the timeline service, running the concurrent loads on virtual threads.
+     *
+     * @param rfqRepository        RFQ access
+     * @param rfqMapper            RFQ mapper
+     * @param proposalRepository   proposal access
+     * @param proposalMapper       proposal mapper
+     * @param attachmentRepository attachment access
+     * @param attachmentMapper     attachment mapper
+     * @param messageRepository    message access
+     * @param messageMapper        message mapper
+     */
+    @Autowired
+    public RfqTimelineService(RfqRepository rfqRepository,
+                              RfqMapper rfqMapper,
+                              ProposalRepository proposalRepository,
+                              ProposalMapper proposalMapper,
+                              AttachmentRepository attachmentRepository,
+                              AttachmentMapper attachmentMapper,
+                              MessageRepository messageRepository,
+                              MessageMapper messageMapper) {
+        this(rfqRepository, rfqMapper, proposalRepository, proposalMapper, attachmentRepository,
+                attachmentMapper, messageRepository, messageMapper, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Creates the timeline service with the executor that runs the concurrent loads.
+     */
+    RfqTimelineService(RfqRepository rfqRepository,
+                       RfqMapper rfqMapper,
+                       ProposalRepository proposalRepository,
+                       ProposalMapper proposalMapper,
+                       AttachmentRepository attachmentRepository,
+                       AttachmentMapper attachmentMapper,
+                       MessageRepository messageRepository,
+                       MessageMapper messageMapper,
+                       ExecutorService executor) {
+        this.rfqRepository = rfqRepository;
+        this.rfqMapper = rfqMapper;
+        this.proposalRepository = proposalRepository;
+        this.proposalMapper = proposalMapper;
+        this.attachmentRepository = attachmentRepository;
+        this.attachmentMapper = attachmentMapper;
+        this.messageRepository = messageRepository;
+        this.messageMapper = messageMapper;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns an RFQ with its proposals, attachment metadata and latest conversation messages.
+     *
+     * @param rfqId        the RFQ ID
+     * @param companyId    the requesting company's ID; must be the RFQ's buyer or supplier
+     * @param messageCount how many of the latest messages to include, capped at {@link #MAX_MESSAGE_COUNT}
+     * @return the timeline
+     * @throws ResourceNotFoundException if the RFQ does not exist
+     * @throws AccessDeniedException     if the company is not a party to the RFQ
+     */
+    public RfqTimelineResponse getTimeline(Long rfqId, Long companyId, Integer messageCount) {
+        Rfq rfq = rfqRepository.findWithPartiesById(rfqId)
+                .orElseThrow(() -> new ResourceNotFoundException("RFQ", "id", rfqId));
+        if (!rfq.getBuyer().getId().equals(companyId) && !rfq.getSupplier().getId().equals(companyId)) {
+            throw new AccessDeniedException("Only the RFQ's buyer and supplier can view its timeline");
+        }
+        int messageLimit = messageCount == null || messageCount < 1
+                ? DEFAULT_MESSAGE_COUNT
+                : Math.min(messageCount, MAX_MESSAGE_COUNT);
+
+        CompletableFuture<List<ProposalResponse>> proposals = CompletableFuture.supplyAsync(() ->
+                proposalRepository.findByRfqIdOrderByRoundNumberAscIdAsc(rfqId).stream()
+                        .map(proposalMapper::toResponse)
+                        .toList(), executor);
+        CompletableFuture<List<AttachmentResponse>> attachments = CompletableFuture.supplyAsync(() ->
+                attachmentRepository.findByEntityTypeAndEntityId(AttachmentEntityType.RFQ, rfqId).stream()
+                        .map(attachmentMapper::toResponse)
+                        .toList(), executor);
+        CompletableFuture<List<MessageResponse>> messages = CompletableFuture.supplyAsync(() ->
+                messageRepository.findLatestInScopedConversation(ConversationType.RFQ, rfqId, Limit.of(messageLimit))
+                        .stream()
+                        .map(messageMapper::toResponse)
+                        .toList(), executor);
+
+        List<MessageResponse> latestMessages = await(messages);
+        return RfqTimelineResponse.builder()
+                .rfq(rfqMapper.toResponse(rfq))
+                .proposals(await(proposals))
+                .attachments(await(attachments))
+                .conversationId(latestMessages.isEmpty() ? null : latestMessages.get(0).getConversationId())
+                .latestMessages(latestMessages)
+                .build();
+    }
+
+    /**
+     * Stops accepting loads once the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Waits for a concurrent load, rethrowing its failure unwrapped.
+     */
+    private static <T> T await(CompletableFuture<T> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.silentsupply.rfq.dto;
+
+import com.silentsupply.attachment.dto.AttachmentResponse;
+import com.silentsupply.messaging.dto.MessageResponse;
+import com.silentsupply.proposal.dto.ProposalResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO with everything the RFQ detail screen shows, loaded in one request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RfqTimelineResponse {
+
+    /** The RFQ. */
+    private RfqResponse rfq;
+
+    /** All proposals, ordered by round then creation order. */
+    private List<ProposalResponse> proposals;
+
+    /** Metadata of the files attached to the RFQ. */
+    private List<AttachmentResponse> attachments;
+
+    /** ID of the RFQ's conversation, or null if no message has been sent yet. */
+    private Long conversationId;
+
+    /** The conversation's latest messages, newest first. */
+    private List<MessageResponse> latestMessages;
+}
@@ -0,0 +1,6 @@
+-- Keyset indexes for paginated order listings, read newest first by (created_at, id).
+-- They replace the single-column buyer and supplier indexes, which are now redundant prefixes.
+CREATE INDEX idx_catalog_orders_buyer_created_at_id ON catalog_orders (buyer_id, created_at, id);
+CREATE INDEX idx_catalog_orders_supplier_created_at_id ON catalog_orders (supplier_id, created_at, id);
+DROP INDEX idx_catalog_orders_buyer;
+DROP INDEX idx_catalog_orders_supplier;
@@ -0,0 +1,16 @@
+-- Transactional outbox for real-time pushes (SSE notifications, STOMP messages). Rows are
+-- written in the business transaction and drained by a background dispatcher after commit,
+-- so no network I/O happens inside the transaction and rolled-back work pushes nothing.
+-- recipient_id has no foreign key: rows are transient and must not block company deletes.
+CREATE TABLE event_outbox (
+    id           BIGSERIAL    PRIMARY KEY,
+    channel      VARCHAR(10)  NOT NULL,
+    recipient_id BIGINT       NOT NULL,
+    destination  VARCHAR(100) NOT NULL,
+    payload      TEXT         NOT NULL,
+    attempts     INT          NOT NULL DEFAULT 0,
+    available_at TIMESTAMP    NOT NULL DEFAULT NOW(),
+    created_at   TIMESTAMP    NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_event_outbox_available_at ON event_outbox (available_at, id);
@@ -0,0 +1,4 @@
+-- Partial index for the RFQ expiry sweeper: only active RFQs are indexed, so finding the
+-- overdue ones stays cheap no matter how many resolved or expired RFQs accumulate.
+CREATE INDEX idx_rfqs_active_expires_at ON rfqs (expires_at)
+    WHERE status IN ('SUBMITTED', 'UNDER_REVIEW', 'COUNTERED');
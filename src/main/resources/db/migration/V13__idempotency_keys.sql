@@ -0,0 +1,15 @@
+-- Responses of write requests sent with an Idempotency-Key header, so a retried request
+-- returns the original response instead of running again. A row is written in the same
+-- transaction as the work it records and is purged once it expires.
+-- company_id has no foreign key: rows are transient and must not block company deletes.
+CREATE TABLE idempotency_keys (
+    company_id      BIGINT       NOT NULL,
+    scope           VARCHAR(100) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    response_body   TEXT         NOT NULL,
+    created_at      TIMESTAMP    NOT NULL DEFAULT NOW(),
+    expires_at      TIMESTAMP    NOT NULL,
+    PRIMARY KEY (company_id, scope, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,11 @@
+-- Unread message counter per participant, maintained on send and reset on read, so badge and
+-- inbox reads no longer count messages. Backfilled from the existing read markers.
+ALTER TABLE conversation_participants ADD COLUMN unread_count INT NOT NULL DEFAULT 0;
+
+UPDATE conversation_participants p
+SET unread_count = (
+    SELECT COUNT(*) FROM messages m
+    WHERE m.conversation_id = p.conversation_id
+      AND m.sender_company_id <> p.company_id
+      AND (p.last_read_at IS NULL OR m.created_at > p.last_read_at)
+);
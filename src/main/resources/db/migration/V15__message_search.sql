@@ -0,0 +1,6 @@
+-- Full-text search over message content. The vector is generated from the content, so it
+-- can never go stale, and the GIN index lets a search touch only matching messages.
+ALTER TABLE messages
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (to_tsvector('english', content)) STORED;
+
+CREATE INDEX idx_messages_search ON messages USING GIN (search_vector);
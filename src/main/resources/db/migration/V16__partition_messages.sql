@@ -0,0 +1,58 @@
+-- Range-partition messages by month of created_at. Reads hit recent messages, so each month's
+-- indexes stay small and hot; months past the retention horizon are detached, folded into the
+-- compressed message_archive below and dropped by MessagePartitionService. The primary key has
+-- to include the partition key; IDs stay unique because they come from the sequence.
+ALTER TABLE messages RENAME TO messages_unpartitioned;
+ALTER INDEX messages_pkey RENAME TO messages_unpartitioned_pkey;
+ALTER SEQUENCE messages_id_seq OWNED BY NONE;
+DROP INDEX idx_messages_conversation;
+DROP INDEX idx_messages_sender;
+DROP INDEX idx_messages_search;
+
+CREATE TABLE messages (
+    id                  BIGINT      NOT NULL DEFAULT nextval('messages_id_seq'),
+    conversation_id     BIGINT      NOT NULL REFERENCES conversations(id) ON DELETE CASCADE,
+    sender_company_id   BIGINT      NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    content             TEXT        NOT NULL,
+    created_at          TIMESTAMP   NOT NULL DEFAULT NOW(),
+    search_vector       tsvector    GENERATED ALWAYS AS (to_tsvector('english', content)) STORED,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE messages_id_seq OWNED BY messages.id;
+
+-- One partition per month from the oldest message through three months ahead; the service
+-- keeps creating partitions ahead from then on.
+DO $$
+DECLARE
+    month DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM messages_unpartitioned), NOW()));
+    last_month DATE := date_trunc('month', NOW()) + INTERVAL '3 months';
+BEGIN
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF messages FOR VALUES FROM (%L) TO (%L)',
+                       'messages_p' || to_char(month, 'YYYY_MM'), month, (month + INTERVAL '1 month')::DATE);
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO messages (id, conversation_id, sender_company_id, content, created_at)
+SELECT id, conversation_id, sender_company_id, content, created_at FROM messages_unpartitioned;
+
+DROP TABLE messages_unpartitioned;
+
+CREATE INDEX idx_messages_conversation ON messages (conversation_id, created_at);
+CREATE INDEX idx_messages_sender ON messages (sender_company_id);
+CREATE INDEX idx_messages_search ON messages USING GIN (search_vector);
+
+-- Archived months: one row per conversation and month holding its messages as gzipped JSON,
+-- oldest first. The payload is compressed by the application, so Postgres stores it as is.
+CREATE TABLE message_archive (
+    conversation_id     BIGINT      NOT NULL REFERENCES conversations(id) ON DELETE CASCADE,
+    month               DATE        NOT NULL,
+    message_count       INT         NOT NULL,
+    payload             BYTEA       NOT NULL,
+    archived_at         TIMESTAMP   NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (conversation_id, month)
+);
+
+ALTER TABLE message_archive ALTER COLUMN payload SET STORAGE EXTERNAL;
@@ -0,0 +1,26 @@
+-- Order the product change feed by the writing transaction instead of updated_at. The application
+-- stamps updated_at before commit, so a slow transaction could commit a change behind a position
+-- a consumer had already passed. Every insert or update now records its transaction ID, and the
+-- feed only serves changes below the oldest transaction still running: all of those are committed
+-- or rolled back, and any later commit gets a change_seq past every cursor already handed out.
+ALTER TABLE products ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE FUNCTION products_stamp_change_seq() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := pg_current_xact_id()::text::BIGINT;
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_products_change_seq
+    BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION products_stamp_change_seq();
+
+-- Oldest transaction ID still running; every change_seq below it belongs to a finished transaction.
+CREATE FUNCTION product_change_horizon() RETURNS BIGINT AS $$
+    SELECT pg_snapshot_xmin(pg_current_snapshot())::text::BIGINT
+$$ LANGUAGE sql STABLE;
+
+DROP INDEX idx_products_updated_at_id;
+DROP INDEX idx_products_supplier_updated_at_id;
+CREATE INDEX idx_products_change_seq_id ON products (change_seq, id);
+CREATE INDEX idx_products_supplier_change_seq_id ON products (supplier_id, change_seq, id);
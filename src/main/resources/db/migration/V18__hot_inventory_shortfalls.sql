@@ -0,0 +1,10 @@
+-- A hot inventory flush that finds more pending orders than stock used to clamp the product at
+-- zero silently. It still stops at zero, but now records the units sold beyond the stock here.
+CREATE TABLE hot_inventory_shortfalls (
+    id          BIGSERIAL PRIMARY KEY,
+    product_id  BIGINT    NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    quantity    INT       NOT NULL,
+    recorded_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_hot_inventory_shortfalls_product ON hot_inventory_shortfalls (product_id);
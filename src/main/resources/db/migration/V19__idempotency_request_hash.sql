@@ -0,0 +1,4 @@
+-- SHA-256 of the request a stored response answered, so a key reused for a different request
+-- is rejected instead of replaying the wrong response. Rows written before this column existed
+-- have no hash and are replayed as before until they expire.
+ALTER TABLE idempotency_keys ADD COLUMN request_hash CHAR(64);
@@ -0,0 +1,13 @@
+-- Number of a conversation's messages held in message_archive, kept by the archive job, so
+-- reading message history no longer sums the archive rows on every page. Backfilled from the
+-- months archived so far.
+ALTER TABLE conversations ADD COLUMN archived_message_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE conversations c
+SET archived_message_count = a.message_count
+FROM (
+    SELECT conversation_id, SUM(message_count) AS message_count
+    FROM message_archive
+    GROUP BY conversation_id
+) a
+WHERE a.conversation_id = c.id;
@@ -0,0 +1,13 @@
+-- V7 only normalized currencies with a direct rate into USD. Currencies quoted only as a rate
+-- out of USD are normalized with its inverse, as CurrencyService does, rounded to the same
+-- 12 decimal places, so their products show up in price-filtered search again.
+UPDATE products p
+SET normalized_price = p.base_price * ROUND(1 / r.rate, 12)
+FROM (SELECT DISTINCT ON (to_currency) to_currency, rate
+      FROM exchange_rates
+      WHERE from_currency = 'USD' AND to_currency <> 'USD' AND rate > 0
+      ORDER BY to_currency, effective_date DESC) r
+WHERE p.currency = r.to_currency
+  AND p.normalized_price IS NULL
+  AND NOT EXISTS (SELECT 1 FROM exchange_rates d
+                  WHERE d.from_currency = p.currency AND d.to_currency = 'USD');
@@ -0,0 +1,14 @@
+-- Entities draw IDs from the BIGSERIAL sequences in pooled blocks of 50 so Hibernate can
+-- batch inserts. Plain DEFAULT nextval() inserts stay safe: each call reserves a whole block.
+ALTER SEQUENCE companies_id_seq INCREMENT BY 50;
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE catalog_orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE rfqs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE proposals_id_seq INCREMENT BY 50;
+ALTER SEQUENCE negotiation_rules_id_seq INCREMENT BY 50;
+ALTER SEQUENCE attachments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE notifications_id_seq INCREMENT BY 50;
+ALTER SEQUENCE exchange_rates_id_seq INCREMENT BY 50;
+ALTER SEQUENCE conversations_id_seq INCREMENT BY 50;
+ALTER SEQUENCE conversation_participants_id_seq INCREMENT BY 50;
+ALTER SEQUENCE messages_id_seq INCREMENT BY 50;
@@ -0,0 +1,16 @@
+-- Product price converted to the base currency (USD) at the latest rate, so price filters
+-- can compare products listed in different currencies with one indexed range predicate.
+-- NULL when no rate to USD exists for the product's currency.
+ALTER TABLE products ADD COLUMN normalized_price NUMERIC(19, 6);
+
+UPDATE products SET normalized_price = base_price WHERE currency = 'USD';
+
+UPDATE products p
+SET normalized_price = p.base_price * r.rate
+FROM (SELECT DISTINCT ON (from_currency) from_currency, rate
+      FROM exchange_rates
+      WHERE to_currency = 'USD'
+      ORDER BY from_currency, effective_date DESC) r
+WHERE p.currency = r.from_currency;
+
+CREATE INDEX idx_products_normalized_price ON products (normalized_price);
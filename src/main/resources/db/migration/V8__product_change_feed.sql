@@ -0,0 +1,3 @@
+-- Keyset indexes for the product change feed, ordered by (updated_at, id)
+CREATE INDEX idx_products_updated_at_id ON products (updated_at, id);
+CREATE INDEX idx_products_supplier_updated_at_id ON products (supplier_id, updated_at, id);
@@ -0,0 +1,7 @@
+-- Opt-in hot inventory mode: orders for flagged products reserve stock from an in-memory
+-- counter and are recorded with stock_pending = TRUE; a periodic flush folds pending orders
+-- into products.available_quantity in one statement. Pending rows make the flush crash-safe.
+ALTER TABLE products ADD COLUMN hot_inventory BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE catalog_orders ADD COLUMN stock_pending BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_catalog_orders_stock_pending ON catalog_orders (product_id) WHERE stock_pending;
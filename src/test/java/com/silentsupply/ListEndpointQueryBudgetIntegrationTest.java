@@ -0,0 +1,331 @@
+package com.silentsupply;
+
+import com.silentsupply.attachment.Attachment;
+import com.silentsupply.attachment.AttachmentEntityType;
+import com.silentsupply.attachment.AttachmentRepository;
+import com.silentsupply.company.CompanyRepository;
+import com.silentsupply.company.CompanyRole;
+import com.silentsupply.company.dto.CompanyRequest;
+import com.silentsupply.config.IntegrationTestBase;
+import com.silentsupply.config.QueryBudget;
+import com.silentsupply.config.dto.AuthResponse;
+import com.silentsupply.messaging.ConversationParticipantRepository;
+import com.silentsupply.messaging.ConversationRepository;
+import com.silentsupply.messaging.ConversationType;
+import com.silentsupply.messaging.MessageRepository;
+import com.silentsupply.messaging.dto.MessageResponse;
+import com.silentsupply.messaging.dto.SendMessageRequest;
+import com.silentsupply.negotiation.NegotiationRuleRepository;
+import com.silentsupply.negotiation.dto.NegotiationRuleRequest;
+import com.silentsupply.notification.NotificationRepository;
+import com.silentsupply.order.CatalogOrderRepository;
+import com.silentsupply.order.OrderStatus;
+import com.silentsupply.order.dto.OrderRequest;
+import com.silentsupply.order.dto.OrderResponse;
+import com.silentsupply.order.dto.OrderStatusUpdate;
+import com.silentsupply.product.ProductRepository;
+import com.silentsupply.product.dto.ProductRequest;
+import com.silentsupply.product.dto.ProductResponse;
+import com.silentsupply.proposal.ProposalRepository;
+import com.silentsupply.proposal.dto.ProposalRequest;
+import com.silentsupply.proposal.dto.ProposalResponse;
+import com.silentsupply.rfq.RfqRepository;
+import com.silentsupply.rfq.dto.RfqRequest;
+import com.silentsupply.rfq.dto.RfqResponse;
+import com.silentsupply.rfq.dto.RfqTimelineResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards every list endpoint against N+1 selects. The data set spans several suppliers,
+ * products and uploaders, so each lazy association loaded while mapping a response would
+ * push the request over its SQL statement budget. Every budget includes the one statement
+ * the JWT filter issues to load the authenticated company.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ListEndpointQueryBudgetIntegrationTest extends IntegrationTestBase {
+
+    /** Statements for authentication plus a single list query. */
+    private static final int SINGLE_QUERY = 2;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MessageRepository messageRepository;
+    @Autowired
+    private ConversationParticipantRepository participantRepository;
+    @Autowired
+    private ConversationRepository conversationRepository;
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+    @Autowired
+    private ProposalRepository proposalRepository;
+    @Autowired
+    private RfqRepository rfqRepository;
+    @Autowired
+    private NegotiationRuleRepository ruleRepository;
+    @Autowired
+    private CatalogOrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    private QueryBudget queryBudget;
+    private String buyerToken;
+    private AuthResponse firstSupplier;
+    private final List<Long> rfqIds = new ArrayList<>();
+    private Long conversationId;
+
+    @BeforeEach
+    void setUp() {
+        deleteAll();
+        rfqIds.clear();
+
+        queryBudget = QueryBudget.of(entityManagerFactory);
+        AuthResponse buyer = register("BuyerCo", "buyer@example.com", CompanyRole.BUYER);
+        buyerToken = buyer.getToken();
+
+        List<AuthResponse> suppliers = new ArrayList<>();
+        for (int s = 1; s <= 3; s++) {
+            AuthResponse supplier = register("Supplier " + s, "supplier" + s + "@example.com", CompanyRole.SUPPLIER);
+            suppliers.add(supplier);
+            for (int p = 1; p <= 2; p++) {
+                Long productId = createProduct(supplier, "S" + s + "-P" + p);
+                OrderResponse order = post(buyerToken, "/api/orders",
+                        OrderRequest.builder().productId(productId).quantity(1).build(), OrderResponse.class);
+                post(supplier.getToken(), "/api/orders/" + order.getId() + "/status", HttpMethod.PATCH,
+                        OrderStatusUpdate.builder().status(OrderStatus.CONFIRMED).build(), OrderResponse.class);
+                RfqResponse rfq = post(buyerToken, "/api/rfqs", RfqRequest.builder()
+                        .productId(productId).desiredQuantity(100).targetPrice(new BigDecimal("8.00"))
+                        .deliveryDeadline(LocalDate.now().plusDays(30)).build(), RfqResponse.class);
+                rfqIds.add(rfq.getId());
+            }
+        }
+        firstSupplier = suppliers.get(0);
+
+        post(buyerToken, "/api/rfqs/" + rfqIds.get(0) + "/proposals", ProposalRequest.builder()
+                .proposedPrice(new BigDecimal("8.50")).proposedQty(100).deliveryDays(20).build(), String.class);
+        post(buyerToken, "/api/rfqs/" + rfqIds.get(0) + "/proposals", ProposalRequest.builder()
+                .proposedPrice(new BigDecimal("9.00")).proposedQty(100).deliveryDays(20).build(), String.class);
+
+        for (AuthResponse uploader : List.of(buyer, suppliers.get(0), suppliers.get(1), suppliers.get(2))) {
+            attachmentRepository.save(Attachment.builder()
+                    .fileName("spec.pdf").contentType("application/pdf").fileSize(10)
+                    .storagePath("budget/" + uploader.getCompanyId())
+                    .entityType(AttachmentEntityType.RFQ).entityId(rfqIds.get(0))
+                    .uploader(companyRepository.getReferenceById(uploader.getCompanyId()))
+                    .build());
+        }
+
+        for (int m = 0; m < 4; m++) {
+            String token = m % 2 == 0 ? buyerToken : firstSupplier.getToken();
+            SendMessageRequest.SendMessageRequestBuilder message = SendMessageRequest.builder().content("Message " + m);
+            if (conversationId == null) {
+                message.recipientCompanyId(firstSupplier.getCompanyId());
+            } else {
+                message.conversationId(conversationId);
+            }
+            conversationId = post(token, "/api/messages", message.build(), MessageResponse.class).getConversationId();
+        }
+        post(buyerToken, "/api/messages", SendMessageRequest.builder().content("About this RFQ")
+                .referenceType(ConversationType.RFQ).referenceId(rfqIds.get(0)).build(), MessageResponse.class);
+    }
+
+    /**
+     * Removes the negotiation rules and other seeded rows, which test classes that do not
+     * create rules would otherwise trip over when deleting products.
+     */
+    @AfterEach
+    void deleteAll() {
+        messageRepository.deleteAll();
+        participantRepository.deleteAll();
+        conversationRepository.deleteAll();
+        notificationRepository.deleteAll();
+        attachmentRepository.deleteAll();
+        proposalRepository.deleteAll();
+        rfqRepository.deleteAll();
+        ruleRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        companyRepository.deleteAll();
+    }
+
+    @Test
+    void productListings_stayWithinBudget() {
+        get(buyerToken, "/api/products", SINGLE_QUERY);
+        get(buyerToken, "/api/products?category=Electronics&status=ACTIVE", SINGLE_QUERY);
+        get(buyerToken, "/api/products/changes", SINGLE_QUERY);
+    }
+
+    @Test
+    void orderListings_stayWithinBudget() {
+        get(buyerToken, "/api/orders", SINGLE_QUERY);
+        get(buyerToken, "/api/orders/page", SINGLE_QUERY);
+        get(firstSupplier.getToken(), "/api/orders", SINGLE_QUERY);
+        get(firstSupplier.getToken(), "/api/orders/page?status=CONFIRMED", SINGLE_QUERY);
+    }
+
+    @Test
+    void rfqAndProposalListings_stayWithinBudget() {
+        get(buyerToken, "/api/rfqs", SINGLE_QUERY);
+        get(firstSupplier.getToken(), "/api/rfqs", SINGLE_QUERY);
+        get(buyerToken, "/api/rfqs/" + rfqIds.get(0) + "/proposals", SINGLE_QUERY);
+    }
+
+    @Test
+    void rfqTimeline_loadsEverythingInOneQueryPerPart() {
+        String url = "/api/rfqs/" + rfqIds.get(0) + "/timeline";
+        // RFQ with its parties, then proposals, attachments and the latest messages
+        ResponseEntity<RfqTimelineResponse> response = queryBudget.atMost(5, "GET " + url, () ->
+                restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(authHeaders(buyerToken)),
+                        RfqTimelineResponse.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        RfqTimelineResponse timeline = response.getBody();
+        assertThat(timeline.getRfq().getId()).isEqualTo(rfqIds.get(0));
+        assertThat(timeline.getProposals()).hasSize(4).extracting(ProposalResponse::getRoundNumber)
+                .containsExactly(1, 1, 2, 2);
+        assertThat(timeline.getAttachments()).hasSize(4);
+        assertThat(timeline.getLatestMessages()).extracting(MessageResponse::getContent)
+                .containsExactly("About this RFQ");
+        assertThat(timeline.getConversationId()).isNotNull();
+    }
+
+    @Test
+    void ruleNotificationAndAttachmentListings_stayWithinBudget() {
+        get(firstSupplier.getToken(),
+                "/api/suppliers/" + firstSupplier.getCompanyId() + "/negotiation-rules", SINGLE_QUERY);
+        get(buyerToken, "/api/notifications", SINGLE_QUERY);
+        get(firstSupplier.getToken(), "/api/notifications?unreadOnly=true", SINGLE_QUERY);
+        get(buyerToken, "/api/attachments?entityType=RFQ&entityId=" + rfqIds.get(0), SINGLE_QUERY);
+    }
+
+    @Test
+    void companyRateAndMessageListings_stayWithinBudget() {
+        get(buyerToken, "/api/companies", SINGLE_QUERY);
+        get(buyerToken, "/api/exchange-rates", SINGLE_QUERY);
+        get(buyerToken, "/api/messages/conversations", SINGLE_QUERY);
+        get(firstSupplier.getToken(), "/api/messages/conversations/page?limit=1", SINGLE_QUERY);
+        get(buyerToken, "/api/messages/conversations/" + conversationId + "/details", SINGLE_QUERY);
+        // Conversation lookup and participant check precede the message page and its count
+        get(buyerToken, "/api/messages/conversations/" + conversationId + "?size=2", 5);
+    }
+
+    /**
+     * Issues a GET request and asserts it succeeds within the statement budget.
+     *
+     * @param token         the JWT token
+     * @param url           the request URL
+     * @param maxStatements the statement budget
+     */
+    private void get(String token, String url, int maxStatements) {
+        ResponseEntity<String> response = queryBudget.atMost(maxStatements, "GET " + url, () ->
+                restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(authHeaders(token)), String.class));
+        assertThat(response.getStatusCode()).as("GET %s", url).isEqualTo(HttpStatus.OK);
+    }
+
+    /**
+     * Creates a product with a negotiation rule for a supplier.
+     *
+     * @param supplier the supplier
+     * @param sku      the product SKU
+     * @return the product ID
+     */
+    private Long createProduct(AuthResponse supplier, String sku) {
+        ProductResponse product = post(supplier.getToken(), "/api/products", ProductRequest.builder()
+                .name("Widget " + sku).description("Test").category("Electronics").sku(sku)
+                .unitOfMeasure("piece").basePrice(new BigDecimal("10.00")).availableQuantity(100)
+                .build(), ProductResponse.class);
+        post(supplier.getToken(), "/api/suppliers/" + supplier.getCompanyId() + "/negotiation-rules",
+                NegotiationRuleRequest.builder()
+                        .productId(product.getId()).priceFloor(new BigDecimal("7.00"))
+                        .autoAcceptThreshold(new BigDecimal("9.50")).maxDeliveryDays(30).maxRounds(3)
+                        .volumeDiscountPct(BigDecimal.ZERO).volumeThreshold(0).build(),
+                String.class);
+        return product.getId();
+    }
+
+    /**
+     * Sends a POST request and asserts it succeeds.
+     *
+     * @param token        the JWT token
+     * @param url          the request URL
+     * @param body         the request body
+     * @param responseType the response body type
+     * @param <T>          the response body type
+     * @return the response body
+     */
+    private <T> T post(String token, String url, Object body, Class<T> responseType) {
+        return post(token, url, HttpMethod.POST, body, responseType);
+    }
+
+    /**
+     * Sends a request with a body and asserts it succeeds.
+     *
+     * @param token        the JWT token
+     * @param url          the request URL
+     * @param method       the HTTP method
+     * @param body         the request body
+     * @param responseType the response body type
+     * @param <T>          the response body type
+     * @return the response body
+     */
+    private <T> T post(String token, String url, HttpMethod method, Object body, Class<T> responseType) {
+        ResponseEntity<T> response = restTemplate.exchange(
+                url, method, new HttpEntity<>(body, authHeaders(token)), responseType);
+        assertThat(response.getStatusCode().is2xxSuccessful()).as("%s %s", method, url).isTrue();
+        return response.getBody();
+    }
+
+    /**
+     * Registers a company via the auth endpoint.
+     *
+     * @param name  the company name
+     * @param email the email to register with
+     * @param role  the company role
+     * @return the auth response with token and company ID
+     */
+    private AuthResponse register(String name, String email, CompanyRole role) {
+        CompanyRequest request = CompanyRequest.builder()
+                .name(name).email(email).password("password123").role(role).build();
+        return restTemplate.postForEntity("/api/auth/register", request, AuthResponse.class).getBody();
+    }
+
+    /**
+     * Creates HTTP headers with Bearer authentication.
+     *
+     * @param token the JWT token
+     * @return headers with Authorization set
+     */
+    private HttpHeaders authHeaders(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+}
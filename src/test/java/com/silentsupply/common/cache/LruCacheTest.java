@@ -0,0 +1,78 @@
+package com.silentsupply.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link LruCache}.
+ */
+class LruCacheTest {
+
+    @Test
+    void put_beyondCapacity_evictsLeastRecentlyUsed() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+
+        cache.put("c", 3);
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void put_existingKey_replacesValueWithoutEvicting() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        cache.put("a", 10);
+
+        assertThat(cache.get("a")).isEqualTo(10);
+        assertThat(cache.get("b")).isEqualTo(2);
+    }
+
+    @Test
+    void remove_returnsAndDropsValue() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+
+        assertThat(cache.remove("a")).isEqualTo(1);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_beyondCapacity_reportsEvictedEntry() {
+        Map<String, Integer> evicted = new HashMap<>();
+        LruCache<String, Integer> cache = new LruCache<>(1, evicted::put);
+        cache.put("a", 1);
+
+        cache.put("b", 2);
+
+        assertThat(evicted).containsExactly(Map.entry("a", 1));
+    }
+
+    @Test
+    void removeIfValue_onlyRemovesMatchingValue() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+
+        assertThat(cache.remove("a", 2)).isFalse();
+        assertThat(cache.remove("a", 1)).isTrue();
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void constructor_withZeroCapacity_isRejected() {
+        assertThatThrownBy(() -> new LruCache<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
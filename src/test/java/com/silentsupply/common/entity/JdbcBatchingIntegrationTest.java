@@ -0,0 +1,114 @@
+package com.silentsupply.common.entity;
+
+import com.silentsupply.company.Company;
+import com.silentsupply.company.CompanyRepository;
+import com.silentsupply.company.CompanyRole;
+import com.silentsupply.config.IntegrationTestBase;
+import com.silentsupply.notification.Notification;
+import com.silentsupply.notification.NotificationRepository;
+import com.silentsupply.notification.NotificationService;
+import com.silentsupply.notification.NotificationType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that multi-row writes are sent as JDBC batches now that IDs come from pooled sequences.
+ * With identity generation every insert would prepare and execute its own statement.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JdbcBatchingIntegrationTest extends IntegrationTestBase {
+
+    private static final int ROWS = 30;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Company recipient;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        recipient = companyRepository.save(Company.builder()
+                .name("BatchCo")
+                .email("batch@example.com")
+                .password("hashed")
+                .role(CompanyRole.BUYER)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll(notificationRepository
+                .findByRecipientIdOrderByCreatedAtDesc(recipient.getId()));
+        companyRepository.delete(recipient);
+    }
+
+    @Test
+    void saveAll_insertsInSingleBatch() {
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status ->
+                notificationRepository.saveAll(buildNotifications()));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        // At most two sequence calls (a fresh pooled optimizer seeds its first block with two),
+        // plus one prepared INSERT reused for the whole batch
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(notificationRepository.countByRecipientIdAndReadFalse(recipient.getId())).isEqualTo(ROWS);
+    }
+
+    @Test
+    void markAllAsRead_updatesInSingleBatch() {
+        notificationRepository.saveAll(buildNotifications());
+        statistics.clear();
+
+        notificationService.markAllAsRead(recipient.getId());
+
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(ROWS);
+        // One SELECT for the unread notifications, one prepared UPDATE reused for the batch
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(notificationRepository.countByRecipientIdAndReadFalse(recipient.getId())).isZero();
+    }
+
+    /**
+     * Builds unsaved unread notifications for the test recipient.
+     *
+     * @return the notifications
+     */
+    private List<Notification> buildNotifications() {
+        return IntStream.range(0, ROWS)
+                .mapToObj(i -> Notification.builder()
+                        .recipient(recipient)
+                        .type(NotificationType.ORDER_STATUS_CHANGED)
+                        .message("Notification " + i)
+                        .build())
+                .toList();
+    }
+}
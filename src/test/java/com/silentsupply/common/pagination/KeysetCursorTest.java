@@ -0,0 +1,46 @@
+package com.silentsupply.common.pagination;
+
+import com.silentsupply.common.exception.BusinessRuleException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link KeysetCursor}.
+ */
+class KeysetCursorTest {
+
+    @Test
+    void encode_roundTripsAtMicrosecondPrecision() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_897_932), 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.timestamp().getNano()).isEqualTo(535_897_000);
+    }
+
+    @Test
+    void compareTo_ordersByTimestampThenId() {
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        assertThat(new KeysetCursor(now, 5L)).isLessThan(new KeysetCursor(now, 6L));
+        assertThat(new KeysetCursor(now, 99L)).isLessThan(new KeysetCursor(now.plusNanos(1_000), 1L));
+        assertThat(KeysetCursor.START).isLessThan(new KeysetCursor(now, 0L));
+    }
+
+    @Test
+    void decodeOrDefault_withBlankValue_returnsFallback() {
+        assertThat(KeysetCursor.decodeOrDefault(" ", KeysetCursor.START)).isEqualTo(KeysetCursor.START);
+    }
+
+    @Test
+    void decode_withGarbage_throwsBusinessRule() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor"))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+}
@@ -0,0 +1,36 @@
+package com.silentsupply.common.pagination;
+
+import com.silentsupply.common.exception.BusinessRuleException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link ScoreCursor}.
+ */
+class ScoreCursorTest {
+
+    @Test
+    void encode_roundTripsScoreExactly() {
+        ScoreCursor cursor = new ScoreCursor(0.0607927106320858, 42L);
+
+        ScoreCursor decoded = ScoreCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(Double.doubleToLongBits(decoded.score())).isEqualTo(Double.doubleToLongBits(cursor.score()));
+    }
+
+    @Test
+    void decodeOrStart_withBlankValue_returnsStart() {
+        assertThat(ScoreCursor.decodeOrStart(null)).isEqualTo(ScoreCursor.START);
+        assertThat(ScoreCursor.decodeOrStart(" ")).isEqualTo(ScoreCursor.START);
+    }
+
+    @Test
+    void decode_withGarbage_throwsBusinessRule() {
+        assertThatThrownBy(() -> ScoreCursor.decode("not-a-cursor"))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+}
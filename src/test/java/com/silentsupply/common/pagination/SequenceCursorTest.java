@@ -0,0 +1,39 @@
+package com.silentsupply.common.pagination;
+
+import com.silentsupply.common.exception.BusinessRuleException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link SequenceCursor}.
+ */
+class SequenceCursorTest {
+
+    @Test
+    void encode_roundTrips() {
+        SequenceCursor cursor = new SequenceCursor(123_456_789L, 42L);
+
+        assertThat(SequenceCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void compareTo_ordersBySequenceThenId() {
+        assertThat(new SequenceCursor(7L, 5L)).isLessThan(new SequenceCursor(7L, 6L));
+        assertThat(new SequenceCursor(7L, 99L)).isLessThan(new SequenceCursor(8L, 1L));
+        assertThat(SequenceCursor.before(8L)).isGreaterThan(new SequenceCursor(7L, 99L))
+                .isLessThan(new SequenceCursor(8L, 0L));
+    }
+
+    @Test
+    void decode_keysetCursor_throwsBusinessRule() {
+        String keyset = new KeysetCursor(LocalDateTime.of(2026, 1, 1, 0, 0), 1L).encode();
+
+        assertThatThrownBy(() -> SequenceCursor.decode(keyset))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+}
@@ -0,0 +1,74 @@
+package com.silentsupply.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test support that asserts an upper bound on the SQL statements Hibernate prepares during a
+ * service call or HTTP request, so that lazy associations loaded one by one while mapping a
+ * list (N+1 selects) fail the build.
+ *
+ * <p>Counts come from Hibernate {@link Statistics}, which are global to the session factory.
+ * Budgets therefore cover statements issued on any thread, including the server thread that
+ * handles a {@code TestRestTemplate} request, and must not be measured while other work runs.</p>
+ */
+public final class QueryBudget {
+
+    private final Statistics statistics;
+
+    private QueryBudget(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Creates a budget checker for the application's session factory, enabling statistics
+     * if the active profile has not.
+     *
+     * @param entityManagerFactory the application's entity manager factory
+     * @return the budget checker
+     */
+    public static QueryBudget of(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        return new QueryBudget(statistics);
+    }
+
+    /**
+     * Runs a call and asserts that it prepared at most the given number of SQL statements.
+     *
+     * @param maxStatements the statement budget
+     * @param description   what is being measured, for the failure message
+     * @param call          the call to measure
+     * @param <T>           the call's result type
+     * @return the call's result
+     */
+    public <T> T atMost(long maxStatements, String description, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        long prepared = statistics.getPrepareStatementCount();
+        assertThat(prepared)
+                .as("SQL statements prepared by %s (look for lazy associations loaded while mapping)",
+                        description)
+                .isLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+
+    /**
+     * Runs a call and asserts that it prepared at most the given number of SQL statements.
+     *
+     * @param maxStatements the statement budget
+     * @param description   what is being measured, for the failure message
+     * @param call          the call to measure
+     */
+    public void atMost(long maxStatements, String description, Runnable call) {
+        atMost(maxStatements, description, () -> {
+            call.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,209 @@
+package com.silentsupply.config;
+
+import com.silentsupply.company.CompanyRole;
+import com.silentsupply.company.dto.CompanyRequest;
+import com.silentsupply.config.dto.AuthResponse;
+import com.silentsupply.messaging.ConversationParticipantRepository;
+import com.silentsupply.messaging.ConversationRepository;
+import com.silentsupply.messaging.MessageRepository;
+import com.silentsupply.messaging.dto.SendMessageRequest;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for STOMP delivery through the external broker relay, with an embedded
+ * Artemis broker standing in for the external one. The context is closed after the class so
+ * its relay does not keep reconnecting to the stopped broker.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.websocket.relay.enabled=true")
+@ActiveProfiles("test")
+@DirtiesContext
+class WebSocketBrokerRelayIntegrationTest extends IntegrationTestBase {
+
+    private static final int STOMP_PORT = freePort();
+    private static final EmbeddedActiveMQ BROKER = startBroker();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private StompBrokerRelayMessageHandler relayMessageHandler;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationParticipantRepository participantRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    /**
+     * Points the relay at the embedded broker.
+     *
+     * @param registry the dynamic property registry
+     */
+    @DynamicPropertySource
+    static void relayProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.websocket.relay.host", () -> "127.0.0.1");
+        registry.add("app.websocket.relay.port", () -> STOMP_PORT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        messageRepository.deleteAll();
+        participantRepository.deleteAll();
+        conversationRepository.deleteAll();
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        BROKER.stop();
+    }
+
+    @Test
+    void chatMessage_isDeliveredToRecipientThroughTheBroker() throws Exception {
+        AuthResponse supplier = register("Relay Supplier", CompanyRole.SUPPLIER);
+        AuthResponse buyer = register("Relay Buyer", CompanyRole.BUYER);
+        BlockingQueue<Map<?, ?>> received = new LinkedBlockingQueue<>();
+
+        StompSession buyerSession = connect(buyer.getToken());
+        StompSession supplierSession = connect(supplier.getToken());
+        try {
+            buyerSession.subscribe("/user/queue/messages", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return Map.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    received.add((Map<?, ?>) payload);
+                }
+            });
+            // Let the broker register the subscription before the message is published
+            Thread.sleep(500);
+
+            supplierSession.send("/app/chat.send", SendMessageRequest.builder()
+                    .recipientCompanyId(buyer.getCompanyId())
+                    .content("Relayed hello")
+                    .build());
+
+            Map<?, ?> message = received.poll(10, TimeUnit.SECONDS);
+            assertThat(relayMessageHandler.isBrokerAvailable()).isTrue();
+            assertThat(message).isNotNull();
+            assertThat(message.get("content")).isEqualTo("Relayed hello");
+            assertThat(((Number) message.get("senderCompanyId")).longValue()).isEqualTo(supplier.getCompanyId());
+        } finally {
+            buyerSession.disconnect();
+            supplierSession.disconnect();
+        }
+    }
+
+    @Test
+    void subscriptionToNodeBroadcastTopics_isRefused() throws Exception {
+        AuthResponse buyer = register("Relay Eavesdropper", CompanyRole.BUYER);
+
+        for (String destination : List.of(WebSocketConfig.USER_DESTINATION_BROADCAST,
+                WebSocketConfig.USER_REGISTRY_BROADCAST)) {
+            StompSession session = connect(buyer.getToken());
+            try {
+                session.subscribe(destination, new StompSessionHandlerAdapter() { });
+
+                long deadline = System.currentTimeMillis() + 10_000;
+                while (session.isConnected() && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(50);
+                }
+                assertThat(session.isConnected()).as("connected after subscribing to %s", destination).isFalse();
+            } finally {
+                if (session.isConnected()) {
+                    session.disconnect();
+                }
+            }
+        }
+    }
+
+    private StompSession connect(String token) throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        return stompClient.connectAsync("http://localhost:" + port + "/ws", new WebSocketHttpHeaders(),
+                        connectHeaders, new StompSessionHandlerAdapter() { })
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private AuthResponse register(String name, CompanyRole role) {
+        CompanyRequest request = CompanyRequest.builder()
+                .name(name)
+                .email("relay-" + UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .role(role)
+                .build();
+        ResponseEntity<AuthResponse> response = restTemplate.postForEntity(
+                "/api/auth/register", request, AuthResponse.class);
+        return response.getBody();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("No free port for the embedded broker", e);
+        }
+    }
+
+    private static EmbeddedActiveMQ startBroker() {
+        try {
+            EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+            broker.setConfiguration(new ConfigurationImpl()
+                    .setPersistenceEnabled(false)
+                    .setSecurityEnabled(false)
+                    .addAcceptorConfiguration("stomp", "tcp://127.0.0.1:" + STOMP_PORT + "?protocols=STOMP"));
+            broker.start();
+            return broker;
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not start the embedded STOMP broker", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.silentsupply.currency;
 
 import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.product.ProductRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -9,10 +10,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -24,6 +30,9 @@ class CurrencyServiceTest {
     @Mock
     private ExchangeRateRepository exchangeRateRepository;
 
+    @Mock
+    private ProductRepository productRepository;
+
     @InjectMocks
     private CurrencyService currencyService;
 
@@ -75,4 +84,138 @@ class CurrencyServiceTest {
 
         assertThat(result.scale()).isEqualTo(2);
     }
+
+    @Test
+    void normalize_baseCurrency_keepsAmount() {
+        Optional<BigDecimal> result = currencyService.normalize(new BigDecimal("12.5"), Currency.USD);
+
+        assertThat(result).hasValueSatisfying(v -> assertThat(v).isEqualByComparingTo("12.5"));
+    }
+
+    @Test
+    void normalize_withoutRate_returnsEmpty() {
+        when(exchangeRateRepository.findTopByFromCurrencyAndToCurrencyOrderByEffectiveDateDesc(
+                Currency.AUD, Currency.USD)).thenReturn(Optional.empty());
+        when(exchangeRateRepository.findTopByFromCurrencyAndToCurrencyOrderByEffectiveDateDesc(
+                Currency.USD, Currency.AUD)).thenReturn(Optional.empty());
+
+        assertThat(currencyService.normalize(new BigDecimal("10"), Currency.AUD)).isEmpty();
+    }
+
+    @Test
+    void normalize_withOnlyRateFromBase_usesInverse() {
+        ExchangeRate usdToAud = ExchangeRate.builder()
+                .fromCurrency(Currency.USD).toCurrency(Currency.AUD)
+                .rate(new BigDecimal("1.60000000"))
+                .effectiveDate(LocalDate.of(2026, 1, 1))
+                .build();
+        when(exchangeRateRepository.findTopByFromCurrencyAndToCurrencyOrderByEffectiveDateDesc(
+                Currency.AUD, Currency.USD)).thenReturn(Optional.empty());
+        when(exchangeRateRepository.findTopByFromCurrencyAndToCurrencyOrderByEffectiveDateDesc(
+                Currency.USD, Currency.AUD)).thenReturn(Optional.of(usdToAud));
+
+        assertThat(currencyService.normalize(new BigDecimal("16"), Currency.AUD))
+                .hasValueSatisfying(v -> assertThat(v).isEqualByComparingTo("10"));
+    }
+
+    @Test
+    void latestRatesToBase_includesBaseCurrency() {
+        ExchangeRate eurToUsd = ExchangeRate.builder()
+                .fromCurrency(Currency.EUR).toCurrency(Currency.USD)
+                .rate(new BigDecimal("1.08700000"))
+                .effectiveDate(LocalDate.of(2026, 1, 1))
+                .build();
+        when(exchangeRateRepository.findLatestRatesTo("USD")).thenReturn(List.of(eurToUsd));
+
+        Map<Currency, BigDecimal> rates = currencyService.latestRatesToBase();
+
+        assertThat(rates).containsEntry(Currency.EUR, new BigDecimal("1.08700000"))
+                .containsEntry(Currency.USD, BigDecimal.ONE);
+    }
+
+    @Test
+    void latestRatesToBase_invertsRatesFromBaseForCurrenciesWithoutDirectRate() {
+        ExchangeRate eurToUsd = ExchangeRate.builder()
+                .fromCurrency(Currency.EUR).toCurrency(Currency.USD)
+                .rate(new BigDecimal("1.08700000"))
+                .effectiveDate(LocalDate.of(2026, 1, 1))
+                .build();
+        ExchangeRate usdToEur = ExchangeRate.builder()
+                .fromCurrency(Currency.USD).toCurrency(Currency.EUR)
+                .rate(new BigDecimal("0.90000000"))
+                .effectiveDate(LocalDate.of(2026, 1, 1))
+                .build();
+        ExchangeRate usdToJpy = ExchangeRate.builder()
+                .fromCurrency(Currency.USD).toCurrency(Currency.JPY)
+                .rate(new BigDecimal("200.00000000"))
+                .effectiveDate(LocalDate.of(2026, 1, 1))
+                .build();
+        when(exchangeRateRepository.findLatestRatesTo("USD")).thenReturn(List.of(eurToUsd));
+        when(exchangeRateRepository.findLatestRatesFrom("USD")).thenReturn(List.of(usdToEur, usdToJpy));
+
+        Map<Currency, BigDecimal> rates = currencyService.latestRatesToBase();
+
+        assertThat(rates.get(Currency.EUR)).isEqualByComparingTo("1.087");
+        assertThat(rates.get(Currency.JPY)).isEqualByComparingTo("0.005");
+    }
+
+    @Test
+    void saveRate_toBaseCurrency_renormalizesProductsWithLatestRate() {
+        ExchangeRate backdated = ExchangeRate.builder()
+                .fromCurrency(Currency.EUR).toCurrency(Currency.USD)
+                .rate(new BigDecimal("1.05000000"))
+                .effectiveDate(LocalDate.of(2025, 6, 1))
+                .build();
+        ExchangeRate latest = ExchangeRate.builder()
+                .fromCurrency(Currency.EUR).toCurrency(Currency.USD)
+                .rate(new BigDecimal("1.08700000"))
+                .effectiveDate(LocalDate.of(2026, 1, 1))
+                .build();
+        when(exchangeRateRepository.saveAndFlush(backdated)).thenReturn(backdated);
+        when(exchangeRateRepository.findTopByFromCurrencyAndToCurrencyOrderByEffectiveDateDesc(
+                Currency.EUR, Currency.USD)).thenReturn(Optional.of(latest));
+
+        currencyService.saveRate(backdated);
+
+        verify(productRepository).updateNormalizedPrices(Currency.EUR, new BigDecimal("1.08700000"));
+    }
+
+    @Test
+    void saveRate_fromBaseCurrency_withDirectRateBack_leavesProductsUntouched() {
+        ExchangeRate usdToEur = ExchangeRate.builder()
+                .fromCurrency(Currency.USD).toCurrency(Currency.EUR)
+                .rate(new BigDecimal("0.92000000"))
+                .effectiveDate(LocalDate.of(2026, 2, 1))
+                .build();
+        ExchangeRate eurToUsd = ExchangeRate.builder()
+                .fromCurrency(Currency.EUR).toCurrency(Currency.USD)
+                .rate(new BigDecimal("1.08700000"))
+                .effectiveDate(LocalDate.of(2026, 1, 1))
+                .build();
+        when(exchangeRateRepository.saveAndFlush(usdToEur)).thenReturn(usdToEur);
+        when(exchangeRateRepository.findTopByFromCurrencyAndToCurrencyOrderByEffectiveDateDesc(
+                Currency.EUR, Currency.USD)).thenReturn(Optional.of(eurToUsd));
+
+        currencyService.saveRate(usdToEur);
+
+        verify(productRepository, never()).updateNormalizedPrices(any(), any());
+    }
+
+    @Test
+    void saveRate_fromBaseCurrency_withoutDirectRateBack_renormalizesWithInverse() {
+        ExchangeRate usdToJpy = ExchangeRate.builder()
+                .fromCurrency(Currency.USD).toCurrency(Currency.JPY)
+                .rate(new BigDecimal("200.00000000"))
+                .effectiveDate(LocalDate.of(2026, 2, 1))
+                .build();
+        when(exchangeRateRepository.saveAndFlush(usdToJpy)).thenReturn(usdToJpy);
+        when(exchangeRateRepository.findTopByFromCurrencyAndToCurrencyOrderByEffectiveDateDesc(
+                Currency.JPY, Currency.USD)).thenReturn(Optional.empty());
+        when(exchangeRateRepository.findTopByFromCurrencyAndToCurrencyOrderByEffectiveDateDesc(
+                Currency.USD, Currency.JPY)).thenReturn(Optional.of(usdToJpy));
+
+        currencyService.saveRate(usdToJpy);
+
+        verify(productRepository).updateNormalizedPrices(Currency.JPY, new BigDecimal("0.005000000000"));
+    }
 }
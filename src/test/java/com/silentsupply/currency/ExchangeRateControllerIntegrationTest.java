@@ -11,6 +11,8 @@ import com.silentsupply.currency.dto.ExchangeRateResponse;
 import com.silentsupply.negotiation.NegotiationRuleRepository;
 import com.silentsupply.notification.NotificationRepository;
 import com.silentsupply.order.CatalogOrderRepository;
+import com.silentsupply.company.Company;
+import com.silentsupply.product.Product;
 import com.silentsupply.product.ProductRepository;
 import com.silentsupply.proposal.ProposalRepository;
 import com.silentsupply.rfq.RfqRepository;
@@ -19,13 +21,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.test.context.ActiveProfiles;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -68,6 +73,9 @@ class ExchangeRateControllerIntegrationTest extends IntegrationTestBase {
     @Autowired
     private CompanyRepository companyRepository;
 
+    @Autowired
+    private DataSource dataSource;
+
     private String token;
 
     @BeforeEach
@@ -134,6 +142,59 @@ class ExchangeRateControllerIntegrationTest extends IntegrationTestBase {
         assertThat(response.getBody().getRate()).isEqualByComparingTo(new BigDecimal("0.85870000"));
     }
 
+    @Test
+    void createOrUpdate_rateToBaseCurrency_renormalizesProductPrices() {
+        Company supplier = companyRepository.findAll().get(0);
+        Product product = productRepository.save(Product.builder()
+                .supplier(supplier)
+                .name("Euro Widget")
+                .category("Electronics")
+                .sku("EUR-001")
+                .unitOfMeasure("piece")
+                .basePrice(new BigDecimal("100.00"))
+                .availableQuantity(10)
+                .currency(Currency.EUR)
+                .normalizedPrice(new BigDecimal("108.70"))
+                .build());
+        ExchangeRateRequest request = ExchangeRateRequest.builder()
+                .fromCurrency(Currency.EUR).toCurrency(Currency.USD)
+                .rate(new BigDecimal("1.10000000"))
+                .effectiveDate(LocalDate.of(2026, 3, 1))
+                .build();
+
+        ResponseEntity<ExchangeRateResponse> response = restTemplate.exchange(
+                "/api/exchange-rates", HttpMethod.PUT,
+                new HttpEntity<>(request, authHeaders(token)),
+                ExchangeRateResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Product repriced = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(repriced.getNormalizedPrice()).isEqualByComparingTo(new BigDecimal("110.00"));
+        assertThat(repriced.getUpdatedAt()).isAfter(product.getUpdatedAt());
+    }
+
+    @Test
+    void inverseRateBackfill_normalizesProductsQuotedOnlyOutOfBase() {
+        Company supplier = companyRepository.findAll().get(0);
+        Product product = productRepository.save(Product.builder()
+                .supplier(supplier)
+                .name("Pound Widget")
+                .category("Electronics")
+                .sku("GBP-001")
+                .unitOfMeasure("piece")
+                .basePrice(new BigDecimal("100.00"))
+                .availableQuantity(10)
+                .currency(Currency.GBP)
+                .build());
+        seedRate(Currency.USD, Currency.GBP, "0.80000000");
+
+        new ResourceDatabasePopulator(new ClassPathResource(
+                "db/migration/V21__normalized_price_inverse_rates.sql")).execute(dataSource);
+
+        Product backfilled = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(backfilled.getNormalizedPrice()).isEqualByComparingTo(new BigDecimal("125.00"));
+    }
+
     @Test
     void list_withoutAuth_returns403() {
         ResponseEntity<String> response = restTemplate.exchange(
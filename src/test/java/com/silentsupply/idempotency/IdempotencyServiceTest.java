@@ -0,0 +1,229 @@
+package com.silentsupply.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.common.exception.IdempotencyKeyMismatchException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link IdempotencyService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String REQUEST = "cart-1";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final TransactionStatus transactionStatus = mock(TransactionStatus.class);
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(jdbcTemplate, transactionTemplate, new ObjectMapper(), 24, 100);
+    }
+
+    @Test
+    void execute_withoutKey_runsActionEveryTime() {
+        AtomicInteger runs = new AtomicInteger();
+
+        idempotencyService.execute(1L, "orders", null, REQUEST, Integer.class, runs::incrementAndGet);
+        idempotencyService.execute(1L, "orders", null, REQUEST, Integer.class, runs::incrementAndGet);
+
+        assertThat(runs).hasValue(2);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void execute_retriedKey_replaysStoredResponseFromMemory() {
+        runTransactionsInline();
+        findsNothingStored();
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        Integer first = idempotencyService.execute(1L, "orders", "key", REQUEST, Integer.class,
+                runs::incrementAndGet);
+        Integer retry = idempotencyService.execute(1L, "orders", "key", REQUEST, Integer.class,
+                runs::incrementAndGet);
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry).isEqualTo(first).isEqualTo(1);
+        verify(jdbcTemplate, times(1)).query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), any(Object[].class));
+    }
+
+    @Test
+    void execute_keyReusedForDifferentRequest_isRejected() {
+        runTransactionsInline();
+        findsNothingStored();
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        idempotencyService.execute(1L, "orders", "key", REQUEST, Integer.class, runs::incrementAndGet);
+
+        assertThatThrownBy(() -> idempotencyService.execute(1L, "orders", "key", "cart-2", Integer.class,
+                runs::incrementAndGet)).isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void execute_storedRowWithoutRequestHash_isReplayed() {
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), any(Object[].class)))
+                .thenAnswer(invocation -> storedRow(invocation.getArgument(1), null, "41"));
+
+        Integer response = idempotencyService.execute(1L, "orders", "key", REQUEST, Integer.class, () -> 42);
+
+        assertThat(response).isEqualTo(41);
+    }
+
+    @Test
+    void execute_sameKeyInAnotherScopeOrCompany_runsAgain() {
+        runTransactionsInline();
+        findsNothingStored();
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        idempotencyService.execute(1L, "orders", "key", REQUEST, Integer.class, runs::incrementAndGet);
+        idempotencyService.execute(1L, "orders/checkout", "key", REQUEST, Integer.class, runs::incrementAndGet);
+        idempotencyService.execute(2L, "orders", "key", REQUEST, Integer.class, runs::incrementAndGet);
+
+        assertThat(runs).hasValue(3);
+    }
+
+    @Test
+    void execute_failedAction_storesNothingAndCanBeRetried() {
+        runTransactionsInline();
+        findsNothingStored();
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+        assertThatThrownBy(() -> idempotencyService.execute(1L, "orders", "key", REQUEST, Integer.class, () -> {
+            throw new BusinessRuleException("Insufficient stock");
+        })).isInstanceOf(BusinessRuleException.class);
+        Integer retried = idempotencyService.execute(1L, "orders", "key", REQUEST, Integer.class, () -> 7);
+
+        assertThat(retried).isEqualTo(7);
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void execute_lostRaceToAnotherNode_rollsBackAndReturnsWinnersResponse() {
+        runTransactionsInline();
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), any(Object[].class)))
+                .thenReturn(List.of())
+                .thenAnswer(invocation -> storedRow(invocation.getArgument(1), hash(REQUEST), "41"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0);
+
+        Integer response = idempotencyService.execute(1L, "orders", "key", REQUEST, Integer.class, () -> 42);
+
+        assertThat(response).isEqualTo(41);
+        verify(transactionStatus).setRollbackOnly();
+    }
+
+    @Test
+    void execute_concurrentRetries_waitForTheRunningRequest() throws Exception {
+        runTransactionsInline();
+        findsNothingStored();
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> idempotencyService.execute(1L, "orders", "key",
+                    REQUEST, Integer.class, () -> {
+                        running.countDown();
+                        awaitQuietly(release);
+                        return runs.incrementAndGet();
+                    }));
+            running.await();
+            Future<Integer> retry = executor.submit(() -> idempotencyService.execute(1L, "orders", "key",
+                    REQUEST, Integer.class, runs::incrementAndGet));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo(1);
+            assertThat(retry.get()).isEqualTo(1);
+            assertThat(runs).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_blankOrOverlongKey_isRejected() {
+        assertThatThrownBy(() -> idempotencyService.execute(1L, "orders", " ", REQUEST, Integer.class, () -> 1))
+                .isInstanceOf(BusinessRuleException.class);
+        assertThatThrownBy(() -> idempotencyService.execute(1L, "orders",
+                "k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1), REQUEST, Integer.class, () -> 1))
+                .isInstanceOf(BusinessRuleException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(transactionStatus));
+    }
+
+    private void findsNothingStored() {
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), any(Object[].class))).thenReturn(List.of());
+    }
+
+    /**
+     * Maps a stored, unexpired row through the row mapper the service passed in.
+     */
+    private static List<?> storedRow(RowMapper<?> rowMapper, String requestHash, String body) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("request_hash")).thenReturn(requestHash);
+        when(rs.getString("response_body")).thenReturn(body);
+        when(rs.getTimestamp("expires_at")).thenReturn(new Timestamp(System.currentTimeMillis() + 60_000));
+        return List.of(rowMapper.mapRow(rs, 0));
+    }
+
+    private static String hash(String request) throws Exception {
+        byte[] json = new ObjectMapper().writeValueAsBytes(request);
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
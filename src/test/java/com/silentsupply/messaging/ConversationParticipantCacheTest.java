@@ -0,0 +1,66 @@
+package com.silentsupply.messaging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ConversationParticipantCache}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConversationParticipantCacheTest {
+
+    @Mock
+    private ConversationParticipantRepository participantRepository;
+
+    private ConversationParticipantCache participantCache;
+
+    @BeforeEach
+    void setUp() {
+        participantCache = new ConversationParticipantCache(participantRepository, 10);
+    }
+
+    @Test
+    void isParticipant_loadsParticipantsOncePerConversation() {
+        when(participantRepository.findCompanyIdsByConversationId(10L)).thenReturn(List.of(1L, 2L));
+
+        assertThat(participantCache.isParticipant(10L, 1L)).isTrue();
+        assertThat(participantCache.isParticipant(10L, 2L)).isTrue();
+        assertThat(participantCache.isParticipant(10L, 3L)).isFalse();
+        assertThat(participantCache.participantIds(10L)).containsExactlyInAnyOrder(1L, 2L);
+
+        verify(participantRepository, times(1)).findCompanyIdsByConversationId(10L);
+    }
+
+    @Test
+    void participantIds_conversationWithoutParticipants_isNotCached() {
+        when(participantRepository.findCompanyIdsByConversationId(10L))
+                .thenReturn(List.of())
+                .thenReturn(List.of(1L, 2L));
+
+        assertThat(participantCache.isParticipant(10L, 1L)).isFalse();
+        assertThat(participantCache.isParticipant(10L, 1L)).isTrue();
+    }
+
+    @Test
+    void evict_reloadsParticipantsOnNextRead() {
+        when(participantRepository.findCompanyIdsByConversationId(10L))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of(1L, 2L));
+        participantCache.participantIds(10L);
+
+        participantCache.evict(10L);
+
+        assertThat(participantCache.participantIds(10L)).containsExactlyInAnyOrder(1L, 2L);
+        verify(participantRepository, times(2)).findCompanyIdsByConversationId(10L);
+    }
+}
@@ -0,0 +1,146 @@
+package com.silentsupply.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.silentsupply.company.Company;
+import com.silentsupply.company.CompanyRepository;
+import com.silentsupply.messaging.dto.MessageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link MessageArchiveService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageArchiveServiceTest {
+
+    private static final Date MARCH = Date.valueOf(YearMonth.of(2025, 3).atDay(1));
+    private static final Date FEBRUARY = Date.valueOf(YearMonth.of(2025, 2).atDay(1));
+    private static final Date JANUARY = Date.valueOf(YearMonth.of(2025, 1).atDay(1));
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private MessageArchiveService archiveService;
+
+    /**
+     * Archives messages 1-2 in January, 3-6 in February and 7-9 in March.
+     */
+    @BeforeEach
+    void setUp() {
+        archiveService = new MessageArchiveService(jdbcTemplate, objectMapper, companyRepository);
+        when(jdbcTemplate.queryForList(anyString(), eq(10L))).thenReturn(List.of(
+                month(MARCH, 3), month(FEBRUARY, 4), month(JANUARY, 2)));
+        Company sender = Company.builder().name("Acme").build();
+        sender.setId(1L);
+        when(companyRepository.findAllById(any())).thenReturn(List.of(sender));
+    }
+
+    @Test
+    void readNewestFirst_offsetInsideMonth_skipsNewerMonthsWithoutReadingThem() throws IOException {
+        stubPayload(FEBRUARY, 3, 6);
+
+        List<MessageResponse> page = archiveService.readNewestFirst(10L, 4, 2);
+
+        assertThat(page).extracting(MessageResponse::getId).containsExactly(5L, 4L);
+        assertThat(page).extracting(MessageResponse::getSenderCompanyName).containsOnly("Acme");
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(byte[].class), eq(10L), eq(MARCH));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(byte[].class), eq(10L), eq(JANUARY));
+    }
+
+    @Test
+    void readNewestFirst_limitSpanningTwoMonths_continuesIntoOlderMonth() throws IOException {
+        stubPayload(MARCH, 7, 9);
+        stubPayload(FEBRUARY, 3, 6);
+
+        List<MessageResponse> page = archiveService.readNewestFirst(10L, 1, 4);
+
+        assertThat(page).extracting(MessageResponse::getId).containsExactly(8L, 7L, 6L, 5L);
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(byte[].class), eq(10L), eq(JANUARY));
+    }
+
+    @Test
+    void readNewestFirst_limitPastOldestMonth_returnsRemainingMessages() throws IOException {
+        stubPayload(FEBRUARY, 3, 6);
+        stubPayload(JANUARY, 1, 2);
+
+        List<MessageResponse> page = archiveService.readNewestFirst(10L, 5, 10);
+
+        assertThat(page).extracting(MessageResponse::getId).containsExactly(4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void readBefore_positionInsideMonth_skipsNewerMonthsWithoutReadingThem() throws IOException {
+        stubPayload(FEBRUARY, 3, 6);
+        stubPayload(JANUARY, 1, 2);
+
+        List<MessageResponse> page = archiveService.readBefore(10L, createdAt(FEBRUARY, 5), 5L, 3);
+
+        assertThat(page).extracting(MessageResponse::getId).containsExactly(4L, 3L, 2L);
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(byte[].class), eq(10L), eq(MARCH));
+    }
+
+    @Test
+    void readAfter_positionInsideMonth_continuesIntoNewerMonth() throws IOException {
+        stubPayload(FEBRUARY, 3, 6);
+        stubPayload(MARCH, 7, 9);
+
+        List<MessageResponse> page = archiveService.readAfter(10L, createdAt(FEBRUARY, 5), 5L, 3);
+
+        assertThat(page).extracting(MessageResponse::getId).containsExactly(6L, 7L, 8L);
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(byte[].class), eq(10L), eq(JANUARY));
+    }
+
+    private static LocalDateTime createdAt(Date month, long id) {
+        return month.toLocalDate().atTime(12, 0).plusDays(id);
+    }
+
+    private static Map<String, Object> month(Date month, int messageCount) {
+        return Map.of("month", month, "message_count", messageCount);
+    }
+
+    /**
+     * Stubs a month's payload holding messages {@code first} to {@code last}, oldest first, as
+     * the archive stores them.
+     */
+    private void stubPayload(Date month, long first, long last) throws IOException {
+        List<MessageArchiveService.ArchivedMessage> messages = new ArrayList<>();
+        for (long id = first; id <= last; id++) {
+            messages.add(new MessageArchiveService.ArchivedMessage(id, 1L, "Message " + id,
+                    createdAt(month, id)));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, messages);
+        }
+        when(jdbcTemplate.queryForObject(anyString(), eq(byte[].class), eq(10L), eq(month)))
+                .thenReturn(bytes.toByteArray());
+    }
+}
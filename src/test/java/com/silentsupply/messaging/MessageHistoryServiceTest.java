@@ -0,0 +1,229 @@
+package com.silentsupply.messaging;
+
+import com.silentsupply.common.exception.AccessDeniedException;
+import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.common.exception.ResourceNotFoundException;
+import com.silentsupply.common.pagination.KeysetCursor;
+import com.silentsupply.messaging.dto.MessageHistoryPage;
+import com.silentsupply.messaging.dto.MessageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link MessageHistoryService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageHistoryServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private ConversationParticipantCache participantCache;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private MessageMapper messageMapper;
+
+    @Mock
+    private MessageArchiveService messageArchiveService;
+
+    private MessageHistoryService messageHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        messageHistoryService = new MessageHistoryService(
+                conversationRepository, participantCache, messageRepository, messageMapper, messageArchiveService, 0, 12);
+    }
+
+    @Test
+    void getHistory_latestFullPage_returnsOldestFirstWithBothCursors() {
+        Message newest = buildMessage(3L, BASE.plusMinutes(3));
+        Message older = buildMessage(2L, BASE.plusMinutes(2));
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(messageRepository.findHistoryBefore(eq(10L), any(LocalDateTime.class), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(newest, older));
+        mapsById();
+
+        MessageHistoryPage page = messageHistoryService.getHistory(10L, 1L, null, null, 2);
+
+        assertThat(page.getItems()).extracting(MessageResponse::getId).containsExactly(2L, 3L);
+        assertThat(KeysetCursor.decode(page.getBeforeCursor())).isEqualTo(new KeysetCursor(older.getCreatedAt(), 2L));
+        assertThat(KeysetCursor.decode(page.getAfterCursor())).isEqualTo(new KeysetCursor(newest.getCreatedAt(), 3L));
+    }
+
+    @Test
+    void getHistory_latestPage_leavesUnsettledMessagesToCatchUp() {
+        messageHistoryService = new MessageHistoryService(
+                conversationRepository, participantCache, messageRepository, messageMapper, messageArchiveService, 60_000, 12);
+        Message settled = buildMessage(4L, BASE);
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(messageRepository.findHistoryBefore(eq(10L), any(LocalDateTime.class), eq(0L), eq(Limit.of(50))))
+                .thenReturn(List.of(settled));
+        mapsById();
+        LocalDateTime requested = LocalDateTime.now();
+
+        MessageHistoryPage page = messageHistoryService.getHistory(10L, 1L, null, null, null);
+
+        ArgumentCaptor<LocalDateTime> horizon = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(messageRepository).findHistoryBefore(eq(10L), horizon.capture(), eq(0L), eq(Limit.of(50)));
+        assertThat(horizon.getValue()).isBefore(requested.minusSeconds(59));
+        assertThat(KeysetCursor.decode(page.getAfterCursor())).isEqualTo(new KeysetCursor(BASE, 4L));
+    }
+
+    @Test
+    void getHistory_shortPageBefore_hasNoBeforeCursor() {
+        Message only = buildMessage(1L, BASE);
+        String before = new KeysetCursor(BASE.plusMinutes(1), 2L).encode();
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(messageRepository.findHistoryBefore(10L, BASE.plusMinutes(1), 2L, Limit.of(50)))
+                .thenReturn(List.of(only));
+        mapsById();
+
+        MessageHistoryPage page = messageHistoryService.getHistory(10L, 1L, before, null, null);
+
+        assertThat(page.getItems()).extracting(MessageResponse::getId).containsExactly(1L);
+        assertThat(page.getBeforeCursor()).isNull();
+    }
+
+    @Test
+    void getHistory_afterWithNothingNew_keepsTheCursor() {
+        String after = new KeysetCursor(BASE, 5L).encode();
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(messageRepository.findHistoryAfter(eq(10L), eq(BASE), eq(5L), any(LocalDateTime.class), eq(Limit.of(50))))
+                .thenReturn(List.of());
+
+        MessageHistoryPage page = messageHistoryService.getHistory(10L, 1L, null, after, null);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getAfterCursor()).isEqualTo(after);
+    }
+
+    @Test
+    void getHistory_hotPartitionsRunOut_continuesIntoArchive() {
+        Message oldestHot = buildMessage(5L, BASE);
+        LocalDateTime archivedAt = BASE.minusMonths(13);
+        String before = new KeysetCursor(BASE.plusMinutes(1), 6L).encode();
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(messageRepository.findHistoryBefore(10L, BASE.plusMinutes(1), 6L, Limit.of(3)))
+                .thenReturn(List.of(oldestHot));
+        mapsById();
+        when(conversationRepository.findArchivedMessageCount(10L)).thenReturn(Optional.of(4L));
+        when(messageArchiveService.readBefore(10L, BASE.plusMinutes(1), 6L, 2))
+                .thenReturn(List.of(response(4L, archivedAt.plusMinutes(1)), response(3L, archivedAt)));
+
+        MessageHistoryPage page = messageHistoryService.getHistory(10L, 1L, before, null, 3);
+
+        assertThat(page.getItems()).extracting(MessageResponse::getId).containsExactly(3L, 4L, 5L);
+        assertThat(KeysetCursor.decode(page.getBeforeCursor())).isEqualTo(new KeysetCursor(archivedAt, 3L));
+    }
+
+    @Test
+    void getHistory_shortPageWithoutArchive_doesNotReadArchive() {
+        String before = new KeysetCursor(BASE, 1L).encode();
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(messageRepository.findHistoryBefore(10L, BASE, 1L, Limit.of(50))).thenReturn(List.of());
+        when(conversationRepository.findArchivedMessageCount(10L)).thenReturn(Optional.of(0L));
+
+        MessageHistoryPage page = messageHistoryService.getHistory(10L, 1L, before, null, null);
+
+        assertThat(page.getItems()).isEmpty();
+        verify(messageArchiveService, never()).readBefore(anyLong(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getHistory_afterCursorInArchive_catchesUpFromArchiveFirst() {
+        LocalDateTime archivedAt = LocalDateTime.now().minusMonths(13).withNano(0);
+        String after = new KeysetCursor(archivedAt, 3L).encode();
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(conversationRepository.findArchivedMessageCount(10L)).thenReturn(Optional.of(4L));
+        when(messageArchiveService.readAfter(10L, archivedAt, 3L, 50))
+                .thenReturn(List.of(response(4L, archivedAt.plusMinutes(1))));
+
+        MessageHistoryPage page = messageHistoryService.getHistory(10L, 1L, null, after, null);
+
+        assertThat(page.getItems()).extracting(MessageResponse::getId).containsExactly(4L);
+        assertThat(KeysetCursor.decode(page.getAfterCursor())).isEqualTo(new KeysetCursor(archivedAt.plusMinutes(1), 4L));
+        verify(messageRepository, never()).findHistoryAfter(anyLong(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void getHistory_recentAfterCursor_neverReadsArchive() {
+        LocalDateTime recent = LocalDateTime.now().minusMinutes(5).withNano(0);
+        String after = new KeysetCursor(recent, 5L).encode();
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(messageRepository.findHistoryAfter(eq(10L), eq(recent), eq(5L), any(LocalDateTime.class), eq(Limit.of(50))))
+                .thenReturn(List.of());
+
+        messageHistoryService.getHistory(10L, 1L, null, after, null);
+
+        verify(conversationRepository, never()).findArchivedMessageCount(anyLong());
+        verify(messageArchiveService, never()).readAfter(anyLong(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getHistory_bothCursors_throwsBusinessRule() {
+        String cursor = new KeysetCursor(BASE, 1L).encode();
+
+        assertThatThrownBy(() -> messageHistoryService.getHistory(10L, 1L, cursor, cursor, null))
+                .isInstanceOf(BusinessRuleException.class);
+        verify(messageRepository, never()).findHistoryBefore(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void getHistory_nonParticipant_throwsAccessDenied() {
+        when(participantCache.isParticipant(10L, 99L)).thenReturn(false);
+        when(conversationRepository.existsById(10L)).thenReturn(true);
+
+        assertThatThrownBy(() -> messageHistoryService.getHistory(10L, 99L, null, null, null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void getHistory_missingConversation_throwsNotFound() {
+        when(participantCache.isParticipant(404L, 1L)).thenReturn(false);
+        when(conversationRepository.existsById(404L)).thenReturn(false);
+
+        assertThatThrownBy(() -> messageHistoryService.getHistory(404L, 1L, null, null, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private void mapsById() {
+        when(messageMapper.toResponse(any(Message.class))).thenAnswer(inv -> response(
+                inv.<Message>getArgument(0).getId(), inv.<Message>getArgument(0).getCreatedAt()));
+    }
+
+    private static MessageResponse response(Long id, LocalDateTime createdAt) {
+        return MessageResponse.builder().id(id).createdAt(createdAt).build();
+    }
+
+    private Message buildMessage(Long id, LocalDateTime createdAt) {
+        Message message = Message.builder().content("Message " + id).build();
+        message.setId(id);
+        message.setCreatedAt(createdAt);
+        return message;
+    }
+}
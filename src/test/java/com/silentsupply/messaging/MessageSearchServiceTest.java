@@ -0,0 +1,101 @@
+package com.silentsupply.messaging;
+
+import com.silentsupply.common.dto.CursorPage;
+import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.common.pagination.ScoreCursor;
+import com.silentsupply.messaging.dto.MessageSearchResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link MessageSearchService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageSearchServiceTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @InjectMocks
+    private MessageSearchService messageSearchService;
+
+    @Test
+    void search_fullPage_returnsHitsAndCursorOfLastHit() {
+        MessageSearchRow best = searchRow(7L, 0.9);
+        MessageSearchRow next = searchRow(3L, 0.4);
+        when(messageRepository.search(1L, "pallet dimensions", Double.MAX_VALUE, Long.MAX_VALUE, 2))
+                .thenReturn(List.of(best, next));
+
+        CursorPage<MessageSearchResult> page = messageSearchService.search(1L, "  pallet dimensions ", null, 2);
+
+        assertThat(page.getItems()).extracting(MessageSearchResult::getMessageId).containsExactly(7L, 3L);
+        assertThat(page.getItems().get(0).getSnippet()).isEqualTo("<mark>pallet</mark> 7");
+        assertThat(ScoreCursor.decode(page.getNextCursor())).isEqualTo(new ScoreCursor(0.4, 3L));
+    }
+
+    @Test
+    void search_withCursor_continuesAfterIt() {
+        String cursor = new ScoreCursor(0.4, 3L).encode();
+        when(messageRepository.search(1L, "pallet", 0.4, 3L, MessageSearchService.DEFAULT_LIMIT))
+                .thenReturn(List.of());
+
+        CursorPage<MessageSearchResult> page = messageSearchService.search(1L, "pallet", cursor, null);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void search_blankOrOverlongQuery_throwsBusinessRule() {
+        assertThatThrownBy(() -> messageSearchService.search(1L, " ", null, null))
+                .isInstanceOf(BusinessRuleException.class);
+        assertThatThrownBy(() -> messageSearchService.search(1L,
+                "x".repeat(MessageSearchService.MAX_QUERY_LENGTH + 1), null, null))
+                .isInstanceOf(BusinessRuleException.class);
+        verify(messageRepository, never()).search(anyLong(), anyString(), anyDouble(), anyLong(), anyInt());
+    }
+
+    @Test
+    void search_limitIsCapped() {
+        when(messageRepository.search(eq(1L), eq("pallet"), anyDouble(), anyLong(), eq(MessageSearchService.MAX_LIMIT)))
+                .thenReturn(List.of());
+
+        messageSearchService.search(1L, "pallet", null, 10_000);
+
+        verify(messageRepository).search(eq(1L), eq("pallet"), anyDouble(), anyLong(), eq(MessageSearchService.MAX_LIMIT));
+    }
+
+    @Test
+    void highlight_escapesContentAndMarksMatches() {
+        String snippet = "\u0002Pallet\u0003 is <b>120</b> & \u0002pallets\u0003";
+
+        assertThat(MessageSearchService.highlight(snippet))
+                .isEqualTo("<mark>Pallet</mark> is &lt;b&gt;120&lt;/b&gt; &amp; <mark>pallets</mark>");
+    }
+
+    private MessageSearchRow searchRow(Long id, double rank) {
+        MessageSearchRow row = mock(MessageSearchRow.class);
+        lenient().when(row.getId()).thenReturn(id);
+        lenient().when(row.getRank()).thenReturn(rank);
+        lenient().when(row.getSnippet()).thenReturn("\u0002pallet\u0003 " + id);
+        return row;
+    }
+}
@@ -1,14 +1,22 @@
 package com.silentsupply.messaging;
 
 import com.silentsupply.attachment.AttachmentRepository;
+import com.silentsupply.common.dto.CursorPage;
 import com.silentsupply.company.CompanyRepository;
 import com.silentsupply.company.CompanyRole;
 import com.silentsupply.company.dto.CompanyRequest;
 import com.silentsupply.config.IntegrationTestBase;
 import com.silentsupply.config.dto.AuthResponse;
+import com.silentsupply.messaging.dto.BatchSendMessageRequest;
+import com.silentsupply.messaging.dto.BatchSendMessageResponse;
 import com.silentsupply.messaging.dto.ConversationResponse;
+import com.silentsupply.messaging.dto.MessageHistoryPage;
 import com.silentsupply.messaging.dto.MessageResponse;
+import com.silentsupply.messaging.dto.MessageSearchResult;
+import com.silentsupply.messaging.dto.PresenceEvent;
 import com.silentsupply.messaging.dto.SendMessageRequest;
+import com.silentsupply.messaging.dto.TypingEvent;
+import com.silentsupply.messaging.dto.TypingRequest;
 import com.silentsupply.notification.NotificationRepository;
 import com.silentsupply.order.CatalogOrderRepository;
 import com.silentsupply.product.ProductRepository;
@@ -16,18 +24,37 @@ import com.silentsupply.proposal.ProposalRepository;
 import com.silentsupply.rfq.RfqRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
 import org.springframework.test.context.ActiveProfiles;
-
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -38,6 +65,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 @ActiveProfiles("test")
 class MessagingControllerIntegrationTest extends IntegrationTestBase {
 
+    @LocalServerPort
+    private int port;
+
     @Autowired
     private TestRestTemplate restTemplate;
 
@@ -71,7 +101,17 @@ class MessagingControllerIntegrationTest extends IntegrationTestBase {
     @Autowired
     private CompanyRepository companyRepository;
 
+    @Autowired
+    private MessagePartitionService partitionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private String supplierToken;
+    private Long supplierCompanyId;
     private String buyerToken;
     private Long buyerCompanyId;
 
@@ -88,7 +128,9 @@ class MessagingControllerIntegrationTest extends IntegrationTestBase {
         productRepository.deleteAll();
         companyRepository.deleteAll();
 
-        supplierToken = registerAndGetToken("MsgSupplier", "msg-supplier@example.com", CompanyRole.SUPPLIER);
+        AuthResponse supplierAuth = registerAndGetAuth("MsgSupplier", "msg-supplier@example.com", CompanyRole.SUPPLIER);
+        supplierToken = supplierAuth.getToken();
+        supplierCompanyId = supplierAuth.getCompanyId();
         AuthResponse buyerAuth = registerAndGetAuth("MsgBuyer", "msg-buyer@example.com", CompanyRole.BUYER);
         buyerToken = buyerAuth.getToken();
         buyerCompanyId = buyerAuth.getCompanyId();
@@ -168,6 +210,45 @@ class MessagingControllerIntegrationTest extends IntegrationTestBase {
         assertThat(messages.getBody()).contains("Second message");
     }
 
+    @Test
+    void getMessages_continuesIntoArchivedMonths() {
+        Long conversationId = sendDirect(supplierToken, buyerCompanyId, "Recent");
+        YearMonth old = YearMonth.now().minusMonths(24);
+
+        List<YearMonth> archived = archiveOldMessages(conversationId, "Old 1", "Old 2", "Old 3");
+
+        assertThat(archived).containsExactly(old);
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class,
+                "messages_p" + old.toString().replace('-', '_'))).isTrue();
+        Map<?, ?> first = getMessagesPage(conversationId, 0);
+        Map<?, ?> second = getMessagesPage(conversationId, 1);
+        assertThat(((Number) first.get("totalElements")).intValue()).isEqualTo(4);
+        assertThat(column(first, "content")).containsExactly("Recent", "Old 3");
+        assertThat(column(second, "content")).containsExactly("Old 2", "Old 1");
+        assertThat(column(second, "senderCompanyName")).containsOnly("MsgSupplier");
+    }
+
+    @Test
+    void getMessages_firstPageIsServedFromMemoryAndKeptCurrentBySends() {
+        Long conversationId = sendDirect(supplierToken, buyerCompanyId, "One");
+        sendInConversation(supplierToken, conversationId, "Two");
+        getMessagesPage(conversationId, 0);
+        double hits = meterRegistry.get("messages.recent.cache.requests").tag("result", "hit").counter().count();
+
+        sendInConversation(buyerToken, conversationId, "Three");
+        Map<?, ?> first = getMessagesPage(conversationId, 0);
+        Map<?, ?> second = getMessagesPage(conversationId, 1);
+
+        assertThat(column(first, "content")).containsExactly("Three", "Two");
+        assertThat(((Number) first.get("totalElements")).intValue()).isEqualTo(3);
+        assertThat(column(second, "content")).containsExactly("One");
+        assertThat(meterRegistry.get("messages.recent.cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(hits + 1);
+        ResponseEntity<Map> metric = restTemplate.exchange("/actuator/metrics/messages.recent.cache.bytes",
+                HttpMethod.GET, new HttpEntity<>(authHeaders(buyerToken)), Map.class);
+        assertThat(metric.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
     @Test
     void markAsRead_updatesReadStatus() {
 
@@ -205,6 +286,63 @@ class MessagingControllerIntegrationTest extends IntegrationTestBase {
         assertThat(((Number) unreadAfter.getBody().get("unreadCount")).longValue()).isZero();
     }
 
+    @Test
+    void unreadCount_countsOnlyOtherParticipantsMessages() {
+        Long conversationId = sendDirect(supplierToken, buyerCompanyId, "One");
+        restTemplate.exchange("/api/messages", HttpMethod.POST, new HttpEntity<>(SendMessageRequest.builder()
+                .conversationId(conversationId).content("Two").build(), authHeaders(supplierToken)), MessageResponse.class);
+
+        ResponseEntity<Map> buyerUnread = restTemplate.exchange("/api/messages/unread-count", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(buyerToken)), Map.class);
+        ResponseEntity<Map> supplierUnread = restTemplate.exchange("/api/messages/unread-count", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(supplierToken)), Map.class);
+
+        assertThat(((Number) buyerUnread.getBody().get("unreadCount")).longValue()).isEqualTo(2);
+        assertThat(((Number) supplierUnread.getBody().get("unreadCount")).longValue()).isZero();
+    }
+
+    @Test
+    void sendBatch_sendsToOwnConversationsAndReportsTheRest() {
+        AuthResponse other = registerAndGetAuth("MsgOther", "msg-other@example.com", CompanyRole.BUYER);
+        Long withBuyer = sendDirect(supplierToken, buyerCompanyId, "Hello buyer");
+        Long withOther = sendDirect(supplierToken, other.getCompanyId(), "Hello other");
+        Long notOurs = sendDirect(buyerToken, other.getCompanyId(), "Private");
+
+        BatchSendMessageRequest request = BatchSendMessageRequest.builder()
+                .messages(List.of(
+                        BatchSendMessageRequest.BatchMessage.builder().conversationId(withBuyer).content("Update 1").build(),
+                        BatchSendMessageRequest.BatchMessage.builder().conversationId(notOurs).content("Intrusion").build(),
+                        BatchSendMessageRequest.BatchMessage.builder().conversationId(withOther).content("Update 2").build(),
+                        BatchSendMessageRequest.BatchMessage.builder().conversationId(withBuyer).content("Update 3").build(),
+                        BatchSendMessageRequest.BatchMessage.builder()
+                                .referenceType(ConversationType.ORDER).referenceId(999999L).content("Lost").build()))
+                .build();
+
+        ResponseEntity<BatchSendMessageResponse> response = restTemplate.exchange("/api/messages/batch",
+                HttpMethod.POST, new HttpEntity<>(request, authHeaders(supplierToken)), BatchSendMessageResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getSent()).isEqualTo(3);
+        assertThat(response.getBody().getFailed()).isEqualTo(2);
+        assertThat(response.getBody().getResults()).extracting(BatchSendMessageResponse.MessageResult::isSent)
+                .containsExactly(true, false, true, true, false);
+        assertThat(messageHistory(buyerToken, withBuyer, "").getItems()).extracting(MessageResponse::getContent)
+                .containsExactly("Hello buyer", "Update 1", "Update 3");
+
+        ResponseEntity<Map> buyerUnread = restTemplate.exchange("/api/messages/unread-count", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(buyerToken)), Map.class);
+        assertThat(((Number) buyerUnread.getBody().get("unreadCount")).longValue()).isEqualTo(3);
+    }
+
+    @Test
+    void sendBatch_withNoMessages_returns400() {
+        ResponseEntity<String> response = restTemplate.exchange("/api/messages/batch", HttpMethod.POST,
+                new HttpEntity<>(BatchSendMessageRequest.builder().messages(List.of()).build(),
+                        authHeaders(supplierToken)), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void unreadCount_returnsZeroForNewUser() {
         ResponseEntity<Map> response = restTemplate.exchange(
@@ -269,6 +407,283 @@ class MessagingControllerIntegrationTest extends IntegrationTestBase {
         assertThat(buyerConvs.getBody()).hasSize(1);
     }
 
+    @Test
+    void pageConversations_walksInboxByLatestActivityWithSummaries() {
+        Long first = sendDirect(supplierToken, buyerCompanyId, "To the first buyer");
+        Long second = sendDirect(supplierToken,
+                registerAndGetAuth("Buyer Two", "buyer2@example.com", CompanyRole.BUYER).getCompanyId(), "To buyer two");
+        Long third = sendDirect(supplierToken,
+                registerAndGetAuth("Buyer Three", "buyer3@example.com", CompanyRole.BUYER).getCompanyId(), "To buyer three");
+        restTemplate.exchange("/api/messages", HttpMethod.POST, new HttpEntity<>(SendMessageRequest.builder()
+                .conversationId(first).content("Following up").build(), authHeaders(supplierToken)), MessageResponse.class);
+
+        CursorPage<ConversationResponse> page1 = pageConversations(supplierToken, "?limit=2");
+        CursorPage<ConversationResponse> page2 = pageConversations(supplierToken, "?limit=2&cursor=" + page1.getNextCursor());
+
+        assertThat(page1.getItems()).extracting(ConversationResponse::getId).containsExactly(first, third);
+        assertThat(page2.getItems()).extracting(ConversationResponse::getId).containsExactly(second);
+        assertThat(page2.getNextCursor()).isNull();
+
+        ConversationResponse buyerView = pageConversations(buyerToken, "").getItems().get(0);
+        assertThat(buyerView.getId()).isEqualTo(first);
+        assertThat(buyerView.getLastMessagePreview()).isEqualTo("Following up");
+        assertThat(buyerView.getLastMessageSenderName()).isEqualTo("MsgSupplier");
+        assertThat(buyerView.getUnreadCount()).isEqualTo(2);
+        assertThat(buyerView.getParticipants()).extracting(ConversationResponse.ParticipantInfo::getCompanyName)
+                .containsExactly("MsgSupplier", "MsgBuyer");
+    }
+
+    @Test
+    void getConversationDetails_asOutsider_returns403() {
+        Long conversationId = sendDirect(supplierToken, buyerCompanyId, "Private");
+        String outsiderToken = registerAndGetToken("Outsider", "outsider@example.com", CompanyRole.BUYER);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/messages/conversations/" + conversationId + "/details", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(outsiderToken)), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void getMessageHistory_scrollsBackAndCatchesUpWithoutGapsOrDuplicates() {
+        Long conversationId = sendDirect(supplierToken, buyerCompanyId, "m1");
+        for (int i = 2; i <= 5; i++) {
+            sendInConversation(supplierToken, conversationId, "m" + i);
+        }
+
+        MessageHistoryPage latest = messageHistory(buyerToken, conversationId, "?limit=2");
+        MessageHistoryPage older = messageHistory(buyerToken, conversationId,
+                "?limit=2&before=" + latest.getBeforeCursor());
+        MessageHistoryPage oldest = messageHistory(buyerToken, conversationId,
+                "?limit=2&before=" + older.getBeforeCursor());
+
+        assertThat(latest.getItems()).extracting(MessageResponse::getContent).containsExactly("m4", "m5");
+        assertThat(older.getItems()).extracting(MessageResponse::getContent).containsExactly("m2", "m3");
+        assertThat(oldest.getItems()).extracting(MessageResponse::getContent).containsExactly("m1");
+        assertThat(oldest.getBeforeCursor()).isNull();
+
+        MessageHistoryPage nothingNew = messageHistory(buyerToken, conversationId, "?after=" + latest.getAfterCursor());
+        assertThat(nothingNew.getItems()).isEmpty();
+        assertThat(nothingNew.getAfterCursor()).isEqualTo(latest.getAfterCursor());
+
+        sendInConversation(buyerToken, conversationId, "m6");
+        sendInConversation(supplierToken, conversationId, "m7");
+        MessageHistoryPage caughtUp = messageHistory(buyerToken, conversationId, "?after=" + nothingNew.getAfterCursor());
+        assertThat(caughtUp.getItems()).extracting(MessageResponse::getContent).containsExactly("m6", "m7");
+    }
+
+    @Test
+    void getMessageHistory_scrollsBackIntoArchivedMonthsAndCatchesUpThroughThem() {
+        Long conversationId = sendDirect(supplierToken, buyerCompanyId, "Recent");
+        archiveOldMessages(conversationId, "Old 1", "Old 2", "Old 3");
+
+        MessageHistoryPage latest = messageHistory(buyerToken, conversationId, "?limit=2");
+        MessageHistoryPage older = messageHistory(buyerToken, conversationId,
+                "?limit=2&before=" + latest.getBeforeCursor());
+        MessageHistoryPage oldest = messageHistory(buyerToken, conversationId,
+                "?limit=2&before=" + older.getBeforeCursor());
+
+        assertThat(latest.getItems()).extracting(MessageResponse::getContent).containsExactly("Old 3", "Recent");
+        assertThat(older.getItems()).extracting(MessageResponse::getContent).containsExactly("Old 1", "Old 2");
+        assertThat(older.getItems()).extracting(MessageResponse::getSenderCompanyName).containsOnly("MsgSupplier");
+        assertThat(oldest.getItems()).isEmpty();
+        assertThat(oldest.getBeforeCursor()).isNull();
+
+        MessageHistoryPage caughtUp = messageHistory(buyerToken, conversationId,
+                "?limit=2&after=" + older.getAfterCursor());
+        MessageHistoryPage rest = messageHistory(buyerToken, conversationId,
+                "?limit=2&after=" + caughtUp.getAfterCursor());
+        assertThat(caughtUp.getItems()).extracting(MessageResponse::getContent).containsExactly("Old 3");
+        assertThat(rest.getItems()).extracting(MessageResponse::getContent).containsExactly("Recent");
+    }
+
+    @Test
+    void pageConversations_fullyArchivedConversation_hasNoLastMessage() {
+        Long conversationId = sendDirect(supplierToken, buyerCompanyId, "Sent");
+        archiveOldMessages(conversationId, "Soon archived");
+        jdbcTemplate.update("DELETE FROM messages WHERE conversation_id = ?", conversationId);
+
+        // The inbox reads hot partitions only; the conversation is still listed and its
+        // history still reaches the archived message
+        assertThat(pageConversations(buyerToken, "?limit=10").getItems()).singleElement().satisfies(entry -> {
+            assertThat(entry.getId()).isEqualTo(conversationId);
+            assertThat(entry.getLastMessagePreview()).isNull();
+        });
+        assertThat(messageHistory(buyerToken, conversationId, "").getItems())
+                .extracting(MessageResponse::getContent).containsExactly("Soon archived");
+    }
+
+    @Test
+    void getMessageHistory_asOutsiderOrWithBothCursors_isRejected() {
+        Long conversationId = sendDirect(supplierToken, buyerCompanyId, "Private");
+        String outsiderToken = registerAndGetToken("Outsider", "outsider-history@example.com", CompanyRole.BUYER);
+        String cursor = messageHistory(buyerToken, conversationId, "").getAfterCursor();
+
+        ResponseEntity<String> outsider = restTemplate.exchange(
+                "/api/messages/conversations/" + conversationId + "/messages", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(outsiderToken)), String.class);
+        ResponseEntity<String> bothCursors = restTemplate.exchange(
+                "/api/messages/conversations/" + conversationId + "/messages?before=" + cursor + "&after=" + cursor,
+                HttpMethod.GET, new HttpEntity<>(authHeaders(buyerToken)), String.class);
+
+        assertThat(outsider.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(bothCursors.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void searchMessages_findsRankedHighlightedHitsInOwnConversationsOnly() {
+        Long conversationId = sendDirect(supplierToken, buyerCompanyId, "Pallet dimensions & <b>sizes</b> are 120x80 cm");
+        sendInConversation(buyerToken, conversationId, "Thanks, and what about pallets for the pallet racks?");
+        sendInConversation(supplierToken, conversationId, "Shipping leaves on Monday");
+        String outsiderToken = registerAndGetToken("Outsider", "outsider-search@example.com", CompanyRole.BUYER);
+        sendDirect(outsiderToken, registerAndGetAuth("Other Supplier", "other-search@example.com",
+                CompanyRole.SUPPLIER).getCompanyId(), "Our pallet question");
+
+        CursorPage<MessageSearchResult> firstPage = searchMessages(buyerToken, "?q=pallet&limit=1");
+        CursorPage<MessageSearchResult> secondPage = searchMessages(buyerToken,
+                "?q=pallet&limit=1&cursor=" + firstPage.getNextCursor());
+        CursorPage<MessageSearchResult> lastPage = searchMessages(buyerToken,
+                "?q=pallet&limit=1&cursor=" + secondPage.getNextCursor());
+
+        assertThat(firstPage.getItems()).singleElement().satisfies(hit -> {
+            assertThat(hit.getConversationId()).isEqualTo(conversationId);
+            assertThat(hit.getSenderCompanyName()).isEqualTo("MsgBuyer");
+            assertThat(hit.getSnippet()).contains("<mark>pallets</mark>", "<mark>pallet</mark>");
+        });
+        assertThat(secondPage.getItems()).singleElement().satisfies(hit -> {
+            assertThat(hit.getRank()).isLessThanOrEqualTo(firstPage.getItems().get(0).getRank());
+            assertThat(hit.getSnippet()).contains("<mark>Pallet</mark>", "&amp;").doesNotContain("<b>");
+        });
+        assertThat(lastPage.getItems()).isEmpty();
+        assertThat(lastPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void searchMessages_withBlankQuery_returns400() {
+        ResponseEntity<String> response = restTemplate.exchange("/api/messages/search?q=", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(buyerToken)), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void typingPing_reachesOtherParticipantAndPresenceShowsBothOnline() throws Exception {
+        Long conversationId = sendDirect(supplierToken, buyerCompanyId, "Hello");
+        BlockingQueue<TypingEvent> received = new LinkedBlockingQueue<>();
+
+        StompSession buyerSession = connectStomp(buyerToken);
+        StompSession supplierSession = connectStomp(supplierToken);
+        try {
+            buyerSession.subscribe("/user/queue/typing", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return TypingEvent.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    received.add((TypingEvent) payload);
+                }
+            });
+            // Let the broker register the subscription before the ping is sent
+            Thread.sleep(500);
+
+            supplierSession.send("/app/chat.typing", TypingRequest.builder().conversationId(conversationId).build());
+
+            TypingEvent event = received.poll(10, TimeUnit.SECONDS);
+            assertThat(event).isNotNull();
+            assertThat(event.getConversationId()).isEqualTo(conversationId);
+            assertThat(event.getCompanyId()).isEqualTo(supplierCompanyId);
+            assertThat(event.isTyping()).isTrue();
+
+            ResponseEntity<List<PresenceEvent>> presence = restTemplate.exchange(
+                    "/api/messages/presence?companyIds=" + supplierCompanyId + "," + buyerCompanyId,
+                    HttpMethod.GET, new HttpEntity<>(authHeaders(buyerToken)),
+                    new ParameterizedTypeReference<List<PresenceEvent>>() { });
+            assertThat(presence.getBody()).extracting(PresenceEvent::isOnline).containsExactly(true, true);
+        } finally {
+            buyerSession.disconnect();
+            supplierSession.disconnect();
+        }
+    }
+
+    private StompSession connectStomp(String token) throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        return stompClient.connectAsync("http://localhost:" + port + "/ws", new WebSocketHttpHeaders(),
+                        connectHeaders, new StompSessionHandlerAdapter() { })
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Adds messages on consecutive days of the month two years ago to a conversation, copying
+     * the sender of its first message, and archives every month before the hot horizon.
+     */
+    private List<YearMonth> archiveOldMessages(Long conversationId, String... contents) {
+        YearMonth old = YearMonth.now().minusMonths(24);
+        partitionService.createPartitions(old, old);
+        for (int day = 1; day <= contents.length; day++) {
+            jdbcTemplate.update("INSERT INTO messages (conversation_id, sender_company_id, content, created_at) "
+                    + "SELECT conversation_id, sender_company_id, ?, ? FROM messages WHERE conversation_id = ? LIMIT 1",
+                    contents[day - 1], old.atDay(day).atStartOfDay(), conversationId);
+        }
+        return partitionService.archiveBefore(YearMonth.now().minusMonths(11));
+    }
+
+    private Map<?, ?> getMessagesPage(Long conversationId, int page) {
+        ResponseEntity<Map> response = restTemplate.exchange(
+                "/api/messages/conversations/" + conversationId + "?page=" + page + "&size=2", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(buyerToken)), Map.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private static List<Object> column(Map<?, ?> page, String field) {
+        return ((List<?>) page.get("content")).stream().map(item -> (Object) ((Map<?, ?>) item).get(field)).toList();
+    }
+
+    private CursorPage<MessageSearchResult> searchMessages(String token, String query) {
+        ResponseEntity<CursorPage<MessageSearchResult>> response = restTemplate.exchange(
+                "/api/messages/search" + query, HttpMethod.GET,
+                new HttpEntity<>(authHeaders(token)),
+                new ParameterizedTypeReference<CursorPage<MessageSearchResult>>() { });
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private void sendInConversation(String token, Long conversationId, String content) {
+        restTemplate.exchange("/api/messages", HttpMethod.POST, new HttpEntity<>(SendMessageRequest.builder()
+                .conversationId(conversationId).content(content).build(), authHeaders(token)), MessageResponse.class);
+    }
+
+    private MessageHistoryPage messageHistory(String token, Long conversationId, String query) {
+        ResponseEntity<MessageHistoryPage> response = restTemplate.exchange(
+                "/api/messages/conversations/" + conversationId + "/messages" + query, HttpMethod.GET,
+                new HttpEntity<>(authHeaders(token)), MessageHistoryPage.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private Long sendDirect(String token, Long recipientCompanyId, String content) {
+        SendMessageRequest request = SendMessageRequest.builder()
+                .recipientCompanyId(recipientCompanyId).content(content).build();
+        return restTemplate.exchange("/api/messages", HttpMethod.POST,
+                new HttpEntity<>(request, authHeaders(token)), MessageResponse.class).getBody().getConversationId();
+    }
+
+    private CursorPage<ConversationResponse> pageConversations(String token, String query) {
+        ResponseEntity<CursorPage<ConversationResponse>> response = restTemplate.exchange(
+                "/api/messages/conversations/page" + query, HttpMethod.GET,
+                new HttpEntity<>(authHeaders(token)),
+                new ParameterizedTypeReference<CursorPage<ConversationResponse>>() { });
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
     private String registerAndGetToken(String name, String email, CompanyRole role) {
         return registerAndGetAuth(name, email, role).getToken();
     }
@@ -1,31 +1,49 @@
 package com.silentsupply.messaging;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silentsupply.common.dto.CursorPage;
 import com.silentsupply.common.exception.AccessDeniedException;
 import com.silentsupply.common.exception.BusinessRuleException;
 import com.silentsupply.common.exception.ResourceNotFoundException;
+import com.silentsupply.common.pagination.KeysetCursor;
 import com.silentsupply.company.Company;
 import com.silentsupply.company.CompanyRepository;
+import com.silentsupply.messaging.dto.BatchSendMessageRequest;
+import com.silentsupply.messaging.dto.BatchSendMessageResponse;
 import com.silentsupply.messaging.dto.ConversationResponse;
 import com.silentsupply.messaging.dto.MessageResponse;
 import com.silentsupply.messaging.dto.SendMessageRequest;
 import com.silentsupply.order.CatalogOrderRepository;
+import com.silentsupply.outbox.OutboxChannel;
+import com.silentsupply.outbox.OutboxService;
 import com.silentsupply.rfq.RfqRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -42,9 +60,18 @@ class MessagingServiceTest {
     @Mock
     private ConversationParticipantRepository participantRepository;
 
+    @Mock
+    private ConversationParticipantCache participantCache;
+
     @Mock
     private MessageRepository messageRepository;
 
+    @Mock
+    private MessageArchiveService messageArchiveService;
+
+    @Mock
+    private RecentMessageCache recentMessageCache;
+
     @Mock
     private MessageMapper messageMapper;
 
@@ -57,6 +84,12 @@ class MessagingServiceTest {
     @Mock
     private CatalogOrderRepository orderRepository;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private MessagingService messagingService;
 
@@ -69,7 +102,7 @@ class MessagingServiceTest {
 
         when(companyRepository.findById(1L)).thenReturn(Optional.of(sender));
         when(conversationRepository.findById(10L)).thenReturn(Optional.of(conversation));
-        when(participantRepository.existsByConversationIdAndCompanyId(10L, 1L)).thenReturn(true);
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
         when(messageRepository.save(any(Message.class))).thenAnswer(inv -> {
             Message m = inv.getArgument(0);
             m.setId(100L);
@@ -86,6 +119,8 @@ class MessagingServiceTest {
         assertThat(result.getId()).isEqualTo(100L);
         assertThat(result.getContent()).isEqualTo("Hello");
         verify(messageRepository).save(any(Message.class));
+        verify(participantRepository).incrementUnread(10L, 1L);
+        verify(recentMessageCache).appendAll(List.of(expectedResponse));
     }
 
     @Test
@@ -95,7 +130,7 @@ class MessagingServiceTest {
 
         when(companyRepository.findById(1L)).thenReturn(Optional.of(sender));
         when(conversationRepository.findById(10L)).thenReturn(Optional.of(conversation));
-        when(participantRepository.existsByConversationIdAndCompanyId(10L, 1L)).thenReturn(false);
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(false);
 
         SendMessageRequest request = SendMessageRequest.builder()
                 .conversationId(10L).content("Hello").build();
@@ -124,7 +159,7 @@ class MessagingServiceTest {
             return c;
         });
         when(participantRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-        when(participantRepository.existsByConversationIdAndCompanyId(10L, 1L)).thenReturn(true);
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
         when(messageRepository.save(any())).thenAnswer(inv -> {
             Message m = inv.getArgument(0);
             m.setId(100L);
@@ -140,6 +175,74 @@ class MessagingServiceTest {
         assertThat(result.getConversationId()).isEqualTo(10L);
         ArgumentCaptor<ConversationParticipant> captor = ArgumentCaptor.forClass(ConversationParticipant.class);
         verify(participantRepository, org.mockito.Mockito.times(2)).save(captor.capture());
+        verify(participantCache, org.mockito.Mockito.times(2)).evict(10L);
+    }
+
+    @Test
+    void sendAndBroadcast_queuesCopyForEveryParticipant() {
+        Company sender = buildCompany(1L, "Sender Co");
+        Conversation conversation = buildConversation(10L, ConversationType.DIRECT);
+        MessageResponse response = MessageResponse.builder()
+                .id(100L).conversationId(10L).content("Hello").build();
+
+        when(companyRepository.findById(1L)).thenReturn(Optional.of(sender));
+        when(conversationRepository.findById(10L)).thenReturn(Optional.of(conversation));
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(messageRepository.save(any(Message.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(messageMapper.toResponse(any())).thenReturn(response);
+        when(participantCache.participantIds(10L)).thenReturn(Set.of(1L, 2L));
+
+        SendMessageRequest request = SendMessageRequest.builder()
+                .conversationId(10L).content("Hello").build();
+
+        MessageResponse result = messagingService.sendAndBroadcast(1L, request);
+
+        assertThat(result).isSameAs(response);
+        verify(outboxService).enqueueAll(OutboxChannel.STOMP, "/queue/messages",
+                Map.of(1L, response, 2L, response));
+    }
+
+    @Test
+    void sendBatch_sendsWhereParticipantAndCoalescesFanOut() {
+        Company sender = buildCompany(1L, "Sender Co");
+        Conversation ours = buildConversation(10L, ConversationType.DIRECT);
+        Conversation theirs = buildConversation(20L, ConversationType.DIRECT);
+
+        when(companyRepository.findById(1L)).thenReturn(Optional.of(sender));
+        when(conversationRepository.findAllById(Set.of(10L, 20L))).thenReturn(List.of(ours, theirs));
+        when(participantRepository.findCompanyIdsByConversationIdIn(Set.of(10L, 20L))).thenReturn(List.of(
+                new Object[]{10L, 1L}, new Object[]{10L, 2L}, new Object[]{20L, 2L}, new Object[]{20L, 3L}));
+        when(messageMapper.toResponse(any())).thenAnswer(inv -> MessageResponse.builder()
+                .conversationId(inv.<Message>getArgument(0).getConversation().getId())
+                .content(inv.<Message>getArgument(0).getContent())
+                .build());
+
+        BatchSendMessageRequest request = BatchSendMessageRequest.builder()
+                .messages(List.of(
+                        batchMessage(10L, "First"),
+                        batchMessage(20L, "Not mine"),
+                        batchMessage(10L, "Second"),
+                        batchMessage(null, "No target")))
+                .build();
+
+        BatchSendMessageResponse result = messagingService.sendBatch(1L, request);
+
+        assertThat(result.getSent()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(BatchSendMessageResponse.MessageResult::isSent)
+                .containsExactly(true, false, true, false);
+        assertThat(result.getResults().get(1).getError()).isEqualTo("You are not a participant in this conversation");
+        verify(messageRepository).saveAll(argThat(
+                (Collection<Message> messages) -> messages.size() == 2));
+        verify(conversationRepository).touchAll(eq(Set.of(10L)), any(LocalDateTime.class));
+        verify(participantRepository).incrementUnreadAll(List.of(10L), 1L, 2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, List<MessageResponse>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(outboxService).enqueueAll(eq(OutboxChannel.STOMP), eq("/queue/message-batches"), captor.capture());
+        assertThat(captor.getValue()).containsOnlyKeys(1L, 2L);
+        assertThat(captor.getValue().get(2L)).extracting(MessageResponse::getContent)
+                .containsExactly("First", "Second");
     }
 
     @Test
@@ -167,73 +270,175 @@ class MessagingServiceTest {
     }
 
     @Test
-    void getConversations_returnsConversationsForCompany() {
-        Conversation conv = buildConversation(10L, ConversationType.DIRECT);
-        conv.setParticipants(List.of(
-                buildParticipant(conv, buildCompany(1L, "Company A")),
-                buildParticipant(conv, buildCompany(2L, "Company B"))
-        ));
-        conv.setCreatedAt(LocalDateTime.now());
-
-        when(conversationRepository.findByParticipantCompanyId(1L)).thenReturn(List.of(conv));
-        when(participantRepository.findByConversationId(10L)).thenReturn(conv.getParticipants());
-        when(participantRepository.findByConversationIdAndCompanyId(10L, 1L))
-                .thenReturn(Optional.of(conv.getParticipants().get(0)));
-        when(messageRepository.findFirstByConversationIdOrderByCreatedAtDesc(10L)).thenReturn(null);
-        when(messageRepository.countByConversationId(10L)).thenReturn(0L);
+    void getConversations_mapsInboxRows() {
+        LocalDateTime at = LocalDateTime.now();
+        ConversationInboxRow row = inboxRow(10L, at, "x".repeat(101), 4L);
+        when(conversationRepository.findInbox(1L)).thenReturn(List.of(row));
 
         List<ConversationResponse> result = messagingService.getConversations(1L);
 
         assertThat(result).hasSize(1);
-        assertThat(result.get(0).getId()).isEqualTo(10L);
-        assertThat(result.get(0).getParticipants()).hasSize(2);
+        ConversationResponse conversation = result.get(0);
+        assertThat(conversation.getId()).isEqualTo(10L);
+        assertThat(conversation.getType()).isEqualTo(ConversationType.DIRECT);
+        assertThat(conversation.getParticipants()).extracting(ConversationResponse.ParticipantInfo::getCompanyName)
+                .containsExactly("Company A", "Company B");
+        assertThat(conversation.getLastMessagePreview()).isEqualTo("x".repeat(100) + "...");
+        assertThat(conversation.getLastMessageSenderName()).isEqualTo("Company B");
+        assertThat(conversation.getUnreadCount()).isEqualTo(4L);
+        assertThat(conversation.getUpdatedAt()).isEqualTo(at);
+    }
+
+    @Test
+    void pageConversations_fullPage_returnsCursorOfLastRow() {
+        LocalDateTime newer = LocalDateTime.of(2026, 3, 2, 10, 0);
+        LocalDateTime older = LocalDateTime.of(2026, 3, 1, 10, 0);
+        List<ConversationInboxRow> rows = List.of(inboxRow(11L, newer, "Hi", 0L), inboxRow(10L, older, "Hi", 0L));
+        when(conversationRepository.findInboxPage(1L, KeysetCursor.END.timestamp(), KeysetCursor.END.id(), 2))
+                .thenReturn(rows);
+
+        CursorPage<ConversationResponse> page = messagingService.pageConversations(1L, null, 2);
+
+        assertThat(page.getItems()).extracting(ConversationResponse::getId).containsExactly(11L, 10L);
+        assertThat(KeysetCursor.decode(page.getNextCursor())).isEqualTo(new KeysetCursor(older, 10L));
     }
 
     @Test
-    void markAsRead_updatesLastReadAt() {
-        ConversationParticipant participant = ConversationParticipant.builder().build();
-        participant.setId(1L);
+    void pageConversations_lastPage_hasNoCursor() {
+        ConversationInboxRow row = inboxRow(10L, LocalDateTime.now(), null, 0L);
+        when(conversationRepository.findInboxPage(eq(1L), any(), anyLong(), eq(MessagingService.DEFAULT_INBOX_PAGE_SIZE)))
+                .thenReturn(List.of(row));
 
-        when(participantRepository.findByConversationIdAndCompanyId(10L, 1L))
-                .thenReturn(Optional.of(participant));
-        when(participantRepository.save(any())).thenReturn(participant);
+        CursorPage<ConversationResponse> page = messagingService.pageConversations(1L, null, null);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getItems().get(0).getLastMessagePreview()).isNull();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getConversationDetails_nonParticipant_throwsAccessDenied() {
+        when(conversationRepository.findInboxEntry(99L, 10L)).thenReturn(Optional.empty());
+        when(conversationRepository.existsById(10L)).thenReturn(true);
+
+        assertThatThrownBy(() -> messagingService.getConversationDetails(10L, 99L))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void getConversationDetails_missingConversation_throwsNotFound() {
+        when(conversationRepository.findInboxEntry(1L, 404L)).thenReturn(Optional.empty());
+        when(conversationRepository.existsById(404L)).thenReturn(false);
+
+        assertThatThrownBy(() -> messagingService.getConversationDetails(404L, 1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void getMessages_withinHotPartitions_doesNotReadArchive() {
+        PageRequest pageable = PageRequest.of(0, 2);
+        Message message = Message.builder().content("Hot").build();
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(messageRepository.findByConversationIdOrderByCreatedAtDesc(10L, pageable))
+                .thenReturn(new PageImpl<>(List.of(message, message), pageable, 3));
+        when(messageMapper.toResponse(message)).thenReturn(MessageResponse.builder().content("Hot").build());
+        when(conversationRepository.findArchivedMessageCount(10L)).thenReturn(Optional.of(5L));
+
+        Page<MessageResponse> page = messagingService.getMessages(10L, 1L, pageable);
+
+        assertThat(page.getContent()).extracting(MessageResponse::getContent).containsExactly("Hot", "Hot");
+        assertThat(page.getTotalElements()).isEqualTo(8);
+        verify(messageArchiveService, never()).readNewestFirst(anyLong(), anyLong(), anyInt());
+        verify(recentMessageCache).warm(eq(10L), anyLong(), eq(page));
+    }
+
+    @Test
+    void getMessages_cachedFirstPage_skipsDatabase() {
+        PageRequest pageable = PageRequest.of(0, 2);
+        Page<MessageResponse> cached = new PageImpl<>(
+                List.of(MessageResponse.builder().content("Recent").build()), pageable, 1);
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(recentMessageCache.firstPage(10L, pageable)).thenReturn(cached);
+
+        Page<MessageResponse> page = messagingService.getMessages(10L, 1L, pageable);
+
+        assertThat(page).isSameAs(cached);
+        verify(messageRepository, never()).findByConversationIdOrderByCreatedAtDesc(anyLong(), any());
+        verify(conversationRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void getMessages_nonParticipant_throwsAccessDenied() {
+        when(participantCache.isParticipant(10L, 99L)).thenReturn(false);
+        when(conversationRepository.existsById(10L)).thenReturn(true);
+
+        assertThatThrownBy(() -> messagingService.getMessages(10L, 99L, PageRequest.of(0, 2)))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(recentMessageCache, never()).firstPage(anyLong(), any());
+    }
+
+    @Test
+    void getMessages_pageReachingPastHotPartitions_continuesInArchive() {
+        PageRequest pageable = PageRequest.of(1, 2);
+        Message message = Message.builder().content("Hot").build();
+        when(participantCache.isParticipant(10L, 1L)).thenReturn(true);
+        when(messageRepository.findByConversationIdOrderByCreatedAtDesc(10L, pageable))
+                .thenReturn(new PageImpl<>(List.of(message), pageable, 3));
+        when(messageMapper.toResponse(message)).thenReturn(MessageResponse.builder().content("Hot").build());
+        when(conversationRepository.findArchivedMessageCount(10L)).thenReturn(Optional.of(5L));
+        when(messageArchiveService.readNewestFirst(10L, 0, 1))
+                .thenReturn(List.of(MessageResponse.builder().content("Archived").build()));
+
+        Page<MessageResponse> page = messagingService.getMessages(10L, 1L, pageable);
+
+        assertThat(page.getContent()).extracting(MessageResponse::getContent).containsExactly("Hot", "Archived");
+        assertThat(page.getTotalElements()).isEqualTo(8);
+    }
+
+    @Test
+    void markAsRead_resetsCounterAndUpdatesLastReadAt() {
+        when(participantRepository.markRead(eq(10L), eq(1L), any(LocalDateTime.class))).thenReturn(1);
 
         messagingService.markAsRead(10L, 1L);
 
-        assertThat(participant.getLastReadAt()).isNotNull();
-        verify(participantRepository).save(participant);
+        verify(participantRepository).markRead(eq(10L), eq(1L), any(LocalDateTime.class));
     }
 
     @Test
     void markAsRead_nonParticipant_throwsAccessDenied() {
-        when(participantRepository.findByConversationIdAndCompanyId(10L, 99L))
-                .thenReturn(Optional.empty());
+        when(participantRepository.markRead(eq(10L), eq(99L), any(LocalDateTime.class))).thenReturn(0);
 
         assertThatThrownBy(() -> messagingService.markAsRead(10L, 99L))
                 .isInstanceOf(AccessDeniedException.class);
     }
 
     @Test
-    void getUnreadCount_aggregatesAcrossConversations() {
-        Conversation conv1 = buildConversation(10L, ConversationType.DIRECT);
-        Conversation conv2 = buildConversation(20L, ConversationType.RFQ);
-        ConversationParticipant p1 = ConversationParticipant.builder().lastReadAt(null).build();
-        ConversationParticipant p2 = ConversationParticipant.builder()
-                .lastReadAt(LocalDateTime.now().minusHours(1)).build();
-
-        when(conversationRepository.findByParticipantCompanyId(1L)).thenReturn(List.of(conv1, conv2));
-        when(participantRepository.findByConversationIdAndCompanyId(10L, 1L))
-                .thenReturn(Optional.of(p1));
-        when(participantRepository.findByConversationIdAndCompanyId(20L, 1L))
-                .thenReturn(Optional.of(p2));
-        when(messageRepository.countByConversationId(10L)).thenReturn(3L);
-        when(messageRepository.countByConversationIdAndCreatedAtAfter(eq(20L), any())).thenReturn(2L);
+    void getUnreadCount_sumsParticipantCounters() {
+        when(participantRepository.sumUnreadByCompanyId(1L)).thenReturn(5L);
 
         Map<String, Long> result = messagingService.getUnreadCount(1L);
 
         assertThat(result.get("unreadCount")).isEqualTo(5L);
     }
 
+    private ConversationInboxRow inboxRow(Long id, LocalDateTime updatedAt, String lastMessage, long unread) {
+        ConversationInboxRow row = mock(ConversationInboxRow.class);
+        lenient().when(row.getId()).thenReturn(id);
+        lenient().when(row.getType()).thenReturn("DIRECT");
+        lenient().when(row.getUpdatedAt()).thenReturn(updatedAt);
+        lenient().when(row.getLastMessageContent()).thenReturn(lastMessage);
+        lenient().when(row.getLastMessageSenderName()).thenReturn(lastMessage == null ? null : "Company B");
+        lenient().when(row.getUnreadCount()).thenReturn(unread);
+        lenient().when(row.getParticipants()).thenReturn(
+                "[{\"companyId\":1,\"companyName\":\"Company A\"},{\"companyId\":2,\"companyName\":\"Company B\"}]");
+        return row;
+    }
+
+    private BatchSendMessageRequest.BatchMessage batchMessage(Long conversationId, String content) {
+        return BatchSendMessageRequest.BatchMessage.builder()
+                .conversationId(conversationId).content(content).build();
+    }
+
     private Company buildCompany(Long id, String name) {
         Company company = Company.builder().name(name).build();
         company.setId(id);
@@ -245,11 +450,4 @@ class MessagingServiceTest {
         conv.setId(id);
         return conv;
     }
-
-    private ConversationParticipant buildParticipant(Conversation conversation, Company company) {
-        return ConversationParticipant.builder()
-                .conversation(conversation)
-                .company(company)
-                .build();
-    }
 }
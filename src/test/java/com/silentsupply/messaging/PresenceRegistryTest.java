@@ -0,0 +1,188 @@
+package com.silentsupply.messaging;
+
+import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.messaging.dto.PresenceEvent;
+import com.silentsupply.messaging.dto.TypingEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link PresenceRegistry}.
+ */
+@ExtendWith(MockitoExtension.class)
+class PresenceRegistryTest {
+
+    private static final long TTL = 5000;
+    private static final long GRACE = 3000;
+    private static final long INTERVAL = 1000;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private ConversationParticipantCache participantCache;
+
+    private PresenceRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new PresenceRegistry(messagingTemplate, participantCache, TTL, GRACE, INTERVAL, false);
+    }
+
+    @Test
+    void connected_announcesOnlineOnceForSeveralSessions() {
+        registry.connected("s1", 1L, 0);
+        registry.connected("s2", 1L, 10);
+        registry.connected("s2", 1L, 20);
+
+        assertThat(registry.isOnline(1L)).isTrue();
+        assertThat(registry.sessionCount()).isEqualTo(2);
+        verify(messagingTemplate).convertAndSend("/topic/presence.1", online(1L, true));
+    }
+
+    @Test
+    void disconnected_announcesOfflineOnlyAfterGracePeriod() {
+        registry.connected("s1", 1L, 0);
+        registry.disconnected("s1", 100);
+        registry.disconnected("s1", 150);
+
+        registry.sweep(100 + GRACE - 1);
+        verify(messagingTemplate, never()).convertAndSend("/topic/presence.1", online(1L, false));
+        assertThat(registry.isOnline(1L)).isFalse();
+
+        registry.sweep(100 + GRACE);
+        verify(messagingTemplate).convertAndSend("/topic/presence.1", online(1L, false));
+        assertThat(registry.sessionCount()).isZero();
+    }
+
+    @Test
+    void reconnectWithinGracePeriod_isNotBroadcast() {
+        registry.connected("s1", 1L, 0);
+        registry.disconnected("s1", 2000);
+        registry.connected("s2", 1L, 2500);
+        registry.sweep(10_000);
+
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void flappingPresence_isRateLimitedAndSettledBySweep() {
+        registry.connected("s1", 1L, 0);
+        registry.disconnected("s1", 10);
+        registry.sweep(10 + GRACE);
+        registry.connected("s2", 1L, 10 + GRACE + 1);
+
+        verify(messagingTemplate).convertAndSend("/topic/presence.1", online(1L, false));
+        verify(messagingTemplate, times(1)).convertAndSend("/topic/presence.1", online(1L, true));
+
+        registry.sweep(10 + GRACE + INTERVAL);
+
+        verify(messagingTemplate, times(2)).convertAndSend("/topic/presence.1", online(1L, true));
+    }
+
+    @Test
+    void typing_notifiesOtherParticipantsOnceAndExpires() {
+        when(participantCache.participantIds(10L)).thenReturn(Set.of(1L, 2L, 3L));
+        registry.connected("s1", 1L, 0);
+
+        registry.typing(1L, 10L, true, 0);
+        registry.typing(1L, 10L, true, 2000);
+        verify(messagingTemplate).convertAndSendToUser("2", "/queue/typing", typing(10L, 1L, true));
+        verify(messagingTemplate).convertAndSendToUser("3", "/queue/typing", typing(10L, 1L, true));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("1"), anyString(), any(Object.class));
+
+        registry.sweep(2000 + TTL - 1);
+        verify(messagingTemplate, never()).convertAndSendToUser("2", "/queue/typing", typing(10L, 1L, false));
+
+        registry.sweep(2000 + TTL);
+        verify(messagingTemplate).convertAndSendToUser("2", "/queue/typing", typing(10L, 1L, false));
+        verify(messagingTemplate).convertAndSendToUser("3", "/queue/typing", typing(10L, 1L, false));
+    }
+
+    @Test
+    void typingStopped_isSentRightAwayOnceRateLimitAllows() {
+        when(participantCache.participantIds(10L)).thenReturn(Set.of(1L, 2L));
+        registry.connected("s1", 1L, 0);
+
+        registry.typing(1L, 10L, true, 0);
+        registry.typing(1L, 10L, false, INTERVAL);
+
+        verify(messagingTemplate).convertAndSendToUser("2", "/queue/typing", typing(10L, 1L, false));
+    }
+
+    @Test
+    void typing_outsideConversation_isIgnored() {
+        when(participantCache.participantIds(10L)).thenReturn(Set.of(2L, 3L));
+
+        registry.typing(1L, 10L, true, 0);
+        registry.sweep(TTL);
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void presence_reportsConnectedCompanies() {
+        when(participantCache.counterpartsAmong(2L, List.of(1L, 2L))).thenReturn(Set.of(1L, 2L));
+        registry.connected("s1", 1L, 0);
+
+        List<PresenceEvent> presence = registry.presence(2L, List.of(1L, 2L));
+
+        assertThat(presence).containsExactly(online(1L, true), online(2L, false));
+    }
+
+    @Test
+    void presence_leavesOutCompaniesWithoutSharedConversation() {
+        when(participantCache.counterpartsAmong(2L, List.of(1L, 3L))).thenReturn(Set.of(3L));
+        registry.connected("s1", 1L, 0);
+
+        List<PresenceEvent> presence = registry.presence(2L, List.of(1L, 3L));
+
+        assertThat(presence).containsExactly(online(3L, false));
+    }
+
+    @Test
+    void presence_tooManyCompanies_throwsBusinessRule() {
+        List<Long> ids = Collections.nCopies(PresenceRegistry.MAX_LOOKUP + 1, 1L);
+
+        assertThatThrownBy(() -> registry.presence(2L, ids)).isInstanceOf(BusinessRuleException.class);
+    }
+
+    @Test
+    void relayMode_tracksPresenceWithoutBroadcasting() {
+        registry = new PresenceRegistry(messagingTemplate, participantCache, TTL, GRACE, INTERVAL, true);
+
+        registry.connected("s1", 1L, 0);
+        registry.disconnected("s1", 10);
+        registry.sweep(10 + GRACE);
+
+        assertThat(registry.isOnline(1L)).isFalse();
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    private static PresenceEvent online(Long companyId, boolean online) {
+        return PresenceEvent.builder().companyId(companyId).online(online).build();
+    }
+
+    private static TypingEvent typing(Long conversationId, Long companyId, boolean typing) {
+        return TypingEvent.builder().conversationId(conversationId).companyId(companyId).typing(typing).build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.silentsupply.messaging;
+
+import com.silentsupply.messaging.dto.MessageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RecentMessageCache}.
+ */
+class RecentMessageCacheTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecentMessageCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RecentMessageCache(meterRegistry, true, 2, 3, false);
+    }
+
+    @Test
+    void firstPage_unknownConversation_isMiss() {
+        assertThat(cache.firstPage(10L, PageRequest.of(0, 2))).isNull();
+
+        assertThat(requests("miss")).isEqualTo(1);
+        assertThat(requests("hit")).isZero();
+    }
+
+    @Test
+    void warm_thenFirstPage_servesNewestFirstWithTotal() {
+        warm(10L, 5, message(10L, 5), message(10L, 4));
+
+        Page<MessageResponse> page = cache.firstPage(10L, PageRequest.of(0, 2));
+
+        assertThat(page.getContent()).extracting(MessageResponse::getId).containsExactly(5L, 4L);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(requests("hit")).isEqualTo(1);
+        assertThat(meterRegistry.get("messages.recent.cache.hit.ratio").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void append_keepsRingCurrentAndOverwritesOldest() {
+        warm(10L, 5, message(10L, 5), message(10L, 4), message(10L, 3));
+
+        cache.appendAll(List.of(message(10L, 6), message(10L, 7)));
+
+        Page<MessageResponse> page = cache.firstPage(10L, PageRequest.of(0, 3));
+        assertThat(page.getContent()).extracting(MessageResponse::getId).containsExactly(7L, 6L, 5L);
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(gauge("messages.recent.cache.messages")).isEqualTo(3);
+    }
+
+    @Test
+    void append_sameMessageTwice_isCountedOnce() {
+        warm(10L, 1, message(10L, 1));
+
+        cache.appendAll(List.of(message(10L, 2), message(10L, 2)));
+
+        Page<MessageResponse> page = cache.firstPage(10L, PageRequest.of(0, 3));
+        assertThat(page.getContent()).extracting(MessageResponse::getId).containsExactly(2L, 1L);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void firstPage_largerThanRing_fallsThroughUnlessRingHoldsWholeConversation() {
+        warm(10L, 5, message(10L, 5), message(10L, 4), message(10L, 3));
+        warm(11L, 2, message(11L, 2), message(11L, 1));
+
+        assertThat(cache.firstPage(10L, PageRequest.of(0, 4))).isNull();
+        assertThat(cache.firstPage(11L, PageRequest.of(0, 4)).getContent()).hasSize(2);
+    }
+
+    @Test
+    void laterPagesAndSortedPages_areNotLookedUp() {
+        warm(10L, 5, message(10L, 5), message(10L, 4));
+
+        assertThat(cache.firstPage(10L, PageRequest.of(1, 2))).isNull();
+        assertThat(cache.firstPage(10L, PageRequest.of(0, 2, Sort.by("createdAt")))).isNull();
+        assertThat(requests("hit") + requests("miss")).isZero();
+    }
+
+    @Test
+    void disabledCache_neverServesPages() {
+        cache = new RecentMessageCache(new SimpleMeterRegistry(), false, 2, 3, false);
+        warm(10L, 1, message(10L, 1));
+
+        assertThat(cache.firstPage(10L, PageRequest.of(0, 1))).isNull();
+    }
+
+    @Test
+    void brokerRelay_turnsCacheOff() {
+        cache = new RecentMessageCache(new SimpleMeterRegistry(), true, 2, 3, true);
+        warm(10L, 1, message(10L, 1));
+
+        assertThat(cache.firstPage(10L, PageRequest.of(0, 1))).isNull();
+    }
+
+    @Test
+    void warm_afterConcurrentSend_isDiscarded() {
+        long stamp = cache.stamp(10L);
+        cache.appendAll(List.of(message(10L, 6)));
+
+        cache.warm(10L, stamp, page(5, message(10L, 5), message(10L, 4)));
+
+        assertThat(cache.firstPage(10L, PageRequest.of(0, 2))).isNull();
+    }
+
+    @Test
+    void leastRecentlyUsedConversation_isEvictedAndReleased() {
+        warm(10L, 1, message(10L, 1));
+        warm(11L, 1, message(11L, 1));
+        cache.firstPage(10L, PageRequest.of(0, 1));
+        warm(12L, 1, message(12L, 1));
+
+        assertThat(cache.firstPage(11L, PageRequest.of(0, 1))).isNull();
+        assertThat(cache.firstPage(10L, PageRequest.of(0, 1))).isNotNull();
+        assertThat(gauge("messages.recent.cache.conversations")).isEqualTo(2);
+        assertThat(gauge("messages.recent.cache.messages")).isEqualTo(2);
+        assertThat(gauge("messages.recent.cache.bytes"))
+                .isEqualTo(2 * (RecentMessageCache.MESSAGE_OVERHEAD_BYTES + "Message 1".length() + "Acme".length()));
+    }
+
+    private void warm(Long conversationId, long total, MessageResponse... newestFirst) {
+        cache.warm(conversationId, cache.stamp(conversationId), page(total, newestFirst));
+    }
+
+    private static Page<MessageResponse> page(long total, MessageResponse... newestFirst) {
+        return new PageImpl<>(List.of(newestFirst), PageRequest.of(0, newestFirst.length), total);
+    }
+
+    private static MessageResponse message(Long conversationId, long id) {
+        return MessageResponse.builder()
+                .id(id)
+                .conversationId(conversationId)
+                .senderCompanyName("Acme")
+                .content("Message " + id)
+                .createdAt(START.plusMinutes(id))
+                .build();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("messages.recent.cache.requests").tag("result", result).counter().count();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
@@ -7,6 +7,9 @@ import com.silentsupply.company.CompanyRepository;
 import com.silentsupply.notification.dto.NotificationResponse;
 import com.silentsupply.order.CatalogOrder;
 import com.silentsupply.order.OrderStatus;
+import com.silentsupply.outbox.OutboxChannel;
+import com.silentsupply.outbox.OutboxService;
+import com.silentsupply.rfq.ExpiredRfq;
 import com.silentsupply.rfq.Rfq;
 import com.silentsupply.rfq.RfqStatus;
 import com.silentsupply.product.Product;
@@ -18,12 +21,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,7 +48,7 @@ class NotificationServiceTest {
     private CompanyRepository companyRepository;
 
     @Mock
-    private SseEmitterService sseEmitterService;
+    private OutboxService outboxService;
 
     @InjectMocks
     private NotificationService notificationService;
@@ -140,6 +145,65 @@ class NotificationServiceTest {
         assertThat(saved.get(0).getType()).isEqualTo(NotificationType.ORDER_STATUS_CHANGED);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void notifyOrderStatusChanges_batchesInsertsAndQueuesOneSseEventPerRecipient() {
+        Company buyer = Company.builder().name("Buyer").build();
+        buyer.setId(1L);
+        Company supplier = Company.builder().name("Supplier").build();
+        supplier.setId(2L);
+        CatalogOrder first = CatalogOrder.builder().buyer(buyer).supplier(supplier).build();
+        first.setId(100L);
+        CatalogOrder second = CatalogOrder.builder().buyer(buyer).supplier(supplier).build();
+        second.setId(101L);
+
+        when(notificationRepository.saveAll(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(notificationMapper.toResponse(any(Notification.class))).thenAnswer(inv -> {
+            Notification n = inv.getArgument(0);
+            return NotificationResponse.builder().recipientId(n.getRecipient().getId()).build();
+        });
+
+        notificationService.notifyOrderStatusChanges(List.of(first, second), OrderStatus.SHIPPED);
+
+        ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(4)
+                .extracting(Notification::getMessage)
+                .contains("Order #100 status changed to SHIPPED", "Order #101 status changed to SHIPPED");
+        verify(notificationRepository, never()).save(any());
+        ArgumentCaptor<Map<Long, List<NotificationResponse>>> queued = ArgumentCaptor.forClass(Map.class);
+        verify(outboxService).enqueueAll(eq(OutboxChannel.SSE), eq("notifications"), queued.capture());
+        assertThat(queued.getValue()).containsOnlyKeys(1L, 2L);
+        assertThat(queued.getValue().values()).allSatisfy(batch -> assertThat(batch).hasSize(2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void notifyRfqsExpired_notifiesBuyerAndSupplierInOneBatch() {
+        Company buyer = Company.builder().name("Buyer").build();
+        buyer.setId(1L);
+        Company supplier = Company.builder().name("Supplier").build();
+        supplier.setId(2L);
+
+        when(companyRepository.getReferenceById(1L)).thenReturn(buyer);
+        when(companyRepository.getReferenceById(2L)).thenReturn(supplier);
+        when(notificationRepository.saveAll(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(notificationMapper.toResponse(any(Notification.class))).thenAnswer(inv -> {
+            Notification n = inv.getArgument(0);
+            return NotificationResponse.builder().recipientId(n.getRecipient().getId()).build();
+        });
+
+        notificationService.notifyRfqsExpired(List.of(new ExpiredRfq(50L, 1L, 2L), new ExpiredRfq(51L, 1L, 2L)));
+
+        ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(4)
+                .allMatch(n -> n.getType() == NotificationType.RFQ_EXPIRED)
+                .extracting(Notification::getMessage)
+                .contains("RFQ #50 expired without agreement", "RFQ #51 expired without agreement");
+        verify(outboxService).enqueueAll(eq(OutboxChannel.SSE), eq("notifications"), any());
+    }
+
     @Test
     void notifyRfqSubmitted_notifiesSupplier() {
         Company supplier = Company.builder().name("Supplier").build();
@@ -162,6 +226,7 @@ class NotificationServiceTest {
         verify(notificationRepository).save(captor.capture());
         assertThat(captor.getValue().getType()).isEqualTo(NotificationType.RFQ_SUBMITTED);
         assertThat(captor.getValue().getRecipient().getId()).isEqualTo(2L);
+        verify(outboxService).enqueue(eq(OutboxChannel.SSE), eq(2L), eq("notification"), any());
     }
 
     private Notification buildNotification(Long id, Long recipientId) {
@@ -1,32 +1,61 @@
 package com.silentsupply.order;
 
+import com.silentsupply.attachment.AttachmentRepository;
+import com.silentsupply.common.dto.CursorPage;
+import com.silentsupply.common.exception.BusinessRuleException;
 import com.silentsupply.company.CompanyRepository;
 import com.silentsupply.company.CompanyRole;
+import com.silentsupply.messaging.ConversationParticipantRepository;
+import com.silentsupply.messaging.ConversationRepository;
+import com.silentsupply.messaging.MessageRepository;
+import com.silentsupply.negotiation.NegotiationRuleRepository;
 import com.silentsupply.notification.NotificationRepository;
+import com.silentsupply.notification.NotificationType;
 import com.silentsupply.company.dto.CompanyRequest;
 import com.silentsupply.config.IntegrationTestBase;
+import com.silentsupply.config.QueryBudget;
 import com.silentsupply.config.dto.AuthResponse;
+import com.silentsupply.idempotency.IdempotencyService;
+import com.silentsupply.order.dto.BulkStatusUpdateRequest;
+import com.silentsupply.order.dto.BulkStatusUpdateResponse;
+import com.silentsupply.order.dto.CheckoutRequest;
 import com.silentsupply.order.dto.OrderRequest;
 import com.silentsupply.order.dto.OrderResponse;
+import com.silentsupply.order.dto.OrderSearchCriteria;
 import com.silentsupply.order.dto.OrderStatusUpdate;
+import com.silentsupply.product.HotInventoryService;
 import com.silentsupply.product.ProductRepository;
+import com.silentsupply.proposal.ProposalRepository;
+import com.silentsupply.rfq.RfqRepository;
 import com.silentsupply.product.dto.ProductRequest;
 import com.silentsupply.product.dto.ProductResponse;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Integration tests for {@link CatalogOrderController}.
@@ -50,13 +79,56 @@ class CatalogOrderControllerIntegrationTest extends IntegrationTestBase {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationParticipantRepository participantRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private ProposalRepository proposalRepository;
+
+    @Autowired
+    private RfqRepository rfqRepository;
+
+    @Autowired
+    private NegotiationRuleRepository ruleRepository;
+
+    @Autowired
+    private HotInventoryService hotInventoryService;
+
+    @Autowired
+    private CatalogOrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private String supplierToken;
     private String buyerToken;
     private Long productId;
 
     @BeforeEach
     void setUp() {
+        messageRepository.deleteAll();
+        participantRepository.deleteAll();
+        conversationRepository.deleteAll();
         notificationRepository.deleteAll();
+        attachmentRepository.deleteAll();
+        proposalRepository.deleteAll();
+        rfqRepository.deleteAll();
+        ruleRepository.deleteAll();
         orderRepository.deleteAll();
         productRepository.deleteAll();
         companyRepository.deleteAll();
@@ -64,15 +136,7 @@ class CatalogOrderControllerIntegrationTest extends IntegrationTestBase {
         supplierToken = registerAndGetToken("SupplierCo", "supplier@example.com", CompanyRole.SUPPLIER);
         buyerToken = registerAndGetToken("BuyerCo", "buyer@example.com", CompanyRole.BUYER);
 
-        ProductRequest productRequest = ProductRequest.builder()
-                .name("Widget").description("Test").category("Electronics").sku("W-1")
-                .unitOfMeasure("piece").basePrice(new BigDecimal("10.00")).availableQuantity(100)
-                .build();
-        ResponseEntity<ProductResponse> productResponse = restTemplate.exchange(
-                "/api/products", HttpMethod.POST,
-                new HttpEntity<>(productRequest, authHeaders(supplierToken)),
-                ProductResponse.class);
-        productId = productResponse.getBody().getId();
+        productId = createProduct("W-1", 100);
     }
 
     @Test
@@ -116,6 +180,228 @@ class CatalogOrderControllerIntegrationTest extends IntegrationTestBase {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
     }
 
+    @Test
+    void placeOrder_concurrentBuyers_neverOversells() throws Exception {
+        int attempts = 40;
+        int placed = placeConcurrentOrders(attempts, 5);
+
+        // 100 units in stock: exactly 20 orders of 5 fit, the rest must be turned away
+        assertThat(placed).isEqualTo(20);
+        assertThat(productRepository.findById(productId).orElseThrow().getAvailableQuantity()).isZero();
+        assertThat(orderRepository.count()).isEqualTo(20);
+    }
+
+    @Test
+    void placeOrder_hotProduct_neverOversellsAndFlushesStock() throws Exception {
+        assertThat(updateHotStock(100).isHotInventory()).isTrue();
+
+        int placed = placeConcurrentOrders(40, 5);
+        hotInventoryService.flush();
+
+        assertThat(placed).isEqualTo(20);
+        assertThat(orderRepository.count()).isEqualTo(20);
+        assertThat(orderRepository.findAll()).noneMatch(CatalogOrder::isStockPending);
+        assertThat(productRepository.findById(productId).orElseThrow().getAvailableQuantity()).isZero();
+    }
+
+    @Test
+    void placeOrder_hotStockReplacedBeforeOrderCommits_rejectsOrderAndKeepsNewStock() {
+        updateHotStock(100);
+        Long buyerId = companyRepository.findByEmail("buyer@example.com").orElseThrow().getId();
+        OrderRequest request = OrderRequest.builder().productId(productId).quantity(5).build();
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            orderService.placeOrder(buyerId, request);
+            updateHotStock(40);
+        })).isInstanceOf(BusinessRuleException.class);
+        hotInventoryService.flush();
+
+        assertThat(orderRepository.count()).isZero();
+        assertThat(hotInventoryService.available(productId)).hasValue(40);
+        assertThat(productRepository.findById(productId).orElseThrow().getAvailableQuantity()).isEqualTo(40);
+    }
+
+    @Test
+    void flush_pendingOrdersBeyondStock_recordsShortfall() {
+        updateHotStock(100);
+        jdbcTemplate.update("UPDATE products SET available_quantity = 20 WHERE id = ?", productId);
+
+        placeOrder(30);
+        hotInventoryService.flush();
+
+        assertThat(productRepository.findById(productId).orElseThrow().getAvailableQuantity()).isZero();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT quantity FROM hot_inventory_shortfalls WHERE product_id = ?", Integer.class, productId))
+                .containsExactly(10);
+    }
+
+    @Test
+    void placeOrder_retriedWithSameIdempotencyKey_returnsOriginalOrder() {
+        OrderResponse first = placeOrder(5, "order-key-1");
+        OrderResponse retry = placeOrder(5, "order-key-1");
+        OrderResponse other = placeOrder(5, "order-key-2");
+
+        assertThat(retry.getId()).isEqualTo(first.getId());
+        assertThat(other.getId()).isNotEqualTo(first.getId());
+        assertThat(orderRepository.count()).isEqualTo(2);
+        assertThat(productRepository.findById(productId).orElseThrow().getAvailableQuantity()).isEqualTo(90);
+    }
+
+    @Test
+    void placeOrder_idempotencyKeyReusedForDifferentOrder_returns422() {
+        placeOrder(5, "order-key-1");
+        HttpHeaders headers = authHeaders(buyerToken);
+        headers.set(IdempotencyService.HEADER, "order-key-1");
+        OrderRequest different = OrderRequest.builder().productId(productId).quantity(6).build();
+
+        ResponseEntity<String> response = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(different, headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void placeOrder_concurrentRetriesWithSameIdempotencyKey_placeOneOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<OrderResponse>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return placeOrder(5, "flaky-network");
+                }));
+            }
+            start.countDown();
+            List<Long> orderIds = new ArrayList<>();
+            for (Future<OrderResponse> result : results) {
+                orderIds.add(result.get().getId());
+            }
+
+            assertThat(orderIds).containsOnly(orderIds.get(0));
+            assertThat(orderRepository.count()).isEqualTo(1);
+            assertThat(productRepository.findById(productId).orElseThrow().getAvailableQuantity()).isEqualTo(95);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Fires {@code attempts} orders for the test product at once and asserts that every
+     * request was either placed or rejected for lack of stock.
+     *
+     * @return the number of orders that were placed
+     */
+    private int placeConcurrentOrders(int attempts, int quantity) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatus>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < attempts; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    OrderRequest request = OrderRequest.builder().productId(productId).quantity(quantity).build();
+                    return HttpStatus.valueOf(restTemplate.exchange(
+                            "/api/orders", HttpMethod.POST,
+                            new HttpEntity<>(request, authHeaders(buyerToken)),
+                            String.class).getStatusCode().value());
+                }));
+            }
+            start.countDown();
+
+            int placed = 0;
+            int rejected = 0;
+            for (Future<HttpStatus> result : results) {
+                HttpStatus status = result.get();
+                if (status == HttpStatus.CREATED) {
+                    placed++;
+                } else if (status == HttpStatus.BAD_REQUEST) {
+                    rejected++;
+                }
+            }
+            assertThat(placed + rejected).isEqualTo(attempts);
+            return placed;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void checkout_multipleLines_placesAllOrdersAndNotifiesSupplierOnce() {
+        Long secondId = createProduct("W-2", 10);
+        CheckoutRequest request = CheckoutRequest.builder().lines(List.of(
+                OrderRequest.builder().productId(secondId).quantity(4).build(),
+                OrderRequest.builder().productId(productId).quantity(5).build(),
+                OrderRequest.builder().productId(secondId).quantity(1).build())).build();
+
+        ResponseEntity<List<OrderResponse>> response = restTemplate.exchange(
+                "/api/orders/checkout", HttpMethod.POST,
+                new HttpEntity<>(request, authHeaders(buyerToken)),
+                new ParameterizedTypeReference<>() {});
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody()).extracting(OrderResponse::getProductId)
+                .containsExactly(productId, secondId);
+        assertThat(response.getBody()).extracting(OrderResponse::getQuantity).containsExactly(5, 5);
+        assertThat(productRepository.findById(productId).orElseThrow().getAvailableQuantity()).isEqualTo(95);
+        assertThat(productRepository.findById(secondId).orElseThrow().getAvailableQuantity()).isEqualTo(5);
+        assertThat(notificationRepository.findAll())
+                .singleElement()
+                .satisfies(n -> assertThat(n.getType()).isEqualTo(NotificationType.ORDERS_PLACED));
+    }
+
+    @Test
+    void checkout_lineShortOfStock_returns400AndOrdersNothing() {
+        Long secondId = createProduct("W-2", 3);
+        CheckoutRequest request = CheckoutRequest.builder().lines(List.of(
+                OrderRequest.builder().productId(productId).quantity(5).build(),
+                OrderRequest.builder().productId(secondId).quantity(4).build())).build();
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/orders/checkout", HttpMethod.POST,
+                new HttpEntity<>(request, authHeaders(buyerToken)),
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(orderRepository.count()).isZero();
+        assertThat(productRepository.findById(productId).orElseThrow().getAvailableQuantity()).isEqualTo(100);
+        assertThat(productRepository.findById(secondId).orElseThrow().getAvailableQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    void checkout_concurrentCartsInOppositeOrder_completeWithoutDeadlock() throws Exception {
+        Long secondId = createProduct("W-2", 100);
+        int carts = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatus>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < carts; i++) {
+                List<Long> order = i % 2 == 0 ? List.of(productId, secondId) : List.of(secondId, productId);
+                CheckoutRequest request = CheckoutRequest.builder().lines(order.stream()
+                        .map(id -> OrderRequest.builder().productId(id).quantity(1).build())
+                        .toList()).build();
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return HttpStatus.valueOf(restTemplate.exchange(
+                            "/api/orders/checkout", HttpMethod.POST,
+                            new HttpEntity<>(request, authHeaders(buyerToken)),
+                            String.class).getStatusCode().value());
+                }));
+            }
+            start.countDown();
+
+            for (Future<HttpStatus> result : results) {
+                assertThat(result.get()).isEqualTo(HttpStatus.CREATED);
+            }
+            assertThat(productRepository.findById(productId).orElseThrow().getAvailableQuantity()).isEqualTo(80);
+            assertThat(productRepository.findById(secondId).orElseThrow().getAvailableQuantity()).isEqualTo(80);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void updateStatus_toConfirmed_returns200() {
         OrderRequest orderReq = OrderRequest.builder().productId(productId).quantity(5).build();
@@ -152,6 +438,186 @@ class CatalogOrderControllerIntegrationTest extends IntegrationTestBase {
         assertThat(response.getBody()).hasSize(1);
     }
 
+    @Test
+    void pageOrders_walksAllOrdersNewestFirstWithoutDuplicates() {
+        List<Long> placed = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            placed.add(placeOrder(1).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = "/api/orders/page?limit=2" + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseEntity<CursorPage<OrderResponse>> response = restTemplate.exchange(
+                    url, HttpMethod.GET, new HttpEntity<>(authHeaders(buyerToken)),
+                    new ParameterizedTypeReference<>() {});
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            response.getBody().getItems().forEach(order -> seen.add(order.getId()));
+            cursor = response.getBody().getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(placed.reversed());
+    }
+
+    @Test
+    void pageOrders_filtersByStatusAndDateRange() {
+        OrderResponse confirmed = placeOrder(1);
+        placeOrder(2);
+        restTemplate.exchange("/api/orders/" + confirmed.getId() + "/status", HttpMethod.PATCH,
+                new HttpEntity<>(OrderStatusUpdate.builder().status(OrderStatus.CONFIRMED).build(),
+                        authHeaders(supplierToken)), OrderResponse.class);
+
+        ResponseEntity<CursorPage<OrderResponse>> byStatus = restTemplate.exchange(
+                "/api/orders/page?status=CONFIRMED", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(supplierToken)),
+                new ParameterizedTypeReference<>() {});
+        ResponseEntity<CursorPage<OrderResponse>> future = restTemplate.exchange(
+                "/api/orders/page?from=" + LocalDateTime.now().plusDays(1), HttpMethod.GET,
+                new HttpEntity<>(authHeaders(buyerToken)),
+                new ParameterizedTypeReference<>() {});
+
+        assertThat(byStatus.getBody().getItems()).extracting(OrderResponse::getId)
+                .containsExactly(confirmed.getId());
+        assertThat(future.getBody().getItems()).isEmpty();
+        assertThat(future.getBody().getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageByBuyer_loadsPageWithSingleStatement() {
+        Long buyerId = null;
+        for (int i = 0; i < 3; i++) {
+            buyerId = placeOrder(1).getBuyerId();
+        }
+        Long buyer = buyerId;
+
+        CursorPage<OrderResponse> page = QueryBudget.of(entityManagerFactory).atMost(1, "pageByBuyer",
+                () -> orderService.pageByBuyer(buyer, OrderSearchCriteria.builder().build(), null, 10));
+
+        assertThat(page.getItems()).hasSize(3).allSatisfy(order -> {
+            assertThat(order.getBuyerName()).isEqualTo("BuyerCo");
+            assertThat(order.getSupplierName()).isEqualTo("SupplierCo");
+            assertThat(order.getProductName()).isEqualTo("Widget");
+        });
+    }
+
+    @Test
+    void bulkUpdateStatus_transitionsOrdersAndReportsFailures() {
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            orderIds.add(placeOrder(1).getId());
+        }
+        restTemplate.exchange("/api/orders/" + orderIds.get(0) + "/status", HttpMethod.PATCH,
+                new HttpEntity<>(OrderStatusUpdate.builder().status(OrderStatus.CANCELLED).build(),
+                        authHeaders(supplierToken)), OrderResponse.class);
+        notificationRepository.deleteAll();
+        BulkStatusUpdateRequest request = BulkStatusUpdateRequest.builder()
+                .orderIds(orderIds).status(OrderStatus.CONFIRMED).build();
+
+        // Lock, one UPDATE and one batched notification insert, however many orders there are
+        ResponseEntity<BulkStatusUpdateResponse> response = QueryBudget.of(entityManagerFactory).atMost(
+                8, "bulk status update", () -> restTemplate.exchange(
+                        "/api/orders/status", HttpMethod.PATCH,
+                        new HttpEntity<>(request, authHeaders(supplierToken)),
+                        BulkStatusUpdateResponse.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getUpdated()).isEqualTo(9);
+        assertThat(response.getBody().getFailed()).isEqualTo(1);
+        assertThat(response.getBody().getResults().get(0).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(orderRepository.findAllById(orderIds.subList(1, 10)))
+                .allSatisfy(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED));
+        assertThat(notificationRepository.count()).isEqualTo(18);
+    }
+
+    @Test
+    void bulkUpdateStatus_otherCompanysOrders_areReportedNotFound() {
+        Long orderId = placeOrder(1).getId();
+        String outsiderToken = registerAndGetToken("OtherCo", "other@example.com", CompanyRole.SUPPLIER);
+
+        ResponseEntity<BulkStatusUpdateResponse> response = restTemplate.exchange(
+                "/api/orders/status", HttpMethod.PATCH,
+                new HttpEntity<>(BulkStatusUpdateRequest.builder()
+                        .orderIds(List.of(orderId)).status(OrderStatus.CANCELLED).build(),
+                        authHeaders(outsiderToken)),
+                BulkStatusUpdateResponse.class);
+
+        assertThat(response.getBody().getUpdated()).isZero();
+        assertThat(response.getBody().getResults().get(0).getError()).isEqualTo("Order not found");
+        assertThat(orderRepository.findById(orderId).orElseThrow().getStatus()).isEqualTo(OrderStatus.PLACED);
+    }
+
+    /**
+     * Places an order for the test product as the test buyer.
+     *
+     * @param quantity the quantity to order
+     * @return the created order
+     */
+    private OrderResponse placeOrder(int quantity) {
+        OrderRequest request = OrderRequest.builder().productId(productId).quantity(quantity).build();
+        return restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(request, authHeaders(buyerToken)), OrderResponse.class).getBody();
+    }
+
+    /**
+     * Places an order for the test product as the buyer with an idempotency key.
+     *
+     * @param quantity       the quantity to order
+     * @param idempotencyKey the Idempotency-Key header value
+     * @return the order returned by the endpoint
+     */
+    private OrderResponse placeOrder(int quantity, String idempotencyKey) {
+        OrderRequest request = OrderRequest.builder().productId(productId).quantity(quantity).build();
+        HttpHeaders headers = authHeaders(buyerToken);
+        headers.set(IdempotencyService.HEADER, idempotencyKey);
+        ResponseEntity<OrderResponse> response = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(request, headers), OrderResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody();
+    }
+
+    /**
+     * Creates an active product for the test supplier via the product endpoint.
+     *
+     * @param sku               the product SKU
+     * @param availableQuantity the initial stock
+     * @return the product ID
+     */
+    private Long createProduct(String sku, int availableQuantity) {
+        ProductRequest productRequest = ProductRequest.builder()
+                .name("Widget").description("Test").category("Electronics").sku(sku)
+                .unitOfMeasure("piece").basePrice(new BigDecimal("10.00")).availableQuantity(availableQuantity)
+                .build();
+        ResponseEntity<ProductResponse> productResponse = restTemplate.exchange(
+                "/api/products", HttpMethod.POST,
+                new HttpEntity<>(productRequest, authHeaders(supplierToken)),
+                ProductResponse.class);
+        return productResponse.getBody().getId();
+    }
+
+    /**
+     * Puts the test product in hot inventory mode with the given stock via the product endpoint.
+     *
+     * @param availableQuantity the stock the supplier sets
+     * @return the updated product
+     */
+    private ProductResponse updateHotStock(int availableQuantity) {
+        ProductRequest hotRequest = ProductRequest.builder()
+                .name("Widget").description("Test").category("Electronics").sku("W-1")
+                .unitOfMeasure("piece").basePrice(new BigDecimal("10.00")).availableQuantity(availableQuantity)
+                .hotInventory(true)
+                .build();
+        ResponseEntity<ProductResponse> response = restTemplate.exchange(
+                "/api/products/" + productId, HttpMethod.PUT,
+                new HttpEntity<>(hotRequest, authHeaders(supplierToken)),
+                ProductResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
     /**
      * Registers a company via the auth endpoint and returns the JWT token.
      *
@@ -1,29 +1,45 @@
 package com.silentsupply.order;
 
+import com.silentsupply.common.dto.CursorPage;
 import com.silentsupply.common.exception.BusinessRuleException;
 import com.silentsupply.common.exception.ResourceNotFoundException;
+import com.silentsupply.common.pagination.KeysetCursor;
 import com.silentsupply.company.Company;
 import com.silentsupply.company.CompanyRepository;
 import com.silentsupply.company.CompanyRole;
+import com.silentsupply.order.dto.BulkStatusUpdateRequest;
+import com.silentsupply.order.dto.BulkStatusUpdateResponse;
+import com.silentsupply.order.dto.CheckoutRequest;
 import com.silentsupply.order.dto.OrderRequest;
 import com.silentsupply.order.dto.OrderResponse;
+import com.silentsupply.order.dto.OrderSearchCriteria;
+import com.silentsupply.product.HotInventoryService;
 import com.silentsupply.product.Product;
 import com.silentsupply.notification.NotificationService;
 import com.silentsupply.product.ProductRepository;
 import com.silentsupply.product.ProductStatus;
+import com.silentsupply.product.ProductStockService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.SortedMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -44,6 +60,10 @@ class CatalogOrderServiceTest {
     private CatalogOrderMapper orderMapper;
     @Mock
     private NotificationService notificationService;
+    @Mock
+    private HotInventoryService hotInventoryService;
+    @Mock
+    private ProductStockService productStockService;
 
     @InjectMocks
     private CatalogOrderService orderService;
@@ -76,6 +96,7 @@ class CatalogOrderServiceTest {
                 .status(OrderStatus.PLACED).build();
 
         when(companyRepository.findById(2L)).thenReturn(Optional.of(buyer));
+        when(productRepository.decrementStock(eq(10L), eq(5), any(LocalDateTime.class))).thenReturn(1);
         when(productRepository.findById(10L)).thenReturn(Optional.of(product));
         when(orderRepository.save(any(CatalogOrder.class))).thenAnswer(invocation -> {
             CatalogOrder order = invocation.getArgument(0);
@@ -88,8 +109,8 @@ class CatalogOrderServiceTest {
 
         assertThat(result.getQuantity()).isEqualTo(5);
         assertThat(result.getStatus()).isEqualTo(OrderStatus.PLACED);
-        assertThat(product.getAvailableQuantity()).isEqualTo(95);
-        verify(productRepository).save(product);
+        verify(productRepository).decrementStock(eq(10L), eq(5), any(LocalDateTime.class));
+        verify(productRepository, never()).save(any());
     }
 
     @Test
@@ -97,6 +118,7 @@ class CatalogOrderServiceTest {
         OrderRequest request = OrderRequest.builder().productId(10L).quantity(200).build();
 
         when(companyRepository.findById(2L)).thenReturn(Optional.of(buyer));
+        when(productRepository.decrementStock(eq(10L), eq(200), any(LocalDateTime.class))).thenReturn(0);
         when(productRepository.findById(10L)).thenReturn(Optional.of(product));
 
         assertThatThrownBy(() -> orderService.placeOrder(2L, request))
@@ -112,6 +134,7 @@ class CatalogOrderServiceTest {
         OrderRequest request = OrderRequest.builder().productId(10L).quantity(5).build();
 
         when(companyRepository.findById(2L)).thenReturn(Optional.of(buyer));
+        when(productRepository.decrementStock(eq(10L), eq(5), any(LocalDateTime.class))).thenReturn(0);
         when(productRepository.findById(10L)).thenReturn(Optional.of(product));
 
         assertThatThrownBy(() -> orderService.placeOrder(2L, request))
@@ -124,12 +147,206 @@ class CatalogOrderServiceTest {
         OrderRequest request = OrderRequest.builder().productId(99L).quantity(5).build();
 
         when(companyRepository.findById(2L)).thenReturn(Optional.of(buyer));
+        when(productRepository.decrementStock(eq(99L), eq(5), any(LocalDateTime.class))).thenReturn(0);
         when(productRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> orderService.placeOrder(2L, request))
                 .isInstanceOf(ResourceNotFoundException.class);
     }
 
+    @Test
+    void placeOrder_hotProduct_reservesFromCounterAndSavesPendingOrder() {
+        OrderRequest request = OrderRequest.builder().productId(10L).quantity(5).build();
+
+        when(companyRepository.findById(2L)).thenReturn(Optional.of(buyer));
+        when(hotInventoryService.isHot(10L)).thenReturn(true);
+        when(productRepository.findById(10L)).thenReturn(Optional.of(product));
+        when(hotInventoryService.tryReserve(10L, 5)).thenReturn(true);
+        when(orderRepository.save(any(CatalogOrder.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toResponse(any(CatalogOrder.class))).thenReturn(OrderResponse.builder().build());
+
+        orderService.placeOrder(2L, request);
+
+        ArgumentCaptor<CatalogOrder> captor = ArgumentCaptor.forClass(CatalogOrder.class);
+        verify(orderRepository).save(captor.capture());
+        assertThat(captor.getValue().isStockPending()).isTrue();
+        verify(productRepository, never()).decrementStock(any(), any(Integer.class), any());
+    }
+
+    @Test
+    void placeOrder_hotProductOutOfStock_throwsBusinessRuleException() {
+        OrderRequest request = OrderRequest.builder().productId(10L).quantity(5).build();
+
+        when(companyRepository.findById(2L)).thenReturn(Optional.of(buyer));
+        when(hotInventoryService.isHot(10L)).thenReturn(true);
+        when(productRepository.findById(10L)).thenReturn(Optional.of(product));
+        when(hotInventoryService.tryReserve(10L, 5)).thenReturn(false);
+        when(hotInventoryService.available(10L)).thenReturn(OptionalLong.of(2));
+
+        assertThatThrownBy(() -> orderService.placeOrder(2L, request))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("Available: 2");
+
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkout_mergesLinesDeductsInIdOrderAndNotifiesEachSupplierOnce() {
+        Product other = Product.builder()
+                .supplier(supplier).name("Gadget").category("Cat").sku("G-1")
+                .unitOfMeasure("pc").basePrice(new BigDecimal("2.50")).availableQuantity(50)
+                .status(ProductStatus.ACTIVE).build();
+        other.setId(5L);
+        CheckoutRequest request = CheckoutRequest.builder().lines(List.of(
+                OrderRequest.builder().productId(10L).quantity(3).build(),
+                OrderRequest.builder().productId(5L).quantity(4).build(),
+                OrderRequest.builder().productId(10L).quantity(2).build())).build();
+
+        when(companyRepository.findById(2L)).thenReturn(Optional.of(buyer));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product, other));
+        when(productStockService.deductAll(any())).thenReturn(List.of());
+        when(orderRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toResponse(any(CatalogOrder.class))).thenReturn(OrderResponse.builder().build());
+
+        List<OrderResponse> result = orderService.checkout(2L, request);
+
+        assertThat(result).hasSize(2);
+        ArgumentCaptor<SortedMap<Long, Integer>> deducted = ArgumentCaptor.forClass(SortedMap.class);
+        verify(productStockService).deductAll(deducted.capture());
+        assertThat(deducted.getValue()).containsExactly(Map.entry(5L, 4), Map.entry(10L, 5));
+        ArgumentCaptor<List<CatalogOrder>> notified = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).notifyOrdersPlaced(eq(supplier), notified.capture());
+        assertThat(notified.getValue()).extracting(CatalogOrder::getQuantity).containsExactly(4, 5);
+    }
+
+    @Test
+    void checkout_lineShortOfStock_throwsWithoutSavingOrders() {
+        CheckoutRequest request = CheckoutRequest.builder().lines(List.of(
+                OrderRequest.builder().productId(10L).quantity(500).build())).build();
+
+        when(companyRepository.findById(2L)).thenReturn(Optional.of(buyer));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        when(productStockService.deductAll(any())).thenReturn(List.of(10L));
+
+        assertThatThrownBy(() -> orderService.checkout(2L, request))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("Insufficient stock for product 10");
+
+        verify(orderRepository, never()).saveAll(any());
+        verify(notificationService, never()).notifyOrdersPlaced(any(), any());
+    }
+
+    @Test
+    void checkout_mergedQuantityOverflows_throwsBusinessRuleException() {
+        CheckoutRequest request = CheckoutRequest.builder().lines(List.of(
+                OrderRequest.builder().productId(10L).quantity(Integer.MAX_VALUE).build(),
+                OrderRequest.builder().productId(10L).quantity(Integer.MAX_VALUE).build())).build();
+
+        when(companyRepository.findById(2L)).thenReturn(Optional.of(buyer));
+
+        assertThatThrownBy(() -> orderService.checkout(2L, request))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("product 10 is too large");
+
+        verify(productStockService, never()).deductAll(any());
+        verify(orderRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void checkout_unknownProduct_throwsResourceNotFoundException() {
+        CheckoutRequest request = CheckoutRequest.builder().lines(List.of(
+                OrderRequest.builder().productId(99L).quantity(1).build())).build();
+
+        when(companyRepository.findById(2L)).thenReturn(Optional.of(buyer));
+        when(productRepository.findAllById(any())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> orderService.checkout(2L, request))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        verify(productStockService, never()).deductAll(any());
+    }
+
+    @Test
+    void pageByBuyer_fullPage_returnsCursorOfLastOrder() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        CatalogOrder newer = CatalogOrder.builder().buyer(buyer).supplier(supplier).product(product).build();
+        newer.setId(101L);
+        newer.setCreatedAt(createdAt.plusMinutes(1));
+        CatalogOrder older = CatalogOrder.builder().buyer(buyer).supplier(supplier).product(product).build();
+        older.setId(100L);
+        older.setCreatedAt(createdAt);
+
+        when(orderRepository.findBuyerPage(eq(2L), eq(OrderStatus.PLACED), any(LocalDateTime.class),
+                eq(KeysetCursor.END.timestamp()), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(newer, older));
+        when(orderMapper.toResponse(any(CatalogOrder.class))).thenReturn(OrderResponse.builder().build());
+
+        CursorPage<OrderResponse> page = orderService.pageByBuyer(
+                2L, OrderSearchCriteria.builder().status(OrderStatus.PLACED).build(), null, 2);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(KeysetCursor.decode(page.getNextCursor())).isEqualTo(new KeysetCursor(createdAt, 100L));
+    }
+
+    @Test
+    void pageBySupplier_shortPage_returnsNoCursorAndStartsAtRangeEnd() {
+        LocalDateTime to = LocalDateTime.of(2024, 6, 1, 0, 0);
+        when(orderRepository.findSupplierPage(eq(1L), eq(null), any(LocalDateTime.class),
+                eq(to), eq(0L), eq(Limit.of(CatalogOrderService.DEFAULT_PAGE_SIZE))))
+                .thenReturn(List.of());
+
+        CursorPage<OrderResponse> page = orderService.pageBySupplier(
+                1L, OrderSearchCriteria.builder().to(to).build(), null, null);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkUpdateStatus_appliesValidTransitionsAndReportsTheRest() {
+        CatalogOrder placed = CatalogOrder.builder().buyer(buyer).supplier(supplier).product(product)
+                .status(OrderStatus.PLACED).build();
+        placed.setId(1L);
+        CatalogOrder confirmed = CatalogOrder.builder().buyer(buyer).supplier(supplier).product(product)
+                .status(OrderStatus.CONFIRMED).build();
+        confirmed.setId(2L);
+        CatalogOrder delivered = CatalogOrder.builder().buyer(buyer).supplier(supplier).product(product)
+                .status(OrderStatus.DELIVERED).build();
+        delivered.setId(3L);
+        Company otherBuyer = Company.builder().name("Other").role(CompanyRole.BUYER).build();
+        otherBuyer.setId(7L);
+        Company otherSupplier = Company.builder().name("OtherSupplier").role(CompanyRole.SUPPLIER).build();
+        otherSupplier.setId(8L);
+        CatalogOrder foreign = CatalogOrder.builder().buyer(otherBuyer).supplier(otherSupplier).product(product)
+                .status(OrderStatus.PLACED).build();
+        foreign.setId(4L);
+
+        when(orderRepository.findAllByIdForUpdate(any()))
+                .thenReturn(List.of(placed, confirmed, delivered, foreign));
+
+        BulkStatusUpdateResponse response = orderService.bulkUpdateStatus(1L, BulkStatusUpdateRequest.builder()
+                .orderIds(List.of(1L, 2L, 3L, 4L, 5L, 1L)).status(OrderStatus.CANCELLED).build());
+
+        assertThat(response.getUpdated()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(BulkStatusUpdateResponse.OrderResult::getOrderId)
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(response.getResults()).extracting(BulkStatusUpdateResponse.OrderResult::isUpdated)
+                .containsExactly(true, true, false, false, false);
+        assertThat(response.getResults().get(2).getError())
+                .isEqualTo("Invalid status transition from DELIVERED to CANCELLED");
+        assertThat(response.getResults().get(3).getError()).isEqualTo("Order not found");
+        verify(orderRepository).transitionStatus(eq(List.of(1L)), eq(OrderStatus.PLACED),
+                eq(OrderStatus.CANCELLED), any(LocalDateTime.class));
+        verify(orderRepository).transitionStatus(eq(List.of(2L)), eq(OrderStatus.CONFIRMED),
+                eq(OrderStatus.CANCELLED), any(LocalDateTime.class));
+        ArgumentCaptor<List<CatalogOrder>> notified = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).notifyOrderStatusChanges(notified.capture(), eq(OrderStatus.CANCELLED));
+        assertThat(notified.getValue()).containsExactly(placed, confirmed);
+    }
+
     @Test
     void updateStatus_withValidTransition_updatesStatus() {
         CatalogOrder order = CatalogOrder.builder()
@@ -0,0 +1,125 @@
+package com.silentsupply.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silentsupply.notification.SseEmitterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link OutboxDispatcher}.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 100;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private SseEmitterService sseEmitterService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new OutboxDispatcher(outboxService, sseEmitterService, messagingTemplate,
+                new ObjectMapper(), BATCH_SIZE, MAX_ATTEMPTS, RETRY_DELAY_MS);
+    }
+
+    @Test
+    void drain_deliversOverEachChannelAndDeletesDeliveredEvents() {
+        OutboxEvent sse = new OutboxEvent(1L, OutboxChannel.SSE, 5L, "notification", "{\"id\":7}", 1);
+        OutboxEvent stomp = new OutboxEvent(2L, OutboxChannel.STOMP, 6L, "/queue/messages", "{\"id\":8}", 1);
+        when(outboxService.claim(BATCH_SIZE, OutboxDispatcher.LEASE_MS))
+                .thenReturn(List.of(sse, stomp))
+                .thenReturn(List.of());
+        when(sseEmitterService.send(eq(5L), eq("notification"), any())).thenReturn(true);
+
+        int delivered = dispatcher.drain();
+
+        assertThat(delivered).isEqualTo(2);
+        verify(sseEmitterService).send(eq(5L), eq("notification"), argThat(json -> json.toString().equals("{\"id\":7}")));
+        verify(messagingTemplate).convertAndSendToUser(eq("6"), eq("/queue/messages"),
+                argThat(json -> json.toString().equals("{\"id\":8}")));
+        verify(outboxService).delete(List.of(1L, 2L));
+        verify(outboxService).reschedule(Map.of());
+    }
+
+    @Test
+    void drain_failedDelivery_reschedulesWithExponentialBackoff() {
+        OutboxEvent event = new OutboxEvent(3L, OutboxChannel.STOMP, 6L, "/queue/messages", "{}", 2);
+        when(outboxService.claim(BATCH_SIZE, OutboxDispatcher.LEASE_MS)).thenReturn(List.of(event));
+        doThrow(new MessageDeliveryException("broker unavailable"))
+                .when(messagingTemplate).convertAndSendToUser(any(), any(), any());
+
+        int delivered = dispatcher.drain();
+
+        assertThat(delivered).isZero();
+        verify(outboxService).delete(List.of());
+        verify(outboxService).reschedule(Map.of(3L, RETRY_DELAY_MS * 2));
+    }
+
+    @Test
+    void drain_sseWriteFailed_reschedules() {
+        OutboxEvent event = new OutboxEvent(5L, OutboxChannel.SSE, 5L, "notification", "{}", 1);
+        when(outboxService.claim(BATCH_SIZE, OutboxDispatcher.LEASE_MS)).thenReturn(List.of(event));
+        when(sseEmitterService.send(eq(5L), eq("notification"), any())).thenReturn(false);
+
+        int delivered = dispatcher.drain();
+
+        assertThat(delivered).isZero();
+        verify(outboxService).delete(List.of());
+        verify(outboxService).reschedule(Map.of(5L, RETRY_DELAY_MS));
+    }
+
+    @Test
+    void drain_lastAttemptFails_dropsEvent() {
+        OutboxEvent event = new OutboxEvent(4L, OutboxChannel.STOMP, 6L, "/queue/messages", "{}", MAX_ATTEMPTS);
+        when(outboxService.claim(BATCH_SIZE, OutboxDispatcher.LEASE_MS)).thenReturn(List.of(event));
+        doThrow(new MessageDeliveryException("broker unavailable"))
+                .when(messagingTemplate).convertAndSendToUser(any(), any(), any());
+
+        int delivered = dispatcher.drain();
+
+        assertThat(delivered).isZero();
+        verify(outboxService).delete(List.of(4L));
+        verify(outboxService).reschedule(Map.of());
+    }
+
+    @Test
+    void drain_claimFails_leavesEventsForNextPoll() {
+        when(outboxService.claim(BATCH_SIZE, OutboxDispatcher.LEASE_MS))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        int delivered = dispatcher.drain();
+
+        assertThat(delivered).isZero();
+        verify(outboxService, never()).delete(any());
+        verify(sseEmitterService, never()).send(anyLong(), any(), any());
+    }
+}
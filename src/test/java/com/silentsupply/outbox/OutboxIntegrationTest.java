@@ -0,0 +1,70 @@
+package com.silentsupply.outbox;
+
+import com.silentsupply.config.IntegrationTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for {@link OutboxService} and {@link OutboxDispatcher} against the real
+ * outbox table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxIntegrationTest extends IntegrationTestBase {
+
+    private static final long RECIPIENT_ID = 900_001L;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void enqueue_committed_isDrainedAfterCommit() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> outboxService.enqueueAll(OutboxChannel.SSE,
+                "notification", Map.of(RECIPIENT_ID, Map.of("id", 1), RECIPIENT_ID + 1, Map.of("id", 2))));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pendingFor(RECIPIENT_ID, RECIPIENT_ID + 1) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(pendingFor(RECIPIENT_ID, RECIPIENT_ID + 1)).isZero();
+    }
+
+    @Test
+    void enqueue_rolledBack_leavesNothingToSend() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.enqueue(OutboxChannel.STOMP, RECIPIENT_ID + 2, "/queue/messages", Map.of("id", 3));
+            assertThat(pendingFor(RECIPIENT_ID + 2, RECIPIENT_ID + 2)).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+
+        assertThat(pendingFor(RECIPIENT_ID + 2, RECIPIENT_ID + 2)).isZero();
+    }
+
+    @Test
+    void enqueue_withoutTransaction_isRejected() {
+        assertThatThrownBy(() -> outboxService.enqueue(OutboxChannel.SSE, RECIPIENT_ID, "notification", Map.of()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private long pendingFor(long fromRecipientId, long toRecipientId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM event_outbox WHERE recipient_id BETWEEN ? AND ?",
+                Long.class, fromRecipientId, toRecipientId);
+        return count == null ? 0 : count;
+    }
+}
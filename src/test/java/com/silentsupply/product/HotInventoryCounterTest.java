@@ -0,0 +1,101 @@
+package com.silentsupply.product;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link HotInventoryCounter}.
+ */
+class HotInventoryCounterTest {
+
+    @Test
+    void tryReserve_coversQuantitySpreadAcrossStripes() {
+        HotInventoryCounter counter = new HotInventoryCounter(4, 10, 1);
+
+        assertThat(counter.tryReserve(9)).isTrue();
+        assertThat(counter.available()).isEqualTo(1);
+        assertThat(counter.tryReserve(2)).isFalse();
+        assertThat(counter.available()).isEqualTo(1);
+    }
+
+    @Test
+    void release_returnsStock() {
+        HotInventoryCounter counter = new HotInventoryCounter(2, 5, 1);
+
+        assertThat(counter.tryReserve(5)).isTrue();
+        counter.release(3);
+
+        assertThat(counter.available()).isEqualTo(3);
+        assertThat(counter.tryReserve(3)).isTrue();
+    }
+
+    @Test
+    void reserveAcrossStripes_neverHidesRemainingStock() throws Exception {
+        AtomicReference<HotInventoryCounter> counter = new AtomicReference<>(new HotInventoryCounter(64, 6_400, 1));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> reserver = executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    // Each stripe holds 100, so reserving 3,000 takes the slow path
+                    HotInventoryCounter fresh = new HotInventoryCounter(64, 6_400, 1);
+                    counter.set(fresh);
+                    assertThat(fresh.tryReserve(3_000)).isTrue();
+                }
+            });
+
+            long lowest = Long.MAX_VALUE;
+            while (!reserver.isDone()) {
+                lowest = Math.min(lowest, counter.get().available());
+            }
+            reserver.get();
+
+            assertThat(lowest).isGreaterThanOrEqualTo(3_400);
+            assertThat(counter.get().available()).isEqualTo(3_400);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void tryReserve_concurrently_neverOversells() throws Exception {
+        HotInventoryCounter counter = new HotInventoryCounter(8, 10_000, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < 16; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int reserved = 0;
+                    for (int i = 0; i < 2_000; i++) {
+                        if (counter.tryReserve(3)) {
+                            reserved += 3;
+                        }
+                    }
+                    return reserved;
+                }));
+            }
+            start.countDown();
+
+            long totalReserved = 0;
+            for (Future<Integer> result : results) {
+                totalReserved += result.get();
+            }
+
+            // 16 threads ask for 96,000 units; only 9,999 (a multiple of 3) can be handed out
+            assertThat(totalReserved).isEqualTo(9_999);
+            assertThat(counter.available()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.silentsupply.product;
 
+import com.silentsupply.common.dto.CursorPage;
 import com.silentsupply.company.CompanyRepository;
 import com.silentsupply.company.CompanyRole;
 import com.silentsupply.notification.NotificationRepository;
 import com.silentsupply.company.dto.CompanyRequest;
 import com.silentsupply.config.IntegrationTestBase;
 import com.silentsupply.config.dto.AuthResponse;
+import com.silentsupply.currency.Currency;
+import com.silentsupply.currency.ExchangeRate;
+import com.silentsupply.currency.ExchangeRateRepository;
+import com.silentsupply.product.dto.ProductImportResponse;
 import com.silentsupply.product.dto.ProductRequest;
 import com.silentsupply.product.dto.ProductResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,14 +18,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -35,6 +56,9 @@ class ProductControllerIntegrationTest extends IntegrationTestBase {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @LocalServerPort
+    private int port;
+
     @Autowired
     private ProductRepository productRepository;
 
@@ -44,6 +68,12 @@ class ProductControllerIntegrationTest extends IntegrationTestBase {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
     private String supplierToken;
     private String buyerToken;
 
@@ -130,6 +160,42 @@ class ProductControllerIntegrationTest extends IntegrationTestBase {
         assertThat(response.getBody()[0].getCategory()).isEqualTo("Electronics");
     }
 
+    @Test
+    void search_byPriceInBuyerCurrency_comparesNormalizedPrices() {
+        exchangeRateRepository.deleteAll();
+        exchangeRateRepository.save(ExchangeRate.builder()
+                .fromCurrency(Currency.EUR).toCurrency(Currency.USD)
+                .rate(new BigDecimal("1.08700000"))
+                .effectiveDate(LocalDate.of(2026, 1, 1))
+                .build());
+        postProduct(buildPricedRequest("USD 90", "P-USD-90", "90.00", Currency.USD), supplierToken);
+        postProduct(buildPricedRequest("USD 95", "P-USD-95", "95.00", Currency.USD), supplierToken);
+        postProduct(buildPricedRequest("EUR 84", "P-EUR-84", "84.00", Currency.EUR), supplierToken);
+
+        // 85 EUR is 92.40 USD: includes the 90 USD and 84 EUR (91.31 USD) products only
+        ResponseEntity<ProductResponse[]> response = restTemplate.exchange(
+                "/api/products?maxPrice=85&currency=EUR", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(buyerToken)),
+                ProductResponse[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .extracting(ProductResponse::getSku)
+                .containsExactlyInAnyOrder("P-USD-90", "P-EUR-84");
+    }
+
+    @Test
+    void search_byPriceInCurrencyWithoutRate_returns400() {
+        exchangeRateRepository.deleteAll();
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/products?maxPrice=85&currency=EUR", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(buyerToken)),
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void delete_byOwningSupplier_returns204() {
         ResponseEntity<ProductResponse> created = postProduct(
@@ -190,6 +256,190 @@ class ProductControllerIntegrationTest extends IntegrationTestBase {
         assertThat(response.getBody().getName()).isEqualTo("Widget A");
     }
 
+    @Test
+    void importCatalog_csv_createsAndUpdatesBySku() {
+        postProduct(buildProductRequest("Widget A", "WDG-001"), supplierToken);
+        String csv = """
+                name,category,sku,unit_of_measure,base_price,available_quantity
+                Widget A v2,Electronics,WDG-001,piece,31.50,80
+                Gadget B,Hardware,GDG-001,piece,49.99,50
+                """;
+
+        ResponseEntity<ProductImportResponse> response = importCatalog(csv, "text/csv", supplierToken);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getTotalRows()).isEqualTo(2);
+        assertThat(response.getBody().getCreated()).isEqualTo(1);
+        assertThat(response.getBody().getUpdated()).isEqualTo(1);
+        assertThat(response.getBody().getFailed()).isZero();
+        assertThat(productRepository.findAll())
+                .extracting(Product::getName)
+                .containsExactlyInAnyOrder("Widget A v2", "Gadget B");
+    }
+
+    @Test
+    void importCatalog_ndjson_reportsInvalidRows() {
+        String ndjson = """
+                {"name":"Widget A","category":"Electronics","sku":"WDG-001","unitOfMeasure":"piece","basePrice":29.99,"availableQuantity":100}
+                {"name":"","category":"Electronics","sku":"WDG-002","unitOfMeasure":"piece","basePrice":-1,"availableQuantity":100}
+                """;
+
+        ResponseEntity<ProductImportResponse> response =
+                importCatalog(ndjson, "application/x-ndjson", supplierToken);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getCreated()).isEqualTo(1);
+        assertThat(response.getBody().getFailed()).isEqualTo(1);
+        assertThat(response.getBody().getErrors()).hasSize(1);
+        assertThat(response.getBody().getErrors().get(0).getRow()).isEqualTo(2);
+        assertThat(response.getBody().getErrors().get(0).getSku()).isEqualTo("WDG-002");
+        assertThat(response.getBody().getErrors().get(0).getMessages()).hasSize(2);
+        assertThat(productRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void importCatalog_ndjsonNullLine_isReportedAsRowError() {
+        String ndjson = """
+                null
+                {"name":"Widget A","category":"Electronics","sku":"WDG-001","unitOfMeasure":"piece","basePrice":29.99,"availableQuantity":100}
+                """;
+
+        ResponseEntity<ProductImportResponse> response =
+                importCatalog(ndjson, "application/x-ndjson", supplierToken);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getCreated()).isEqualTo(1);
+        assertThat(response.getBody().getFailed()).isEqualTo(1);
+        assertThat(response.getBody().getErrors().get(0).getRow()).isEqualTo(1);
+    }
+
+    @Test
+    void importCatalog_asBuyer_returns403() {
+        String csv = "name,category,sku,unit_of_measure,base_price,available_quantity\n";
+
+        ResponseEntity<ProductImportResponse> response = importCatalog(csv, "text/csv", buyerToken);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    /**
+     * Uploads a catalog file to the import endpoint.
+     *
+     * @param body        the file content
+     * @param contentType the upload content type
+     * @param token       the JWT token
+     * @return the response entity
+     */
+    private ResponseEntity<ProductImportResponse> importCatalog(String body, String contentType, String token) {
+        HttpHeaders headers = authHeaders(token);
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        return restTemplate.exchange(
+                "/api/products/import", HttpMethod.POST,
+                new HttpEntity<>(body, headers),
+                ProductImportResponse.class);
+    }
+
+    @Test
+    void changes_pagesThroughChangesAndPicksUpUpdates() {
+        Long firstId = postProduct(buildProductRequest("Widget A", "WDG-001"), supplierToken).getBody().getId();
+        postProduct(buildProductRequest("Widget B", "WDG-002"), supplierToken);
+
+        CursorPage<ProductResponse> firstPage = getChanges(null, 1);
+        CursorPage<ProductResponse> secondPage = getChanges(firstPage.getNextCursor(), 1);
+        CursorPage<ProductResponse> caughtUp = getChanges(secondPage.getNextCursor(), 10);
+
+        assertThat(firstPage.getItems()).extracting(ProductResponse::getSku).containsExactly("WDG-001");
+        assertThat(secondPage.getItems()).extracting(ProductResponse::getSku).containsExactly("WDG-002");
+        assertThat(caughtUp.getItems()).isEmpty();
+        assertThat(caughtUp.getNextCursor()).isEqualTo(secondPage.getNextCursor());
+
+        restTemplate.exchange("/api/products/" + firstId, HttpMethod.PUT,
+                new HttpEntity<>(buildProductRequest("Widget A v2", "WDG-001"), authHeaders(supplierToken)),
+                ProductResponse.class);
+
+        CursorPage<ProductResponse> afterUpdate = getChanges(caughtUp.getNextCursor(), 10);
+        assertThat(afterUpdate.getItems()).extracting(ProductResponse::getName).containsExactly("Widget A v2");
+    }
+
+    @Test
+    void changes_holdBackNewerCommitsUntilAnOlderWriterFinishes() throws Exception {
+        Long slowId = postProduct(buildProductRequest("Widget A", "WDG-001"), supplierToken).getBody().getId();
+        String caughtUp = getChanges(null, 10).getNextCursor();
+
+        try (Connection slowWriter = dataSource.getConnection()) {
+            slowWriter.setAutoCommit(false);
+            try (PreparedStatement update = slowWriter.prepareStatement(
+                    "UPDATE products SET name = 'Widget A v2' WHERE id = ?")) {
+                update.setLong(1, slowId);
+                update.executeUpdate();
+            }
+            postProduct(buildProductRequest("Widget B", "WDG-002"), supplierToken);
+
+            CursorPage<ProductResponse> whileRunning = getChanges(caughtUp, 10);
+            assertThat(whileRunning.getItems()).isEmpty();
+            assertThat(whileRunning.getNextCursor()).isEqualTo(caughtUp);
+
+            slowWriter.commit();
+        }
+
+        assertThat(getChanges(caughtUp, 10).getItems())
+                .extracting(ProductResponse::getName)
+                .containsExactly("Widget A v2", "Widget B");
+    }
+
+    @Test
+    void changes_withInvalidCursor_returns400() {
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/products/changes?cursor=bogus", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(buyerToken)),
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void streamChanges_resumesAfterLastEventId() throws Exception {
+        postProduct(buildProductRequest("Widget A", "WDG-001"), supplierToken);
+        postProduct(buildProductRequest("Widget B", "WDG-002"), supplierToken);
+        String afterFirst = getChanges(null, 1).getNextCursor();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/changes/stream"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + buyerToken)
+                .header("Last-Event-ID", afterFirst)
+                .build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofLines());
+        List<String> dataLines = new ArrayList<>();
+        try (Stream<String> lines = response.body()) {
+            CompletableFuture.runAsync(() -> lines
+                    .filter(line -> line.startsWith("data:"))
+                    .peek(dataLines::add)
+                    .anyMatch(line -> line.contains("WDG-002")))
+                    .get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(dataLines).hasSize(1);
+        assertThat(dataLines.get(0)).contains("WDG-002");
+    }
+
+    /**
+     * Reads one page of the product change feed as the buyer.
+     *
+     * @param cursor the cursor to continue from, or null
+     * @param limit  the page size
+     * @return the page
+     */
+    private CursorPage<ProductResponse> getChanges(String cursor, int limit) {
+        String url = "/api/products/changes?limit=" + limit + (cursor != null ? "&cursor=" + cursor : "");
+        ResponseEntity<CursorPage<ProductResponse>> response = restTemplate.exchange(
+                url, HttpMethod.GET,
+                new HttpEntity<>(authHeaders(buyerToken)),
+                new ParameterizedTypeReference<>() { });
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
     /**
      * Registers a company via the auth endpoint and returns the JWT token.
      *
@@ -230,6 +480,22 @@ class ProductControllerIntegrationTest extends IntegrationTestBase {
                 .build();
     }
 
+    /**
+     * Builds a product request with a specific price and currency.
+     *
+     * @param name     the product name
+     * @param sku      the product SKU
+     * @param price    the base price
+     * @param currency the listing currency
+     * @return the product request
+     */
+    private ProductRequest buildPricedRequest(String name, String sku, String price, Currency currency) {
+        ProductRequest request = buildProductRequest(name, sku);
+        request.setBasePrice(new BigDecimal(price));
+        request.setCurrency(currency);
+        return request;
+    }
+
     /**
      * Posts a product using the given auth token.
      *
@@ -0,0 +1,124 @@
+package com.silentsupply.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silentsupply.common.exception.BusinessRuleException;
+import com.silentsupply.currency.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link ProductImportReader}.
+ */
+class ProductImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void csv_parsesRowsWithQuotedFields() throws IOException {
+        String csv = """
+                name,description,category,sku,unit_of_measure,base_price,available_quantity,currency
+                "Widget, Large","Says ""hi""
+                on two lines",Electronics,WDG-001,piece,29.99,100,eur
+                Gadget,,Hardware,GDG-001,piece,5,0,
+                """;
+
+        List<ProductImportRow> rows = readAll(ProductImportFormat.CSV, csv);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).request().getName()).isEqualTo("Widget, Large");
+        assertThat(rows.get(0).request().getDescription()).isEqualTo("Says \"hi\"\non two lines");
+        assertThat(rows.get(0).request().getBasePrice()).isEqualByComparingTo(new BigDecimal("29.99"));
+        assertThat(rows.get(0).request().getCurrency()).isEqualTo(Currency.EUR);
+        assertThat(rows.get(1).rowNumber()).isEqualTo(2);
+        assertThat(rows.get(1).request().getDescription()).isNull();
+        assertThat(rows.get(1).request().getCurrency()).isNull();
+    }
+
+    @Test
+    void csv_withBadNumber_returnsFailedRow() throws IOException {
+        String csv = """
+                name,category,sku,unitOfMeasure,basePrice,availableQuantity
+                Widget,Electronics,WDG-001,piece,abc,100
+                """;
+
+        List<ProductImportRow> rows = readAll(ProductImportFormat.CSV, csv);
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).request()).isNull();
+        assertThat(rows.get(0).parseError()).contains("basePrice");
+    }
+
+    @Test
+    void csv_withMissingColumns_throwsBusinessRule() {
+        assertThatThrownBy(() -> readAll(ProductImportFormat.CSV, "name,sku\nWidget,WDG-001\n"))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("category");
+    }
+
+    @Test
+    void ndjson_skipsBlankLinesAndReportsMalformedJson() throws IOException {
+        String ndjson = """
+                {"name":"Widget","category":"Electronics","sku":"WDG-001","unitOfMeasure":"piece","basePrice":29.99,"availableQuantity":100}
+
+                {"name":"Broken"
+                """;
+
+        List<ProductImportRow> rows = readAll(ProductImportFormat.NDJSON, ndjson);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).request().getSku()).isEqualTo("WDG-001");
+        assertThat(rows.get(1).rowNumber()).isEqualTo(2);
+        assertThat(rows.get(1).parseError()).startsWith("Malformed JSON");
+    }
+
+    @Test
+    void ndjson_nullLine_returnsFailedRow() throws IOException {
+        List<ProductImportRow> rows = readAll(ProductImportFormat.NDJSON, "null\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).request()).isNull();
+        assertThat(rows.get(0).parseError()).isEqualTo("Row is not a JSON object");
+    }
+
+    @Test
+    void csv_unterminatedQuote_failsRowOnceCapIsReachedAndResumes() throws IOException {
+        String csv = "name,category,sku,unit_of_measure,base_price,available_quantity\n"
+                + "\"Widget," + "x".repeat(ProductImportReader.Csv.MAX_RECORD_CHARS) + "\n"
+                + "Gadget,Hardware,GDG-001,piece,5,1\n";
+
+        List<ProductImportRow> rows = readAll(ProductImportFormat.CSV, csv);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).parseError()).contains("unterminated quote");
+        assertThat(rows.get(1).rowNumber()).isEqualTo(2);
+        assertThat(rows.get(1).request().getSku()).isEqualTo("GDG-001");
+    }
+
+    @Test
+    void fromContentType_ignoresParameters() {
+        assertThat(ProductImportFormat.fromContentType("text/csv; charset=UTF-8"))
+                .isEqualTo(ProductImportFormat.CSV);
+        assertThatThrownBy(() -> ProductImportFormat.fromContentType("application/json"))
+                .isInstanceOf(BusinessRuleException.class);
+    }
+
+    private List<ProductImportRow> readAll(ProductImportFormat format, String content) throws IOException {
+        ProductImportReader reader = ProductImportReader.open(format,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), objectMapper);
+        List<ProductImportRow> rows = new ArrayList<>();
+        ProductImportRow row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -1,10 +1,13 @@
 package com.silentsupply.product;
 
 import com.silentsupply.common.exception.AccessDeniedException;
+import com.silentsupply.common.exception.BusinessRuleException;
 import com.silentsupply.common.exception.ResourceNotFoundException;
 import com.silentsupply.company.Company;
 import com.silentsupply.company.CompanyRepository;
 import com.silentsupply.company.CompanyRole;
+import com.silentsupply.currency.Currency;
+import com.silentsupply.currency.CurrencyService;
 import com.silentsupply.product.dto.ProductRequest;
 import com.silentsupply.product.dto.ProductResponse;
 import com.silentsupply.product.dto.ProductSearchCriteria;
@@ -41,6 +44,12 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private CurrencyService currencyService;
+
+    @Mock
+    private HotInventoryService hotInventoryService;
+
     @InjectMocks
     private ProductService productService;
 
@@ -100,6 +109,8 @@ class ProductServiceTest {
     void create_withValidRequest_savesAndReturnsResponse() {
         when(companyRepository.findById(1L)).thenReturn(Optional.of(supplier));
         when(productMapper.toEntity(request)).thenReturn(product);
+        when(currencyService.normalize(new BigDecimal("29.99"), Currency.USD))
+                .thenReturn(Optional.of(new BigDecimal("29.990000")));
         when(productRepository.save(product)).thenReturn(product);
         when(productMapper.toResponse(product)).thenReturn(response);
 
@@ -107,6 +118,7 @@ class ProductServiceTest {
 
         assertThat(result.getName()).isEqualTo("Widget A");
         assertThat(result.getSupplierId()).isEqualTo(1L);
+        assertThat(product.getNormalizedPrice()).isEqualByComparingTo("29.99");
         verify(productRepository).save(product);
     }
 
@@ -142,6 +154,8 @@ class ProductServiceTest {
     @Test
     void update_byOwningSupplier_updatesAndReturnsResponse() {
         when(productRepository.findById(10L)).thenReturn(Optional.of(product));
+        when(currencyService.normalize(new BigDecimal("29.99"), Currency.USD))
+                .thenReturn(Optional.of(new BigDecimal("29.990000")));
         when(productRepository.save(product)).thenReturn(product);
         when(productMapper.toResponse(product)).thenReturn(response);
 
@@ -149,6 +163,7 @@ class ProductServiceTest {
 
         assertThat(result.getName()).isEqualTo("Widget A");
         verify(productMapper).updateEntity(request, product);
+        verify(hotInventoryService).replaceStock(10L, false);
     }
 
     @Test
@@ -205,4 +220,53 @@ class ProductServiceTest {
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getCategory()).isEqualTo("Electronics");
     }
+
+    @Test
+    void update_withoutRateToBaseCurrency_clearsNormalizedPrice() {
+        product.setCurrency(Currency.JPY);
+        product.setNormalizedPrice(new BigDecimal("0.20"));
+        when(productRepository.findById(10L)).thenReturn(Optional.of(product));
+        when(currencyService.normalize(new BigDecimal("29.99"), Currency.JPY)).thenReturn(Optional.empty());
+        when(productRepository.save(product)).thenReturn(product);
+        when(productMapper.toResponse(product)).thenReturn(response);
+
+        productService.update(10L, 1L, request);
+
+        assertThat(product.getNormalizedPrice()).isNull();
+    }
+
+    @Test
+    void search_withPriceRangeInBuyerCurrency_convertsBoundsToBaseCurrency() {
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder()
+                .minPrice(new BigDecimal("10"))
+                .maxPrice(new BigDecimal("100"))
+                .currency(Currency.EUR)
+                .build();
+
+        when(currencyService.normalize(new BigDecimal("10"), Currency.EUR))
+                .thenReturn(Optional.of(new BigDecimal("10.870000")));
+        when(currencyService.normalize(new BigDecimal("100"), Currency.EUR))
+                .thenReturn(Optional.of(new BigDecimal("108.700000")));
+        when(productRepository.search(null, null, new BigDecimal("10.870000"), new BigDecimal("108.700000"), null))
+                .thenReturn(List.of(product));
+        when(productMapper.toResponse(product)).thenReturn(response);
+
+        List<ProductResponse> result = productService.search(criteria);
+
+        assertThat(result).hasSize(1);
+    }
+
+    @Test
+    void search_withPriceRangeInCurrencyWithoutRate_throwsBusinessRuleException() {
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder()
+                .maxPrice(new BigDecimal("100"))
+                .currency(Currency.AUD)
+                .build();
+
+        when(currencyService.normalize(new BigDecimal("100"), Currency.AUD)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.search(criteria))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("No exchange rate found");
+    }
 }
@@ -11,6 +11,7 @@ import com.silentsupply.product.ProductStatus;
 import com.silentsupply.proposal.dto.ProposalRequest;
 import com.silentsupply.proposal.dto.ProposalResponse;
 import com.silentsupply.rfq.Rfq;
+import com.silentsupply.rfq.RfqExpiryService;
 import com.silentsupply.rfq.RfqRepository;
 import com.silentsupply.rfq.RfqService;
 import com.silentsupply.rfq.RfqStatus;
@@ -31,6 +32,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -54,6 +56,8 @@ class ProposalServiceTest {
     private NegotiationEngine negotiationEngine;
     @Mock
     private NotificationService notificationService;
+    @Mock
+    private RfqExpiryService rfqExpiryService;
 
     @InjectMocks
     private ProposalService proposalService;
@@ -137,6 +141,20 @@ class ProposalServiceTest {
                 .hasMessageContaining("not in a status");
     }
 
+    @Test
+    void createBuyerProposal_pastExpiry_throwsBusinessRuleException() {
+        rfq.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        ProposalRequest request = ProposalRequest.builder()
+                .proposedPrice(new BigDecimal("8.50")).proposedQty(50).deliveryDays(14).build();
+
+        when(rfqService.findRfqOrThrow(100L)).thenReturn(rfq);
+
+        assertThatThrownBy(() -> proposalService.createBuyerProposal(100L, 2L, request))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessageContaining("RFQ expired");
+        verify(proposalRepository, never()).save(any());
+    }
+
     @Test
     void createBuyerProposal_atMaxRounds_throwsBusinessRuleException() {
         rfq.setCurrentRound(3);
@@ -0,0 +1,69 @@
+package com.silentsupply.rfq;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ExpiryTimerWheel}.
+ */
+class ExpiryTimerWheelTest {
+
+    private static final long TICK = 100;
+
+    @Test
+    void advance_firesOnlyOnceDeadlineHasPassed() {
+        ExpiryTimerWheel wheel = new ExpiryTimerWheel(8, TICK, 0);
+        wheel.schedule(1L, 250);
+
+        assertThat(wheel.advance(200)).isEmpty();
+        assertThat(wheel.advance(299)).isEmpty();
+        assertThat(wheel.advance(300)).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_deadlineSeveralRevolutionsAway_waitsForItsRound() {
+        ExpiryTimerWheel wheel = new ExpiryTimerWheel(4, TICK, 0);
+        wheel.schedule(1L, 1_000);
+        wheel.schedule(2L, 200);
+
+        assertThat(wheel.advance(200)).containsExactly(2L);
+        assertThat(wheel.advance(600)).isEmpty();
+        assertThat(wheel.advance(1_000)).containsExactly(1L);
+    }
+
+    @Test
+    void advance_largeJump_collectsEverythingDue() {
+        ExpiryTimerWheel wheel = new ExpiryTimerWheel(4, TICK, 0);
+        for (long id = 1; id <= 20; id++) {
+            wheel.schedule(id, id * 100);
+        }
+
+        assertThat(wheel.advance(1_500)).hasSize(15);
+        assertThat(wheel.size()).isEqualTo(5);
+        assertThat(wheel.advance(10_000)).containsExactlyInAnyOrder(16L, 17L, 18L, 19L, 20L);
+    }
+
+    @Test
+    void schedule_pastDeadline_firesOnNextTick() {
+        ExpiryTimerWheel wheel = new ExpiryTimerWheel(8, TICK, 1_000);
+        wheel.schedule(1L, 10);
+
+        assertThat(wheel.advance(1_050)).isEmpty();
+        assertThat(wheel.advance(1_100)).containsExactly(1L);
+    }
+
+    @Test
+    void scheduleAndCancel_replaceOrRemoveDeadline() {
+        ExpiryTimerWheel wheel = new ExpiryTimerWheel(8, TICK, 0);
+        wheel.schedule(1L, 200);
+        wheel.schedule(1L, 500);
+        wheel.schedule(2L, 300);
+
+        assertThat(wheel.cancel(2L)).isTrue();
+        assertThat(wheel.cancel(2L)).isFalse();
+        assertThat(wheel.advance(400)).isEmpty();
+        assertThat(wheel.advance(500)).containsExactly(1L);
+    }
+}
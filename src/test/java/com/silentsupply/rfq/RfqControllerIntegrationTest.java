@@ -2,7 +2,9 @@ package com.silentsupply.rfq;
 
 import com.silentsupply.company.CompanyRepository;
 import com.silentsupply.company.CompanyRole;
+import com.silentsupply.notification.Notification;
 import com.silentsupply.notification.NotificationRepository;
+import com.silentsupply.notification.NotificationType;
 import com.silentsupply.company.dto.CompanyRequest;
 import com.silentsupply.config.IntegrationTestBase;
 import com.silentsupply.config.dto.AuthResponse;
@@ -11,6 +13,7 @@ import com.silentsupply.product.dto.ProductRequest;
 import com.silentsupply.product.dto.ProductResponse;
 import com.silentsupply.rfq.dto.RfqRequest;
 import com.silentsupply.rfq.dto.RfqResponse;
+import com.silentsupply.rfq.dto.RfqTimelineResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,10 +24,13 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -50,6 +56,12 @@ class RfqControllerIntegrationTest extends IntegrationTestBase {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private RfqExpiryService rfqExpiryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private String supplierToken;
     private String buyerToken;
     private Long productId;
@@ -143,6 +155,86 @@ class RfqControllerIntegrationTest extends IntegrationTestBase {
         assertThat(response.getBody()).hasSize(1);
     }
 
+    @Test
+    void timeline_asSupplier_returnsRfqWithEmptyParts() {
+        Long rfqId = submitRfq();
+
+        ResponseEntity<RfqTimelineResponse> response = restTemplate.exchange(
+                "/api/rfqs/" + rfqId + "/timeline", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(supplierToken)),
+                RfqTimelineResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getRfq().getId()).isEqualTo(rfqId);
+        assertThat(response.getBody().getProposals()).isEmpty();
+        assertThat(response.getBody().getAttachments()).isEmpty();
+        assertThat(response.getBody().getLatestMessages()).isEmpty();
+        assertThat(response.getBody().getConversationId()).isNull();
+    }
+
+    @Test
+    void timeline_asOutsider_returns403() {
+        Long rfqId = submitRfq();
+        String outsiderToken = registerAndGetToken("OtherBuyer", "other@example.com", CompanyRole.BUYER);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/rfqs/" + rfqId + "/timeline", HttpMethod.GET,
+                new HttpEntity<>(authHeaders(outsiderToken)),
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void expirySweep_expiresOnlyOverdueActiveRfqsAndNotifiesBothParties() {
+        Long overdue = submitRfq();
+        Long resolved = submitRfq();
+        Long current = submitRfq();
+        jdbcTemplate.update("UPDATE rfqs SET expires_at = NOW() - INTERVAL '1 minute' WHERE id IN (?, ?)",
+                overdue, resolved);
+        jdbcTemplate.update("UPDATE rfqs SET status = 'ACCEPTED' WHERE id = ?", resolved);
+
+        rfqExpiryService.sweep();
+
+        assertThat(rfqRepository.findById(overdue).orElseThrow().getStatus()).isEqualTo(RfqStatus.EXPIRED);
+        assertThat(rfqRepository.findById(resolved).orElseThrow().getStatus()).isEqualTo(RfqStatus.ACCEPTED);
+        assertThat(rfqRepository.findById(current).orElseThrow().getStatus()).isEqualTo(RfqStatus.SUBMITTED);
+        assertThat(notificationRepository.findAll())
+                .filteredOn(n -> n.getType() == NotificationType.RFQ_EXPIRED)
+                .extracting(Notification::getReferenceId)
+                .containsExactly(overdue, overdue);
+        assertThat(rfqExpiryService.sweep()).isZero();
+    }
+
+    @Test
+    void timerWheel_expiresRfqWithinASecondOfItsDeadline() throws InterruptedException {
+        Long rfqId = submitRfq();
+        LocalDateTime expiresAt = LocalDateTime.now().plusNanos(300_000_000);
+        jdbcTemplate.update("UPDATE rfqs SET expires_at = ? WHERE id = ?", Timestamp.valueOf(expiresAt), rfqId);
+        rfqExpiryService.schedule(rfqId, expiresAt);
+
+        RfqStatus status = RfqStatus.SUBMITTED;
+        while (status != RfqStatus.EXPIRED && LocalDateTime.now().isBefore(expiresAt.plusSeconds(1))) {
+            Thread.sleep(20);
+            status = rfqRepository.findById(rfqId).orElseThrow().getStatus();
+        }
+
+        assertThat(status).isEqualTo(RfqStatus.EXPIRED);
+    }
+
+    /**
+     * Submits an RFQ for the test product as the buyer.
+     *
+     * @return the new RFQ's ID
+     */
+    private Long submitRfq() {
+        RfqRequest request = RfqRequest.builder()
+                .productId(productId).desiredQuantity(50).targetPrice(new BigDecimal("8.00"))
+                .deliveryDeadline(LocalDate.now().plusDays(30)).build();
+        return restTemplate.exchange("/api/rfqs", HttpMethod.POST,
+                new HttpEntity<>(request, authHeaders(buyerToken)), RfqResponse.class).getBody().getId();
+    }
+
     /**
      * Registers a company via the auth endpoint and returns the JWT token.
      *
@@ -21,12 +21,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,6 +46,8 @@ class RfqServiceTest {
     private RfqMapper rfqMapper;
     @Mock
     private NotificationService notificationService;
+    @Mock
+    private RfqExpiryService rfqExpiryService;
 
     @InjectMocks
     private RfqService rfqService;
@@ -94,6 +96,7 @@ class RfqServiceTest {
         assertThat(result.getDesiredQuantity()).isEqualTo(50);
         assertThat(result.getStatus()).isEqualTo(RfqStatus.SUBMITTED);
         verify(rfqRepository).save(any(Rfq.class));
+        verify(rfqExpiryService).schedule(eq(100L), any(LocalDateTime.class));
     }
 
     @Test
@@ -138,23 +141,4 @@ class RfqServiceTest {
         assertThatThrownBy(() -> rfqService.getById(99L))
                 .isInstanceOf(ResourceNotFoundException.class);
     }
-
-    @Test
-    void expireOverdueRfqs_expiresActiveRfqsPastDeadline() {
-        Rfq expiredRfq = Rfq.builder()
-                .buyer(buyer).product(product).supplier(supplier)
-                .desiredQuantity(50).targetPrice(new BigDecimal("8.00"))
-                .deliveryDeadline(LocalDate.of(2026, 3, 1))
-                .status(RfqStatus.SUBMITTED).currentRound(0).maxRounds(3)
-                .expiresAt(LocalDateTime.now().minusDays(1)).build();
-        expiredRfq.setId(100L);
-
-        when(rfqRepository.findByExpiresAtBeforeAndStatusIn(any(), any()))
-                .thenReturn(List.of(expiredRfq));
-
-        int count = rfqService.expireOverdueRfqs();
-
-        assertThat(count).isEqualTo(1);
-        assertThat(expiredRfq.getStatus()).isEqualTo(RfqStatus.EXPIRED);
-    }
 }
@@ -0,0 +1,154 @@
+package com.silentsupply.rfq;
+
+import com.silentsupply.attachment.Attachment;
+import com.silentsupply.attachment.AttachmentEntityType;
+import com.silentsupply.attachment.AttachmentMapper;
+import com.silentsupply.attachment.AttachmentRepository;
+import com.silentsupply.attachment.dto.AttachmentResponse;
+import com.silentsupply.common.exception.AccessDeniedException;
+import com.silentsupply.common.exception.ResourceNotFoundException;
+import com.silentsupply.company.Company;
+import com.silentsupply.company.CompanyRole;
+import com.silentsupply.messaging.ConversationType;
+import com.silentsupply.messaging.Message;
+import com.silentsupply.messaging.MessageMapper;
+import com.silentsupply.messaging.MessageRepository;
+import com.silentsupply.messaging.dto.MessageResponse;
+import com.silentsupply.proposal.Proposal;
+import com.silentsupply.proposal.ProposalMapper;
+import com.silentsupply.proposal.ProposalRepository;
+import com.silentsupply.proposal.dto.ProposalResponse;
+import com.silentsupply.rfq.dto.RfqResponse;
+import com.silentsupply.rfq.dto.RfqTimelineResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RfqTimelineService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class RfqTimelineServiceTest {
+
+    @Mock
+    private RfqRepository rfqRepository;
+    @Mock
+    private RfqMapper rfqMapper;
+    @Mock
+    private ProposalRepository proposalRepository;
+    @Mock
+    private ProposalMapper proposalMapper;
+    @Mock
+    private AttachmentRepository attachmentRepository;
+    @Mock
+    private AttachmentMapper attachmentMapper;
+    @Mock
+    private MessageRepository messageRepository;
+    @Mock
+    private MessageMapper messageMapper;
+
+    private RfqTimelineService timelineService;
+    private Rfq rfq;
+
+    @BeforeEach
+    void setUp() {
+        timelineService = new RfqTimelineService(rfqRepository, rfqMapper, proposalRepository, proposalMapper,
+                attachmentRepository, attachmentMapper, messageRepository, messageMapper,
+                Executors.newSingleThreadExecutor());
+
+        Company supplier = Company.builder().name("SupplierCo").email("s@s.com").password("p").role(CompanyRole.SUPPLIER).build();
+        supplier.setId(1L);
+        Company buyer = Company.builder().name("BuyerCo").email("b@b.com").password("p").role(CompanyRole.BUYER).build();
+        buyer.setId(2L);
+
+        rfq = Rfq.builder()
+                .buyer(buyer).supplier(supplier)
+                .desiredQuantity(50).targetPrice(new BigDecimal("8.00"))
+                .deliveryDeadline(LocalDate.of(2026, 4, 1))
+                .status(RfqStatus.SUBMITTED).currentRound(0).maxRounds(3)
+                .expiresAt(LocalDateTime.now().plusDays(7)).build();
+        rfq.setId(100L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timelineService.shutdown();
+    }
+
+    @Test
+    void getTimeline_asParty_assemblesAllParts() {
+        Proposal proposal = Proposal.builder().rfq(rfq).build();
+        Attachment attachment = Attachment.builder().fileName("spec.pdf").build();
+        Message message = Message.builder().content("Hello").build();
+        RfqResponse rfqResponse = RfqResponse.builder().id(100L).build();
+        ProposalResponse proposalResponse = ProposalResponse.builder().id(7L).build();
+        AttachmentResponse attachmentResponse = AttachmentResponse.builder().id(8L).build();
+        MessageResponse messageResponse = MessageResponse.builder().id(9L).conversationId(55L).content("Hello").build();
+
+        when(rfqRepository.findWithPartiesById(100L)).thenReturn(Optional.of(rfq));
+        when(rfqMapper.toResponse(rfq)).thenReturn(rfqResponse);
+        when(proposalRepository.findByRfqIdOrderByRoundNumberAscIdAsc(100L)).thenReturn(List.of(proposal));
+        when(proposalMapper.toResponse(proposal)).thenReturn(proposalResponse);
+        when(attachmentRepository.findByEntityTypeAndEntityId(AttachmentEntityType.RFQ, 100L))
+                .thenReturn(List.of(attachment));
+        when(attachmentMapper.toResponse(attachment)).thenReturn(attachmentResponse);
+        when(messageRepository.findLatestInScopedConversation(ConversationType.RFQ, 100L,
+                Limit.of(RfqTimelineService.DEFAULT_MESSAGE_COUNT))).thenReturn(List.of(message));
+        when(messageMapper.toResponse(message)).thenReturn(messageResponse);
+
+        RfqTimelineResponse timeline = timelineService.getTimeline(100L, 1L, null);
+
+        assertThat(timeline.getRfq()).isEqualTo(rfqResponse);
+        assertThat(timeline.getProposals()).containsExactly(proposalResponse);
+        assertThat(timeline.getAttachments()).containsExactly(attachmentResponse);
+        assertThat(timeline.getLatestMessages()).containsExactly(messageResponse);
+        assertThat(timeline.getConversationId()).isEqualTo(55L);
+    }
+
+    @Test
+    void getTimeline_capsMessageCount() {
+        when(rfqRepository.findWithPartiesById(100L)).thenReturn(Optional.of(rfq));
+        when(messageRepository.findLatestInScopedConversation(any(), any(), any())).thenReturn(List.of());
+
+        RfqTimelineResponse timeline = timelineService.getTimeline(100L, 2L, 10_000);
+
+        verify(messageRepository).findLatestInScopedConversation(ConversationType.RFQ, 100L,
+                Limit.of(RfqTimelineService.MAX_MESSAGE_COUNT));
+        assertThat(timeline.getConversationId()).isNull();
+    }
+
+    @Test
+    void getTimeline_asOutsider_throwsAccessDenied() {
+        when(rfqRepository.findWithPartiesById(100L)).thenReturn(Optional.of(rfq));
+
+        assertThatThrownBy(() -> timelineService.getTimeline(100L, 3L, null))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(proposalRepository, never()).findByRfqIdOrderByRoundNumberAscIdAsc(any());
+    }
+
+    @Test
+    void getTimeline_withNonExistentRfq_throwsNotFound() {
+        when(rfqRepository.findWithPartiesById(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> timelineService.getTimeline(999L, 1L, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}